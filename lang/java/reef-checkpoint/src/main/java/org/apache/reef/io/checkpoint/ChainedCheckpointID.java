@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint;
+
+import org.apache.hadoop.io.Text;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Identifies an incremental checkpoint: a full checkpoint followed by the delta checkpoints
+ * written on top of it, each identified by the CheckpointID of the underlying CheckpointService.
+ */
+public final class ChainedCheckpointID implements CheckpointID {
+
+  private List<CheckpointID> chain;
+
+  public ChainedCheckpointID() {
+  }
+
+  public ChainedCheckpointID(final List<CheckpointID> chain) {
+    this.chain = Collections.unmodifiableList(new ArrayList<>(chain));
+  }
+
+  /**
+   * @return the IDs of the full checkpoint and the deltas on top of it, in the order they were written
+   */
+  public List<CheckpointID> getChain() {
+    return chain;
+  }
+
+  @Override
+  public String toString() {
+    return chain.toString();
+  }
+
+  @Override
+  public void write(final DataOutput out) throws IOException {
+    out.writeInt(chain.size());
+    for (final CheckpointID id : chain) {
+      Text.writeString(out, id.getClass().getName());
+      id.write(out);
+    }
+  }
+
+  @Override
+  public void readFields(final DataInput in) throws IOException {
+    final int length = in.readInt();
+    final List<CheckpointID> ids = new ArrayList<>(length);
+    for (int i = 0; i < length; i++) {
+      final String className = Text.readString(in);
+      final CheckpointID id;
+      try {
+        id = (CheckpointID) Class.forName(className).newInstance();
+      } catch (final ClassNotFoundException | InstantiationException | IllegalAccessException e) {
+        throw new IOException("Cannot instantiate checkpoint ID " + className, e);
+      }
+      id.readFields(in);
+      ids.add(id);
+    }
+    this.chain = Collections.unmodifiableList(ids);
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    return other instanceof ChainedCheckpointID
+        && chain.equals(((ChainedCheckpointID) other).chain);
+  }
+
+  @Override
+  public int hashCode() {
+    return chain.hashCode();
+  }
+
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Takes incremental checkpoints of key/value state in the background.
+ * <p>
+ * The state is given as entries of encoded values, and only the entries changed since the
+ * last checkpoint are written. {@link #checkpoint()} copies the changed entries and returns at once;
+ * a background thread writes them through the {@link CheckpointService} as a delta checkpoint on top
+ * of the previous one. The first checkpoint, and every one after {@link MaxDeltaChainLength} deltas,
+ * is compacted instead: the whole state, which the writer thread keeps in memory, is written as a
+ * full checkpoint, so restoring never reads more than a bounded number of checkpoints.
+ * Checkpoints are written one at a time, in the order they were taken. If writing one fails,
+ * its entries are written with the next checkpoint instead.
+ * <p>
+ * The checkpoints of a chain are not deleted when a compacted checkpoint supersedes them,
+ * as the IDs returned earlier may still be used to restore. They can be deleted through the
+ * CheckpointService with the IDs in {@link ChainedCheckpointID#getChain()}.
+ */
+public final class IncrementalCheckpointer implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(IncrementalCheckpointer.class.getName());
+
+  private final CheckpointService checkpointService;
+  private final int maxDeltaChainLength;
+  private final ExecutorService writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, IncrementalCheckpointer.class.getSimpleName());
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  /**
+   * Entries changed since the last checkpoint was taken. A null value marks a removed entry.
+   */
+  private final Map<String, byte[]> changes = new HashMap<>();
+
+  /**
+   * Checkpoints the next delta is written on top of. Only used by the writer thread.
+   */
+  private List<CheckpointID> chain = new ArrayList<>();
+
+  /**
+   * State as of the last checkpoint written. Only used by the writer thread.
+   */
+  private Map<String, byte[]> state = new HashMap<>();
+
+  /**
+   * Changes of checkpoints that failed to be written, to be written with the next one.
+   * Only used by the writer thread.
+   */
+  private Map<String, byte[]> unwritten = new HashMap<>();
+
+  @Inject
+  public IncrementalCheckpointer(final CheckpointService checkpointService,
+                                 @Parameter(MaxDeltaChainLength.class) final int maxDeltaChainLength) {
+    this.checkpointService = checkpointService;
+    this.maxDeltaChainLength = maxDeltaChainLength;
+  }
+
+  /**
+   * Sets an entry of the state. The value is copied when the next checkpoint is taken,
+   * so the array can be changed until then.
+   *
+   * @param key   key of the entry
+   * @param value encoded value of the entry
+   */
+  public void put(final String key, final byte[] value) {
+    if (value == null) {
+      throw new IllegalArgumentException("Null value for " + key);
+    }
+    synchronized (changes) {
+      changes.put(key, value);
+    }
+  }
+
+  /**
+   * Removes an entry from the state.
+   *
+   * @param key key of the entry
+   */
+  public void remove(final String key) {
+    synchronized (changes) {
+      changes.put(key, null);
+    }
+  }
+
+  /**
+   * Takes a checkpoint of the state. The changed entries are copied before this method returns,
+   * and written in the background.
+   *
+   * @return the ID of the checkpoint once it is committed, which is a {@link ChainedCheckpointID}
+   */
+  public Future<CheckpointID> checkpoint() {
+    final Map<String, byte[]> snapshot = new HashMap<>();
+    synchronized (changes) {
+      for (final Map.Entry<String, byte[]> entry : changes.entrySet()) {
+        snapshot.put(entry.getKey(), entry.getValue() == null ? null : entry.getValue().clone());
+      }
+      changes.clear();
+    }
+    return writer.submit(new Callable<CheckpointID>() {
+      @Override
+      @SuppressWarnings("checkstyle:illegalcatch")
+      public CheckpointID call() throws IOException, InterruptedException {
+        // the changes of earlier checkpoints that failed go first, so that the newer values win
+        final Map<String, byte[]> pending = unwritten;
+        pending.putAll(snapshot);
+        unwritten = new HashMap<>();
+        try {
+          return write(pending);
+        } catch (final IOException | InterruptedException | RuntimeException e) {
+          unwritten = pending;
+          throw e;
+        }
+      }
+    });
+  }
+
+  /**
+   * Reads the state of a checkpoint. The next checkpoint taken is written on top of it,
+   * and contains the entries set since it was taken, so that a restarted task continues the chain.
+   *
+   * @param checkpointId a checkpoint taken by an IncrementalCheckpointer
+   * @return the entries of the state
+   */
+  public Map<String, byte[]> restore(final CheckpointID checkpointId) throws IOException, InterruptedException {
+    if (!(checkpointId instanceof ChainedCheckpointID)) {
+      throw new IllegalArgumentException("Mismatched checkpoint type: " + checkpointId.getClass());
+    }
+    final List<CheckpointID> restored = ((ChainedCheckpointID) checkpointId).getChain();
+    final Map<String, byte[]> entries = read(restored);
+    try {
+      writer.submit(new Runnable() {
+        @Override
+        public void run() {
+          chain = new ArrayList<>(restored);
+          // copied, as the caller may change the arrays returned
+          state = new HashMap<>();
+          for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            state.put(entry.getKey(), entry.getValue().clone());
+          }
+        }
+      }).get();
+    } catch (final ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    }
+    return entries;
+  }
+
+  /**
+   * Waits for the checkpoints taken to be written, and stops the writer thread.
+   * If interrupted while waiting, returns with the interrupt flag set.
+   */
+  @Override
+  public void close() {
+    writer.shutdown();
+    try {
+      writer.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch (final InterruptedException e) {
+      LOG.log(Level.WARNING, "Interrupted while waiting for the checkpoints to be written", e);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private CheckpointID write(final Map<String, byte[]> snapshot) throws IOException, InterruptedException {
+    final boolean compact = chain.isEmpty() || chain.size() > maxDeltaChainLength;
+    final Map<String, byte[]> entries;
+    if (compact) {
+      entries = new HashMap<>(state);
+      apply(entries, snapshot);
+    } else {
+      entries = snapshot;
+    }
+
+    final CheckpointService.CheckpointWriteChannel channel = checkpointService.create();
+    try (final DataOutputStream out =
+             new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+      out.writeInt(entries.size());
+      for (final Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        out.writeUTF(entry.getKey());
+        if (entry.getValue() == null) {
+          out.writeInt(-1);
+        } else {
+          out.writeInt(entry.getValue().length);
+          out.write(entry.getValue());
+        }
+      }
+    } catch (final IOException e) {
+      checkpointService.abort(channel);
+      throw e;
+    }
+    final CheckpointID id = checkpointService.commit(channel);
+
+    if (compact) {
+      chain = new ArrayList<>();
+      state = entries;
+    } else {
+      apply(state, snapshot);
+    }
+    chain.add(id);
+    LOG.log(Level.FINE, "Wrote {0} checkpoint {1} with {2} entries",
+        new Object[]{compact ? "full" : "delta", id, entries.size()});
+    return new ChainedCheckpointID(chain);
+  }
+
+  /**
+   * Reads a full checkpoint and applies the deltas on top of it.
+   */
+  private Map<String, byte[]> read(final List<CheckpointID> ids) throws IOException, InterruptedException {
+    final Map<String, byte[]> restored = new HashMap<>();
+    for (final CheckpointID id : ids) {
+      try (final DataInputStream in =
+               new DataInputStream(new BufferedInputStream(Channels.newInputStream(checkpointService.open(id))))) {
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+          final String key = in.readUTF();
+          final int length = in.readInt();
+          if (length < 0) {
+            restored.remove(key);
+          } else {
+            final byte[] value = new byte[length];
+            in.readFully(value);
+            restored.put(key, value);
+          }
+        }
+      }
+    }
+    return restored;
+  }
+
+  /**
+   * Applies changes to a state; a null value removes the entry.
+   */
+  private static void apply(final Map<String, byte[]> target, final Map<String, byte[]> changed) {
+    for (final Map.Entry<String, byte[]> entry : changed.entrySet()) {
+      if (entry.getValue() == null) {
+        target.remove(entry.getKey());
+      } else {
+        target.put(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * Number of delta checkpoints written on top of a full one before the state is compacted.
+   */
+  @NamedParameter(doc = "Number of delta checkpoints written on top of a full one before the state is compacted.",
+      default_value = "8")
+  public static final class MaxDeltaChainLength implements Name<Integer> {
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.Text;
+import org.apache.reef.io.checkpoint.CheckpointID;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A checkpoint ID of the TieredCheckpointService. It contains the Path of the checkpoint
+ * on the local tier, where it is written first, and the Path it is promoted to on the durable tier.
+ */
+public class TieredCheckpointID implements CheckpointID {
+
+  private Path localPath;
+  private Path durablePath;
+
+  public TieredCheckpointID() {
+  }
+
+  public TieredCheckpointID(final Path localPath, final Path durablePath) {
+    this.localPath = localPath;
+    this.durablePath = durablePath;
+  }
+
+  public Path getLocalPath() {
+    return localPath;
+  }
+
+  public Path getDurablePath() {
+    return durablePath;
+  }
+
+  @Override
+  public String toString() {
+    return localPath + " -> " + durablePath;
+  }
+
+  @Override
+  public void write(final DataOutput out) throws IOException {
+    Text.writeString(out, localPath.toString());
+    Text.writeString(out, durablePath.toString());
+  }
+
+  @Override
+  public void readFields(final DataInput in) throws IOException {
+    this.localPath = new Path(Text.readString(in));
+    this.durablePath = new Path(Text.readString(in));
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    return other instanceof TieredCheckpointID
+        && localPath.equals(((TieredCheckpointID) other).localPath)
+        && durablePath.equals(((TieredCheckpointID) other).durablePath);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * localPath.hashCode() + durablePath.hashCode();
+  }
+
+}
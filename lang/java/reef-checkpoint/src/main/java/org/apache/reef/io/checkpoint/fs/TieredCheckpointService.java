@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointNamingService;
+import org.apache.reef.io.checkpoint.CheckpointService;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A CheckpointService that commits checkpoints to a fast local tier, and promotes them to a
+ * durable FileSystem in the background.
+ * <p>
+ * The local tier is a path on the local file system, without replication; a path on a RAM disk
+ * makes it an in-memory tier. A checkpoint is committed once it is on the local tier, and then
+ * copied to the durable tier with the configured replication. Restores read from the local tier
+ * if the checkpoint is there, as on the evaluator that wrote it, and from the durable tier otherwise.
+ * A checkpoint is lost if its evaluator fails before the promotion is done; use
+ * {@link #awaitPromotion(CheckpointID)} where that matters, and {@link #close()} to wait for all of them.
+ */
+public class TieredCheckpointService implements CheckpointService, AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(TieredCheckpointService.class.getName());
+
+  private final FileSystem localFs;
+  private final Path localBase;
+  private final FileSystem durableFs;
+  private final Path durableBase;
+  private final CheckpointNamingService namingPolicy;
+  private final FSCheckpointService localTier;
+  private final FSCheckpointService durableTier;
+  private final ConcurrentMap<TieredCheckpointID, Future<Void>> promotions = new ConcurrentHashMap<>();
+  private final ExecutorService promoter = Executors.newSingleThreadExecutor(new ThreadFactory() {
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = new Thread(runnable, TieredCheckpointService.class.getSimpleName());
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
+  @Inject
+  TieredCheckpointService(final FileSystem fs,
+                          @Parameter(FSCheckpointService.PATH.class) final String basePath,
+                          @Parameter(LocalPath.class) final String localPath,
+                          final CheckpointNamingService namingPolicy,
+                          @Parameter(FSCheckpointService.ReplicationFactor.class) final short replication) {
+    this(getLocal(fs), new Path(localPath), fs, new Path(basePath), namingPolicy, replication);
+  }
+
+  public TieredCheckpointService(final FileSystem localFs,
+                                 final Path localBase,
+                                 final FileSystem durableFs,
+                                 final Path durableBase,
+                                 final CheckpointNamingService namingPolicy,
+                                 final short replication) {
+    this.localFs = localFs;
+    this.localBase = localBase;
+    this.durableFs = durableFs;
+    this.durableBase = durableBase;
+    this.namingPolicy = namingPolicy;
+    this.localTier = new FSCheckpointService(localFs, localBase, namingPolicy, (short) 1);
+    this.durableTier = new FSCheckpointService(durableFs, durableBase, namingPolicy, replication);
+  }
+
+  private static FileSystem getLocal(final FileSystem fs) {
+    try {
+      return FileSystem.getLocal(fs.getConf());
+    } catch (final IOException ex) {
+      throw new RuntimeException("Unable to create the local FileSystem instance.", ex);
+    }
+  }
+
+  @Override
+  public CheckpointWriteChannel create() throws IOException {
+    final Path p = new Path(namingPolicy.getNewName());
+    if (p.isUriPathAbsolute()) {
+      throw new IOException("Checkpoint cannot be an absolute path");
+    }
+    return localTier.createInternal(new Path(localBase, p));
+  }
+
+  @Override
+  public CheckpointID commit(final CheckpointWriteChannel ch) throws IOException, InterruptedException {
+    final Path localPath = ((FSCheckpointID) localTier.commit(ch)).getPath();
+    final TieredCheckpointID id = new TieredCheckpointID(localPath, new Path(durableBase, getName(localPath)));
+
+    final FutureTask<Void> promotion = new FutureTask<Void>(new Callable<Void>() {
+      @Override
+      public Void call() throws IOException, InterruptedException {
+        promote(id);
+        return null;
+      }
+    }) {
+      @Override
+      protected void done() {
+        promotions.remove(id, this);
+      }
+    };
+    promotions.put(id, promotion);
+    promoter.execute(promotion);
+    return id;
+  }
+
+  @Override
+  public void abort(final CheckpointWriteChannel ch) throws IOException {
+    localTier.abort(ch);
+  }
+
+  @Override
+  public CheckpointReadChannel open(final CheckpointID id) throws IOException, InterruptedException {
+    final TieredCheckpointID tid = checkType(id);
+    if (localFs.exists(tid.getLocalPath())) {
+      try {
+        return localTier.open(new FSCheckpointID(tid.getLocalPath()));
+      } catch (final FileNotFoundException ignored) {
+        // deleted from the local tier in the meantime
+      }
+    }
+    return durableTier.open(new FSCheckpointID(tid.getDurablePath()));
+  }
+
+  @Override
+  public boolean delete(final CheckpointID id) throws IOException, InterruptedException {
+    final TieredCheckpointID tid = checkType(id);
+    final Future<Void> promotion = promotions.get(tid);
+    if (promotion != null && !promotion.cancel(false)) {
+      try {
+        promotion.get();
+      } catch (final ExecutionException ignored) {
+        // nothing to delete on the durable tier
+      }
+    }
+    // a checkpoint may be on one tier only, e.g. when deleted from another evaluator
+    final boolean deletedLocal = localTier.delete(new FSCheckpointID(tid.getLocalPath()))
+        || !localFs.exists(tid.getLocalPath());
+    final boolean deletedDurable = durableTier.delete(new FSCheckpointID(tid.getDurablePath()))
+        || !durableFs.exists(tid.getDurablePath());
+    return deletedLocal && deletedDurable;
+  }
+
+  /**
+   * Waits until a checkpoint is on the durable tier.
+   *
+   * @param id a checkpoint committed by this service
+   * @throws IOException if the checkpoint could not be promoted
+   */
+  public void awaitPromotion(final CheckpointID id) throws IOException, InterruptedException {
+    final Future<Void> promotion = promotions.get(checkType(id));
+    if (promotion != null) {
+      try {
+        promotion.get();
+      } catch (final ExecutionException e) {
+        throw new IOException("Failed to promote checkpoint " + id, e.getCause());
+      } catch (final CancellationException ignored) {
+        // the checkpoint was deleted
+      }
+    }
+  }
+
+  /**
+   * Waits for the pending promotions, and stops the promoter thread.
+   * If interrupted while waiting, returns with the interrupt flag set.
+   */
+  @Override
+  public void close() {
+    promoter.shutdown();
+    try {
+      promoter.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    } catch (final InterruptedException e) {
+      LOG.log(Level.WARNING, "Interrupted while waiting for the checkpoints to be promoted", e);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Gets the name of a checkpoint on the local tier, which is its path relative to the local base.
+   * Both paths are qualified first, as the local base may be given without a scheme or as a relative path.
+   */
+  private String getName(final Path localPath) throws IOException {
+    final Path base = localFs.makeQualified(localBase);
+    final Path path = localFs.makeQualified(localPath);
+    final String name = base.toUri().relativize(path.toUri()).getPath();
+    if (name.isEmpty() || new Path(name).isUriPathAbsolute()) {
+      throw new IOException("Checkpoint " + localPath + " is not under " + localBase);
+    }
+    return name;
+  }
+
+  /**
+   * Copies a checkpoint from the local tier to the durable tier.
+   */
+  private void promote(final TieredCheckpointID id) throws IOException, InterruptedException {
+    final CheckpointWriteChannel out = durableTier.createInternal(id.getDurablePath());
+    try (final CheckpointReadChannel in = localTier.open(new FSCheckpointID(id.getLocalPath()))) {
+      final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+      while (in.read(buffer) >= 0) {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+          out.write(buffer);
+        }
+        buffer.clear();
+      }
+    } catch (final IOException e) {
+      durableTier.abort(out);
+      LOG.log(Level.WARNING, "Failed to promote checkpoint " + id, e);
+      throw e;
+    }
+    durableTier.commit(out);
+    LOG.log(Level.FINE, "Promoted checkpoint {0}", id);
+  }
+
+  private static TieredCheckpointID checkType(final CheckpointID id) {
+    if (!(id instanceof TieredCheckpointID)) {
+      throw new IllegalArgumentException(
+          "Mismatched checkpoint type: " + id.getClass());
+    }
+    return (TieredCheckpointID) id;
+  }
+
+  @NamedParameter(doc = "The local path to write the checkpoints to before they are promoted to the durable path.")
+  static class LocalPath implements Name<String> {
+  }
+}
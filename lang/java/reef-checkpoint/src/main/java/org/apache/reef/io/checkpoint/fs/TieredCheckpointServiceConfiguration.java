@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Public;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointNamingService;
+import org.apache.reef.io.checkpoint.CheckpointService;
+import org.apache.reef.io.checkpoint.RandomNameCNS;
+import org.apache.reef.tang.formats.ConfigurationModule;
+import org.apache.reef.tang.formats.ConfigurationModuleBuilder;
+import org.apache.reef.tang.formats.OptionalParameter;
+import org.apache.reef.tang.formats.RequiredParameter;
+
+/**
+ * ConfigurationModule for the TieredCheckpointService.
+ * This can be used to create Evaluator-side configurations of the checkpointing service.
+ */
+@DriverSide
+@Public
+public class TieredCheckpointServiceConfiguration extends ConfigurationModuleBuilder {
+
+  /**
+   * Use local file system as the durable tier if true; otherwise, use HDFS.
+   */
+  public static final RequiredParameter<Boolean> IS_LOCAL = new RequiredParameter<>();
+
+  /**
+   * Path to be used to store the checkpoints on the durable file system.
+   */
+  public static final RequiredParameter<String> PATH = new RequiredParameter<>();
+
+  /**
+   * Path on the local file system to write the checkpoints to first.
+   */
+  public static final RequiredParameter<String> LOCAL_PATH = new RequiredParameter<>();
+
+  /**
+   * Replication factor to be used for the checkpoints on the durable file system.
+   */
+  public static final OptionalParameter<Short> REPLICATION_FACTOR = new OptionalParameter<>();
+
+  /**
+   * Prefix for checkpoint files (optional).
+   */
+  public static final OptionalParameter<String> PREFIX = new OptionalParameter<>();
+  public static final ConfigurationModule CONF = new TieredCheckpointServiceConfiguration()
+      .bindImplementation(CheckpointService.class, TieredCheckpointService.class)
+      .bindImplementation(CheckpointNamingService.class, RandomNameCNS.class)
+      .bindImplementation(CheckpointID.class, TieredCheckpointID.class)
+      .bindConstructor(FileSystem.class, FSCheckPointServiceConfiguration.FileSystemConstructor.class)
+      .bindNamedParameter(FSCheckPointServiceConfiguration.FileSystemConstructor.IsLocal.class, IS_LOCAL)
+      .bindNamedParameter(FSCheckpointService.PATH.class, PATH)
+      .bindNamedParameter(TieredCheckpointService.LocalPath.class, LOCAL_PATH)
+      .bindNamedParameter(FSCheckpointService.ReplicationFactor.class, REPLICATION_FACTOR)
+      .bindNamedParameter(RandomNameCNS.PREFIX.class, PREFIX)
+      .build();
+}
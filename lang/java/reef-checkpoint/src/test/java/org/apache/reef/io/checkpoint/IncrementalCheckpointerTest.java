@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Tests for {@link IncrementalCheckpointer}.
+ */
+public final class IncrementalCheckpointerTest {
+
+  @Test
+  public void testDeltaCheckpoints() throws Exception {
+    final MemoryCheckpointService service = new MemoryCheckpointService();
+    try (final IncrementalCheckpointer checkpointer = new IncrementalCheckpointer(service, 8)) {
+      checkpointer.put("a", bytes("1"));
+      checkpointer.put("b", bytes("2"));
+      final ChainedCheckpointID first = (ChainedCheckpointID) checkpointer.checkpoint().get();
+
+      checkpointer.put("c", bytes("3"));
+      checkpointer.remove("a");
+      final ChainedCheckpointID second = (ChainedCheckpointID) checkpointer.checkpoint().get();
+
+      Assert.assertEquals(1, first.getChain().size());
+      Assert.assertEquals(first.getChain(), second.getChain().subList(0, 1));
+      Assert.assertEquals(2, second.getChain().size());
+      // the delta holds the added and the removed entry only
+      Assert.assertEquals(2, entryCount(service, second.getChain().get(1)));
+
+      assertState(expected("b", "2", "c", "3"), checkpointer.restore(second));
+      assertState(expected("a", "1", "b", "2"), checkpointer.restore(first));
+    }
+  }
+
+  @Test
+  public void testChainCompaction() throws Exception {
+    final MemoryCheckpointService service = new MemoryCheckpointService();
+    final Map<String, String> state = new HashMap<>();
+    final List<Integer> chainLengths = new ArrayList<>();
+    ChainedCheckpointID last = null;
+    try (final IncrementalCheckpointer checkpointer = new IncrementalCheckpointer(service, 2)) {
+      for (int i = 0; i < 7; i++) {
+        checkpointer.put("key" + i, bytes("value" + i));
+        state.put("key" + i, "value" + i);
+        if (i > 0) {
+          checkpointer.remove("key" + (i - 1));
+          state.remove("key" + (i - 1));
+        }
+        last = (ChainedCheckpointID) checkpointer.checkpoint().get();
+        chainLengths.add(last.getChain().size());
+      }
+      Assert.assertEquals(Arrays.asList(1, 2, 3, 1, 2, 3, 1), chainLengths);
+      // compacted from the state in memory, without reading the chain back
+      Assert.assertEquals(0, service.getOpened());
+      Assert.assertEquals(1, entryCount(service, last.getChain().get(0)));
+      assertState(state, checkpointer.restore(last));
+    }
+  }
+
+  @Test
+  public void testRestoreFromIntermediateCheckpoint() throws Exception {
+    final MemoryCheckpointService service = new MemoryCheckpointService();
+    final ChainedCheckpointID intermediate;
+    try (final IncrementalCheckpointer checkpointer = new IncrementalCheckpointer(service, 8)) {
+      checkpointer.put("a", bytes("1"));
+      checkpointer.checkpoint().get();
+      checkpointer.put("b", bytes("2"));
+      intermediate = (ChainedCheckpointID) checkpointer.checkpoint().get();
+      checkpointer.put("c", bytes("3"));
+      checkpointer.checkpoint().get();
+    }
+
+    // a restarted task continues from an ID it got back through serialization
+    final ChainedCheckpointID restoredId = new ChainedCheckpointID();
+    final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+    intermediate.write(new DataOutputStream(serialized));
+    restoredId.readFields(new DataInputStream(new ByteArrayInputStream(serialized.toByteArray())));
+    Assert.assertEquals(intermediate, restoredId);
+
+    try (final IncrementalCheckpointer checkpointer = new IncrementalCheckpointer(service, 8)) {
+      assertState(expected("a", "1", "b", "2"), checkpointer.restore(restoredId));
+      checkpointer.put("d", bytes("4"));
+      final ChainedCheckpointID next = (ChainedCheckpointID) checkpointer.checkpoint().get();
+      Assert.assertEquals(intermediate.getChain(), next.getChain().subList(0, 2));
+      Assert.assertEquals(3, next.getChain().size());
+      assertState(expected("a", "1", "b", "2", "d", "4"), checkpointer.restore(next));
+    }
+  }
+
+  @Test
+  public void testFailedCheckpointWrittenWithNext() throws Exception {
+    final CountDownLatch gate = new CountDownLatch(1);
+    final MemoryCheckpointService service = new MemoryCheckpointService(gate);
+    service.failCreate(2);
+    try (final IncrementalCheckpointer checkpointer = new IncrementalCheckpointer(service, 8)) {
+      // all three checkpoints are taken before the first one is written
+      checkpointer.put("a", bytes("1"));
+      final Future<CheckpointID> first = checkpointer.checkpoint();
+      checkpointer.put("b", bytes("2"));
+      checkpointer.put("c", bytes("3"));
+      final Future<CheckpointID> failed = checkpointer.checkpoint();
+      checkpointer.put("c", bytes("4"));
+      checkpointer.put("d", bytes("5"));
+      final Future<CheckpointID> next = checkpointer.checkpoint();
+      gate.countDown();
+
+      Assert.assertEquals(1, ((ChainedCheckpointID) first.get()).getChain().size());
+      try {
+        failed.get();
+        Assert.fail("The second checkpoint must fail");
+      } catch (final ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof IOException);
+      }
+      final ChainedCheckpointID nextId = (ChainedCheckpointID) next.get();
+      Assert.assertEquals(2, nextId.getChain().size());
+      assertState(expected("a", "1", "b", "2", "c", "4", "d", "5"), checkpointer.restore(nextId));
+    }
+  }
+
+  @Test
+  public void testCloseKeepsInterrupt() throws Exception {
+    final CountDownLatch gate = new CountDownLatch(1);
+    final IncrementalCheckpointer checkpointer = new IncrementalCheckpointer(new MemoryCheckpointService(gate), 8);
+    checkpointer.put("a", bytes("1"));
+    final Future<CheckpointID> pending = checkpointer.checkpoint();
+
+    Thread.currentThread().interrupt();
+    checkpointer.close();
+    Assert.assertTrue("close() must restore the interrupt flag", Thread.interrupted());
+
+    gate.countDown();
+    Assert.assertEquals(1, ((ChainedCheckpointID) pending.get()).getChain().size());
+  }
+
+  private static byte[] bytes(final String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, String> expected(final String... keysAndValues) {
+    final Map<String, String> state = new HashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      state.put(keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return state;
+  }
+
+  private static void assertState(final Map<String, String> expected, final Map<String, byte[]> actual) {
+    final Map<String, String> decoded = new HashMap<>();
+    for (final Map.Entry<String, byte[]> entry : actual.entrySet()) {
+      decoded.put(entry.getKey(), new String(entry.getValue(), StandardCharsets.UTF_8));
+    }
+    Assert.assertEquals(expected, decoded);
+  }
+
+  /**
+   * @return the number of entries written in one checkpoint of the chain
+   */
+  private static int entryCount(final MemoryCheckpointService service, final CheckpointID id) throws IOException {
+    return new DataInputStream(new ByteArrayInputStream(service.getBytes(id))).readInt();
+  }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A CheckpointService that keeps the checkpoints in memory and counts how often they are read.
+ */
+final class MemoryCheckpointService implements CheckpointService {
+
+  private final Map<Long, byte[]> checkpoints = new ConcurrentHashMap<>();
+  private final AtomicLong lastId = new AtomicLong();
+  private final AtomicInteger opened = new AtomicInteger();
+  private final AtomicInteger created = new AtomicInteger();
+  private final CountDownLatch createGate;
+  private volatile int failingCreate = 0;
+
+  MemoryCheckpointService() {
+    this(new CountDownLatch(0));
+  }
+
+  /**
+   * @param createGate create() waits for it, so that tests can hold the writer of a checkpoint
+   */
+  MemoryCheckpointService(final CountDownLatch createGate) {
+    this.createGate = createGate;
+  }
+
+  @Override
+  public CheckpointWriteChannel create() throws IOException, InterruptedException {
+    createGate.await();
+    if (created.incrementAndGet() == failingCreate) {
+      throw new IOException("Failing checkpoint " + failingCreate);
+    }
+    return new MemoryWriteChannel();
+  }
+
+  /**
+   * @param n the call of create(), counting from 1, that throws an IOException
+   */
+  void failCreate(final int n) {
+    failingCreate = n;
+  }
+
+  @Override
+  public CheckpointID commit(final CheckpointWriteChannel channel) throws IOException {
+    if (channel.isOpen()) {
+      channel.close();
+    }
+    final MemoryCheckpointID id = new MemoryCheckpointID(lastId.incrementAndGet());
+    checkpoints.put(id.id, ((MemoryWriteChannel) channel).bytes.toByteArray());
+    return id;
+  }
+
+  @Override
+  public void abort(final CheckpointWriteChannel channel) throws IOException {
+    if (channel.isOpen()) {
+      channel.close();
+    }
+  }
+
+  @Override
+  public CheckpointReadChannel open(final CheckpointID checkpointId) throws IOException {
+    final byte[] bytes = checkpoints.get(((MemoryCheckpointID) checkpointId).id);
+    if (bytes == null) {
+      throw new IOException("No checkpoint " + checkpointId);
+    }
+    opened.incrementAndGet();
+    return new MemoryReadChannel(bytes);
+  }
+
+  @Override
+  public boolean delete(final CheckpointID checkpointId) {
+    return checkpoints.remove(((MemoryCheckpointID) checkpointId).id) != null;
+  }
+
+  /**
+   * @return the bytes of a checkpoint
+   */
+  byte[] getBytes(final CheckpointID checkpointId) {
+    return checkpoints.get(((MemoryCheckpointID) checkpointId).id);
+  }
+
+  /**
+   * @return how often checkpoints were opened for reading
+   */
+  int getOpened() {
+    return opened.get();
+  }
+
+  /**
+   * ID of a checkpoint in memory.
+   */
+  static final class MemoryCheckpointID implements CheckpointID {
+    private long id;
+
+    MemoryCheckpointID() {
+    }
+
+    MemoryCheckpointID(final long id) {
+      this.id = id;
+    }
+
+    @Override
+    public void write(final DataOutput out) throws IOException {
+      out.writeLong(id);
+    }
+
+    @Override
+    public void readFields(final DataInput in) throws IOException {
+      id = in.readLong();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof MemoryCheckpointID && id == ((MemoryCheckpointID) other).id;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.valueOf(id).hashCode();
+    }
+
+    @Override
+    public String toString() {
+      return "memory:" + id;
+    }
+  }
+
+  private static final class MemoryWriteChannel implements CheckpointWriteChannel {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final WritableByteChannel out = Channels.newChannel(bytes);
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+      return out.write(src);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return out.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+
+  private static final class MemoryReadChannel implements CheckpointReadChannel {
+    private final ReadableByteChannel in;
+
+    MemoryReadChannel(final byte[] bytes) {
+      this.in = Channels.newChannel(new ByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public int read(final ByteBuffer dst) throws IOException {
+      return in.read(dst);
+    }
+
+    @Override
+    public boolean isOpen() {
+      return in.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.checkpoint.fs;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.reef.io.checkpoint.CheckpointID;
+import org.apache.reef.io.checkpoint.CheckpointService;
+import org.apache.reef.io.checkpoint.RandomNameCNS;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for {@link TieredCheckpointService}, with both tiers on the local file system.
+ */
+public final class TieredCheckpointServiceTest {
+
+  private static final String CONTENT = "checkpoint content";
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private FileSystem fs;
+  private Path localBase;
+  private Path durableBase;
+  private TieredCheckpointService service;
+
+  @Before
+  public void setUp() throws IOException {
+    fs = FileSystem.getLocal(new Configuration());
+    // the local base with a scheme and the durable base without, as the paths may be configured
+    localBase = new Path(folder.newFolder("local").toURI());
+    durableBase = new Path(folder.newFolder("durable").getAbsolutePath());
+    service = new TieredCheckpointService(fs, localBase, fs, durableBase, new RandomNameCNS("test_"), (short) 1);
+  }
+
+  @After
+  public void tearDown() {
+    service.close();
+  }
+
+  @Test
+  public void testCommitAndPromote() throws Exception {
+    final TieredCheckpointID id = write(CONTENT);
+    Assert.assertTrue(fs.exists(id.getLocalPath()));
+    Assert.assertEquals(new Path(durableBase, id.getLocalPath().getName()), id.getDurablePath());
+
+    service.awaitPromotion(id);
+    Assert.assertTrue(fs.exists(id.getDurablePath()));
+    Assert.assertEquals(CONTENT, read(id));
+  }
+
+  @Test
+  public void testReadAfterLocalCopyDeleted() throws Exception {
+    final TieredCheckpointID id = write(CONTENT);
+    service.awaitPromotion(id);
+    Assert.assertTrue(fs.delete(id.getLocalPath(), false));
+    Assert.assertEquals(CONTENT, read(id));
+  }
+
+  @Test
+  public void testDeleteFromBothTiers() throws Exception {
+    final TieredCheckpointID id = write(CONTENT);
+    service.awaitPromotion(id);
+    Assert.assertTrue(service.delete(id));
+    Assert.assertFalse(fs.exists(id.getLocalPath()));
+    Assert.assertFalse(fs.exists(id.getDurablePath()));
+  }
+
+  @Test
+  public void testAbort() throws Exception {
+    final CheckpointService.CheckpointWriteChannel channel = service.create();
+    channel.write(ByteBuffer.wrap(CONTENT.getBytes(StandardCharsets.UTF_8)));
+    service.abort(channel);
+    Assert.assertEquals(0, fs.listStatus(localBase).length);
+    Assert.assertEquals(0, fs.listStatus(durableBase).length);
+  }
+
+  @Test
+  public void testCloseWaitsForPromotion() throws Exception {
+    final TieredCheckpointID id = write(CONTENT);
+    service.close();
+    Assert.assertTrue(fs.exists(id.getDurablePath()));
+  }
+
+  private TieredCheckpointID write(final String content) throws IOException, InterruptedException {
+    final CheckpointService.CheckpointWriteChannel channel = service.create();
+    channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    final CheckpointID id = service.commit(channel);
+    Assert.assertTrue(id instanceof TieredCheckpointID);
+    return (TieredCheckpointID) id;
+  }
+
+  private String read(final CheckpointID id) throws IOException, InterruptedException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (final CheckpointService.CheckpointReadChannel channel = service.open(id)) {
+      final ByteBuffer buffer = ByteBuffer.allocate(1024);
+      while (channel.read(buffer) >= 0) {
+        bytes.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+      }
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+}
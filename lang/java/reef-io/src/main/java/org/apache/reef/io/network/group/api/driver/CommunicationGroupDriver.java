@@ -19,9 +19,14 @@
 package org.apache.reef.io.network.group.api.driver;
 
 import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.io.network.group.impl.config.AllGatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.BarrierOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.driver.CommunicationGroupDriverImpl;
 import org.apache.reef.tang.Configuration;
@@ -78,6 +83,43 @@ public interface CommunicationGroupDriver {
    */
   CommunicationGroupDriver addGather(Class<? extends Name<String>> operatorName, GatherOperatorSpec spec);
 
+  /**
+   * Add the all-reduce operator specified by {@code operatorName} and {@code spec}.
+   *
+   * @param operatorName
+   * @param spec
+   * @return
+   */
+  CommunicationGroupDriver addAllReduce(Class<? extends Name<String>> operatorName, AllReduceOperatorSpec spec);
+
+  /**
+   * Add the all-gather operator specified by {@code operatorName} and {@code spec}.
+   *
+   * @param operatorName
+   * @param spec
+   * @return
+   */
+  CommunicationGroupDriver addAllGather(Class<? extends Name<String>> operatorName, AllGatherOperatorSpec spec);
+
+  /**
+   * Add the reduce-scatter operator specified by {@code operatorName} and {@code spec}.
+   *
+   * @param operatorName
+   * @param spec
+   * @return
+   */
+  CommunicationGroupDriver addReduceScatter(Class<? extends Name<String>> operatorName,
+                                            ReduceScatterOperatorSpec spec);
+
+  /**
+   * Add the barrier operator specified by {@code operatorName} and {@code spec}.
+   *
+   * @param operatorName
+   * @param spec
+   * @return
+   */
+  CommunicationGroupDriver addBarrier(Class<? extends Name<String>> operatorName, BarrierOperatorSpec spec);
+
   /**
    * This signals to the service that no more.
    * operator specs will be added to this communication
@@ -106,4 +148,15 @@ public interface CommunicationGroupDriver {
    * @param partialTaskConf
    */
   void addTask(Configuration partialTaskConf);
+
+  /**
+   * Add the task represented by this configuration to this
+   * communication group, recording the node it will run on.
+   * Locality-aware topologies place it near the tasks on the
+   * same node and rack
+   *
+   * @param partialTaskConf
+   * @param location the node of the evaluator the task will run on
+   */
+  void addTask(Configuration partialTaskConf, NodeDescriptor location);
 }
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.api.driver;
+
+/**
+ * A topology that takes into account where the tasks run when it connects them.
+ */
+public interface LocalityAwareTopology extends Topology {
+
+  /**
+   * Record the location of the task with id 'taskId'.
+   * Called before the task is added to the topology.
+   *
+   * @param taskId
+   * @param rackName name of the rack the task runs on
+   * @param nodeName name of the node the task runs on
+   */
+  void setTaskLocation(String taskId, String rackName, String nodeName);
+}
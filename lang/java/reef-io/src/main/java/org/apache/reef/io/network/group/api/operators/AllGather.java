@@ -19,6 +19,8 @@
 package org.apache.reef.io.network.group.api.operators;
 
 import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.impl.operators.AllGatherer;
+import org.apache.reef.tang.annotations.DefaultImplementation;
 import org.apache.reef.wake.Identifier;
 
 import java.util.List;
@@ -30,6 +32,7 @@ import java.util.List;
  * a list of elements constructed using the elements all-gathered at each
  * task.
  */
+@DefaultImplementation(AllGatherer.class)
 public interface AllGather<T> extends GroupCommOperator {
 
   /**
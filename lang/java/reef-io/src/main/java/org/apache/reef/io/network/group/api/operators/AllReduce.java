@@ -19,6 +19,8 @@
 package org.apache.reef.io.network.group.api.operators;
 
 import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.impl.operators.AllReducer;
+import org.apache.reef.tang.annotations.DefaultImplementation;
 import org.apache.reef.wake.Identifier;
 
 import java.util.List;
@@ -28,6 +30,7 @@ import java.util.List;
  * type T. The result will be an element which is result of applying a reduce
  * function on the list of all elements on which this operator has been applied
  */
+@DefaultImplementation(AllReducer.class)
 public interface AllReduce<T> extends GroupCommOperator {
 
   /**
@@ -52,4 +55,30 @@ public interface AllReduce<T> extends GroupCommOperator {
    * @return {@link org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction}
    */
   Reduce.ReduceFunction<T> getReduceFunction();
+
+  /**
+   * A reduce function whose operands can be cut into independent parts.
+   * When the configured reduce function implements this interface, large
+   * operands are all-reduced with the bandwidth-optimal ring algorithm:
+   * every task reduces one part and the reduced parts are then all-gathered.
+   * The function must be commutative and associative for the ring algorithm.
+   * A pipelined Reduce also uses it to reduce and forward values part by part.
+   */
+  interface PartitionedReduceFunction<T> extends Reduce.ReduceFunction<T> {
+
+    /**
+     * Cut element into exactly {@code parts} parts.
+     * Every task must cut its element at the same boundaries.
+     *
+     * @return list of {@code parts} parts
+     */
+    List<T> split(T element, int parts);
+
+    /**
+     * Reassemble the parts, given in the order returned by {@link #split}.
+     *
+     * @return the element made of the parts
+     */
+    T merge(List<T> parts);
+  }
 }
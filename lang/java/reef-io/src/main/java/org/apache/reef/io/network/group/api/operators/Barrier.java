@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.api.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.impl.operators.TreeBarrier;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+
+/**
+ * MPI Barrier operator.
+ * <p>
+ * Every task calls {@link #await()}, which returns only after all tasks of the
+ * operator have called it. No data is exchanged, so no codec is needed.
+ */
+@DefaultImplementation(TreeBarrier.class)
+public interface Barrier extends GroupCommOperator {
+
+  /**
+   * Wait until all tasks of the operator have reached the barrier.
+   */
+  void await() throws NetworkException, InterruptedException;
+}
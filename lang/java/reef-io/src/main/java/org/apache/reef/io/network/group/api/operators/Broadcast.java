@@ -42,6 +42,13 @@ public interface Broadcast {
      * Send element to all receivers.
      */
     void send(T element) throws NetworkException, InterruptedException;
+
+    /**
+     * Start sending element to all receivers and return without waiting for it.
+     *
+     * @return handle that completes when {@link #send} would have returned
+     */
+    OperationFuture<Void> sendAsync(T element);
   }
 
   /**
@@ -56,5 +63,12 @@ public interface Broadcast {
      * @return the element broadcasted by sender
      */
     T receive() throws NetworkException, InterruptedException;
+
+    /**
+     * Start receiving the element broadcasted by sender and return without waiting for it.
+     *
+     * @return handle to the element broadcasted by sender
+     */
+    OperationFuture<T> receiveAsync();
   }
 }
@@ -44,6 +44,13 @@ public interface Gather {
      * Send the element to the root/receiver.
      */
     void send(T element) throws InterruptedException, NetworkException;
+
+    /**
+     * Start sending the element to the root/receiver and return without waiting for it.
+     *
+     * @return handle that completes when {@link #send} would have returned
+     */
+    OperationFuture<Void> sendAsync(T element);
   }
 
   /**
@@ -65,5 +72,12 @@ public interface Gather {
      * @return elements sent by senders as a List in specified order
      */
     List<T> receive(List<? extends Identifier> order) throws InterruptedException, NetworkException;
+
+    /**
+     * Start receiving the elements sent by the senders in default order and return without waiting for them.
+     *
+     * @return handle to the elements sent by senders as a List in default order
+     */
+    OperationFuture<List<T>> receiveAsync();
   }
 }
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.api.operators;
+
+import java.util.concurrent.Future;
+
+/**
+ * Handle to an operation started with one of the asynchronous variants of a group communication operator,
+ * such as {@link Reduce.Receiver#reduceAsync()}.
+ * <p>
+ * An operator runs its asynchronous operations one at a time in the order they were started, so several
+ * of them may be outstanding at once. Blocking calls must not be made on an operator while it still has
+ * outstanding asynchronous operations, as they would not be ordered with them. {@link #get()} throws an
+ * {@link java.util.concurrent.ExecutionException} wrapping the exception the blocking call would have thrown.
+ *
+ * @param <T> result of the operation, {@link Void} for operations that only send
+ */
+public interface OperationFuture<T> extends Future<T> {
+
+  /**
+   * @return the iteration of this operation, counting the asynchronous operations started on the operator from 0
+   */
+  int getIteration();
+}
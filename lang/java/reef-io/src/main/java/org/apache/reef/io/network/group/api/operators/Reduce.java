@@ -57,6 +57,14 @@ public interface Reduce {
      */
     T reduce(List<? extends Identifier> order) throws InterruptedException, NetworkException;
 
+    /**
+     * Start receiving and reducing the values sent by senders in default order
+     * and return without waiting for the result.
+     *
+     * @return handle to the result of applying reduce function on the elements gathered in default order.
+     */
+    OperationFuture<T> reduceAsync();
+
     /**
      * The reduce function to be applied on the set of received values.
      *
@@ -76,6 +84,13 @@ public interface Reduce {
      */
     void send(T element) throws NetworkException, InterruptedException;
 
+    /**
+     * Start sending the element to the root and return without waiting for it.
+     *
+     * @return handle that completes when {@link #send} would have returned
+     */
+    OperationFuture<Void> sendAsync(T element);
+
     /**
      * The {@link ReduceFunction} to be applied on the set of received values.
      *
@@ -96,4 +111,34 @@ public interface Reduce {
      */
     T apply(Iterable<T> elements);
   }
+
+  /**
+   * A reduce function that folds values into an accumulator one at a time.
+   * When the configured reduce function implements this interface, Reduce folds
+   * the value of each child straight from the received bytes instead of decoding
+   * it and applying the function pairwise. The bytes are in the format of the
+   * operator's codec, so the function must understand that format.
+   * Implementations may reuse one accumulator across reductions, in which case
+   * a reduced value is only valid until the operator is applied again.
+   */
+  interface StreamingReduceFunction<T> extends ReduceFunction<T> {
+
+    /**
+     * Fold an encoded element into the accumulator.
+     *
+     * @param accumulator value reduced so far, or null to start a new reduction
+     * @param encoded     element encoded with the operator's codec
+     * @return the accumulator with the element folded in
+     */
+    T foldEncoded(T accumulator, byte[] encoded);
+
+    /**
+     * Fold an element into the accumulator. The element is left unchanged.
+     *
+     * @param accumulator value reduced so far, or null to start a new reduction
+     * @param element     element to fold in
+     * @return the accumulator with the element folded in
+     */
+    T fold(T accumulator, T element);
+  }
 }
@@ -62,6 +62,16 @@ public interface Scatter {
      */
     void send(List<T> elements, List<Integer> counts,
               List<? extends Identifier> order) throws NetworkException, InterruptedException;
+
+    /**
+     * Start distributing evenly across task ids sorted lexicographically and return without waiting for it.
+     */
+    OperationFuture<Void> sendAsync(List<T> elements);
+
+    /**
+     * Start distributing as per counts across task ids sorted using order and return without waiting for it.
+     */
+    OperationFuture<Void> sendAsync(List<T> elements, List<Integer> counts, List<? extends Identifier> order);
   }
 
   /**
@@ -75,5 +85,12 @@ public interface Scatter {
      * @return list of elements targeted for the current receiver.
      */
     List<T> receive() throws InterruptedException, NetworkException;
+
+    /**
+     * Start receiving the sub-list of elements targeted for the current receiver and return without waiting for it.
+     *
+     * @return handle to the list of elements targeted for the current receiver.
+     */
+    OperationFuture<List<T>> receiveAsync();
   }
 }
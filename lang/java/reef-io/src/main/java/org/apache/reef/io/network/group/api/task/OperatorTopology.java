@@ -19,6 +19,7 @@
 package org.apache.reef.io.network.group.api.task;
 
 import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.AllReduce.PartitionedReduceFunction;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
@@ -61,5 +62,42 @@ public interface OperatorTopology {
 
   byte[] recvFromChildren() throws ParentDeadException;
 
+  /**
+   * Send data to the children in chunks of at most {@code chunkSize} bytes,
+   * so that messages of any size can be sent and forwarded chunk by chunk.
+   */
+  void sendToChildrenInChunks(byte[] data, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType, int chunkSize)
+      throws ParentDeadException;
+
+  /**
+   * Receive data sent in chunks by the parent. Every chunk is forwarded to
+   * the children as soon as it arrives.
+   *
+   * @return the reassembled data, or null if the parent died
+   */
+  byte[] recvFromParentInChunks(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType)
+      throws ParentDeadException;
+
+  void sendToParentInChunks(byte[] data, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType, int chunkSize)
+      throws ParentDeadException;
+
+  /**
+   * Receive the values sent in chunks by the children and reduce them.
+   *
+   * @return the reduced value, or null if no child sent one
+   */
+  <T> T recvFromChildrenInChunks(ReduceFunction<T> redFunc, Codec<T> dataCodec) throws ParentDeadException;
+
+  /**
+   * Reduce element with the values of the children part by part. Each part is
+   * reduced as soon as all children sent it and, if {@code sendToParent} is set,
+   * forwarded to the parent right away.
+   *
+   * @param element this task's value, or null if it only receives
+   * @return the merged reduced parts if {@code sendToParent} is not set, null otherwise
+   */
+  <T> T reduceInParts(T element, PartitionedReduceFunction<T> redFunc, Codec<T> dataCodec, int chunkSize,
+                      boolean sendToParent) throws ParentDeadException;
+
   void initialize() throws ParentDeadException;
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.reef.io.network.group.api.task;
 
+import org.apache.reef.io.network.group.api.operators.AllReduce.PartitionedReduceFunction;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.group.impl.operators.Sender;
@@ -75,4 +76,15 @@ public interface OperatorTopologyStruct {
   <T> T recvFromChildren(ReduceFunction<T> redFunc, Codec<T> dataCodec);
 
   byte[] recvFromChildren();
+
+  void sendToChildrenInChunks(byte[] data, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType, int chunkSize);
+
+  byte[] recvFromParentInChunks(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
+
+  void sendToParentInChunks(byte[] data, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType, int chunkSize);
+
+  <T> T recvFromChildrenInChunks(ReduceFunction<T> redFunc, Codec<T> dataCodec);
+
+  <T> T reduceInParts(T element, PartitionedReduceFunction<T> redFunc, Codec<T> dataCodec, int chunkSize,
+                      boolean sendToParent);
 }
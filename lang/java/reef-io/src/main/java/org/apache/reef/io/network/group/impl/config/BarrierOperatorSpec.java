@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.config;
+
+import org.apache.reef.io.network.group.api.config.OperatorSpec;
+import org.apache.reef.io.serialization.Codec;
+
+/**
+ * The specification for the Barrier operator. The root task releases the others
+ * once every task has arrived. The operator sends no data, so it has no codec.
+ */
+public class BarrierOperatorSpec implements OperatorSpec {
+
+  private final String rootId;
+
+  public BarrierOperatorSpec(final String rootId) {
+    super();
+    this.rootId = rootId;
+  }
+
+  /**
+   * @return the task that releases the others
+   */
+  public String getRootId() {
+    return rootId;
+  }
+
+  /**
+   * @return null, since the barrier sends no data
+   */
+  @Override
+  public Class<? extends Codec> getDataCodecClass() {
+    return null;
+  }
+
+  @Override
+  public String toString() {
+    return "Barrier Operator Spec: [root=" + rootId + "]";
+  }
+
+  public static Builder newBuilder() {
+    return new BarrierOperatorSpec.Builder();
+  }
+
+  /**
+   * Builder for {@link BarrierOperatorSpec}.
+   */
+  public static class Builder implements org.apache.reef.util.Builder<BarrierOperatorSpec> {
+
+    private String rootId;
+
+    public Builder setRootId(final String rootId) {
+      this.rootId = rootId;
+      return this;
+    }
+
+    @Override
+    public BarrierOperatorSpec build() {
+      return new BarrierOperatorSpec(rootId);
+    }
+  }
+}
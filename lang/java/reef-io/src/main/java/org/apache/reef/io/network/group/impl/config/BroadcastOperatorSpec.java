@@ -19,6 +19,7 @@
 package org.apache.reef.io.network.group.impl.config;
 
 import org.apache.reef.io.network.group.api.config.OperatorSpec;
+import org.apache.reef.io.network.group.impl.task.OperatorTopologyStructImpl;
 import org.apache.reef.io.network.group.impl.utils.Utils;
 import org.apache.reef.io.serialization.Codec;
 
@@ -34,18 +35,34 @@ public class BroadcastOperatorSpec implements OperatorSpec {
    */
   private final Class<? extends Codec> dataCodecClass;
 
+  /**
+   * Size of the chunks the data is pipelined in, or 0 to send it whole.
+   */
+  private final int chunkSize;
+
 
   public BroadcastOperatorSpec(final String senderId,
                                final Class<? extends Codec> dataCodecClass) {
+    this(senderId, dataCodecClass, 0);
+  }
+
+  public BroadcastOperatorSpec(final String senderId,
+                               final Class<? extends Codec> dataCodecClass,
+                               final int chunkSize) {
     super();
     this.senderId = senderId;
     this.dataCodecClass = dataCodecClass;
+    this.chunkSize = chunkSize;
   }
 
   public String getSenderId() {
     return senderId;
   }
 
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
   @Override
   public Class<? extends Codec> getDataCodecClass() {
     return dataCodecClass;
@@ -54,7 +71,7 @@ public class BroadcastOperatorSpec implements OperatorSpec {
   @Override
   public String toString() {
     return "Broadcast Operator Spec: [sender=" + senderId + "] [dataCodecClass=" + Utils.simpleName(dataCodecClass)
-        + "]";
+        + "] [chunkSize=" + chunkSize + "]";
   }
 
   public static Builder newBuilder() {
@@ -66,6 +83,7 @@ public class BroadcastOperatorSpec implements OperatorSpec {
 
     private Class<? extends Codec> dataCodecClass;
 
+    private int chunkSize;
 
     public Builder setSenderId(final String senderId) {
       this.senderId = senderId;
@@ -77,9 +95,24 @@ public class BroadcastOperatorSpec implements OperatorSpec {
       return this;
     }
 
+    /**
+     * Pipeline the data through the tree in chunks of {@code chunkSize} bytes.
+     *
+     * @throws IllegalArgumentException if chunkSize is out of 1..{@link OperatorTopologyStructImpl#MAX_CHUNK_SIZE}
+     */
+    @SuppressWarnings("checkstyle:hiddenfield")
+    public Builder setChunkSize(final int chunkSize) {
+      if (chunkSize <= 0 || chunkSize > OperatorTopologyStructImpl.MAX_CHUNK_SIZE) {
+        throw new IllegalArgumentException("Chunk size must be between 1 and "
+            + OperatorTopologyStructImpl.MAX_CHUNK_SIZE + " bytes but was " + chunkSize);
+      }
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
     @Override
     public BroadcastOperatorSpec build() {
-      return new BroadcastOperatorSpec(senderId, dataCodecClass);
+      return new BroadcastOperatorSpec(senderId, dataCodecClass, chunkSize);
     }
   }
 
@@ -20,6 +20,7 @@ package org.apache.reef.io.network.group.impl.config;
 
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
 import org.apache.reef.io.network.group.api.config.OperatorSpec;
+import org.apache.reef.io.network.group.impl.task.OperatorTopologyStructImpl;
 import org.apache.reef.io.network.group.impl.utils.Utils;
 import org.apache.reef.io.serialization.Codec;
 
@@ -40,14 +41,27 @@ public class ReduceOperatorSpec implements OperatorSpec {
    */
   private final Class<? extends ReduceFunction> redFuncClass;
 
+  /**
+   * Size of the chunks the data is pipelined in, or 0 to send it whole.
+   */
+  private final int chunkSize;
+
 
   public ReduceOperatorSpec(final String receiverId,
                             final Class<? extends Codec> dataCodecClass,
                             final Class<? extends ReduceFunction> redFuncClass) {
+    this(receiverId, dataCodecClass, redFuncClass, 0);
+  }
+
+  public ReduceOperatorSpec(final String receiverId,
+                            final Class<? extends Codec> dataCodecClass,
+                            final Class<? extends ReduceFunction> redFuncClass,
+                            final int chunkSize) {
     super();
     this.receiverId = receiverId;
     this.dataCodecClass = dataCodecClass;
     this.redFuncClass = redFuncClass;
+    this.chunkSize = chunkSize;
   }
 
   public String getReceiverId() {
@@ -61,6 +75,10 @@ public class ReduceOperatorSpec implements OperatorSpec {
     return redFuncClass;
   }
 
+  public int getChunkSize() {
+    return chunkSize;
+  }
+
   @Override
   public Class<? extends Codec> getDataCodecClass() {
     return dataCodecClass;
@@ -69,7 +87,8 @@ public class ReduceOperatorSpec implements OperatorSpec {
   @Override
   public String toString() {
     return "Reduce Operator Spec: [receiver=" + receiverId + "] [dataCodecClass=" + Utils.simpleName(dataCodecClass)
-        + "] [reduceFunctionClass=" + Utils.simpleName(redFuncClass) + "]";
+        + "] [reduceFunctionClass=" + Utils.simpleName(redFuncClass)
+        + "] [chunkSize=" + chunkSize + "]";
   }
 
   public static Builder newBuilder() {
@@ -84,6 +103,8 @@ public class ReduceOperatorSpec implements OperatorSpec {
 
     private Class<? extends ReduceFunction> redFuncClass;
 
+    private int chunkSize;
+
     public Builder setReceiverId(final String receiverId) {
       this.receiverId = receiverId;
       return this;
@@ -100,9 +121,26 @@ public class ReduceOperatorSpec implements OperatorSpec {
       return this;
     }
 
+    /**
+     * Pipeline the data through the tree in chunks of {@code chunkSize} bytes.
+     * With an {@link org.apache.reef.io.network.group.api.operators.AllReduce.PartitionedReduceFunction}
+     * the values are also reduced chunk by chunk.
+     *
+     * @throws IllegalArgumentException if chunkSize is out of 1..{@link OperatorTopologyStructImpl#MAX_CHUNK_SIZE}
+     */
+    @SuppressWarnings("checkstyle:hiddenfield")
+    public Builder setChunkSize(final int chunkSize) {
+      if (chunkSize <= 0 || chunkSize > OperatorTopologyStructImpl.MAX_CHUNK_SIZE) {
+        throw new IllegalArgumentException("Chunk size must be between 1 and "
+            + OperatorTopologyStructImpl.MAX_CHUNK_SIZE + " bytes but was " + chunkSize);
+      }
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
     @Override
     public ReduceOperatorSpec build() {
-      return new ReduceOperatorSpec(receiverId, dataCodecClass, redFuncClass);
+      return new ReduceOperatorSpec(receiverId, dataCodecClass, redFuncClass, chunkSize);
     }
   }
 }
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.config;
+
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.impl.utils.CollectiveAlgorithms;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.serialization.Codec;
+
+/**
+ * The specification for the ReduceScatter operator. The root task only coordinates the
+ * membership agreement; the operation itself runs peer to peer.
+ */
+public class ReduceScatterOperatorSpec implements CollectiveOperatorSpec {
+
+  private final String rootId;
+
+  /**
+   * Codec to be used to serialize data.
+   */
+  private final Class<? extends Codec> dataCodecClass;
+
+  /**
+   * The reduce function to be used for operations that do reduction.
+   */
+  private final Class<? extends ReduceFunction> redFuncClass;
+
+  /**
+   * The algorithm to run the operation with.
+   */
+  private final CollectiveAlgorithms.Algorithm algorithm;
+
+  /**
+   * Operand size in bytes from which AUTO uses the ring algorithm, or null for the default.
+   */
+  private final Integer ringThreshold;
+
+  public ReduceScatterOperatorSpec(final String rootId,
+                                   final Class<? extends Codec> dataCodecClass,
+                                   final Class<? extends ReduceFunction> redFuncClass,
+                                   final CollectiveAlgorithms.Algorithm algorithm,
+                                   final Integer ringThreshold) {
+    super();
+    this.rootId = rootId;
+    this.dataCodecClass = dataCodecClass;
+    this.redFuncClass = redFuncClass;
+    this.algorithm = algorithm;
+    this.ringThreshold = ringThreshold;
+  }
+
+  @Override
+  public String getRootId() {
+    return rootId;
+  }
+
+  /**
+   * @return the redFuncClass
+   */
+  public Class<? extends ReduceFunction> getRedFuncClass() {
+    return redFuncClass;
+  }
+
+  @Override
+  public CollectiveAlgorithms.Algorithm getAlgorithm() {
+    return algorithm;
+  }
+
+  @Override
+  public Integer getRingThreshold() {
+    return ringThreshold;
+  }
+
+  @Override
+  public Class<? extends Codec> getDataCodecClass() {
+    return dataCodecClass;
+  }
+
+  @Override
+  public String toString() {
+    return "ReduceScatter Operator Spec: [root=" + rootId + "] [dataCodecClass=" + Utils.simpleName(dataCodecClass)
+        + "] [reduceFunctionClass=" + Utils.simpleName(redFuncClass)
+        + "] [algorithm=" + algorithm + "] [ringThreshold=" + ringThreshold + "]";
+  }
+
+  public static Builder newBuilder() {
+    return new ReduceScatterOperatorSpec.Builder();
+  }
+
+  /**
+   * Builder for {@link ReduceScatterOperatorSpec}.
+   */
+  public static class Builder implements org.apache.reef.util.Builder<ReduceScatterOperatorSpec> {
+
+    private String rootId;
+
+    private Class<? extends Codec> dataCodecClass;
+
+    private Class<? extends ReduceFunction> redFuncClass;
+
+    private CollectiveAlgorithms.Algorithm algorithm = CollectiveAlgorithms.Algorithm.AUTO;
+
+    private Integer ringThreshold;
+
+    public Builder setRootId(final String rootId) {
+      this.rootId = rootId;
+      return this;
+    }
+
+    public Builder setDataCodecClass(final Class<? extends Codec> codecClazz) {
+      this.dataCodecClass = codecClazz;
+      return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenfield")
+    public Builder setReduceFunctionClass(final Class<? extends ReduceFunction> redFuncClass) {
+      this.redFuncClass = redFuncClass;
+      return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenfield")
+    public Builder setAlgorithm(final CollectiveAlgorithms.Algorithm algorithm) {
+      this.algorithm = algorithm;
+      return this;
+    }
+
+    @SuppressWarnings("checkstyle:hiddenfield")
+    public Builder setRingThreshold(final int ringThreshold) {
+      this.ringThreshold = ringThreshold;
+      return this;
+    }
+
+    @Override
+    public ReduceScatterOperatorSpec build() {
+      return new ReduceScatterOperatorSpec(rootId, dataCodecClass, redFuncClass, algorithm, ringThreshold);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.io.network.group.api.operators.GroupCommOperator;
+import org.apache.reef.io.network.group.impl.config.AllGatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.CollectiveOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceScatterOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.parameters.CollectiveAlgorithmParam;
+import org.apache.reef.io.network.group.impl.config.parameters.CollectiveRoot;
+import org.apache.reef.io.network.group.impl.config.parameters.ReduceFunctionParam;
+import org.apache.reef.io.network.group.impl.config.parameters.RingThresholdBytes;
+import org.apache.reef.io.network.group.impl.operators.AllGatherer;
+import org.apache.reef.io.network.group.impl.operators.AllReducer;
+import org.apache.reef.io.network.group.impl.operators.ReduceScatterer;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+
+/**
+ * Task configuration of the symmetric operators, which is the same for every topology.
+ */
+final class CollectiveBindings {
+
+  /**
+   * Bind the operator of spec and its parameters for the task taskId.
+   */
+  static void bind(final JavaConfigurationBuilder jcb, final String taskId, final CollectiveOperatorSpec spec) {
+    jcb.bindNamedParameter(CollectiveRoot.class, Boolean.toString(taskId.equals(spec.getRootId())));
+    jcb.bindNamedParameter(CollectiveAlgorithmParam.class, spec.getAlgorithm().name());
+    if (spec.getRingThreshold() != null) {
+      jcb.bindNamedParameter(RingThresholdBytes.class, Integer.toString(spec.getRingThreshold()));
+    }
+
+    if (spec instanceof AllReduceOperatorSpec) {
+      jcb.bindNamedParameter(ReduceFunctionParam.class, ((AllReduceOperatorSpec) spec).getRedFuncClass());
+      jcb.bindImplementation(GroupCommOperator.class, AllReducer.class);
+    } else if (spec instanceof AllGatherOperatorSpec) {
+      jcb.bindImplementation(GroupCommOperator.class, AllGatherer.class);
+    } else if (spec instanceof ReduceScatterOperatorSpec) {
+      jcb.bindNamedParameter(ReduceFunctionParam.class, ((ReduceScatterOperatorSpec) spec).getRedFuncClass());
+      jcb.bindImplementation(GroupCommOperator.class, ReduceScatterer.class);
+    } else {
+      throw new IllegalArgumentException("Unknown collective operator spec " + spec);
+    }
+  }
+
+  /**
+   * Empty private constructor to prohibit instantiation of utility class.
+   */
+  private CollectiveBindings() {
+  }
+}
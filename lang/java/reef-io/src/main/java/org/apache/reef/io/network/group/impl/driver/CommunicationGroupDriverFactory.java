@@ -54,7 +54,8 @@ public final class CommunicationGroupDriverFactory {
           final BroadcastingEventHandler<FailedTask> groupCommFailedTaskHandler,
       @Parameter(GroupCommFailedEvalHandler.class)
           final BroadcastingEventHandler<FailedEvaluator> groupCommFailedEvaluatorHandler,
-      final GroupCommMessageHandler groupCommMessageHandler) {
+      final GroupCommMessageHandler groupCommMessageHandler,
+      final LinkCostModel linkCostModel) {
     injector = Tang.Factory.getTang().newInjector();
     injector.bindVolatileParameter(GroupCommSenderStage.class, senderStage);
     injector.bindVolatileParameter(DriverIdentifier.class, driverId);
@@ -62,6 +63,7 @@ public final class CommunicationGroupDriverFactory {
     injector.bindVolatileParameter(GroupCommFailedTaskHandler.class, groupCommFailedTaskHandler);
     injector.bindVolatileParameter(GroupCommFailedEvalHandler.class, groupCommFailedEvaluatorHandler);
     injector.bindVolatileInstance(GroupCommMessageHandler.class, groupCommMessageHandler);
+    injector.bindVolatileInstance(LinkCostModel.class, linkCostModel);
   }
 
   /**
@@ -20,6 +20,8 @@ package org.apache.reef.io.network.group.impl.driver;
 
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.catalog.NodeDescriptor;
+import org.apache.reef.driver.catalog.RackDescriptor;
 import org.apache.reef.driver.evaluator.FailedEvaluator;
 import org.apache.reef.driver.parameters.DriverIdentifier;
 import org.apache.reef.driver.task.FailedTask;
@@ -27,11 +29,17 @@ import org.apache.reef.driver.task.RunningTask;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.io.network.group.api.config.OperatorSpec;
 import org.apache.reef.io.network.group.api.driver.CommunicationGroupDriver;
+import org.apache.reef.io.network.group.api.driver.LocalityAwareTopology;
 import org.apache.reef.io.network.group.api.driver.Topology;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.AllGatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.BarrierOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.CollectiveOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
 import org.apache.reef.io.network.group.impl.utils.BroadcastingEventHandler;
@@ -264,6 +272,79 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
     return this;
   }
 
+  @Override
+  public CommunicationGroupDriver addAllReduce(final Class<? extends Name<String>> operatorName,
+                                               final AllReduceOperatorSpec spec) {
+    return addCollective("addAllReduce", operatorName, spec);
+  }
+
+  @Override
+  public CommunicationGroupDriver addAllGather(final Class<? extends Name<String>> operatorName,
+                                               final AllGatherOperatorSpec spec) {
+    return addCollective("addAllGather", operatorName, spec);
+  }
+
+  @Override
+  public CommunicationGroupDriver addReduceScatter(final Class<? extends Name<String>> operatorName,
+                                                   final ReduceScatterOperatorSpec spec) {
+    return addCollective("addReduceScatter", operatorName, spec);
+  }
+
+  /**
+   * Add a symmetric operator, whose topology is rooted at the task that coordinates the membership agreement.
+   */
+  private CommunicationGroupDriver addCollective(final String methodName,
+                                                 final Class<? extends Name<String>> operatorName,
+                                                 final CollectiveOperatorSpec spec) {
+    LOG.entering("CommunicationGroupDriverImpl", methodName,
+        new Object[]{getQualifiedName(), Utils.simpleName(operatorName), spec});
+    if (finalised) {
+      throw new IllegalStateException("Can't add more operators to a finalised spec");
+    }
+    operatorSpecs.put(operatorName, spec);
+
+    final Topology topology;
+    try {
+      topology = topologyFactory.getNewInstance(operatorName, topologyClass);
+    } catch (final InjectionException e) {
+      LOG.log(Level.WARNING, "Cannot inject new topology named {0}", operatorName);
+      throw new RuntimeException(e);
+    }
+
+    topology.setRootTask(spec.getRootId());
+    topology.setOperatorSpecification(spec);
+    topologies.put(operatorName, topology);
+    LOG.exiting("CommunicationGroupDriverImpl", methodName,
+        Arrays.toString(new Object[]{getQualifiedName(), Utils.simpleName(operatorName), spec}));
+    return this;
+  }
+
+  @Override
+  public CommunicationGroupDriver addBarrier(final Class<? extends Name<String>> operatorName,
+                                             final BarrierOperatorSpec spec) {
+    LOG.entering("CommunicationGroupDriverImpl", "addBarrier",
+        new Object[]{getQualifiedName(), Utils.simpleName(operatorName), spec});
+    if (finalised) {
+      throw new IllegalStateException("Can't add more operators to a finalised spec");
+    }
+    operatorSpecs.put(operatorName, spec);
+
+    final Topology topology;
+    try {
+      topology = topologyFactory.getNewInstance(operatorName, topologyClass);
+    } catch (final InjectionException e) {
+      LOG.log(Level.WARNING, "Cannot inject new topology named {0}", operatorName);
+      throw new RuntimeException(e);
+    }
+
+    topology.setRootTask(spec.getRootId());
+    topology.setOperatorSpecification(spec);
+    topologies.put(operatorName, topology);
+    LOG.exiting("CommunicationGroupDriverImpl", "addBarrier",
+        Arrays.toString(new Object[]{getQualifiedName(), Utils.simpleName(operatorName), spec}));
+    return this;
+  }
+
   @Override
   public Configuration getTaskConfiguration(final Configuration taskConf) {
     LOG.entering("CommunicationGroupDriverImpl", "getTaskConfiguration",
@@ -336,6 +417,11 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
 
   @Override
   public void addTask(final Configuration partialTaskConf) {
+    addTask(partialTaskConf, null);
+  }
+
+  @Override
+  public void addTask(final Configuration partialTaskConf, final NodeDescriptor location) {
     LOG.entering("CommunicationGroupDriverImpl", "addTask",
         new Object[]{getQualifiedName(), confSerializer.toString(partialTaskConf)});
     final String taskId = taskId(partialTaskConf);
@@ -358,6 +444,11 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
       boolean isRootOfSomeTopology = false;
       for (final Class<? extends Name<String>> operName : operatorSpecs.keySet()) {
         final Topology topology = topologies.get(operName);
+        if (location != null && topology instanceof LocalityAwareTopology) {
+          final RackDescriptor rack = location.getRackDescriptor();
+          ((LocalityAwareTopology) topology).setTaskLocation(taskId, rack == null ? "" : rack.getName(),
+              location.getName());
+        }
         topology.addTask(taskId);
         isRootOfSomeTopology |= topology.getRootId().equals(taskId);
       }
@@ -27,7 +27,9 @@ import org.apache.reef.io.network.group.api.driver.Topology;
 import org.apache.reef.io.network.group.impl.GroupChangesCodec;
 import org.apache.reef.io.network.group.impl.GroupChangesImpl;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.BarrierOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.CollectiveOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
@@ -116,10 +118,13 @@ public final class FlatTopology implements Topology {
     final int version;
     version = getNodeVersion(taskId);
     final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
-    jcb.bindNamedParameter(DataCodec.class, operatorSpec.getDataCodecClass());
+    if (operatorSpec.getDataCodecClass() != null) {
+      jcb.bindNamedParameter(DataCodec.class, operatorSpec.getDataCodecClass());
+    }
     jcb.bindNamedParameter(TaskVersion.class, Integer.toString(version));
     if (operatorSpec instanceof BroadcastOperatorSpec) {
       final BroadcastOperatorSpec broadcastOperatorSpec = (BroadcastOperatorSpec) operatorSpec;
+      bindChunkSize(jcb, broadcastOperatorSpec.getChunkSize());
       if (taskId.equals(broadcastOperatorSpec.getSenderId())) {
         jcb.bindImplementation(GroupCommOperator.class, BroadcastSender.class);
       } else {
@@ -128,6 +133,7 @@ public final class FlatTopology implements Topology {
     } else if (operatorSpec instanceof ReduceOperatorSpec) {
       final ReduceOperatorSpec reduceOperatorSpec = (ReduceOperatorSpec) operatorSpec;
       jcb.bindNamedParameter(ReduceFunctionParam.class, reduceOperatorSpec.getRedFuncClass());
+      bindChunkSize(jcb, reduceOperatorSpec.getChunkSize());
       if (taskId.equals(reduceOperatorSpec.getReceiverId())) {
         jcb.bindImplementation(GroupCommOperator.class, ReduceReceiver.class);
       } else {
@@ -147,10 +153,22 @@ public final class FlatTopology implements Topology {
       } else {
         jcb.bindImplementation(GroupCommOperator.class, GatherSender.class);
       }
+    } else if (operatorSpec instanceof CollectiveOperatorSpec) {
+      CollectiveBindings.bind(jcb, taskId, (CollectiveOperatorSpec) operatorSpec);
+    } else if (operatorSpec instanceof BarrierOperatorSpec) {
+      final BarrierOperatorSpec barrierOperatorSpec = (BarrierOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(CollectiveRoot.class, Boolean.toString(taskId.equals(barrierOperatorSpec.getRootId())));
+      jcb.bindImplementation(GroupCommOperator.class, TreeBarrier.class);
     }
     return jcb.build();
   }
 
+  private static void bindChunkSize(final JavaConfigurationBuilder jcb, final int chunkSize) {
+    if (chunkSize > 0) {
+      jcb.bindNamedParameter(PipelineChunkSize.class, Integer.toString(chunkSize));
+    }
+  }
+
   @Override
   public int getNodeVersion(final String taskId) {
     final TaskNode node = nodes.get(taskId);
@@ -113,7 +113,8 @@ public final class GroupCommDriverImpl implements GroupCommServiceDriver {
                              @Parameter(TreeTopologyFanOut.class) final int fanOut,
                              final LocalAddressProvider localAddressProvider,
                              final TransportFactory tpFactory,
-                             final NameServer nameService) {
+                             final NameServer nameService,
+                             final LinkCostModel linkCostModel) {
     assert SingletonAsserter.assertSingleton(getClass());
     this.fanOut = fanOut;
     this.nameService = nameService;
@@ -174,6 +175,7 @@ public final class GroupCommDriverImpl implements GroupCommServiceDriver {
     injector.bindVolatileParameter(GroupCommFailedTaskHandler.class, groupCommFailedTaskHandler);
     injector.bindVolatileParameter(GroupCommFailedEvalHandler.class, groupCommFailedEvaluatorHandler);
     injector.bindVolatileInstance(GroupCommMessageHandler.class, groupCommMessageHandler);
+    injector.bindVolatileInstance(LinkCostModel.class, linkCostModel);
 
     try {
       commGroupDriverFactory = injector.getInstance(CommunicationGroupDriverFactory.class);
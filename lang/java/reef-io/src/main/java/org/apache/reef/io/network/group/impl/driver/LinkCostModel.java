@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * Measured latency and bandwidth of the links within and between racks,
+ * used by {@link TreeTopology} to pick the fan-out of each level of the tree.
+ */
+public final class LinkCostModel {
+
+  private static final int MAX_FAN_OUT = 64;
+
+  private final double crossRackLatencyMicros;
+  private final double crossRackBandwidthMBps;
+  private final double intraRackLatencyMicros;
+  private final double intraRackBandwidthMBps;
+  private final int messageBytes;
+
+  @Inject
+  private LinkCostModel(@Parameter(CrossRackLatencyMicros.class) final double crossRackLatencyMicros,
+                        @Parameter(CrossRackBandwidthMBps.class) final double crossRackBandwidthMBps,
+                        @Parameter(IntraRackLatencyMicros.class) final double intraRackLatencyMicros,
+                        @Parameter(IntraRackBandwidthMBps.class) final double intraRackBandwidthMBps,
+                        @Parameter(TypicalMessageBytes.class) final int messageBytes) {
+    this.crossRackLatencyMicros = crossRackLatencyMicros;
+    this.crossRackBandwidthMBps = crossRackBandwidthMBps;
+    this.intraRackLatencyMicros = intraRackLatencyMicros;
+    this.intraRackBandwidthMBps = intraRackBandwidthMBps;
+    this.messageBytes = messageBytes;
+  }
+
+  /**
+   * @return fan-out between racks, or defaultFanOut if the links between racks were not measured
+   */
+  public int getCrossRackFanOut(final int defaultFanOut) {
+    return fanOut(crossRackLatencyMicros, crossRackBandwidthMBps, messageBytes, defaultFanOut);
+  }
+
+  /**
+   * @return fan-out within a rack, or defaultFanOut if the links within racks were not measured
+   */
+  public int getIntraRackFanOut(final int defaultFanOut) {
+    return fanOut(intraRackLatencyMicros, intraRackBandwidthMBps, messageBytes, defaultFanOut);
+  }
+
+  /**
+   * Pick the fan-out f that reaches a given number of tasks the fastest.
+   * A parent pays the link latency once and then pushes the message to its f children
+   * through the same link, so one level of the tree takes {@code latency + f * transfer}
+   * and reaching n tasks takes {@code ln(n) / ln(f)} levels. The task count drops out,
+   * leaving {@code (latency + f * transfer) / ln(f)} to minimize.
+   * High latency favors wide trees and slow links favor narrow ones.
+   *
+   * @return the best fan-out, or defaultFanOut if latency or bandwidth is not known
+   */
+  static int fanOut(final double latencyMicros, final double bandwidthMBps, final int messageBytes,
+                    final int defaultFanOut) {
+    if (latencyMicros <= 0 || bandwidthMBps <= 0) {
+      return defaultFanOut;
+    }
+    // one MB/s moves one byte per microsecond
+    final double transferMicros = messageBytes / bandwidthMBps;
+    int bestFanOut = 2;
+    double bestCost = Double.MAX_VALUE;
+    for (int fanOut = 2; fanOut <= MAX_FAN_OUT; fanOut++) {
+      final double cost = (latencyMicros + fanOut * transferMicros) / Math.log(fanOut);
+      if (cost < bestCost) {
+        bestCost = cost;
+        bestFanOut = fanOut;
+      }
+    }
+    return bestFanOut;
+  }
+}
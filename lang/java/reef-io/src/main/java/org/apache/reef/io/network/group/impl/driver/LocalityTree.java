@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.io.network.group.api.driver.TaskNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Places the task nodes of a {@link TreeTopology} following the layout of the cluster.
+ * The first task on a rack joins the tree between racks, the first task on a node joins
+ * the tree of its rack and the other tasks on a node join the tree of their node.
+ * Each of these trees is filled breadth first in order of arrival with its own fan-out,
+ * so every rack is reached through a single edge between racks and every node through
+ * a single edge within its rack. When no locations are known all tasks fall in one
+ * group and the result is the plain breadth-first tree.
+ */
+final class LocalityTree {
+
+  private final int crossRackFanOut;
+  private final int intraRackFanOut;
+  private final int intraNodeFanOut;
+
+  /**
+   * The first task of every rack in order of arrival, starting with the root.
+   */
+  private final List<TaskNode> rackHeads = new ArrayList<>();
+
+  /**
+   * The first task of every node of a rack, keyed by rack.
+   */
+  private final Map<String, List<TaskNode>> nodeHeads = new HashMap<>();
+
+  /**
+   * The tasks of a node, keyed by rack and node.
+   */
+  private final Map<String, List<TaskNode>> nodeTasks = new HashMap<>();
+
+  /**
+   * The groups the removed task nodes were in, so that re-added tasks can take their place.
+   */
+  private final Map<TaskNode, Place> removedPlaces = new HashMap<>();
+
+  LocalityTree(final TaskNode root, final String rootRack, final String rootNode,
+               final int crossRackFanOut, final int intraRackFanOut, final int intraNodeFanOut) {
+    this.crossRackFanOut = crossRackFanOut;
+    this.intraRackFanOut = intraRackFanOut;
+    this.intraNodeFanOut = intraNodeFanOut;
+    rackHeads.add(root);
+    nodeHeads.put(rootRack, newGroup(root));
+    nodeTasks.put(key(rootRack, rootNode), newGroup(root));
+  }
+
+  /**
+   * Attach a new task node to the tree.
+   */
+  void place(final TaskNode node, final String rack, final String nodeName) {
+    final List<TaskNode> rackGroup = nodeHeads.get(rack);
+    if (rackGroup == null) {
+      attach(node, rackHeads, crossRackFanOut);
+      nodeHeads.put(rack, newGroup(node));
+      nodeTasks.put(key(rack, nodeName), newGroup(node));
+      return;
+    }
+    final List<TaskNode> nodeGroup = nodeTasks.get(key(rack, nodeName));
+    if (nodeGroup == null) {
+      attach(node, rackGroup, intraRackFanOut);
+      nodeTasks.put(key(rack, nodeName), newGroup(node));
+    } else {
+      attach(node, nodeGroup, intraNodeFanOut);
+    }
+  }
+
+  /**
+   * Take a removed task node out of its groups, so that no new task is attached to it.
+   */
+  void remove(final TaskNode node) {
+    removedPlaces.put(node, new Place(rackHeads.remove(node), removeFrom(nodeHeads, node),
+        removeFrom(nodeTasks, node)));
+  }
+
+  /**
+   * Put a re-added task node in the place of the removed node of the same task,
+   * with the same parent and children.
+   */
+  void replace(final TaskNode removedNode, final TaskNode node) {
+    final Place place = removedPlaces.remove(removedNode);
+    if (place != null) {
+      if (place.rackHead) {
+        rackHeads.add(node);
+      }
+      addTo(nodeHeads, place.rack, node);
+      addTo(nodeTasks, place.nodeKey, node);
+    }
+    final TaskNode parent = removedNode.getParent();
+    if (parent != null) {
+      node.setParent(parent);
+      parent.addChild(node);
+    }
+    for (final TaskNode child : removedNode.getChildren()) {
+      child.setParent(node);
+      node.addChild(child);
+    }
+  }
+
+  /**
+   * Add node to group as a child of the member at the breadth-first parent position.
+   */
+  private static void attach(final TaskNode node, final List<TaskNode> group, final int fanOut) {
+    final TaskNode parent = group.get((group.size() - 1) / fanOut);
+    group.add(node);
+    node.setParent(parent);
+    parent.addChild(node);
+  }
+
+  /**
+   * Remove node from the group that holds it, dropping the group if it becomes empty.
+   *
+   * @return the key of the group node was in, or null if it was in none
+   */
+  private static String removeFrom(final Map<String, List<TaskNode>> groups, final TaskNode node) {
+    final Iterator<Map.Entry<String, List<TaskNode>>> iter = groups.entrySet().iterator();
+    while (iter.hasNext()) {
+      final Map.Entry<String, List<TaskNode>> entry = iter.next();
+      if (entry.getValue().remove(node)) {
+        if (entry.getValue().isEmpty()) {
+          iter.remove();
+        }
+        return entry.getKey();
+      }
+    }
+    return null;
+  }
+
+  private static void addTo(final Map<String, List<TaskNode>> groups, final String key, final TaskNode node) {
+    if (key == null) {
+      return;
+    }
+    final List<TaskNode> group = groups.get(key);
+    if (group == null) {
+      groups.put(key, newGroup(node));
+    } else {
+      group.add(node);
+    }
+  }
+
+  private static List<TaskNode> newGroup(final TaskNode head) {
+    final List<TaskNode> group = new ArrayList<>();
+    group.add(head);
+    return group;
+  }
+
+  private static String key(final String rack, final String nodeName) {
+    return rack + "/" + nodeName;
+  }
+
+  /**
+   * The groups a removed task node was in.
+   */
+  private static final class Place {
+    private final boolean rackHead;
+    private final String rack;
+    private final String nodeKey;
+
+    Place(final boolean rackHead, final String rack, final String nodeKey) {
+      this.rackHead = rackHead;
+      this.rack = rack;
+      this.nodeKey = nodeKey;
+    }
+  }
+}
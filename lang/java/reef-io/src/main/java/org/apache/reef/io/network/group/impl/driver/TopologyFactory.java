@@ -44,13 +44,15 @@ public final class TopologyFactory {
                           @Parameter(CommGroupNameClass.class) final Class<? extends Name<String>> groupName,
                           @Parameter(DriverIdentifier.class) final String driverId,
                           @Parameter(CommGroupNumTask.class) final int numberOfTasks,
-                          @Parameter(TreeTopologyFanOut.class) final int fanOut) {
+                          @Parameter(TreeTopologyFanOut.class) final int fanOut,
+                          final LinkCostModel linkCostModel) {
     injector = Tang.Factory.getTang().newInjector();
     injector.bindVolatileParameter(GroupCommSenderStage.class, senderStage);
     injector.bindVolatileParameter(CommGroupNameClass.class, groupName);
     injector.bindVolatileParameter(DriverIdentifier.class, driverId);
     injector.bindVolatileParameter(CommGroupNumTask.class, numberOfTasks);
     injector.bindVolatileParameter(TreeTopologyFanOut.class, fanOut);
+    injector.bindVolatileInstance(LinkCostModel.class, linkCostModel);
   }
 
   /**
@@ -22,12 +22,14 @@ import org.apache.reef.driver.parameters.DriverIdentifier;
 import org.apache.reef.io.network.group.api.operators.GroupCommOperator;
 import org.apache.reef.io.network.group.api.GroupChanges;
 import org.apache.reef.io.network.group.api.config.OperatorSpec;
+import org.apache.reef.io.network.group.api.driver.LocalityAwareTopology;
 import org.apache.reef.io.network.group.api.driver.TaskNode;
-import org.apache.reef.io.network.group.api.driver.Topology;
 import org.apache.reef.io.network.group.impl.GroupChangesCodec;
 import org.apache.reef.io.network.group.impl.GroupChangesImpl;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.BarrierOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.CollectiveOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
@@ -49,16 +51,21 @@ import org.apache.reef.wake.impl.SingleThreadStage;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.logging.Logger;
 
 /**
  * Implements a tree topology with the specified Fan Out.
+ * Tasks whose location is known are grouped by rack and node as described in
+ * {@link LocalityTree}, and the fan-out between and within racks follows the
+ * measured link costs of {@link LinkCostModel}.
  */
-public final class TreeTopology implements Topology {
+public final class TreeTopology implements LocalityAwareTopology {
 
   private static final Logger LOG = Logger.getLogger(TreeTopology.class.getName());
 
@@ -70,11 +77,14 @@ public final class TreeTopology implements Topology {
   private OperatorSpec operatorSpec;
 
   private TaskNode root;
-  private TaskNode logicalRoot;
-  private TaskNode prev;
+  private LocalityTree localityTree;
   private final int fanOut;
+  private final LinkCostModel linkCostModel;
 
   private final ConcurrentMap<String, TaskNode> nodes = new ConcurrentSkipListMap<>();
+  private final ConcurrentMap<String, String> taskRacks = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, String> taskNodeNames = new ConcurrentHashMap<>();
+  private final Map<String, TaskNode> removedNodes = new HashMap<>();
   private final ConfigurationSerializer confSer = new AvroConfigurationSerializer();
 
   @Inject
@@ -82,12 +92,14 @@ public final class TreeTopology implements Topology {
                        @Parameter(CommGroupNameClass.class) final Class<? extends Name<String>> groupName,
                        @Parameter(OperatorNameClass.class) final Class<? extends Name<String>> operatorName,
                        @Parameter(DriverIdentifier.class) final String driverId,
-                       @Parameter(TreeTopologyFanOut.class) final int fanOut) {
+                       @Parameter(TreeTopologyFanOut.class) final int fanOut,
+                       final LinkCostModel linkCostModel) {
     this.senderStage = senderStage;
     this.groupName = groupName;
     this.operName = operatorName;
     this.driverId = driverId;
     this.fanOut = fanOut;
+    this.linkCostModel = linkCostModel;
     LOG.config(getQualifiedName() + "Tree Topology running with a fan-out of " + fanOut);
   }
 
@@ -131,10 +143,13 @@ public final class TreeTopology implements Topology {
 
     final int version = getNodeVersion(taskId);
     final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
-    jcb.bindNamedParameter(DataCodec.class, operatorSpec.getDataCodecClass());
+    if (operatorSpec.getDataCodecClass() != null) {
+      jcb.bindNamedParameter(DataCodec.class, operatorSpec.getDataCodecClass());
+    }
     jcb.bindNamedParameter(TaskVersion.class, Integer.toString(version));
     if (operatorSpec instanceof BroadcastOperatorSpec) {
       final BroadcastOperatorSpec broadcastOperatorSpec = (BroadcastOperatorSpec) operatorSpec;
+      bindChunkSize(jcb, broadcastOperatorSpec.getChunkSize());
       if (taskId.equals(broadcastOperatorSpec.getSenderId())) {
         jcb.bindImplementation(GroupCommOperator.class, BroadcastSender.class);
       } else {
@@ -143,6 +158,7 @@ public final class TreeTopology implements Topology {
     } else if (operatorSpec instanceof ReduceOperatorSpec) {
       final ReduceOperatorSpec reduceOperatorSpec = (ReduceOperatorSpec) operatorSpec;
       jcb.bindNamedParameter(ReduceFunctionParam.class, reduceOperatorSpec.getRedFuncClass());
+      bindChunkSize(jcb, reduceOperatorSpec.getChunkSize());
       if (taskId.equals(reduceOperatorSpec.getReceiverId())) {
         jcb.bindImplementation(GroupCommOperator.class, ReduceReceiver.class);
       } else {
@@ -162,12 +178,24 @@ public final class TreeTopology implements Topology {
       } else {
         jcb.bindImplementation(GroupCommOperator.class, GatherSender.class);
       }
+    } else if (operatorSpec instanceof CollectiveOperatorSpec) {
+      CollectiveBindings.bind(jcb, taskId, (CollectiveOperatorSpec) operatorSpec);
+    } else if (operatorSpec instanceof BarrierOperatorSpec) {
+      final BarrierOperatorSpec barrierOperatorSpec = (BarrierOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(CollectiveRoot.class, Boolean.toString(taskId.equals(barrierOperatorSpec.getRootId())));
+      jcb.bindImplementation(GroupCommOperator.class, TreeBarrier.class);
     }
     final Configuration retConf = jcb.build();
     LOG.exiting("TreeTopology", "getTaskConfig", getQualifiedName() + confSer.toString(retConf));
     return retConf;
   }
 
+  private static void bindChunkSize(final JavaConfigurationBuilder jcb, final int chunkSize) {
+    if (chunkSize > 0) {
+      jcb.bindNamedParameter(PipelineChunkSize.class, Integer.toString(chunkSize));
+    }
+  }
+
   @Override
   public int getNodeVersion(final String taskId) {
     LOG.entering("TreeTopology", "getNodeVersion", new Object[]{getQualifiedName(), taskId});
@@ -196,6 +224,14 @@ public final class TreeTopology implements Topology {
     LOG.exiting("TreeTopology", "removeTask", getQualifiedName() + taskId);
   }
 
+  @Override
+  public void setTaskLocation(final String taskId, final String rackName, final String nodeName) {
+    LOG.entering("TreeTopology", "setTaskLocation", new Object[]{getQualifiedName(), taskId, rackName, nodeName});
+    taskRacks.put(taskId, rackName);
+    taskNodeNames.put(taskId, nodeName);
+    LOG.exiting("TreeTopology", "setTaskLocation", getQualifiedName() + taskId);
+  }
+
   @Override
   public void addTask(final String taskId) {
     LOG.entering("TreeTopology", "addTask", new Object[]{getQualifiedName(), taskId});
@@ -216,9 +252,14 @@ public final class TreeTopology implements Topology {
     LOG.entering("TreeTopology", "addChild", new Object[]{getQualifiedName(), taskId});
     LOG.finest(getQualifiedName() + "Adding leaf " + taskId);
     final TaskNode node = new TaskNodeImpl(senderStage, groupName, operName, taskId, driverId, false);
-    if (logicalRoot != null) {
-      addTaskNode(node);
-      prev = node;
+    if (localityTree != null) {
+      final TaskNode removedNode = removedNodes.remove(taskId);
+      if (removedNode != null) {
+        LOG.finest(getQualifiedName() + "Putting " + taskId + " back in its place");
+        localityTree.replace(removedNode, node);
+      } else {
+        addTaskNode(node);
+      }
     }
     nodes.put(taskId, node);
     LOG.exiting("TreeTopology", "addChild", getQualifiedName() + taskId);
@@ -226,34 +267,40 @@ public final class TreeTopology implements Topology {
 
   private void addTaskNode(final TaskNode node) {
     LOG.entering("TreeTopology", "addTaskNode", new Object[]{getQualifiedName(), node});
-    if (logicalRoot.getNumberOfChildren() >= this.fanOut) {
-      logicalRoot = logicalRoot.successor();
-    }
-    node.setParent(logicalRoot);
-    logicalRoot.addChild(node);
-    prev.setSibling(node);
+    final String taskId = node.getTaskId();
+    localityTree.place(node, getLocation(taskRacks, taskId), getLocation(taskNodeNames, taskId));
     LOG.exiting("TreeTopology", "addTaskNode", getQualifiedName() + node);
   }
 
   private void removeChild(final String taskId) {
     LOG.entering("TreeTopology", "removeChild", new Object[]{getQualifiedName(), taskId});
+    final TaskNode node = nodes.remove(taskId);
     if (root != null) {
-      root.removeChild(nodes.get(taskId));
+      final TaskNode parent = node.getParent();
+      if (parent != null) {
+        parent.removeChild(node);
+      }
+      localityTree.remove(node);
+      // keep the place of the task, so that re-adding it restores the tree
+      removedNodes.put(taskId, node);
     }
-    nodes.remove(taskId);
     LOG.exiting("TreeTopology", "removeChild", getQualifiedName() + taskId);
   }
 
   private void setRootNode(final String newRootId) {
     LOG.entering("TreeTopology", "setRootNode", new Object[]{getQualifiedName(), newRootId});
     this.root = new TaskNodeImpl(senderStage, groupName, operName, newRootId, driverId, true);
-    this.logicalRoot = this.root;
-    this.prev = this.root;
+    this.localityTree = new LocalityTree(root, getLocation(taskRacks, newRootId),
+        getLocation(taskNodeNames, newRootId), linkCostModel.getCrossRackFanOut(fanOut),
+        linkCostModel.getIntraRackFanOut(fanOut), fanOut);
 
+    for (final TaskNode leaf : nodes.values()) {
+      for (final TaskNode child : new ArrayList<>(toList(leaf.getChildren()))) {
+        leaf.removeChild(child);
+      }
+    }
     for (final Map.Entry<String, TaskNode> nodeEntry : nodes.entrySet()) {
-      final TaskNode leaf = nodeEntry.getValue();
-      addTaskNode(leaf);
-      this.prev = leaf;
+      addTaskNode(nodeEntry.getValue());
     }
     nodes.put(newRootId, root);
     LOG.exiting("TreeTopology", "setRootNode", getQualifiedName() + newRootId);
@@ -263,6 +310,8 @@ public final class TreeTopology implements Topology {
     LOG.entering("TreeTopology", "unsetRootNode", new Object[]{getQualifiedName(), taskId});
     nodes.remove(rootId);
     root = null;
+    localityTree = null;
+    removedNodes.clear();
 
     for (final Map.Entry<String, TaskNode> nodeEntry : nodes.entrySet()) {
       final TaskNode leaf = nodeEntry.getValue();
@@ -271,6 +320,19 @@ public final class TreeTopology implements Topology {
     LOG.exiting("TreeTopology", "unsetRootNode", getQualifiedName() + taskId);
   }
 
+  private static String getLocation(final Map<String, String> locations, final String taskId) {
+    final String location = locations.get(taskId);
+    return location == null ? "" : location;
+  }
+
+  private static List<TaskNode> toList(final Iterable<TaskNode> taskNodes) {
+    final List<TaskNode> retList = new ArrayList<>();
+    for (final TaskNode taskNode : taskNodes) {
+      retList.add(taskNode);
+    }
+    return retList;
+  }
+
   @Override
   public void onFailedTask(final String taskId) {
     LOG.entering("TreeTopology", "onFailedTask", new Object[]{getQualifiedName(), taskId});
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.AllGather;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.api.task.OperatorTopology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.group.impl.task.OperatorTopologyImpl;
+import org.apache.reef.io.network.group.impl.utils.CollectiveAlgorithms;
+import org.apache.reef.io.network.group.impl.utils.PeerChannel;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * AllGather run peer to peer among the members of the operator's topology.
+ * Small elements use recursive doubling and large elements use the ring algorithm.
+ */
+public class AllGatherer<T> implements AllGather<T>, EventHandler<GroupCommunicationMessage> {
+
+  private static final Logger LOG = Logger.getLogger(AllGatherer.class.getName());
+
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final CommGroupNetworkHandler commGroupNetworkHandler;
+  private final Codec<T> dataCodec;
+  private final CollectiveAlgorithms.Algorithm algorithm;
+  private final int ringThreshold;
+
+  private final OperatorTopology topology;
+  private final PeerExchange exchange;
+
+  private final CommunicationGroupServiceClient commGroupClient;
+
+  private final AtomicBoolean init = new AtomicBoolean(false);
+
+  private final int version;
+
+  @Inject
+  public AllGatherer(
+      @Parameter(CommunicationGroupName.class) final String groupName,
+      @Parameter(OperatorName.class) final String operName,
+      @Parameter(TaskConfigurationOptions.Identifier.class) final String selfId,
+      @Parameter(DataCodec.class) final Codec<T> dataCodec,
+      @Parameter(DriverIdentifierGroupComm.class) final String driverId,
+      @Parameter(TaskVersion.class) final int version,
+      @Parameter(CollectiveRoot.class) final boolean root,
+      @Parameter(CollectiveAlgorithmParam.class) final String algorithm,
+      @Parameter(RingThresholdBytes.class) final int ringThreshold,
+      @Parameter(PeerReceiveTimeoutMillis.class) final long peerTimeoutMillis,
+      final CommGroupNetworkHandler commGroupNetworkHandler,
+      final NetworkService<GroupCommunicationMessage> netService,
+      final CommunicationGroupServiceClient commGroupClient) {
+
+    this(Utils.getClass(groupName), Utils.getClass(operName), selfId, dataCodec, version, root,
+        CollectiveAlgorithms.Algorithm.valueOf(algorithm), ringThreshold, peerTimeoutMillis, new Sender(netService),
+        new OperatorTopologyImpl(Utils.getClass(groupName), Utils.getClass(operName), selfId, driverId,
+            new Sender(netService), version),
+        commGroupNetworkHandler, commGroupClient);
+  }
+
+  /**
+   * Constructor with the sender and topology given, so that the operator can run without a network service.
+   */
+  AllGatherer(
+      final Class<? extends Name<String>> groupName,
+      final Class<? extends Name<String>> operName,
+      final String selfId,
+      final Codec<T> dataCodec,
+      final int version,
+      final boolean root,
+      final CollectiveAlgorithms.Algorithm algorithm,
+      final int ringThreshold,
+      final long peerTimeoutMillis,
+      final Sender sender,
+      final OperatorTopology topology,
+      final CommGroupNetworkHandler commGroupNetworkHandler,
+      final CommunicationGroupServiceClient commGroupClient) {
+
+    super();
+
+    LOG.log(Level.FINEST, "{0} has CommGroupHandler-{1}",
+        new Object[]{operName, commGroupNetworkHandler});
+
+    this.version = version;
+    this.groupName = groupName;
+    this.operName = operName;
+    this.dataCodec = dataCodec;
+    this.algorithm = algorithm;
+    this.ringThreshold = ringThreshold;
+    this.commGroupNetworkHandler = commGroupNetworkHandler;
+    this.topology = topology;
+    this.exchange = new PeerExchange(this.groupName, this.operName, selfId, version, root,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.AllGather, sender, topology, peerTimeoutMillis);
+    this.commGroupNetworkHandler.register(this.operName, this);
+    this.commGroupClient = commGroupClient;
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public void initialize() throws ParentDeadException {
+    topology.initialize();
+  }
+
+  @Override
+  public Class<? extends Name<String>> getOperName() {
+    return operName;
+  }
+
+  @Override
+  public Class<? extends Name<String>> getGroupName() {
+    return groupName;
+  }
+
+  @Override
+  public String toString() {
+    return Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + version;
+  }
+
+  @Override
+  public void onNext(final GroupCommunicationMessage msg) {
+    if (exchange.isPeerMessage(msg)) {
+      exchange.onNext(msg);
+    } else {
+      topology.handle(msg);
+    }
+  }
+
+  @Override
+  public List<T> apply(final T element) throws NetworkException, InterruptedException {
+    return apply(element, null);
+  }
+
+  @Override
+  public List<T> apply(final T element, final List<? extends Identifier> order)
+      throws NetworkException, InterruptedException {
+    LOG.entering("AllGatherer", "apply", this);
+
+    if (init.compareAndSet(false, true)) {
+      commGroupClient.initialize();
+    }
+    final PeerExchange.Membership membership;
+    try {
+      membership = exchange.agree(dataCodec.encode(element).length, order);
+    } catch (final ParentDeadException e) {
+      throw new RuntimeException("ParentDeadException", e);
+    }
+    final int rank = membership.getRank();
+    final int size = membership.getSize();
+    final PeerChannel channel = exchange.newChannel(membership);
+
+    final List<T> retVal;
+    if (CollectiveAlgorithms.resolve(algorithm, size, membership.getMaxEncodedSize(), ringThreshold, true)
+        == CollectiveAlgorithms.Algorithm.RING) {
+      retVal = CollectiveAlgorithms.ringAllGather(rank, size, element, dataCodec, channel);
+    } else {
+      retVal = CollectiveAlgorithms.recursiveDoublingAllGather(rank, size, element, dataCodec, channel);
+    }
+    LOG.exiting("AllGatherer", "apply", this);
+    return retVal;
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the asynchronous operations of one operator.
+ * Operations run one at a time on a single daemon thread, in the order they were submitted,
+ * so that their messages reach the topology in the same order as with the blocking calls.
+ * The thread exits when the operator has been idle for a while.
+ */
+final class AsyncOperations {
+
+  private static final long IDLE_TIMEOUT_SECONDS = 60;
+
+  private final ThreadPoolExecutor executor;
+  private final AtomicInteger iteration = new AtomicInteger(0);
+
+  AsyncOperations(final String operatorName) {
+    final ThreadFactory threadFactory = new DefaultThreadFactory("GroupCommAsync-" + operatorName);
+    this.executor = new ThreadPoolExecutor(1, 1, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+          @Override
+          public Thread newThread(final Runnable runnable) {
+            final Thread thread = threadFactory.newThread(runnable);
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * Queue an operation behind the ones already submitted.
+   *
+   * @param operation the blocking call to run
+   * @return handle to the result of the operation
+   */
+  synchronized <T> OperationFuture<T> submit(final Callable<T> operation) {
+    final Operation<T> future = new Operation<>(iteration.getAndIncrement(), operation);
+    executor.execute(future);
+    return future;
+  }
+
+  private static final class Operation<T> extends FutureTask<T> implements OperationFuture<T> {
+
+    private final int iteration;
+
+    Operation(final int iteration, final Callable<T> operation) {
+      super(operation);
+      this.iteration = iteration;
+    }
+
+    @Override
+    public int getIteration() {
+      return iteration;
+    }
+  }
+}
@@ -22,6 +22,7 @@ import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
 import org.apache.reef.io.network.group.api.operators.Broadcast;
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
 import org.apache.reef.io.network.impl.NetworkService;
 import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
@@ -38,6 +39,7 @@ import org.apache.reef.wake.EventHandler;
 
 import javax.inject.Inject;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -57,9 +59,12 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
   private final AtomicBoolean init = new AtomicBoolean(false);
 
   private final CommunicationGroupServiceClient commGroupClient;
+  private final AsyncOperations asyncOperations;
 
   private final int version;
 
+  private final int chunkSize;
+
   @Inject
   public BroadcastReceiver(@Parameter(CommunicationGroupName.class) final String groupName,
                            @Parameter(OperatorName.class) final String operName,
@@ -67,11 +72,13 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
                            @Parameter(DataCodec.class) final Codec<T> dataCodec,
                            @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                            @Parameter(TaskVersion.class) final int version,
+                           @Parameter(PipelineChunkSize.class) final int chunkSize,
                            final CommGroupNetworkHandler commGroupNetworkHandler,
                            final NetworkService<GroupCommunicationMessage> netService,
                            final CommunicationGroupServiceClient commGroupClient) {
     super();
     this.version = version;
+    this.chunkSize = chunkSize;
     LOG.finest(operName + " has CommGroupHandler-" + commGroupNetworkHandler.toString());
     this.groupName = Utils.getClass(groupName);
     this.operName = Utils.getClass(operName);
@@ -82,6 +89,7 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
     this.commGroupNetworkHandler.register(this.operName, this);
     this.commGroupClient = commGroupClient;
+    this.asyncOperations = new AsyncOperations(Utils.simpleName(this.operName));
   }
 
   @Override
@@ -131,7 +139,12 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
     LOG.fine(this + " Waiting to receive broadcast");
     final byte[] data;
     try {
-      data = topology.recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      if (chunkSize > 0) {
+        // chunks are forwarded to the children as they arrive
+        data = topology.recvFromParentInChunks(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      } else {
+        data = topology.recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      }
       // TODO: Should receive the identity element instead of null
       if (data == null) {
         LOG.fine(this + " Received null. Perhaps one of my ancestors is dead.");
@@ -143,7 +156,9 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
         LOG.finest(this + " Sending to children.");
       }
 
-      topology.sendToChildren(data, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      if (chunkSize <= 0) {
+        topology.sendToChildren(data, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      }
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
@@ -151,4 +166,13 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
     return retVal;
   }
 
+  @Override
+  public OperationFuture<T> receiveAsync() {
+    return asyncOperations.submit(new Callable<T>() {
+      @Override
+      public T call() throws NetworkException, InterruptedException {
+        return receive();
+      }
+    });
+  }
 }
@@ -22,6 +22,7 @@ import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
 import org.apache.reef.io.network.group.api.operators.Broadcast;
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
 import org.apache.reef.io.network.impl.NetworkService;
 import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
@@ -38,6 +39,7 @@ import org.apache.reef.wake.EventHandler;
 
 import javax.inject.Inject;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -57,9 +59,12 @@ public class BroadcastSender<T> implements Broadcast.Sender<T>, EventHandler<Gro
   private final AtomicBoolean init = new AtomicBoolean(false);
 
   private final CommunicationGroupServiceClient commGroupClient;
+  private final AsyncOperations asyncOperations;
 
   private final int version;
 
+  private final int chunkSize;
+
   @Inject
   public BroadcastSender(@Parameter(CommunicationGroupName.class) final String groupName,
                          @Parameter(OperatorName.class) final String operName,
@@ -67,11 +72,13 @@ public class BroadcastSender<T> implements Broadcast.Sender<T>, EventHandler<Gro
                          @Parameter(DataCodec.class) final Codec<T> dataCodec,
                          @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                          @Parameter(TaskVersion.class) final int version,
+                         @Parameter(PipelineChunkSize.class) final int chunkSize,
                          final CommGroupNetworkHandler commGroupNetworkHandler,
                          final NetworkService<GroupCommunicationMessage> netService,
                          final CommunicationGroupServiceClient commGroupClient) {
     super();
     this.version = version;
+    this.chunkSize = chunkSize;
     LOG.finest(operName + "has CommGroupHandler-" + commGroupNetworkHandler.toString());
     this.groupName = Utils.getClass(groupName);
     this.operName = Utils.getClass(operName);
@@ -82,6 +89,7 @@ public class BroadcastSender<T> implements Broadcast.Sender<T>, EventHandler<Gro
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
     this.commGroupNetworkHandler.register(this.operName, this);
     this.commGroupClient = commGroupClient;
+    this.asyncOperations = new AsyncOperations(Utils.simpleName(this.operName));
   }
 
   @Override
@@ -126,11 +134,26 @@ public class BroadcastSender<T> implements Broadcast.Sender<T>, EventHandler<Gro
     }
 
     try {
-      topology.sendToChildren(dataCodec.encode(element), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      if (chunkSize > 0) {
+        topology.sendToChildrenInChunks(dataCodec.encode(element),
+            ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast, chunkSize);
+      } else {
+        topology.sendToChildren(dataCodec.encode(element), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      }
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
     LOG.exiting("BroadcastSender", "send", this);
   }
 
+  @Override
+  public OperationFuture<Void> sendAsync(final T element) {
+    return asyncOperations.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws NetworkException, InterruptedException {
+        send(element);
+        return null;
+      }
+    });
+  }
 }
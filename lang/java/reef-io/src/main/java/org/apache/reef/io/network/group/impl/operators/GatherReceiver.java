@@ -22,6 +22,7 @@ import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
 import org.apache.reef.io.network.group.api.operators.Gather;
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
 import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
 import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
 import org.apache.reef.io.network.group.api.task.OperatorTopology;
@@ -41,6 +42,7 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -54,6 +56,7 @@ public class GatherReceiver<T> implements Gather.Receiver<T>, EventHandler<Group
   private final Codec<T> dataCodec;
   private final OperatorTopology topology;
   private final CommunicationGroupServiceClient commGroupClient;
+  private final AsyncOperations asyncOperations;
   private final AtomicBoolean init = new AtomicBoolean(false);
   private final int version;
 
@@ -75,6 +78,7 @@ public class GatherReceiver<T> implements Gather.Receiver<T>, EventHandler<Group
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName,
                                              selfId, driverId, new Sender(netService), version);
     this.commGroupClient = commGroupClient;
+    this.asyncOperations = new AsyncOperations(Utils.simpleName(this.operName));
     commGroupNetworkHandler.register(this.operName, this);
   }
 
@@ -186,4 +190,14 @@ public class GatherReceiver<T> implements Gather.Receiver<T>, EventHandler<Group
     LOG.exiting("GatherReceiver", "receiveMapOfTaskIdToData");
     return mapOfTaskIdToData;
   }
+
+  @Override
+  public OperationFuture<List<T>> receiveAsync() {
+    return asyncOperations.submit(new Callable<List<T>>() {
+      @Override
+      public List<T> call() throws NetworkException, InterruptedException {
+        return receive();
+      }
+    });
+  }
 }
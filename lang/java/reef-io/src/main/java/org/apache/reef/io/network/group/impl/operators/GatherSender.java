@@ -22,6 +22,7 @@ import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
 import org.apache.reef.io.network.group.api.operators.Gather;
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
 import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
 import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
 import org.apache.reef.io.network.group.api.task.OperatorTopology;
@@ -40,6 +41,7 @@ import javax.inject.Inject;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -53,6 +55,7 @@ public class GatherSender<T> implements Gather.Sender<T>, EventHandler<GroupComm
   private final NetworkService<GroupCommunicationMessage> netService;
   private final OperatorTopology topology;
   private final CommunicationGroupServiceClient commGroupClient;
+  private final AsyncOperations asyncOperations;
   private final AtomicBoolean init = new AtomicBoolean(false);
   private final int version;
 
@@ -75,6 +78,7 @@ public class GatherSender<T> implements Gather.Sender<T>, EventHandler<GroupComm
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName,
                                              selfId, driverId, new Sender(netService), version);
     this.commGroupClient = commGroupClient;
+    this.asyncOperations = new AsyncOperations(Utils.simpleName(this.operName));
     commGroupNetworkHandler.register(this.operName, this);
   }
 
@@ -149,4 +153,15 @@ public class GatherSender<T> implements Gather.Sender<T>, EventHandler<GroupComm
     }
     LOG.exiting("GatherSender", "send");
   }
+
+  @Override
+  public OperationFuture<Void> sendAsync(final T myData) {
+    return asyncOperations.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws NetworkException, InterruptedException {
+        send(myData);
+        return null;
+      }
+    });
+  }
 }
@@ -0,0 +1,314 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.task.OperatorTopology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.utils.PeerChannel;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.wake.Identifier;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * Membership agreement and point-to-point messaging for the symmetric operators.
+ * <p>
+ * Before every operation the members agree on who takes part: the ids, versions and
+ * operand sizes are gathered up the operator's topology and the root broadcasts the
+ * ranked member list back down. The operation itself then runs peer to peer, with
+ * messages of the operator's own type that carry a per-pair sequence number.
+ * Those messages bypass the topology, so they must be routed to {@link #onNext}.
+ */
+final class PeerExchange {
+
+  private static final Logger LOG = Logger.getLogger(PeerExchange.class.getName());
+
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final String selfId;
+  private final int version;
+  private final boolean root;
+  private final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType;
+  private final Sender sender;
+  private final OperatorTopology topology;
+  private final long timeoutMillis;
+
+  private final ConcurrentMap<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+  private final Map<String, Integer> sendSequences = new HashMap<>();
+
+  PeerExchange(final Class<? extends Name<String>> groupName,
+               final Class<? extends Name<String>> operName,
+               final String selfId,
+               final int version,
+               final boolean root,
+               final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+               final Sender sender,
+               final OperatorTopology topology,
+               final long timeoutMillis) {
+    this.groupName = groupName;
+    this.operName = operName;
+    this.selfId = selfId;
+    this.version = version;
+    this.root = root;
+    this.msgType = msgType;
+    this.sender = sender;
+    this.topology = topology;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * @return whether msg is a peer-to-peer message of this operator
+   */
+  boolean isPeerMessage(final GroupCommunicationMessage msg) {
+    return msg.getType() == msgType;
+  }
+
+  /**
+   * Queue a peer-to-peer message for the operation that waits for it.
+   */
+  void onNext(final GroupCommunicationMessage msg) {
+    final byte[][] data = msg.getData();
+    final int sequence = ByteBuffer.wrap(data[0]).getInt();
+    getMailbox(key(msg.getSrcid(), msg.getSrcVersion())).put(sequence, data[1]);
+  }
+
+  /**
+   * Agree on the members of the next operation.
+   *
+   * @param encodedSize size of this task's encoded operand
+   * @param order preferred rank order; only the order given at the root is used
+   * @return the agreed membership
+   */
+  Membership agree(final long encodedSize, final List<? extends Identifier> order) throws ParentDeadException {
+    LOG.entering("PeerExchange", "agree", new Object[]{this, encodedSize});
+    final byte[] fromChildren = topology.recvFromChildren();
+    final byte[] subtree;
+    try (final ByteArrayOutputStream bstream = new ByteArrayOutputStream();
+         final DataOutputStream dstream = new DataOutputStream(bstream)) {
+      dstream.write(fromChildren);
+      dstream.writeUTF(selfId);
+      dstream.writeInt(version);
+      dstream.writeLong(encodedSize);
+      dstream.flush();
+      subtree = bstream.toByteArray();
+    } catch (final IOException e) {
+      throw new RuntimeException("IOException while encoding membership", e);
+    }
+
+    final byte[] agreed;
+    if (root) {
+      agreed = rank(subtree, order);
+    } else {
+      topology.sendToParent(subtree, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Gather);
+      agreed = topology.recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+    }
+    topology.sendToChildren(agreed, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+
+    final Membership membership = decodeMembership(agreed);
+    LOG.exiting("PeerExchange", "agree", new Object[]{this, membership});
+    return membership;
+  }
+
+  /**
+   * @return channel to the members of membership
+   */
+  PeerChannel newChannel(final Membership membership) {
+    return new PeerChannel() {
+      @Override
+      public void send(final int peer, final byte[] data) throws NetworkException {
+        final String peerId = membership.ids.get(peer);
+        final int peerVersion = membership.versions.get(peer);
+        final String peerKey = key(peerId, peerVersion);
+        final Integer sequence = sendSequences.get(peerKey);
+        final int nextSequence = sequence == null ? 0 : sequence;
+        sendSequences.put(peerKey, nextSequence + 1);
+        sender.send(Utils.bldVersionedGCM(groupName, operName, msgType, selfId, version, peerId, peerVersion,
+            ByteBuffer.allocate(4).putInt(nextSequence).array(), data));
+      }
+
+      @Override
+      public byte[] receive(final int peer) throws NetworkException, InterruptedException {
+        final String peerId = membership.ids.get(peer);
+        final byte[] data = getMailbox(key(peerId, membership.versions.get(peer))).poll(timeoutMillis);
+        if (data == null) {
+          throw new NetworkException(PeerExchange.this + " received nothing from " + peerId + " in "
+              + timeoutMillis + " ms");
+        }
+        return data;
+      }
+    };
+  }
+
+  private byte[] rank(final byte[] subtree, final List<? extends Identifier> order) {
+    final Map<String, Integer> versions = new HashMap<>();
+    long maxEncodedSize = 0;
+    try (final DataInputStream dstream = new DataInputStream(new ByteArrayInputStream(subtree))) {
+      while (dstream.available() > 0) {
+        final String id = dstream.readUTF();
+        versions.put(id, dstream.readInt());
+        maxEncodedSize = Math.max(maxEncodedSize, dstream.readLong());
+      }
+    } catch (final IOException e) {
+      throw new RuntimeException("IOException while decoding membership", e);
+    }
+
+    final List<String> ranked = new ArrayList<>(versions.size());
+    if (order != null) {
+      for (final Identifier id : order) {
+        final String idStr = id.toString();
+        if (versions.containsKey(idStr) && !ranked.contains(idStr)) {
+          ranked.add(idStr);
+        }
+      }
+    }
+    final List<String> rest = new ArrayList<>(versions.keySet());
+    rest.removeAll(ranked);
+    Collections.sort(rest);
+    ranked.addAll(rest);
+
+    try (final ByteArrayOutputStream bstream = new ByteArrayOutputStream();
+         final DataOutputStream dstream = new DataOutputStream(bstream)) {
+      dstream.writeLong(maxEncodedSize);
+      dstream.writeInt(ranked.size());
+      for (final String id : ranked) {
+        dstream.writeUTF(id);
+        dstream.writeInt(versions.get(id));
+      }
+      dstream.flush();
+      return bstream.toByteArray();
+    } catch (final IOException e) {
+      throw new RuntimeException("IOException while encoding membership", e);
+    }
+  }
+
+  private Membership decodeMembership(final byte[] data) {
+    try (final DataInputStream dstream = new DataInputStream(new ByteArrayInputStream(data))) {
+      final long maxEncodedSize = dstream.readLong();
+      final int size = dstream.readInt();
+      final List<String> ids = new ArrayList<>(size);
+      final List<Integer> versions = new ArrayList<>(size);
+      int rank = -1;
+      for (int i = 0; i < size; i++) {
+        final String id = dstream.readUTF();
+        ids.add(id);
+        versions.add(dstream.readInt());
+        if (id.equals(selfId)) {
+          rank = i;
+        }
+      }
+      return new Membership(ids, versions, rank, maxEncodedSize);
+    } catch (final IOException e) {
+      throw new RuntimeException("IOException while decoding membership", e);
+    }
+  }
+
+  private Mailbox getMailbox(final String peerKey) {
+    final Mailbox mailbox = mailboxes.get(peerKey);
+    if (mailbox != null) {
+      return mailbox;
+    }
+    final Mailbox newMailbox = new Mailbox();
+    final Mailbox existing = mailboxes.putIfAbsent(peerKey, newMailbox);
+    return existing == null ? newMailbox : existing;
+  }
+
+  private static String key(final String id, final int idVersion) {
+    return id + ":" + idVersion;
+  }
+
+  @Override
+  public String toString() {
+    return Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + version;
+  }
+
+  /**
+   * The ranked members of one operation.
+   */
+  static final class Membership {
+    private final List<String> ids;
+    private final List<Integer> versions;
+    private final int rank;
+    private final long maxEncodedSize;
+
+    Membership(final List<String> ids, final List<Integer> versions, final int rank, final long maxEncodedSize) {
+      this.ids = ids;
+      this.versions = versions;
+      this.rank = rank;
+      this.maxEncodedSize = maxEncodedSize;
+    }
+
+    List<String> getIds() {
+      return ids;
+    }
+
+    int getRank() {
+      return rank;
+    }
+
+    int getSize() {
+      return ids.size();
+    }
+
+    long getMaxEncodedSize() {
+      return maxEncodedSize;
+    }
+
+    @Override
+    public String toString() {
+      return "Membership: [rank=" + rank + "] [members=" + ids + "]";
+    }
+  }
+
+  /**
+   * Messages from one peer, handed out in sequence order.
+   */
+  private static final class Mailbox {
+    private final Map<Integer, byte[]> pending = new HashMap<>();
+    private int nextSequence;
+
+    synchronized void put(final int sequence, final byte[] data) {
+      pending.put(sequence, data);
+      notifyAll();
+    }
+
+    /**
+     * @return the next message, or null if it did not arrive within timeoutMillis
+     */
+    synchronized byte[] poll(final long timeoutMillis) throws InterruptedException {
+      final long deadline = System.currentTimeMillis() + timeoutMillis;
+      while (!pending.containsKey(nextSequence)) {
+        final long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+          return null;
+        }
+        wait(remaining);
+      }
+      return pending.remove(nextSequence++);
+    }
+  }
+}
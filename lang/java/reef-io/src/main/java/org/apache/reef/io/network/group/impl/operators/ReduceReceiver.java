@@ -21,6 +21,8 @@ package org.apache.reef.io.network.group.impl.operators;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.AllReduce.PartitionedReduceFunction;
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
 import org.apache.reef.io.network.group.api.operators.Reduce;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
 import org.apache.reef.io.network.impl.NetworkService;
@@ -40,6 +42,7 @@ import org.apache.reef.wake.Identifier;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -58,11 +61,14 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
   private final OperatorTopology topology;
 
   private final CommunicationGroupServiceClient commGroupClient;
+  private final AsyncOperations asyncOperations;
 
   private final AtomicBoolean init = new AtomicBoolean(false);
 
   private final int version;
 
+  private final int chunkSize;
+
   @Inject
   public ReduceReceiver(@Parameter(CommunicationGroupName.class) final String groupName,
                         @Parameter(OperatorName.class) final String operName,
@@ -71,11 +77,13 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
                         @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
                         @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                         @Parameter(TaskVersion.class) final int version,
+                        @Parameter(PipelineChunkSize.class) final int chunkSize,
                         final CommGroupNetworkHandler commGroupNetworkHandler,
                         final NetworkService<GroupCommunicationMessage> netService,
                         final CommunicationGroupServiceClient commGroupClient) {
     super();
     this.version = version;
+    this.chunkSize = chunkSize;
     LOG.finest(operName + " has CommGroupHandler-" + commGroupNetworkHandler.toString());
     this.groupName = Utils.getClass(groupName);
     this.operName = Utils.getClass(operName);
@@ -87,6 +95,7 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
     this.commGroupNetworkHandler.register(this.operName, this);
     this.commGroupClient = commGroupClient;
+    this.asyncOperations = new AsyncOperations(Utils.simpleName(this.operName));
   }
 
   @Override
@@ -132,7 +141,14 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
     // Wait for children to send
     final T redVal;
     try {
-      redVal = topology.recvFromChildren(reduceFunction, dataCodec);
+      if (chunkSize > 0 && reduceFunction instanceof PartitionedReduceFunction) {
+        redVal = topology.reduceInParts(null, (PartitionedReduceFunction<T>) reduceFunction, dataCodec, chunkSize,
+            false);
+      } else if (chunkSize > 0) {
+        redVal = topology.recvFromChildrenInChunks(reduceFunction, dataCodec);
+      } else {
+        redVal = topology.recvFromChildren(reduceFunction, dataCodec);
+      }
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
@@ -150,4 +166,13 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
     return reduceFunction;
   }
 
+  @Override
+  public OperationFuture<T> reduceAsync() {
+    return asyncOperations.submit(new Callable<T>() {
+      @Override
+      public T call() throws NetworkException, InterruptedException {
+        return reduce();
+      }
+    });
+  }
 }
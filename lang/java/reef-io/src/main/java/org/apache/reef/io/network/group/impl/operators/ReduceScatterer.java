@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.operators.ReduceScatter;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.api.task.OperatorTopology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.group.impl.task.OperatorTopologyImpl;
+import org.apache.reef.io.network.group.impl.utils.CollectiveAlgorithms;
+import org.apache.reef.io.network.group.impl.utils.PeerChannel;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ReduceScatter run peer to peer among the members of the operator's topology.
+ * Large lists use the ring algorithm, in which every task receives only its own portion.
+ * Small lists are all-reduced by recursive doubling and every task keeps its portion.
+ */
+public class ReduceScatterer<T> implements ReduceScatter<T>, EventHandler<GroupCommunicationMessage> {
+
+  private static final Logger LOG = Logger.getLogger(ReduceScatterer.class.getName());
+
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final CommGroupNetworkHandler commGroupNetworkHandler;
+  private final Codec<T> dataCodec;
+  private final ReduceFunction<T> reduceFunction;
+  private final CollectiveAlgorithms.Algorithm algorithm;
+  private final int ringThreshold;
+
+  private final OperatorTopology topology;
+  private final PeerExchange exchange;
+
+  private final CommunicationGroupServiceClient commGroupClient;
+
+  private final AtomicBoolean init = new AtomicBoolean(false);
+
+  private final int version;
+
+  @Inject
+  public ReduceScatterer(
+      @Parameter(CommunicationGroupName.class) final String groupName,
+      @Parameter(OperatorName.class) final String operName,
+      @Parameter(TaskConfigurationOptions.Identifier.class) final String selfId,
+      @Parameter(DataCodec.class) final Codec<T> dataCodec,
+      @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
+      @Parameter(DriverIdentifierGroupComm.class) final String driverId,
+      @Parameter(TaskVersion.class) final int version,
+      @Parameter(CollectiveRoot.class) final boolean root,
+      @Parameter(CollectiveAlgorithmParam.class) final String algorithm,
+      @Parameter(RingThresholdBytes.class) final int ringThreshold,
+      @Parameter(PeerReceiveTimeoutMillis.class) final long peerTimeoutMillis,
+      final CommGroupNetworkHandler commGroupNetworkHandler,
+      final NetworkService<GroupCommunicationMessage> netService,
+      final CommunicationGroupServiceClient commGroupClient) {
+
+    this(Utils.getClass(groupName), Utils.getClass(operName), selfId, dataCodec, reduceFunction, version, root,
+        CollectiveAlgorithms.Algorithm.valueOf(algorithm), ringThreshold, peerTimeoutMillis, new Sender(netService),
+        new OperatorTopologyImpl(Utils.getClass(groupName), Utils.getClass(operName), selfId, driverId,
+            new Sender(netService), version),
+        commGroupNetworkHandler, commGroupClient);
+  }
+
+  /**
+   * Constructor with the sender and topology given, so that the operator can run without a network service.
+   */
+  ReduceScatterer(
+      final Class<? extends Name<String>> groupName,
+      final Class<? extends Name<String>> operName,
+      final String selfId,
+      final Codec<T> dataCodec,
+      final ReduceFunction<T> reduceFunction,
+      final int version,
+      final boolean root,
+      final CollectiveAlgorithms.Algorithm algorithm,
+      final int ringThreshold,
+      final long peerTimeoutMillis,
+      final Sender sender,
+      final OperatorTopology topology,
+      final CommGroupNetworkHandler commGroupNetworkHandler,
+      final CommunicationGroupServiceClient commGroupClient) {
+
+    super();
+
+    LOG.log(Level.FINEST, "{0} has CommGroupHandler-{1}",
+        new Object[]{operName, commGroupNetworkHandler});
+
+    this.version = version;
+    this.groupName = groupName;
+    this.operName = operName;
+    this.dataCodec = dataCodec;
+    this.reduceFunction = reduceFunction;
+    this.algorithm = algorithm;
+    this.ringThreshold = ringThreshold;
+    this.commGroupNetworkHandler = commGroupNetworkHandler;
+    this.topology = topology;
+    this.exchange = new PeerExchange(this.groupName, this.operName, selfId, version, root,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.ReduceScatter, sender, topology, peerTimeoutMillis);
+    this.commGroupNetworkHandler.register(this.operName, this);
+    this.commGroupClient = commGroupClient;
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public void initialize() throws ParentDeadException {
+    topology.initialize();
+  }
+
+  @Override
+  public Class<? extends Name<String>> getOperName() {
+    return operName;
+  }
+
+  @Override
+  public Class<? extends Name<String>> getGroupName() {
+    return groupName;
+  }
+
+  @Override
+  public String toString() {
+    return Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + version;
+  }
+
+  @Override
+  public void onNext(final GroupCommunicationMessage msg) {
+    if (exchange.isPeerMessage(msg)) {
+      exchange.onNext(msg);
+    } else {
+      topology.handle(msg);
+    }
+  }
+
+  @Override
+  public List<T> apply(final List<T> elements, final List<Integer> counts)
+      throws InterruptedException, NetworkException {
+    return apply(elements, counts, null);
+  }
+
+  @Override
+  public List<T> apply(final List<T> elements, final List<Integer> counts,
+                       final List<? extends Identifier> order) throws InterruptedException, NetworkException {
+    LOG.entering("ReduceScatterer", "apply", this);
+
+    if (init.compareAndSet(false, true)) {
+      commGroupClient.initialize();
+    }
+    final Codec<List<T>> listCodec = CollectiveAlgorithms.listCodec(dataCodec);
+    final ReduceFunction<List<T>> listFunction = CollectiveAlgorithms.elementwise(reduceFunction);
+    final PeerExchange.Membership membership;
+    try {
+      membership = exchange.agree(listCodec.encode(elements).length, order);
+    } catch (final ParentDeadException e) {
+      throw new RuntimeException("ParentDeadException", e);
+    }
+    final int rank = membership.getRank();
+    final int size = membership.getSize();
+    if (counts.size() != size) {
+      throw new IllegalArgumentException("Expected " + size + " counts but got " + counts.size());
+    }
+    final PeerChannel channel = exchange.newChannel(membership);
+    final List<List<T>> blocks = CollectiveAlgorithms.splitByCounts(elements, counts);
+
+    final List<T> retVal;
+    if (CollectiveAlgorithms.resolve(algorithm, size, membership.getMaxEncodedSize(), ringThreshold, true)
+        == CollectiveAlgorithms.Algorithm.RING) {
+      retVal = CollectiveAlgorithms.ringReduceScatter(rank, size, blocks, listFunction, listCodec, channel);
+    } else {
+      final List<T> reduced = CollectiveAlgorithms.recursiveDoubling(rank, size, elements, listFunction, listCodec,
+          channel);
+      retVal = CollectiveAlgorithms.splitByCounts(reduced, counts).get(rank);
+    }
+    LOG.exiting("ReduceScatterer", "apply", this);
+    return retVal;
+  }
+
+  @Override
+  public ReduceFunction<T> getReduceFunction() {
+    return reduceFunction;
+  }
+}
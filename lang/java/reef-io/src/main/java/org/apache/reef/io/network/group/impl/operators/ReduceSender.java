@@ -21,8 +21,11 @@ package org.apache.reef.io.network.group.impl.operators;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.AllReduce.PartitionedReduceFunction;
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
 import org.apache.reef.io.network.group.api.operators.Reduce;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.operators.Reduce.StreamingReduceFunction;
 import org.apache.reef.io.network.impl.NetworkService;
 import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
 import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
@@ -40,6 +43,7 @@ import org.apache.reef.wake.EventHandler;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -59,11 +63,14 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
   private final OperatorTopology topology;
 
   private final CommunicationGroupServiceClient commGroupClient;
+  private final AsyncOperations asyncOperations;
 
   private final AtomicBoolean init = new AtomicBoolean(false);
 
   private final int version;
 
+  private final int chunkSize;
+
   @Inject
   public ReduceSender(
       @Parameter(CommunicationGroupName.class) final String groupName,
@@ -73,6 +80,7 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
       @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
       @Parameter(DriverIdentifierGroupComm.class) final String driverId,
       @Parameter(TaskVersion.class) final int version,
+      @Parameter(PipelineChunkSize.class) final int chunkSize,
       final CommGroupNetworkHandler commGroupNetworkHandler,
       final NetworkService<GroupCommunicationMessage> netService,
       final CommunicationGroupServiceClient commGroupClient) {
@@ -83,6 +91,7 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
         new Object[]{operName, commGroupNetworkHandler});
 
     this.version = version;
+    this.chunkSize = chunkSize;
     this.groupName = Utils.getClass(groupName);
     this.operName = Utils.getClass(operName);
     this.dataCodec = dataCodec;
@@ -93,6 +102,7 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
     this.commGroupNetworkHandler.register(this.operName, this);
     this.commGroupClient = commGroupClient;
+    this.asyncOperations = new AsyncOperations(Utils.simpleName(this.operName));
   }
 
   @Override
@@ -137,14 +147,33 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
     LOG.finest("Waiting for children");
     // Wait for children to send
     try {
-      final T reducedValueOfChildren = topology.recvFromChildren(reduceFunction, dataCodec);
-      final List<T> vals = new ArrayList<>(2);
-      vals.add(myData);
-      if (reducedValueOfChildren != null) {
-        vals.add(reducedValueOfChildren);
+      if (chunkSize > 0 && reduceFunction instanceof PartitionedReduceFunction) {
+        // reduce and forward part by part
+        topology.reduceInParts(myData, (PartitionedReduceFunction<T>) reduceFunction, dataCodec, chunkSize, true);
+      } else {
+        final T reducedValueOfChildren = chunkSize > 0 ?
+            topology.recvFromChildrenInChunks(reduceFunction, dataCodec) :
+            topology.recvFromChildren(reduceFunction, dataCodec);
+        final T reducedValue;
+        if (reduceFunction instanceof StreamingReduceFunction) {
+          // fold my data into the children's accumulator instead of allocating a new value
+          reducedValue = ((StreamingReduceFunction<T>) reduceFunction).fold(reducedValueOfChildren, myData);
+        } else {
+          final List<T> vals = new ArrayList<>(2);
+          vals.add(myData);
+          if (reducedValueOfChildren != null) {
+            vals.add(reducedValueOfChildren);
+          }
+          reducedValue = reduceFunction.apply(vals);
+        }
+        if (chunkSize > 0) {
+          topology.sendToParentInChunks(dataCodec.encode(reducedValue),
+              ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce, chunkSize);
+        } else {
+          topology.sendToParent(dataCodec.encode(reducedValue),
+              ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
+        }
       }
-      final T reducedValue = reduceFunction.apply(vals);
-      topology.sendToParent(dataCodec.encode(reducedValue), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
@@ -155,4 +184,15 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
   public ReduceFunction<T> getReduceFunction() {
     return reduceFunction;
   }
+
+  @Override
+  public OperationFuture<Void> sendAsync(final T myData) {
+    return asyncOperations.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws NetworkException, InterruptedException {
+        send(myData);
+        return null;
+      }
+    });
+  }
 }
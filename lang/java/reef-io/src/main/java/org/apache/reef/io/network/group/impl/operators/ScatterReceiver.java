@@ -21,6 +21,7 @@ package org.apache.reef.io.network.group.impl.operators;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
 import org.apache.reef.io.network.group.api.operators.Scatter;
 import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
 import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
@@ -41,6 +42,7 @@ import org.apache.reef.wake.EventHandler;
 import javax.inject.Inject;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -54,6 +56,7 @@ public final class ScatterReceiver<T> implements Scatter.Receiver<T>, EventHandl
   private final OperatorTopology topology;
   private final AtomicBoolean init = new AtomicBoolean(false);
   private final CommunicationGroupServiceClient commGroupClient;
+  private final AsyncOperations asyncOperations;
   private final int version;
   private final ScatterDecoder scatterDecoder;
 
@@ -77,6 +80,7 @@ public final class ScatterReceiver<T> implements Scatter.Receiver<T>, EventHandl
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName,
                                              selfId, driverId, new Sender(netService), version);
     this.commGroupClient = commGroupClient;
+    this.asyncOperations = new AsyncOperations(Utils.simpleName(this.operName));
     commGroupNetworkHandler.register(this.operName, this);
   }
 
@@ -157,4 +161,14 @@ public final class ScatterReceiver<T> implements Scatter.Receiver<T>, EventHandl
       throw new RuntimeException("ParentDeadException", e);
     }
   }
+
+  @Override
+  public OperationFuture<List<T>> receiveAsync() {
+    return asyncOperations.submit(new Callable<List<T>>() {
+      @Override
+      public List<T> call() throws NetworkException, InterruptedException {
+        return receive();
+      }
+    });
+  }
 }
@@ -21,6 +21,7 @@ package org.apache.reef.io.network.group.impl.operators;
 import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
 import org.apache.reef.io.network.group.api.operators.Scatter;
 import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
 import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
@@ -43,6 +44,7 @@ import javax.inject.Inject;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -56,6 +58,7 @@ public final class ScatterSender<T> implements Scatter.Sender<T>, EventHandler<G
   private final OperatorTopology topology;
   private final AtomicBoolean init = new AtomicBoolean(false);
   private final CommunicationGroupServiceClient commGroupClient;
+  private final AsyncOperations asyncOperations;
   private final int version;
   private final ScatterEncoder scatterEncoder;
 
@@ -79,6 +82,7 @@ public final class ScatterSender<T> implements Scatter.Sender<T>, EventHandler<G
     this.topology = new OperatorTopologyImpl(this.groupName, this.operName,
                                              selfId, driverId, new Sender(netService), version);
     this.commGroupClient = commGroupClient;
+    this.asyncOperations = new AsyncOperations(Utils.simpleName(this.operName));
     commGroupNetworkHandler.register(this.operName, this);
   }
 
@@ -196,4 +200,27 @@ public final class ScatterSender<T> implements Scatter.Sender<T>, EventHandler<G
 
     LOG.exiting("ScatterSender", "send");
   }
+
+  @Override
+  public OperationFuture<Void> sendAsync(final List<T> elements) {
+    return asyncOperations.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws NetworkException, InterruptedException {
+        send(elements);
+        return null;
+      }
+    });
+  }
+
+  @Override
+  public OperationFuture<Void> sendAsync(final List<T> elements, final List<Integer> counts,
+                                         final List<? extends Identifier> order) {
+    return asyncOperations.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws NetworkException, InterruptedException {
+        send(elements, counts, order);
+        return null;
+      }
+    });
+  }
 }
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.Barrier;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.api.task.OperatorTopology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.group.impl.task.OperatorTopologyImpl;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Barrier over the operator's tree. Each task waits for its children to arrive,
+ * reports its own arrival to its parent and waits to be released; the root releases
+ * its children once its whole subtree has arrived, and the release travels down the tree.
+ * <p>
+ * Arrivals travel as Gather and releases as Broadcast messages of the operator.
+ * Both carry a one-byte token, which is small enough to skip the handshake of big
+ * messages and is not mistaken for its empty readiness message.
+ */
+public final class TreeBarrier implements Barrier, EventHandler<GroupCommunicationMessage> {
+
+  private static final Logger LOG = Logger.getLogger(TreeBarrier.class.getName());
+
+  private static final byte[] TOKEN = {1};
+
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final OperatorTopology topology;
+  private final CommunicationGroupServiceClient commGroupClient;
+  private final AtomicBoolean init = new AtomicBoolean(false);
+  private final int version;
+  private final boolean root;
+
+  @Inject
+  public TreeBarrier(@Parameter(CommunicationGroupName.class) final String groupName,
+                     @Parameter(OperatorName.class) final String operName,
+                     @Parameter(TaskConfigurationOptions.Identifier.class) final String selfId,
+                     @Parameter(DriverIdentifierGroupComm.class) final String driverId,
+                     @Parameter(TaskVersion.class) final int version,
+                     @Parameter(CollectiveRoot.class) final boolean root,
+                     final CommGroupNetworkHandler commGroupNetworkHandler,
+                     final NetworkService<GroupCommunicationMessage> netService,
+                     final CommunicationGroupServiceClient commGroupClient) {
+    this(Utils.getClass(groupName), Utils.getClass(operName), version, root,
+        new OperatorTopologyImpl(Utils.getClass(groupName), Utils.getClass(operName), selfId, driverId,
+            new Sender(netService), version),
+        commGroupNetworkHandler, commGroupClient);
+  }
+
+  /**
+   * Constructor with the topology given, so that the barrier can run without a network service.
+   */
+  TreeBarrier(final Class<? extends Name<String>> groupName,
+              final Class<? extends Name<String>> operName,
+              final int version,
+              final boolean root,
+              final OperatorTopology topology,
+              final CommGroupNetworkHandler commGroupNetworkHandler,
+              final CommunicationGroupServiceClient commGroupClient) {
+    LOG.finest(operName + " has CommGroupHandler-" + commGroupNetworkHandler.toString());
+    this.version = version;
+    this.root = root;
+    this.groupName = groupName;
+    this.operName = operName;
+    this.topology = topology;
+    this.commGroupClient = commGroupClient;
+    commGroupNetworkHandler.register(this.operName, this);
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public void initialize() throws ParentDeadException {
+    topology.initialize();
+  }
+
+  @Override
+  public Class<? extends Name<String>> getOperName() {
+    return operName;
+  }
+
+  @Override
+  public Class<? extends Name<String>> getGroupName() {
+    return groupName;
+  }
+
+  @Override
+  public String toString() {
+    return "TreeBarrier:" + Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + version;
+  }
+
+  @Override
+  public void onNext(final GroupCommunicationMessage msg) {
+    topology.handle(msg);
+  }
+
+  @Override
+  public void await() throws NetworkException, InterruptedException {
+    LOG.entering("TreeBarrier", "await", this);
+
+    if (init.compareAndSet(false, true)) {
+      LOG.fine(this + " Communication group initializing");
+      commGroupClient.initialize();
+      LOG.fine(this + " Communication group initialized");
+    }
+
+    try {
+      LOG.finest(this + " Waiting for children to arrive");
+      topology.recvFromChildren();
+      if (!root) {
+        LOG.finest(this + " Subtree arrived. Waiting for parent to release");
+        topology.sendToParent(TOKEN, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Gather);
+        topology.recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      }
+      topology.sendToChildren(TOKEN, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+    } catch (final ParentDeadException e) {
+      throw new RuntimeException("ParentDeadException", e);
+    }
+    LOG.exiting("TreeBarrier", "await", this);
+  }
+}
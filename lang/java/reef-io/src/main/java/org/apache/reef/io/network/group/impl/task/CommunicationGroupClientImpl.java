@@ -25,6 +25,8 @@ import org.apache.reef.io.network.group.impl.config.parameters.DriverIdentifierG
 import org.apache.reef.io.network.group.impl.driver.TopologySimpleNode;
 import org.apache.reef.io.network.group.impl.driver.TopologySerializer;
 import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.naming.NameClient;
+import org.apache.reef.io.network.naming.exception.NamingException;
 import org.apache.reef.io.network.group.api.GroupChanges;
 import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
 import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
@@ -39,6 +41,7 @@ import org.apache.reef.io.network.group.impl.operators.Sender;
 import org.apache.reef.io.network.group.impl.utils.Utils;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.io.network.util.Pair;
+import org.apache.reef.io.naming.Naming;
 import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
@@ -56,6 +59,7 @@ import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public final class CommunicationGroupClientImpl implements CommunicationGroupServiceClient {
@@ -65,6 +69,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
   private final Class<? extends Name<String>> groupName;
   private final Map<Class<? extends Name<String>>, GroupCommOperator> operators;
   private final Sender sender;
+  private final Naming nameClient;
 
   private final String taskId;
   private final boolean isScatterSender;
@@ -96,6 +101,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
     this.groupCommNetworkHandler = groupCommNetworkHandler;
     this.commGroupNetworkHandler = commGroupNetworkHandler;
     this.sender = new Sender(netService);
+    this.nameClient = netService.getNameClient();
     this.operators = new TreeMap<>(new Comparator<Class<? extends Name<String>>>() {
 
       @Override
@@ -237,6 +243,58 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
     return (Gather.Sender) op;
   }
 
+  @Override
+  public AllReduce getAllReduce(final Class<? extends Name<String>> operatorName) {
+    LOG.entering("CommunicationGroupClientImpl", "getAllReduce", new Object[]{getQualifiedName(),
+        Utils.simpleName(operatorName)});
+    final GroupCommOperator op = operators.get(operatorName);
+    if (!(op instanceof AllReduce)) {
+      throw new RuntimeException("Configured operator is not an all-reduce operator");
+    }
+    commGroupNetworkHandler.addTopologyElement(operatorName);
+    LOG.exiting("CommunicationGroupClientImpl", "getAllReduce", getQualifiedName() + op);
+    return (AllReduce) op;
+  }
+
+  @Override
+  public AllGather getAllGather(final Class<? extends Name<String>> operatorName) {
+    LOG.entering("CommunicationGroupClientImpl", "getAllGather", new Object[]{getQualifiedName(),
+        Utils.simpleName(operatorName)});
+    final GroupCommOperator op = operators.get(operatorName);
+    if (!(op instanceof AllGather)) {
+      throw new RuntimeException("Configured operator is not an all-gather operator");
+    }
+    commGroupNetworkHandler.addTopologyElement(operatorName);
+    LOG.exiting("CommunicationGroupClientImpl", "getAllGather", getQualifiedName() + op);
+    return (AllGather) op;
+  }
+
+  @Override
+  public ReduceScatter getReduceScatter(final Class<? extends Name<String>> operatorName) {
+    LOG.entering("CommunicationGroupClientImpl", "getReduceScatter", new Object[]{getQualifiedName(),
+        Utils.simpleName(operatorName)});
+    final GroupCommOperator op = operators.get(operatorName);
+    if (!(op instanceof ReduceScatter)) {
+      throw new RuntimeException("Configured operator is not a reduce-scatter operator");
+    }
+    commGroupNetworkHandler.addTopologyElement(operatorName);
+    LOG.exiting("CommunicationGroupClientImpl", "getReduceScatter", getQualifiedName() + op);
+    return (ReduceScatter) op;
+  }
+
+  @Override
+  public Barrier getBarrier(final Class<? extends Name<String>> operatorName) {
+    LOG.entering("CommunicationGroupClientImpl", "getBarrier", new Object[]{getQualifiedName(),
+        Utils.simpleName(operatorName)});
+    final GroupCommOperator op = operators.get(operatorName);
+    if (!(op instanceof Barrier)) {
+      throw new RuntimeException("Configured operator is not a barrier operator");
+    }
+    commGroupNetworkHandler.addTopologyElement(operatorName);
+    LOG.exiting("CommunicationGroupClientImpl", "getBarrier", getQualifiedName() + op);
+    return (Barrier) op;
+  }
+
   @Override
   public void initialize() {
     LOG.entering("CommunicationGroupClientImpl", "initialize", getQualifiedName());
@@ -349,6 +407,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
     activeSlaveTasks = pair.getSecond();
     // remove myself
     activeSlaveTasks.remove(identifierFactory.getNewInstance(taskId));
+    prefetchAddresses(activeSlaveTasks);
     // sort the tasks in lexicographical order on task ids
     Collections.sort(activeSlaveTasks, new Comparator<Identifier>() {
       @Override
@@ -360,6 +419,28 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
     LOG.exiting("CommunicationGroupClientImpl", "updateActiveTasks", new Object[]{getQualifiedName(), msg});
   }
 
+  /**
+   * Resolve the addresses of the tasks in one batch before sending to them one by one,
+   * and subscribe to them so that a task registering again after a failure is seen at once.
+   */
+  private void prefetchAddresses(final List<Identifier> taskIds) {
+    if (nameClient instanceof NameClient) {
+      try {
+        final List<String> prefixes = new ArrayList<>(taskIds.size());
+        for (final Identifier id : taskIds) {
+          prefixes.add(id.toString());
+        }
+        ((NameClient) nameClient).subscribe(prefixes);
+        ((NameClient) nameClient).prefetch(taskIds);
+      } catch (final NamingException e) {
+        LOG.log(Level.WARNING, getQualifiedName() + "Could not prefetch task addresses. Will look them up later", e);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("InterruptedException while prefetching task addresses", e);
+      }
+    }
+  }
+
   private boolean isMsgVersionOk(final GroupCommunicationMessage msg) {
     LOG.entering("CommunicationGroupClientImpl", "isMsgVersionOk", new Object[]{getQualifiedName(), msg});
     if (msg.hasVersion()) {
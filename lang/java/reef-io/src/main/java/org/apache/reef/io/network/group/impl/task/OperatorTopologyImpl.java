@@ -20,6 +20,7 @@ package org.apache.reef.io.network.group.impl.task;
 
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.AllReduce;
 import org.apache.reef.io.network.group.api.operators.Reduce;
 import org.apache.reef.io.network.group.api.task.OperatorTopology;
 import org.apache.reef.io.network.group.api.task.OperatorTopologyStruct;
@@ -257,6 +258,60 @@ public class OperatorTopologyImpl implements OperatorTopology {
     return retVal;
   }
 
+  @Override
+  public void sendToChildrenInChunks(final byte[] data, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                     final int chunkSize) throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "sendToChildrenInChunks", new Object[]{getQualifiedName(), msgType});
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    effectiveTopology.sendToChildrenInChunks(data, msgType, chunkSize);
+    LOG.exiting("OperatorTopologyImpl", "sendToChildrenInChunks", getQualifiedName());
+  }
+
+  @Override
+  public byte[] recvFromParentInChunks(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType)
+      throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "recvFromParentInChunks", new Object[]{getQualifiedName(), msgType});
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    final byte[] retVal = effectiveTopology.recvFromParentInChunks(msgType);
+    LOG.exiting("OperatorTopologyImpl", "recvFromParentInChunks", getQualifiedName());
+    return retVal;
+  }
+
+  @Override
+  public void sendToParentInChunks(final byte[] data, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                   final int chunkSize) throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "sendToParentInChunks", new Object[]{getQualifiedName(), msgType});
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    effectiveTopology.sendToParentInChunks(data, msgType, chunkSize);
+    LOG.exiting("OperatorTopologyImpl", "sendToParentInChunks", getQualifiedName());
+  }
+
+  @Override
+  public <T> T recvFromChildrenInChunks(final Reduce.ReduceFunction<T> redFunc, final Codec<T> dataCodec)
+      throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "recvFromChildrenInChunks", getQualifiedName());
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    final T retVal = effectiveTopology.recvFromChildrenInChunks(redFunc, dataCodec);
+    LOG.exiting("OperatorTopologyImpl", "recvFromChildrenInChunks", getQualifiedName());
+    return retVal;
+  }
+
+  @Override
+  public <T> T reduceInParts(final T element, final AllReduce.PartitionedReduceFunction<T> redFunc,
+                             final Codec<T> dataCodec, final int chunkSize, final boolean sendToParent)
+      throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "reduceInParts", getQualifiedName());
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    final T retVal = effectiveTopology.reduceInParts(element, redFunc, dataCodec, chunkSize, sendToParent);
+    LOG.exiting("OperatorTopologyImpl", "reduceInParts", getQualifiedName());
+    return retVal;
+  }
+
   /**
    * Only refreshes the effective topology with deletion msgs from.
    * deletionDeltas queue
@@ -20,7 +20,9 @@ package org.apache.reef.io.network.group.impl.task;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.AllReduce.PartitionedReduceFunction;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.operators.Reduce.StreamingReduceFunction;
 import org.apache.reef.io.network.group.api.task.NodeStruct;
 import org.apache.reef.io.network.group.api.task.OperatorTopologyStruct;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
@@ -29,12 +31,12 @@ import org.apache.reef.io.network.group.impl.utils.Utils;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
 
+import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Logger;
 
 /**
@@ -44,6 +46,31 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
 
   private static final int SMALL_MSG_LENGTH = 1 << 20;
 
+  /**
+   * Chunks start with two ints: offset and total length of the data,
+   * or part index and part count for {@link #reduceInParts}.
+   */
+  private static final int CHUNK_HEADER_LENGTH = 8;
+
+  /**
+   * The largest chunk size whose chunks are sent without the readiness/ACK handshake of big messages.
+   */
+  public static final int MAX_CHUNK_SIZE = SMALL_MSG_LENGTH - CHUNK_HEADER_LENGTH;
+
+  /**
+   * Runs the concurrent sends of {@link #sendToNodes}. Shared by all topologies; idle threads time out.
+   */
+  private static final ExecutorService FAN_OUT_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+    private final ThreadFactory threadFactory = new DefaultThreadFactory("GroupCommFanOut");
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+      final Thread thread = threadFactory.newThread(runnable);
+      thread.setDaemon(true);
+      return thread;
+    }
+  });
+
   private static final Logger LOG = Logger.getLogger(OperatorTopologyStructImpl.class.getName());
 
   private final Class<? extends Name<String>> groupName;
@@ -217,6 +244,56 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     LOG.exiting("OperatorTopologyStructImpl", "sendToNode", getQualifiedName());
   }
 
+  /**
+   * Send data to several nodes. Small messages are plain asynchronous writes and are sent in turn.
+   * If a message needs the readiness/ACK handshake, all sends are issued concurrently so the
+   * round-trips overlap instead of adding up, and this method returns once every send completed.
+   * Each send handles a dead node on its own, exactly as {@link #sendToNode} does.
+   */
+  private void sendToNodes(final Map<NodeStruct, byte[]> nodeData,
+                           final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    boolean hasBigMsg = false;
+    for (final byte[] data : nodeData.values()) {
+      if (data.length > SMALL_MSG_LENGTH) {
+        hasBigMsg = true;
+        break;
+      }
+    }
+    if (nodeData.size() < 2 || !hasBigMsg) {
+      for (final Map.Entry<NodeStruct, byte[]> entry : nodeData.entrySet()) {
+        sendToNode(entry.getValue(), msgType, entry.getKey());
+      }
+      return;
+    }
+
+    LOG.finest(getQualifiedName() + "Sending " + msgType + " msg to " + nodeData.size() + " nodes concurrently");
+    final CountDownLatch sendsDone = new CountDownLatch(nodeData.size());
+    final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    for (final Map.Entry<NodeStruct, byte[]> entry : nodeData.entrySet()) {
+      FAN_OUT_EXECUTOR.execute(new Runnable() {
+        @Override
+        @SuppressWarnings("checkstyle:illegalcatch")
+        public void run() {
+          try {
+            sendToNode(entry.getValue(), msgType, entry.getKey());
+          } catch (final RuntimeException e) {
+            failure.compareAndSet(null, e);
+          } finally {
+            sendsDone.countDown();
+          }
+        }
+      });
+    }
+    try {
+      sendsDone.await();
+    } catch (final InterruptedException e) {
+      throw new RuntimeException("InterruptedException while waiting for " + msgType + " msgs to be sent", e);
+    }
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+  }
+
   private byte[] receiveFromNode(final NodeStruct node, final boolean remove) {
     LOG.entering("OperatorTopologyStructImpl", "receiveFromNode", new Object[]{getQualifiedName(), node, remove});
     final byte[] retVal = node.getData();
@@ -303,9 +380,11 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   @Override
   public void sendToChildren(final byte[] data, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
     LOG.entering("OperatorTopologyStructImpl", "sendToChildren", new Object[]{getQualifiedName(), msgType});
+    final Map<NodeStruct, byte[]> childData = new LinkedHashMap<>();
     for (final NodeStruct child : children) {
-      sendToNode(data, msgType, child);
+      childData.put(child, data);
     }
+    sendToNodes(childData, msgType);
     LOG.exiting("OperatorTopologyStructImpl", "sendToChildren", getQualifiedName());
   }
 
@@ -313,13 +392,15 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   public void sendToChildren(final Map<String, byte[]> dataMap,
                              final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
     LOG.entering("OperatorTopologyStructImpl", "sendToChildren", new Object[]{getQualifiedName(), msgType});
+    final Map<NodeStruct, byte[]> childData = new LinkedHashMap<>();
     for (final NodeStruct child : children) {
       if (dataMap.containsKey(child.getId())) {
-        sendToNode(dataMap.get(child.getId()), msgType, child);
+        childData.put(child, dataMap.get(child.getId()));
       } else {
         throw new RuntimeException("No message specified for " + child.getId() + " in dataMap.");
       }
     }
+    sendToNodes(childData, msgType);
     LOG.exiting("OperatorTopologyStructImpl", "sendToChildren", getQualifiedName());
   }
 
@@ -348,12 +429,7 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
           ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
 
       if (retVal != null) {
-        retLst.add(dataCodec.decode(retVal));
-        if (retLst.size() == 2) {
-          final T redVal = redFunc.apply(retLst);
-          retLst.clear();
-          retLst.add(redVal);
-        }
+        reduceInto(retLst, retVal, redFunc, dataCodec);
       }
       childrenToRcvFrom.remove(child.getId());
     }
@@ -362,6 +438,27 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     return retVal;
   }
 
+  /**
+   * Reduce an encoded child value into {@code reduced}, which holds at most one value.
+   * A {@link StreamingReduceFunction} folds the bytes straight into its accumulator;
+   * any other function gets the decoded value and the value reduced so far.
+   */
+  private static <T> void reduceInto(final List<T> reduced, final byte[] encoded, final ReduceFunction<T> redFunc,
+                                     final Codec<T> dataCodec) {
+    if (redFunc instanceof StreamingReduceFunction) {
+      final T accumulator = reduced.isEmpty() ? null : reduced.get(0);
+      reduced.clear();
+      reduced.add(((StreamingReduceFunction<T>) redFunc).foldEncoded(accumulator, encoded));
+    } else {
+      reduced.add(dataCodec.decode(encoded));
+      if (reduced.size() == 2) {
+        final T redVal = redFunc.apply(reduced);
+        reduced.clear();
+        reduced.add(redVal);
+      }
+    }
+  }
+
   /**
    * Receive data from all children as a single byte array.
    * Messages from children are simply byte-concatenated.
@@ -393,6 +490,187 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     return retVal;
   }
 
+  @Override
+  public void sendToChildrenInChunks(final byte[] data, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                     final int chunkSize) {
+    LOG.entering("OperatorTopologyStructImpl", "sendToChildrenInChunks", new Object[]{getQualifiedName(), msgType});
+    int offset = 0;
+    do {
+      final int length = Math.min(chunkSize, data.length - offset);
+      final byte[] chunk = newChunk(offset, data.length, data, offset, length);
+      for (final NodeStruct child : children) {
+        sendToNode(chunk, msgType, child);
+      }
+      offset += length;
+    } while (offset < data.length);
+    LOG.exiting("OperatorTopologyStructImpl", "sendToChildrenInChunks", getQualifiedName());
+  }
+
+  @Override
+  public byte[] recvFromParentInChunks(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    LOG.entering("OperatorTopologyStructImpl", "recvFromParentInChunks", getQualifiedName());
+    LOG.finest(getQualifiedName() + "Waiting for " + parent.getId() + " to send chunks");
+    final byte[] retVal = recvInChunks(parent, msgType, true);
+    LOG.exiting("OperatorTopologyStructImpl", "recvFromParentInChunks", getQualifiedName());
+    return retVal;
+  }
+
+  @Override
+  public void sendToParentInChunks(final byte[] data, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                   final int chunkSize) {
+    LOG.entering("OperatorTopologyStructImpl", "sendToParentInChunks", new Object[]{getQualifiedName(), msgType});
+    if (parent != null) {
+      int offset = 0;
+      do {
+        final int length = Math.min(chunkSize, data.length - offset);
+        sendToNode(newChunk(offset, data.length, data, offset, length), msgType, parent);
+        offset += length;
+      } while (offset < data.length);
+    } else {
+      LOG.fine(getQualifiedName() + "Perhaps parent has died or has not been configured");
+    }
+    LOG.exiting("OperatorTopologyStructImpl", "sendToParentInChunks", getQualifiedName());
+  }
+
+  @Override
+  public <T> T recvFromChildrenInChunks(final ReduceFunction<T> redFunc, final Codec<T> dataCodec) {
+    LOG.entering("OperatorTopologyStructImpl", "recvFromChildrenInChunks", new Object[]{getQualifiedName(), redFunc,
+        dataCodec});
+    final List<T> retLst = new ArrayList<>(2);
+    for (final NodeStruct child : children) {
+      final byte[] retVal = recvInChunks(child, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce, false);
+      if (retVal != null) {
+        reduceInto(retLst, retVal, redFunc, dataCodec);
+      }
+    }
+    final T retVal = retLst.isEmpty() ? null : retLst.get(0);
+    LOG.exiting("OperatorTopologyStructImpl", "recvFromChildrenInChunks", getQualifiedName());
+    return retVal;
+  }
+
+  /**
+   * Reduce part by part. Tasks that have an element cut it into as many parts as
+   * it takes chunks of {@code chunkSize} bytes to encode it, so all elements must
+   * encode to roughly the same size. A task without an element takes the part
+   * count from its children. A child that dies midway only contributes the parts
+   * it already sent.
+   */
+  @Override
+  public <T> T reduceInParts(final T element, final PartitionedReduceFunction<T> redFunc, final Codec<T> dataCodec,
+                             final int chunkSize, final boolean sendToParent) {
+    LOG.entering("OperatorTopologyStructImpl", "reduceInParts", new Object[]{getQualifiedName(), redFunc,
+        dataCodec});
+    final List<NodeStruct> liveChildren = new ArrayList<>(children);
+    List<T> elementParts = null;
+    int count = -1;
+    if (element != null) {
+      final int encodedLength = dataCodec.encode(element).length;
+      count = Math.max(1, (encodedLength + chunkSize - 1) / chunkSize);
+      elementParts = redFunc.split(element, count);
+    }
+
+    final List<T> reducedParts = new ArrayList<>();
+    for (int index = 0; count < 0 || index < count; index++) {
+      final List<T> vals = new ArrayList<>(liveChildren.size() + 1);
+      if (elementParts != null) {
+        vals.add(elementParts.get(index));
+      }
+      final Iterator<NodeStruct> childIter = liveChildren.iterator();
+      while (childIter.hasNext()) {
+        final NodeStruct child = childIter.next();
+        final byte[] chunk = recvChunk(child, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
+        if (chunk == null) {
+          LOG.fine(getQualifiedName() + "Child " + child.getId() + " died while sending part " + index);
+          childIter.remove();
+          continue;
+        }
+        final ByteBuffer header = ByteBuffer.wrap(chunk);
+        final int partIndex = header.getInt();
+        final int partCount = header.getInt();
+        if (count < 0) {
+          count = partCount;
+        }
+        if (partIndex != index || partCount != count) {
+          throw new IllegalStateException(getQualifiedName() + "Expected part " + index + " of " + count + " from "
+              + child.getId() + " but got part " + partIndex + " of " + partCount
+              + ". Elements must encode to the same number of chunks.");
+        }
+        vals.add(dataCodec.decode(Arrays.copyOfRange(chunk, CHUNK_HEADER_LENGTH, chunk.length)));
+      }
+
+      if (vals.isEmpty()) {
+        LOG.exiting("OperatorTopologyStructImpl", "reduceInParts", getQualifiedName());
+        return null;
+      }
+      final T reducedPart = redFunc.apply(vals);
+      if (sendToParent) {
+        final byte[] encoded = dataCodec.encode(reducedPart);
+        sendToParent(newChunk(index, count, encoded, 0, encoded.length),
+            ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
+      } else {
+        reducedParts.add(reducedPart);
+      }
+    }
+    final T retVal = sendToParent ? null : redFunc.merge(reducedParts);
+    LOG.exiting("OperatorTopologyStructImpl", "reduceInParts", getQualifiedName());
+    return retVal;
+  }
+
+  /**
+   * Receive and reassemble the chunks sent by {@code node}, optionally forwarding
+   * each chunk to the children as soon as it arrives.
+   *
+   * @return the reassembled data, or null if {@code node} died
+   */
+  private byte[] recvInChunks(final NodeStruct node,
+                              final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                              final boolean forward) {
+    byte[] retVal = null;
+    int received = 0;
+    do {
+      final byte[] chunk = recvChunk(node, msgType);
+      if (chunk == null) {
+        LOG.fine(getQualifiedName() + node.getId() + " died while sending chunks");
+        return null;
+      }
+      if (forward) {
+        for (final NodeStruct child : children) {
+          sendToNode(chunk, msgType, child);
+        }
+      }
+      final ByteBuffer header = ByteBuffer.wrap(chunk);
+      final int offset = header.getInt();
+      final int totalLength = header.getInt();
+      if (retVal == null) {
+        retVal = new byte[totalLength];
+      }
+      final int length = chunk.length - CHUNK_HEADER_LENGTH;
+      System.arraycopy(chunk, CHUNK_HEADER_LENGTH, retVal, offset, length);
+      received += length;
+    } while (received < retVal.length);
+    return retVal;
+  }
+
+  /**
+   * Receive the next chunk sent by {@code node}. Chunks are normally small enough to be sent
+   * as they are, but a reduced part may encode to more than {@link #MAX_CHUNK_SIZE} bytes
+   * and then comes with the readiness/ACK handshake of big messages.
+   *
+   * @return the chunk, or null if {@code node} died
+   */
+  private byte[] recvChunk(final NodeStruct node, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    final byte[] chunk = recvFromNodeCheckBigMsg(node, msgType);
+    nodesWithData.remove(node);
+    return chunk;
+  }
+
+  private static byte[] newChunk(final int first, final int second, final byte[] data, final int offset,
+                                 final int length) {
+    final byte[] chunk = new byte[CHUNK_HEADER_LENGTH + length];
+    ByteBuffer.wrap(chunk).putInt(first).putInt(second).put(data, offset, length);
+    return chunk;
+  }
+
   private boolean removedDeadMsg(final String msgSrcId, final int msgSrcVersion) {
     LOG.entering("OperatorTopologyStructImpl", "removedDeadMsg", new Object[]{getQualifiedName(), msgSrcId,
         msgSrcVersion});
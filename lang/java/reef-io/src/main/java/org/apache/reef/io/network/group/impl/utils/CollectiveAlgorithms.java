@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.serialization.Codec;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Peer-to-peer algorithms for the symmetric operators AllReduce, AllGather and ReduceScatter.
+ * Members are identified by their rank in {@code [0, size)} and talk through a {@link PeerChannel}.
+ * <p>
+ * Recursive doubling needs {@code log(size)} rounds and moves the whole operand in each round,
+ * which suits small operands. The ring algorithms need {@code size - 1} rounds but each member
+ * only sends {@code 1/size} of the operand per round, which suits large operands.
+ */
+public final class CollectiveAlgorithms {
+
+  /**
+   * Algorithm used by a symmetric operator.
+   */
+  public enum Algorithm {
+    /**
+     * Ring for operands of at least the ring threshold, recursive doubling otherwise.
+     */
+    AUTO,
+    RING,
+    RECURSIVE_DOUBLING
+  }
+
+  /**
+   * Should not be instantiated.
+   */
+  private CollectiveAlgorithms() {
+  }
+
+  /**
+   * Resolve the algorithm to use. Every member must resolve to the same algorithm,
+   * so all arguments must be agreed upon beforehand.
+   *
+   * @param configured the configured algorithm
+   * @param size number of members
+   * @param maxEncodedSize largest encoded operand among the members
+   * @param ringThreshold operand size in bytes from which AUTO uses the ring algorithm
+   * @param ringSupported whether the operand can be cut into parts for the ring algorithm
+   * @return either RING or RECURSIVE_DOUBLING
+   */
+  public static Algorithm resolve(final Algorithm configured, final int size, final long maxEncodedSize,
+                                  final int ringThreshold, final boolean ringSupported) {
+    if (size <= 2 || !ringSupported) {
+      return Algorithm.RECURSIVE_DOUBLING;
+    }
+    if (configured == Algorithm.AUTO) {
+      return maxEncodedSize >= ringThreshold ? Algorithm.RING : Algorithm.RECURSIVE_DOUBLING;
+    }
+    return configured;
+  }
+
+  /**
+   * All-reduce value by recursive doubling. Sizes that are not a power of two are handled by
+   * first folding the excess members into their neighbours. Operands are combined in rank
+   * order, so the function only needs to be associative.
+   *
+   * @return the reduction of the values of all members
+   */
+  public static <T> T recursiveDoubling(final int rank, final int size, final T value,
+                                        final ReduceFunction<T> function, final Codec<T> codec,
+                                        final PeerChannel channel) throws NetworkException, InterruptedException {
+    if (size == 1) {
+      return value;
+    }
+    final int pof2 = Integer.highestOneBit(size);
+    final int rem = size - pof2;
+    final boolean folded = rank < 2 * rem;
+
+    T acc = value;
+    final int newRank;
+    if (!folded) {
+      newRank = rank - rem;
+    } else if (rank % 2 == 0) {
+      channel.send(rank + 1, codec.encode(acc));
+      newRank = -1;
+    } else {
+      acc = combine(function, codec.decode(channel.receive(rank - 1)), acc);
+      newRank = rank / 2;
+    }
+
+    if (newRank >= 0) {
+      for (int mask = 1; mask < pof2; mask <<= 1) {
+        final int newPeer = newRank ^ mask;
+        final int peer = newPeer < rem ? newPeer * 2 + 1 : newPeer + rem;
+        channel.send(peer, codec.encode(acc));
+        final T received = codec.decode(channel.receive(peer));
+        acc = peer < rank ? combine(function, received, acc) : combine(function, acc, received);
+      }
+    }
+
+    if (folded) {
+      if (rank % 2 == 0) {
+        acc = codec.decode(channel.receive(rank + 1));
+      } else {
+        channel.send(rank - 1, codec.encode(acc));
+      }
+    }
+    return acc;
+  }
+
+  /**
+   * All-gather value by recursive doubling.
+   *
+   * @return the values of all members in rank order
+   */
+  public static <T> List<T> recursiveDoublingAllGather(final int rank, final int size, final T value,
+                                                       final Codec<T> codec, final PeerChannel channel)
+      throws NetworkException, InterruptedException {
+    final SortedMap<Integer, byte[]> mine = new TreeMap<>();
+    mine.put(rank, codec.encode(value));
+    final SortedMap<Integer, byte[]> all = recursiveDoubling(rank, size, mine, new RankedMerge(),
+        new RankedCodec(), channel);
+    final List<T> retList = new ArrayList<>(size);
+    for (final Map.Entry<Integer, byte[]> entry : all.entrySet()) {
+      retList.add(entry.getKey() == rank ? value : codec.decode(entry.getValue()));
+    }
+    return retList;
+  }
+
+  /**
+   * Ring reduce-scatter. Every member holds {@code size} blocks; after {@code size - 1} steps the
+   * member with rank {@code r} holds block {@code r} reduced over all members. Partial results
+   * travel around the ring, so the function must be commutative and associative.
+   *
+   * @return block {@code rank} reduced over all members
+   */
+  public static <B> B ringReduceScatter(final int rank, final int size, final List<B> blocks,
+                                        final ReduceFunction<B> function, final Codec<B> codec,
+                                        final PeerChannel channel) throws NetworkException, InterruptedException {
+    if (blocks.size() != size) {
+      throw new IllegalArgumentException("Expected " + size + " blocks but got " + blocks.size());
+    }
+    final List<B> acc = new ArrayList<>(blocks);
+    final int next = (rank + 1) % size;
+    final int prev = (rank + size - 1) % size;
+    for (int step = 0; step < size - 1; step++) {
+      channel.send(next, codec.encode(acc.get(sendBlockIndex(rank, step, size))));
+      final int recvIndex = sendBlockIndex(rank, step + 1, size);
+      acc.set(recvIndex, combine(function, codec.decode(channel.receive(prev)), acc.get(recvIndex)));
+    }
+    return acc.get(rank);
+  }
+
+  /**
+   * Ring all-gather. Every member forwards the block it received in the previous step.
+   *
+   * @return the blocks of all members in rank order
+   */
+  public static <B> List<B> ringAllGather(final int rank, final int size, final B block, final Codec<B> codec,
+                                          final PeerChannel channel) throws NetworkException, InterruptedException {
+    final List<B> retList = new ArrayList<>(Collections.<B>nCopies(size, null));
+    retList.set(rank, block);
+    final int next = (rank + 1) % size;
+    final int prev = (rank + size - 1) % size;
+    byte[] outgoing = codec.encode(block);
+    for (int step = 0; step < size - 1; step++) {
+      channel.send(next, outgoing);
+      outgoing = channel.receive(prev);
+      retList.set(mod(rank - step - 1, size), codec.decode(outgoing));
+    }
+    return retList;
+  }
+
+  /**
+   * The block that the member with rank {@code rank} sends in step {@code step} of the ring
+   * reduce-scatter. In step {@code s} it receives the block its successor sends in step {@code s + 1}.
+   *
+   * @return index of the block to send
+   */
+  public static int sendBlockIndex(final int rank, final int step, final int size) {
+    return mod(rank - step - 1, size);
+  }
+
+  /**
+   * Split elements into consecutive blocks of the given sizes.
+   *
+   * @return list of {@code counts.size()} blocks
+   */
+  public static <T> List<List<T>> splitByCounts(final List<T> elements, final List<Integer> counts) {
+    final List<List<T>> blocks = new ArrayList<>(counts.size());
+    int offset = 0;
+    for (final int count : counts) {
+      blocks.add(new ArrayList<>(elements.subList(offset, offset + count)));
+      offset += count;
+    }
+    if (offset != elements.size()) {
+      throw new IllegalArgumentException("Counts add up to " + offset + " but there are " + elements.size()
+          + " elements");
+    }
+    return blocks;
+  }
+
+  /**
+   * @return codec for lists of elements encoded with {@code codec}
+   */
+  public static <T> Codec<List<T>> listCodec(final Codec<T> codec) {
+    return new ListCodec<>(codec);
+  }
+
+  /**
+   * @return reduce function applying {@code function} to the elements at each position of equally long lists
+   */
+  public static <T> ReduceFunction<List<T>> elementwise(final ReduceFunction<T> function) {
+    return new ElementwiseReduceFunction<>(function);
+  }
+
+  private static int mod(final int value, final int size) {
+    return ((value % size) + size) % size;
+  }
+
+  private static <T> T combine(final ReduceFunction<T> function, final T first, final T second) {
+    final List<T> operands = new ArrayList<>(2);
+    operands.add(first);
+    operands.add(second);
+    return function.apply(operands);
+  }
+
+  private static final class ListCodec<T> implements Codec<List<T>> {
+
+    private final Codec<T> codec;
+
+    ListCodec(final Codec<T> codec) {
+      this.codec = codec;
+    }
+
+    @Override
+    public byte[] encode(final List<T> list) {
+      try (final ByteArrayOutputStream bstream = new ByteArrayOutputStream();
+           final DataOutputStream dstream = new DataOutputStream(bstream)) {
+        dstream.writeInt(list.size());
+        for (final T element : list) {
+          final byte[] encoded = codec.encode(element);
+          dstream.writeInt(encoded.length);
+          dstream.write(encoded);
+        }
+        dstream.flush();
+        return bstream.toByteArray();
+      } catch (final IOException e) {
+        throw new RuntimeException("IOException while encoding list", e);
+      }
+    }
+
+    @Override
+    public List<T> decode(final byte[] data) {
+      try (final DataInputStream dstream = new DataInputStream(new ByteArrayInputStream(data))) {
+        final int size = dstream.readInt();
+        final List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          final byte[] encoded = new byte[dstream.readInt()];
+          dstream.readFully(encoded);
+          list.add(codec.decode(encoded));
+        }
+        return list;
+      } catch (final IOException e) {
+        throw new RuntimeException("IOException while decoding list", e);
+      }
+    }
+  }
+
+  private static final class ElementwiseReduceFunction<T> implements ReduceFunction<List<T>> {
+
+    private final ReduceFunction<T> function;
+
+    ElementwiseReduceFunction(final ReduceFunction<T> function) {
+      this.function = function;
+    }
+
+    @Override
+    public List<T> apply(final Iterable<List<T>> lists) {
+      final List<List<T>> operands = new ArrayList<>();
+      for (final List<T> list : lists) {
+        operands.add(list);
+      }
+      final int length = operands.get(0).size();
+      final List<T> retList = new ArrayList<>(length);
+      final List<T> column = new ArrayList<>(operands.size());
+      for (int i = 0; i < length; i++) {
+        column.clear();
+        for (final List<T> list : operands) {
+          column.add(list.get(i));
+        }
+        retList.add(function.apply(column));
+      }
+      return retList;
+    }
+  }
+
+  /**
+   * Union of encoded values keyed by rank.
+   */
+  private static final class RankedMerge implements ReduceFunction<SortedMap<Integer, byte[]>> {
+    @Override
+    public SortedMap<Integer, byte[]> apply(final Iterable<SortedMap<Integer, byte[]>> maps) {
+      final SortedMap<Integer, byte[]> retMap = new TreeMap<>();
+      for (final SortedMap<Integer, byte[]> map : maps) {
+        retMap.putAll(map);
+      }
+      return retMap;
+    }
+  }
+
+  private static final class RankedCodec implements Codec<SortedMap<Integer, byte[]>> {
+
+    @Override
+    public byte[] encode(final SortedMap<Integer, byte[]> map) {
+      try (final ByteArrayOutputStream bstream = new ByteArrayOutputStream();
+           final DataOutputStream dstream = new DataOutputStream(bstream)) {
+        dstream.writeInt(map.size());
+        for (final Map.Entry<Integer, byte[]> entry : map.entrySet()) {
+          dstream.writeInt(entry.getKey());
+          dstream.writeInt(entry.getValue().length);
+          dstream.write(entry.getValue());
+        }
+        dstream.flush();
+        return bstream.toByteArray();
+      } catch (final IOException e) {
+        throw new RuntimeException("IOException while encoding ranked values", e);
+      }
+    }
+
+    @Override
+    public SortedMap<Integer, byte[]> decode(final byte[] data) {
+      try (final DataInputStream dstream = new DataInputStream(new ByteArrayInputStream(data))) {
+        final int size = dstream.readInt();
+        final SortedMap<Integer, byte[]> map = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+          final int rank = dstream.readInt();
+          final byte[] value = new byte[dstream.readInt()];
+          dstream.readFully(value);
+          map.put(rank, value);
+        }
+        return map;
+      } catch (final IOException e) {
+        throw new RuntimeException("IOException while decoding ranked values", e);
+      }
+    }
+  }
+}
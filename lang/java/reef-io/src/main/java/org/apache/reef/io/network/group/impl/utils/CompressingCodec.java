@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.io.serialization.Codec;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Codec that compresses the output of another codec with the fastest deflate level.
+ * Each message is compressed only if it is large enough and compression saves at
+ * least an eighth of its bytes; otherwise it is sent as is behind a one-byte header.
+ * Extend it with an injectable constructor to wrap a codec of your own, or use one
+ * of the nested codecs that wrap the codecs of this package.
+ */
+public abstract class CompressingCodec<T> implements Codec<T> {
+
+  private static final byte RAW = 0;
+  private static final byte DEFLATED = 1;
+  private static final int MIN_COMPRESS_LENGTH = 256;
+
+  private final Codec<T> codec;
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+  private final Inflater inflater = new Inflater();
+
+  protected CompressingCodec(final Codec<T> codec) {
+    this.codec = codec;
+  }
+
+  @Override
+  public final synchronized byte[] encode(final T obj) {
+    final byte[] encoded = codec.encode(obj);
+    if (encoded.length >= MIN_COMPRESS_LENGTH) {
+      deflater.reset();
+      deflater.setInput(encoded);
+      deflater.finish();
+      final int limit = encoded.length - encoded.length / 8;
+      final byte[] deflated = new byte[limit];
+      int length = 0;
+      while (!deflater.finished() && length < limit) {
+        length += deflater.deflate(deflated, length, limit - length);
+      }
+      if (deflater.finished()) {
+        final ByteBuffer buffer = ByteBuffer.allocate(1 + VarInts.size(encoded.length) + length);
+        buffer.put(DEFLATED);
+        VarInts.put(buffer, encoded.length);
+        buffer.put(deflated, 0, length);
+        return buffer.array();
+      }
+    }
+    final byte[] retVal = new byte[1 + encoded.length];
+    retVal[0] = RAW;
+    System.arraycopy(encoded, 0, retVal, 1, encoded.length);
+    return retVal;
+  }
+
+  @Override
+  public final synchronized T decode(final byte[] buf) {
+    if (buf[0] == RAW) {
+      return codec.decode(Arrays.copyOfRange(buf, 1, buf.length));
+    }
+    final ByteBuffer buffer = ByteBuffer.wrap(buf, 1, buf.length - 1);
+    final byte[] encoded = new byte[VarInts.get(buffer)];
+    inflater.reset();
+    inflater.setInput(buf, buffer.position(), buffer.remaining());
+    try {
+      int length = 0;
+      while (length < encoded.length) {
+        final int inflated = inflater.inflate(encoded, length, encoded.length - length);
+        if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+          throw new RuntimeException("Compressed message is truncated");
+        }
+        length += inflated;
+      }
+    } catch (final DataFormatException e) {
+      throw new RuntimeException("Cannot inflate compressed message", e);
+    }
+    return codec.decode(encoded);
+  }
+
+  /**
+   * Compressed {@link SparseDoubleArrayCodec}.
+   */
+  public static final class Sparse extends CompressingCodec<double[]> {
+    @Inject
+    public Sparse() {
+      super(new SparseDoubleArrayCodec());
+    }
+  }
+
+  /**
+   * Compressed {@link QuantizedDoubleArrayCodec.Fp16}.
+   */
+  public static final class Fp16 extends CompressingCodec<double[]> {
+    @Inject
+    public Fp16() {
+      super(new QuantizedDoubleArrayCodec.Fp16());
+    }
+  }
+
+  /**
+   * Compressed {@link QuantizedDoubleArrayCodec.Int8}.
+   */
+  public static final class Int8 extends CompressingCodec<double[]> {
+    @Inject
+    public Int8() {
+      super(new QuantizedDoubleArrayCodec.Int8());
+    }
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+
+/**
+ * Point-to-point channel between the ranked members of a symmetric operator.
+ * Messages between a pair of members are received in the order they were sent.
+ */
+public interface PeerChannel {
+
+  /**
+   * Send data to the member with rank {@code peer}.
+   */
+  void send(int peer, byte[] data) throws NetworkException;
+
+  /**
+   * Wait for the next message sent by the member with rank {@code peer}.
+   *
+   * @return the data sent
+   * @throws NetworkException if the message does not arrive in time
+   */
+  byte[] receive(int peer) throws NetworkException, InterruptedException;
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.io.serialization.Codec;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+
+/**
+ * Codecs for primitive arrays. Elements are written back to back in big-endian
+ * order without a header, so the array length follows from the encoded length.
+ * The built-in functions of {@link PrimitiveArrayReduceFunctions} read this format.
+ */
+public final class PrimitiveArrayCodecs {
+
+  private PrimitiveArrayCodecs() {
+  }
+
+  /**
+   * Codec for {@code double[]}.
+   */
+  public static final class DoubleArrayCodec implements Codec<double[]> {
+
+    @Inject
+    public DoubleArrayCodec() {
+    }
+
+    @Override
+    public byte[] encode(final double[] obj) {
+      final ByteBuffer buffer = ByteBuffer.allocate(Double.SIZE / Byte.SIZE * obj.length);
+      buffer.asDoubleBuffer().put(obj);
+      return buffer.array();
+    }
+
+    @Override
+    public double[] decode(final byte[] buf) {
+      final double[] retVal = new double[buf.length / (Double.SIZE / Byte.SIZE)];
+      ByteBuffer.wrap(buf).asDoubleBuffer().get(retVal);
+      return retVal;
+    }
+  }
+
+  /**
+   * Codec for {@code float[]}.
+   */
+  public static final class FloatArrayCodec implements Codec<float[]> {
+
+    @Inject
+    public FloatArrayCodec() {
+    }
+
+    @Override
+    public byte[] encode(final float[] obj) {
+      final ByteBuffer buffer = ByteBuffer.allocate(Float.SIZE / Byte.SIZE * obj.length);
+      buffer.asFloatBuffer().put(obj);
+      return buffer.array();
+    }
+
+    @Override
+    public float[] decode(final byte[] buf) {
+      final float[] retVal = new float[buf.length / (Float.SIZE / Byte.SIZE)];
+      ByteBuffer.wrap(buf).asFloatBuffer().get(retVal);
+      return retVal;
+    }
+  }
+
+  /**
+   * Codec for {@code int[]}.
+   */
+  public static final class IntArrayCodec implements Codec<int[]> {
+
+    @Inject
+    public IntArrayCodec() {
+    }
+
+    @Override
+    public byte[] encode(final int[] obj) {
+      final ByteBuffer buffer = ByteBuffer.allocate(Integer.SIZE / Byte.SIZE * obj.length);
+      buffer.asIntBuffer().put(obj);
+      return buffer.array();
+    }
+
+    @Override
+    public int[] decode(final byte[] buf) {
+      final int[] retVal = new int[buf.length / (Integer.SIZE / Byte.SIZE)];
+      ByteBuffer.wrap(buf).asIntBuffer().get(retVal);
+      return retVal;
+    }
+  }
+
+  /**
+   * @return the int at the given int index of buf
+   */
+  static int getInt(final byte[] buf, final int index) {
+    final int offset = index << 2;
+    return (buf[offset] << 24) | ((buf[offset + 1] & 0xff) << 16) | ((buf[offset + 2] & 0xff) << 8)
+        | (buf[offset + 3] & 0xff);
+  }
+
+  /**
+   * @return the float at the given float index of buf
+   */
+  static float getFloat(final byte[] buf, final int index) {
+    return Float.intBitsToFloat(getInt(buf, index));
+  }
+
+  /**
+   * @return the double at the given double index of buf
+   */
+  static double getDouble(final byte[] buf, final int index) {
+    final long high = getInt(buf, index << 1);
+    final long low = getInt(buf, (index << 1) + 1) & 0xffffffffL;
+    return Double.longBitsToDouble((high << 32) | low);
+  }
+}
@@ -0,0 +1,428 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.io.network.group.api.operators.Reduce.StreamingReduceFunction;
+
+import javax.inject.Inject;
+
+/**
+ * Element-wise sum, min and max over {@code double[]}, {@code float[]} and {@code int[]}.
+ * They fold values straight out of the bytes written by the matching codec of
+ * {@link PrimitiveArrayCodecs}, so the operator must be configured with that codec.
+ * Each function keeps one accumulator and reuses it while the array length stays the
+ * same, so after the first reduction no arrays are allocated. A reduced value is
+ * therefore only valid until the operator is applied again.
+ */
+public final class PrimitiveArrayReduceFunctions {
+
+  private PrimitiveArrayReduceFunctions() {
+  }
+
+  private enum Op {
+    SUM, MIN, MAX
+  }
+
+  /**
+   * Element-wise sum of {@code double[]}.
+   */
+  public static final class DoubleSum extends DoubleArrayFunction {
+
+    @Inject
+    public DoubleSum() {
+      super(Op.SUM);
+    }
+  }
+
+  /**
+   * Element-wise minimum of {@code double[]}.
+   */
+  public static final class DoubleMin extends DoubleArrayFunction {
+
+    @Inject
+    public DoubleMin() {
+      super(Op.MIN);
+    }
+  }
+
+  /**
+   * Element-wise maximum of {@code double[]}.
+   */
+  public static final class DoubleMax extends DoubleArrayFunction {
+
+    @Inject
+    public DoubleMax() {
+      super(Op.MAX);
+    }
+  }
+
+  /**
+   * Element-wise sum of {@code float[]}.
+   */
+  public static final class FloatSum extends FloatArrayFunction {
+
+    @Inject
+    public FloatSum() {
+      super(Op.SUM);
+    }
+  }
+
+  /**
+   * Element-wise minimum of {@code float[]}.
+   */
+  public static final class FloatMin extends FloatArrayFunction {
+
+    @Inject
+    public FloatMin() {
+      super(Op.MIN);
+    }
+  }
+
+  /**
+   * Element-wise maximum of {@code float[]}.
+   */
+  public static final class FloatMax extends FloatArrayFunction {
+
+    @Inject
+    public FloatMax() {
+      super(Op.MAX);
+    }
+  }
+
+  /**
+   * Element-wise sum of {@code int[]}.
+   */
+  public static final class IntSum extends IntArrayFunction {
+
+    @Inject
+    public IntSum() {
+      super(Op.SUM);
+    }
+  }
+
+  /**
+   * Element-wise minimum of {@code int[]}.
+   */
+  public static final class IntMin extends IntArrayFunction {
+
+    @Inject
+    public IntMin() {
+      super(Op.MIN);
+    }
+  }
+
+  /**
+   * Element-wise maximum of {@code int[]}.
+   */
+  public static final class IntMax extends IntArrayFunction {
+
+    @Inject
+    public IntMax() {
+      super(Op.MAX);
+    }
+  }
+
+  private abstract static class DoubleArrayFunction implements StreamingReduceFunction<double[]> {
+
+    private static final int BYTES = Double.SIZE / Byte.SIZE;
+
+    private final Op op;
+    private double[] buffer;
+
+    DoubleArrayFunction(final Op op) {
+      this.op = op;
+    }
+
+    @Override
+    public final double[] apply(final Iterable<double[]> elements) {
+      double[] retVal = null;
+      for (final double[] element : elements) {
+        if (retVal == null) {
+          retVal = element.clone();
+        } else {
+          checkLength(retVal.length, element.length);
+          combine(retVal, element);
+        }
+      }
+      return retVal;
+    }
+
+    @Override
+    public final double[] fold(final double[] accumulator, final double[] element) {
+      if (accumulator == null) {
+        final double[] retVal = newAccumulator(element.length);
+        System.arraycopy(element, 0, retVal, 0, element.length);
+        return retVal;
+      }
+      checkLength(accumulator.length, element.length);
+      combine(accumulator, element);
+      return accumulator;
+    }
+
+    @Override
+    public final double[] foldEncoded(final double[] accumulator, final byte[] encoded) {
+      final int length = encoded.length / BYTES;
+      if (accumulator == null) {
+        final double[] retVal = newAccumulator(length);
+        for (int i = 0; i < length; i++) {
+          retVal[i] = PrimitiveArrayCodecs.getDouble(encoded, i);
+        }
+        return retVal;
+      }
+      checkLength(accumulator.length, length);
+      switch (op) {
+      case SUM:
+        for (int i = 0; i < length; i++) {
+          accumulator[i] += PrimitiveArrayCodecs.getDouble(encoded, i);
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < length; i++) {
+          accumulator[i] = Math.min(accumulator[i], PrimitiveArrayCodecs.getDouble(encoded, i));
+        }
+        break;
+      default:
+        for (int i = 0; i < length; i++) {
+          accumulator[i] = Math.max(accumulator[i], PrimitiveArrayCodecs.getDouble(encoded, i));
+        }
+      }
+      return accumulator;
+    }
+
+    private double[] newAccumulator(final int length) {
+      if (buffer == null || buffer.length != length) {
+        buffer = new double[length];
+      }
+      return buffer;
+    }
+
+    private void combine(final double[] accumulator, final double[] element) {
+      switch (op) {
+      case SUM:
+        for (int i = 0; i < accumulator.length; i++) {
+          accumulator[i] += element[i];
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < accumulator.length; i++) {
+          accumulator[i] = Math.min(accumulator[i], element[i]);
+        }
+        break;
+      default:
+        for (int i = 0; i < accumulator.length; i++) {
+          accumulator[i] = Math.max(accumulator[i], element[i]);
+        }
+      }
+    }
+  }
+
+  private abstract static class FloatArrayFunction implements StreamingReduceFunction<float[]> {
+
+    private static final int BYTES = Float.SIZE / Byte.SIZE;
+
+    private final Op op;
+    private float[] buffer;
+
+    FloatArrayFunction(final Op op) {
+      this.op = op;
+    }
+
+    @Override
+    public final float[] apply(final Iterable<float[]> elements) {
+      float[] retVal = null;
+      for (final float[] element : elements) {
+        if (retVal == null) {
+          retVal = element.clone();
+        } else {
+          checkLength(retVal.length, element.length);
+          combine(retVal, element);
+        }
+      }
+      return retVal;
+    }
+
+    @Override
+    public final float[] fold(final float[] accumulator, final float[] element) {
+      if (accumulator == null) {
+        final float[] retVal = newAccumulator(element.length);
+        System.arraycopy(element, 0, retVal, 0, element.length);
+        return retVal;
+      }
+      checkLength(accumulator.length, element.length);
+      combine(accumulator, element);
+      return accumulator;
+    }
+
+    @Override
+    public final float[] foldEncoded(final float[] accumulator, final byte[] encoded) {
+      final int length = encoded.length / BYTES;
+      if (accumulator == null) {
+        final float[] retVal = newAccumulator(length);
+        for (int i = 0; i < length; i++) {
+          retVal[i] = PrimitiveArrayCodecs.getFloat(encoded, i);
+        }
+        return retVal;
+      }
+      checkLength(accumulator.length, length);
+      switch (op) {
+      case SUM:
+        for (int i = 0; i < length; i++) {
+          accumulator[i] += PrimitiveArrayCodecs.getFloat(encoded, i);
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < length; i++) {
+          accumulator[i] = Math.min(accumulator[i], PrimitiveArrayCodecs.getFloat(encoded, i));
+        }
+        break;
+      default:
+        for (int i = 0; i < length; i++) {
+          accumulator[i] = Math.max(accumulator[i], PrimitiveArrayCodecs.getFloat(encoded, i));
+        }
+      }
+      return accumulator;
+    }
+
+    private float[] newAccumulator(final int length) {
+      if (buffer == null || buffer.length != length) {
+        buffer = new float[length];
+      }
+      return buffer;
+    }
+
+    private void combine(final float[] accumulator, final float[] element) {
+      switch (op) {
+      case SUM:
+        for (int i = 0; i < accumulator.length; i++) {
+          accumulator[i] += element[i];
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < accumulator.length; i++) {
+          accumulator[i] = Math.min(accumulator[i], element[i]);
+        }
+        break;
+      default:
+        for (int i = 0; i < accumulator.length; i++) {
+          accumulator[i] = Math.max(accumulator[i], element[i]);
+        }
+      }
+    }
+  }
+
+  private abstract static class IntArrayFunction implements StreamingReduceFunction<int[]> {
+
+    private static final int BYTES = Integer.SIZE / Byte.SIZE;
+
+    private final Op op;
+    private int[] buffer;
+
+    IntArrayFunction(final Op op) {
+      this.op = op;
+    }
+
+    @Override
+    public final int[] apply(final Iterable<int[]> elements) {
+      int[] retVal = null;
+      for (final int[] element : elements) {
+        if (retVal == null) {
+          retVal = element.clone();
+        } else {
+          checkLength(retVal.length, element.length);
+          combine(retVal, element);
+        }
+      }
+      return retVal;
+    }
+
+    @Override
+    public final int[] fold(final int[] accumulator, final int[] element) {
+      if (accumulator == null) {
+        final int[] retVal = newAccumulator(element.length);
+        System.arraycopy(element, 0, retVal, 0, element.length);
+        return retVal;
+      }
+      checkLength(accumulator.length, element.length);
+      combine(accumulator, element);
+      return accumulator;
+    }
+
+    @Override
+    public final int[] foldEncoded(final int[] accumulator, final byte[] encoded) {
+      final int length = encoded.length / BYTES;
+      if (accumulator == null) {
+        final int[] retVal = newAccumulator(length);
+        for (int i = 0; i < length; i++) {
+          retVal[i] = PrimitiveArrayCodecs.getInt(encoded, i);
+        }
+        return retVal;
+      }
+      checkLength(accumulator.length, length);
+      switch (op) {
+      case SUM:
+        for (int i = 0; i < length; i++) {
+          accumulator[i] += PrimitiveArrayCodecs.getInt(encoded, i);
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < length; i++) {
+          accumulator[i] = Math.min(accumulator[i], PrimitiveArrayCodecs.getInt(encoded, i));
+        }
+        break;
+      default:
+        for (int i = 0; i < length; i++) {
+          accumulator[i] = Math.max(accumulator[i], PrimitiveArrayCodecs.getInt(encoded, i));
+        }
+      }
+      return accumulator;
+    }
+
+    private int[] newAccumulator(final int length) {
+      if (buffer == null || buffer.length != length) {
+        buffer = new int[length];
+      }
+      return buffer;
+    }
+
+    private void combine(final int[] accumulator, final int[] element) {
+      switch (op) {
+      case SUM:
+        for (int i = 0; i < accumulator.length; i++) {
+          accumulator[i] += element[i];
+        }
+        break;
+      case MIN:
+        for (int i = 0; i < accumulator.length; i++) {
+          accumulator[i] = Math.min(accumulator[i], element[i]);
+        }
+        break;
+      default:
+        for (int i = 0; i < accumulator.length; i++) {
+          accumulator[i] = Math.max(accumulator[i], element[i]);
+        }
+      }
+    }
+  }
+
+  private static void checkLength(final int expected, final int actual) {
+    if (expected != actual) {
+      throw new IllegalArgumentException("Cannot reduce arrays of length " + expected + " and " + actual);
+    }
+  }
+}
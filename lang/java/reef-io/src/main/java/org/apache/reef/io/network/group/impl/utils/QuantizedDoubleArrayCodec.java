@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.io.serialization.Codec;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+
+/**
+ * Lossy codec for {@code double[]} that sends every element in one or two bytes.
+ * Like {@link SparseDoubleArrayCodec} it picks a dense or a sparse layout per
+ * message, from the number of elements that quantize to non-zero.
+ * <p>
+ * The codec itself is stateless. A caller that sends a stream of messages, such
+ * as the values one task reduces to its parent, can keep the rounding error of
+ * each message and add it to the next one with {@link #encode(double[], double[])}
+ * (error feedback), so errors do not build up over iterations. The caller keeps
+ * one residual per stream, e.g. per destination of a Scatter.
+ */
+public abstract class QuantizedDoubleArrayCodec implements Codec<double[]> {
+
+  /**
+   * @return number of bytes of a quantized element, one or two
+   */
+  protected abstract int getValueBytes();
+
+  /**
+   * @return the scale that applies to all elements of values
+   */
+  protected abstract float getScale(double[] values);
+
+  protected abstract int quantize(double value, float scale);
+
+  protected abstract double dequantize(int quantized, float scale);
+
+  @Override
+  public final byte[] encode(final double[] obj) {
+    return encode(obj, new double[obj.length]);
+  }
+
+  /**
+   * Encode obj with error feedback: residual is added to obj before quantization
+   * and then set to the rounding error of this message.
+   *
+   * @param residual the rounding error of the previous message of the same stream,
+   *                 all zeros for the first one
+   * @throws IllegalArgumentException if residual and obj differ in length
+   */
+  public final byte[] encode(final double[] obj, final double[] residual) {
+    if (residual.length != obj.length) {
+      throw new IllegalArgumentException("Residual of length " + residual.length
+          + " does not match message of length " + obj.length);
+    }
+    final double[] compensated = new double[obj.length];
+    for (int i = 0; i < obj.length; i++) {
+      compensated[i] = obj[i] + residual[i];
+    }
+    final float scale = getScale(compensated);
+    final int[] quantized = new int[obj.length];
+    final int valueBytes = getValueBytes();
+    int nonZeros = 0;
+    int sparseBytes = 0;
+    int prevIndex = -1;
+    for (int i = 0; i < obj.length; i++) {
+      quantized[i] = quantize(compensated[i], scale);
+      residual[i] = compensated[i] - dequantize(quantized[i], scale);
+      if (quantized[i] != 0) {
+        nonZeros++;
+        sparseBytes += VarInts.size(i - prevIndex - 1) + valueBytes;
+        prevIndex = i;
+      }
+    }
+    sparseBytes += VarInts.size(nonZeros);
+    final int denseBytes = valueBytes * obj.length;
+
+    final boolean sparse = sparseBytes < denseBytes;
+    final ByteBuffer buffer = ByteBuffer.allocate(1 + VarInts.size(obj.length) + Float.SIZE / Byte.SIZE
+        + (sparse ? sparseBytes : denseBytes));
+    buffer.put(sparse ? SparseDoubleArrayCodec.SPARSE : SparseDoubleArrayCodec.DENSE);
+    VarInts.put(buffer, obj.length);
+    buffer.putFloat(scale);
+    if (sparse) {
+      VarInts.put(buffer, nonZeros);
+      prevIndex = -1;
+      for (int i = 0; i < obj.length; i++) {
+        if (quantized[i] != 0) {
+          VarInts.put(buffer, i - prevIndex - 1);
+          putValue(buffer, quantized[i]);
+          prevIndex = i;
+        }
+      }
+    } else {
+      for (final int value : quantized) {
+        putValue(buffer, value);
+      }
+    }
+    return buffer.array();
+  }
+
+  @Override
+  public final double[] decode(final byte[] buf) {
+    final ByteBuffer buffer = ByteBuffer.wrap(buf);
+    final byte layout = buffer.get();
+    final double[] retVal = new double[VarInts.get(buffer)];
+    final float scale = buffer.getFloat();
+    if (layout == SparseDoubleArrayCodec.SPARSE) {
+      final int nonZeros = VarInts.get(buffer);
+      int index = -1;
+      for (int i = 0; i < nonZeros; i++) {
+        index += VarInts.get(buffer) + 1;
+        retVal[index] = dequantize(getValue(buffer), scale);
+      }
+    } else {
+      for (int i = 0; i < retVal.length; i++) {
+        retVal[i] = dequantize(getValue(buffer), scale);
+      }
+    }
+    return retVal;
+  }
+
+  private void putValue(final ByteBuffer buffer, final int value) {
+    if (getValueBytes() == 1) {
+      buffer.put((byte) value);
+    } else {
+      buffer.putShort((short) value);
+    }
+  }
+
+  private int getValue(final ByteBuffer buffer) {
+    return getValueBytes() == 1 ? buffer.get() : buffer.getShort() & 0xffff;
+  }
+
+  /**
+   * Sends every element as an IEEE 754 half-precision float. Values beyond the
+   * half-precision range are clamped; with error feedback the rest is carried over.
+   */
+  public static final class Fp16 extends QuantizedDoubleArrayCodec {
+
+    @Inject
+    public Fp16() {
+    }
+
+    @Override
+    protected int getValueBytes() {
+      return 2;
+    }
+
+    @Override
+    protected float getScale(final double[] values) {
+      return 1;
+    }
+
+    @Override
+    protected int quantize(final double value, final float scale) {
+      return toHalf((float) value);
+    }
+
+    @Override
+    protected double dequantize(final int quantized, final float scale) {
+      return fromHalf(quantized);
+    }
+  }
+
+  /**
+   * Sends every element as a signed byte, scaled so that the largest magnitude
+   * in the message maps to 127.
+   */
+  public static final class Int8 extends QuantizedDoubleArrayCodec {
+
+    private static final int MAX = Byte.MAX_VALUE;
+
+    @Inject
+    public Int8() {
+    }
+
+    @Override
+    protected int getValueBytes() {
+      return 1;
+    }
+
+    @Override
+    protected float getScale(final double[] values) {
+      double maxAbs = 0;
+      for (final double value : values) {
+        maxAbs = Math.max(maxAbs, Math.abs(value));
+      }
+      return maxAbs == 0 ? 1 : (float) (maxAbs / MAX);
+    }
+
+    @Override
+    protected int quantize(final double value, final float scale) {
+      return (int) Math.max(-MAX, Math.min(MAX, Math.round(value / scale)));
+    }
+
+    @Override
+    protected double dequantize(final int quantized, final float scale) {
+      return (byte) quantized * (double) scale;
+    }
+  }
+
+  /**
+   * @return the half-precision bits closest to value, clamped to the largest finite half
+   */
+  static int toHalf(final float value) {
+    final int bits = Float.floatToIntBits(value);
+    final int sign = (bits >>> 16) & 0x8000;
+    final int magnitude = bits & 0x7fffffff;
+    if (magnitude >= 0x7f800000) {
+      // infinity or NaN
+      return sign | 0x7c00 | (magnitude > 0x7f800000 ? 0x200 : 0);
+    }
+    // add half an ulp of the half-precision mantissa to round to nearest
+    final int rounded = magnitude + 0x1000;
+    if (rounded >= 0x47800000) {
+      return sign | 0x7bff;
+    }
+    if (rounded >= 0x38800000) {
+      return sign | ((rounded - 0x38000000) >>> 13);
+    }
+    if (rounded < 0x33000000) {
+      return sign;
+    }
+    // subnormal half
+    final int exponent = magnitude >>> 23;
+    return sign | (((magnitude & 0x7fffff) | 0x800000) + (0x800000 >>> (exponent - 102)) >>> (126 - exponent));
+  }
+
+  /**
+   * @return the float value of the half-precision bits
+   */
+  static float fromHalf(final int half) {
+    final int sign = (half & 0x8000) << 16;
+    int exponent = (half >>> 10) & 0x1f;
+    int mantissa = half & 0x3ff;
+    if (exponent == 0x1f) {
+      return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+    }
+    if (exponent == 0) {
+      if (mantissa == 0) {
+        return Float.intBitsToFloat(sign);
+      }
+      // normalize the subnormal half
+      exponent = 1;
+      while ((mantissa & 0x400) == 0) {
+        mantissa <<= 1;
+        exponent--;
+      }
+      mantissa &= 0x3ff;
+    }
+    return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+  }
+}
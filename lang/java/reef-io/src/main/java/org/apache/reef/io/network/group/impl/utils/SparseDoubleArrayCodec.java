@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.io.serialization.Codec;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+
+/**
+ * Lossless codec for {@code double[]} that picks a dense or a sparse layout per message,
+ * whichever is smaller. The sparse layout stores the non-zero values with the gaps between
+ * their indices as variable-length ints, so a vector with few non-zeros costs little more
+ * than nine bytes per non-zero instead of eight bytes per element.
+ */
+public final class SparseDoubleArrayCodec implements Codec<double[]> {
+
+  static final byte DENSE = 0;
+  static final byte SPARSE = 1;
+
+  private static final int VALUE_BYTES = Double.SIZE / Byte.SIZE;
+
+  @Inject
+  public SparseDoubleArrayCodec() {
+  }
+
+  @Override
+  public byte[] encode(final double[] obj) {
+    int nonZeros = 0;
+    int sparseBytes = 0;
+    int prevIndex = -1;
+    for (int i = 0; i < obj.length; i++) {
+      if (obj[i] != 0) {
+        nonZeros++;
+        sparseBytes += VarInts.size(i - prevIndex - 1) + VALUE_BYTES;
+        prevIndex = i;
+      }
+    }
+    sparseBytes += VarInts.size(nonZeros);
+    final int denseBytes = VALUE_BYTES * obj.length;
+
+    final boolean sparse = sparseBytes < denseBytes;
+    final ByteBuffer buffer = ByteBuffer.allocate(1 + VarInts.size(obj.length) + (sparse ? sparseBytes : denseBytes));
+    buffer.put(sparse ? SPARSE : DENSE);
+    VarInts.put(buffer, obj.length);
+    if (sparse) {
+      VarInts.put(buffer, nonZeros);
+      prevIndex = -1;
+      for (int i = 0; i < obj.length; i++) {
+        if (obj[i] != 0) {
+          VarInts.put(buffer, i - prevIndex - 1);
+          buffer.putDouble(obj[i]);
+          prevIndex = i;
+        }
+      }
+    } else {
+      for (final double value : obj) {
+        buffer.putDouble(value);
+      }
+    }
+    return buffer.array();
+  }
+
+  @Override
+  public double[] decode(final byte[] buf) {
+    final ByteBuffer buffer = ByteBuffer.wrap(buf);
+    final byte layout = buffer.get();
+    final double[] retVal = new double[VarInts.get(buffer)];
+    if (layout == SPARSE) {
+      final int nonZeros = VarInts.get(buffer);
+      int index = -1;
+      for (int i = 0; i < nonZeros; i++) {
+        index += VarInts.get(buffer) + 1;
+        retVal[index] = buffer.getDouble();
+      }
+    } else {
+      for (int i = 0; i < retVal.length; i++) {
+        retVal[i] = buffer.getDouble();
+      }
+    }
+    return retVal;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Unsigned variable-length ints, seven bits per byte with the high bit set on all but the last byte.
+ */
+final class VarInts {
+
+  private VarInts() {
+  }
+
+  /**
+   * @return number of bytes needed to write value
+   */
+  static int size(final int value) {
+    int size = 1;
+    int remaining = value >>> 7;
+    while (remaining != 0) {
+      size++;
+      remaining >>>= 7;
+    }
+    return size;
+  }
+
+  static void put(final ByteBuffer buffer, final int value) {
+    int remaining = value;
+    while ((remaining & ~0x7f) != 0) {
+      buffer.put((byte) ((remaining & 0x7f) | 0x80));
+      remaining >>>= 7;
+    }
+    buffer.put((byte) remaining);
+  }
+
+  static int get(final ByteBuffer buffer) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.get();
+      value |= (b & 0x7f) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+    return value;
+  }
+}
@@ -18,11 +18,13 @@
  */
 package org.apache.reef.io.network.naming;
 
+import org.apache.reef.io.network.naming.exception.NamingException;
 import org.apache.reef.io.network.naming.exception.NamingRuntimeException;
 import org.apache.reef.io.network.naming.parameters.*;
 import org.apache.reef.io.network.naming.serialization.NamingLookupResponse;
 import org.apache.reef.io.network.naming.serialization.NamingMessage;
 import org.apache.reef.io.network.naming.serialization.NamingRegisterResponse;
+import org.apache.reef.io.network.naming.serialization.NamingUpdate;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Identifier;
@@ -61,6 +63,7 @@ public final class NameClient implements NameResolver {
      * @param factory an identifier factory
      * @param retryCount the number of retries
      * @param retryTimeout retry timeout
+     * @param negativeCacheTimeout how long an unknown identifier is not looked up again in ms
      * @param localAddressProvider a local address provider
      * @param tpFactory transport factory
      */
@@ -72,6 +75,7 @@ public final class NameClient implements NameResolver {
       @Parameter(NameResolverIdentifierFactory.class) final IdentifierFactory factory,
       @Parameter(NameResolverRetryCount.class) final int retryCount,
       @Parameter(NameResolverRetryTimeout.class) final int retryTimeout,
+      @Parameter(NameResolverNegativeCacheTimeout.class) final long negativeCacheTimeout,
       final LocalAddressProvider localAddressProvider,
       final TransportFactory tpFactory) {
 
@@ -81,11 +85,16 @@ public final class NameClient implements NameResolver {
 
     this.transport = tpFactory.newInstance(localAddressProvider.getLocalAddress(), 0,
         new SyncStage<>(new NamingClientEventHandler(
-            new NamingResponseHandler(replyLookupQueue, replyRegisterQueue), codec)),
+            new NamingResponseHandler(replyLookupQueue, replyRegisterQueue, new EventHandler<NamingUpdate>() {
+              @Override
+              public void onNext(final NamingUpdate update) {
+                lookupClient.onUpdate(update);
+              }
+            }), codec)),
         null, retryCount, retryTimeout);
 
     this.lookupClient = new NameLookupClient(serverAddr, serverPort, timeout, factory,
-        retryCount, retryTimeout, replyLookupQueue, this.transport);
+        retryCount, retryTimeout, negativeCacheTimeout, replyLookupQueue, this.transport);
 
     this.registryClient = new NameRegistryClient(serverAddr, serverPort, timeout,
         factory, replyRegisterQueue, this.transport);
@@ -136,6 +145,28 @@ public final class NameClient implements NameResolver {
     return this.lookupClient.remoteLookup(id);
   }
 
+  /**
+   * Looks up and caches the addresses of identifiers in as few requests as possible.
+   *
+   * @param ids identifiers
+   * @throws NamingException if the name server cannot be reached
+   * @throws InterruptedException if interrupted while waiting for the name server
+   */
+  public void prefetch(final Iterable<? extends Identifier> ids) throws NamingException, InterruptedException {
+    this.lookupClient.prefetch(ids);
+  }
+
+  /**
+   * Subscribes to the identifiers that start with one of the prefixes,
+   * so that their registrations are pushed by the name server instead of looked up.
+   *
+   * @param prefixes identifier prefixes
+   * @throws NamingException if the subscription cannot be sent
+   */
+  public void subscribe(final Iterable<String> prefixes) throws NamingException {
+    this.lookupClient.subscribe(prefixes);
+  }
+
   /**
    * Closes resources.
    */
@@ -187,11 +218,14 @@ class NamingResponseHandler implements EventHandler<NamingMessage> {
 
   private final BlockingQueue<NamingLookupResponse> replyLookupQueue;
   private final BlockingQueue<NamingRegisterResponse> replyRegisterQueue;
+  private final EventHandler<NamingUpdate> updateHandler;
 
   NamingResponseHandler(final BlockingQueue<NamingLookupResponse> replyLookupQueue,
-                        final BlockingQueue<NamingRegisterResponse> replyRegisterQueue) {
+                        final BlockingQueue<NamingRegisterResponse> replyRegisterQueue,
+                        final EventHandler<NamingUpdate> updateHandler) {
     this.replyLookupQueue = replyLookupQueue;
     this.replyRegisterQueue = replyRegisterQueue;
+    this.updateHandler = updateHandler;
   }
 
   @Override
@@ -204,6 +238,8 @@ class NamingResponseHandler implements EventHandler<NamingMessage> {
       if (!replyRegisterQueue.offer((NamingRegisterResponse) value)) {
         LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
       }
+    } else if (value instanceof NamingUpdate) {
+      updateHandler.onNext((NamingUpdate) value);
     } else {
       throw new NamingRuntimeException("Unknown naming response message");
     }
@@ -25,11 +25,14 @@ import org.apache.reef.io.network.naming.parameters.NameResolverCacheTimeout;
 import org.apache.reef.io.network.naming.parameters.NameResolverIdentifierFactory;
 import org.apache.reef.io.network.naming.parameters.NameResolverNameServerAddr;
 import org.apache.reef.io.network.naming.parameters.NameResolverNameServerPort;
+import org.apache.reef.io.network.naming.parameters.NameResolverNegativeCacheTimeout;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryCount;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryTimeout;
 import org.apache.reef.io.network.naming.serialization.NamingLookupRequest;
 import org.apache.reef.io.network.naming.serialization.NamingLookupResponse;
 import org.apache.reef.io.network.naming.serialization.NamingMessage;
+import org.apache.reef.io.network.naming.serialization.NamingSubscribeRequest;
+import org.apache.reef.io.network.naming.serialization.NamingUpdate;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.util.cache.Cache;
 import org.apache.reef.wake.EventHandler;
@@ -46,19 +49,26 @@ import org.apache.reef.wake.remote.transport.TransportFactory;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
-import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Callable;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Naming lookup client.
+ * <p>
+ * Concurrent lookups are coalesced: while one request is waiting for the name server,
+ * the identifiers looked up by other threads are queued and then sent together in a
+ * single request. Identifiers the server does not know are remembered for a short while,
+ * so that repeated lookups of a task that has not registered yet do not all reach the server.
+ * <p>
+ * A client can also subscribe to identifier prefixes. The name server then pushes the
+ * current addresses of the matching identifiers and every later change of them, so lookups
+ * of those identifiers are answered locally and always see the latest registration.
  */
 public final class NameLookupClient implements Stage, NamingLookup {
 
@@ -71,7 +81,42 @@ public final class NameLookupClient implements Stage, NamingLookup {
   private final Cache<Identifier, InetSocketAddress> cache;
   private final int retryCount;
   private final int retryTimeout;
+  private final long negativeCacheTimeout;
 
+  /**
+   * Lookups waiting to be sent, by identifier.
+   */
+  private final Map<Identifier, PendingLookup> queuedLookups = new LinkedHashMap<>();
+
+  /**
+   * Lookups sent and waiting for the response, by identifier.
+   */
+  private final Map<Identifier, PendingLookup> sentLookups = new HashMap<>();
+
+  /**
+   * Whether a thread is sending lookups. Guarded, with the two maps, by {@code queuedLookups}.
+   */
+  private boolean sending = false;
+
+  /**
+   * Id of the last lookup request sent.
+   */
+  private final AtomicLong lastRequestId = new AtomicLong();
+
+  /**
+   * Identifiers the name server did not know, with the time until which they are not looked up again.
+   */
+  private final ConcurrentMap<Identifier, Long> notFoundUntil = new ConcurrentHashMap<>();
+
+  /**
+   * Identifier prefixes subscribed to.
+   */
+  private final Set<String> subscribedPrefixes = new LinkedHashSet<>();
+
+  /**
+   * Addresses pushed by the name server for subscribed identifiers.
+   */
+  private final ConcurrentMap<Identifier, InetSocketAddress> pushedAddresses = new ConcurrentHashMap<>();
 
   /**
    * Constructs a naming lookup client.
@@ -82,6 +127,7 @@ public final class NameLookupClient implements Stage, NamingLookup {
    * @param factory    an identifier factory
    * @param retryCount a count of retrying lookup
    * @param retryTimeout retry timeout
+   * @param negativeCacheTimeout how long an unknown identifier is not looked up again in ms
    * @param replyQueue a reply queue
    * @param transport  a transport
    */
@@ -91,10 +137,12 @@ public final class NameLookupClient implements Stage, NamingLookup {
                           final IdentifierFactory factory,
                           final int retryCount,
                           final int retryTimeout,
+                          final long negativeCacheTimeout,
                           final BlockingQueue<NamingLookupResponse> replyQueue,
                           final Transport transport) {
     this.serverSocketAddr = new InetSocketAddress(serverAddr, serverPort);
     this.timeout = timeout;
+    this.negativeCacheTimeout = negativeCacheTimeout;
     this.cache = new NameCache(timeout);
     this.codec = NamingCodecFactory.createFullCodec(factory);
     this.replyQueue = replyQueue;
@@ -110,6 +158,7 @@ public final class NameLookupClient implements Stage, NamingLookup {
     * @param serverPort a server port number
     * @param timeout    request timeout in ms
     * @param factory    an identifier factory
+    * @param negativeCacheTimeout how long an unknown identifier is not looked up again in ms
     * @param tpFactory  a transport factory
     */
   @Inject
@@ -120,17 +169,25 @@ public final class NameLookupClient implements Stage, NamingLookup {
             @Parameter(NameResolverIdentifierFactory.class) final IdentifierFactory factory,
             @Parameter(NameResolverRetryCount.class) final int retryCount,
             @Parameter(NameResolverRetryTimeout.class) final int retryTimeout,
+            @Parameter(NameResolverNegativeCacheTimeout.class) final long negativeCacheTimeout,
             final LocalAddressProvider localAddressProvider,
             final TransportFactory tpFactory) {
     this.serverSocketAddr = new InetSocketAddress(serverAddr, serverPort);
     this.timeout = timeout;
+    this.negativeCacheTimeout = negativeCacheTimeout;
     this.cache = new NameCache(timeout);
     this.codec = NamingCodecFactory.createLookupCodec(factory);
     this.replyQueue = new LinkedBlockingQueue<>();
+    final EventHandler<NamingUpdate> updateHandler = new EventHandler<NamingUpdate>() {
+      @Override
+      public void onNext(final NamingUpdate update) {
+        onUpdate(update);
+      }
+    };
 
     this.transport = tpFactory.newInstance(localAddressProvider.getLocalAddress(), 0,
             new SyncStage<>(new NamingLookupClientHandler(
-                    new NamingLookupResponseHandler(this.replyQueue), this.codec)),
+                    new NamingLookupResponseHandler(this.replyQueue), updateHandler, this.codec)),
             null, retryCount, retryTimeout);
 
     this.retryCount = retryCount;
@@ -146,6 +203,11 @@ public final class NameLookupClient implements Stage, NamingLookup {
   @Override
   public InetSocketAddress lookup(final Identifier id) throws Exception {
 
+    final InetSocketAddress pushedAddress = pushedAddresses.get(id);
+    if (pushedAddress != null) {
+      return pushedAddress;
+    }
+
     return cache.get(id, new Callable<InetSocketAddress>() {
 
       @Override
@@ -183,35 +245,234 @@ public final class NameLookupClient implements Stage, NamingLookup {
    * @throws Exception
    */
   public InetSocketAddress remoteLookup(final Identifier id) throws Exception {
-    // the lookup is not thread-safe, because concurrent replies may
-    // be read by the wrong thread.
-    // TODO: better fix uses a map of id's after REEF-198
-    synchronized (this) {
+    final InetSocketAddress address = remoteLookup(Collections.singletonList(id)).get(id);
+    if (address == null) {
+      throw new NamingException("Cannot find " + id + " from the name server");
+    }
+    return address;
+  }
 
-      LOG.log(Level.INFO, "Looking up {0} on NameServer {1}", new Object[]{id, serverSocketAddr});
+  /**
+   * Looks up the addresses of identifiers with as few requests as possible and caches them,
+   * for example to resolve all the tasks of a communication group at once.
+   * Identifiers the name server does not know are skipped.
+   *
+   * @param ids identifiers
+   * @throws NamingException if the name server cannot be reached
+   * @throws InterruptedException if interrupted while waiting for the name server
+   */
+  public void prefetch(final Iterable<? extends Identifier> ids) throws NamingException, InterruptedException {
+    final List<Identifier> idList = new ArrayList<>();
+    for (final Identifier id : ids) {
+      idList.add(id);
+    }
+    for (final Map.Entry<Identifier, InetSocketAddress> entry : remoteLookup(idList).entrySet()) {
+      try {
+        cache.get(entry.getKey(), new Callable<InetSocketAddress>() {
+          @Override
+          public InetSocketAddress call() {
+            return entry.getValue();
+          }
+        });
+      } catch (final ExecutionException e) {
+        throw new NamingException(e);
+      }
+    }
+  }
+
+  /**
+   * Subscribes to the identifiers that start with one of the prefixes. The name server pushes
+   * their current addresses and then every registration and unregistration of them,
+   * which replace the cached addresses. A prefix matches whole segments of an identifier,
+   * so task-1 matches task-1 and task-1.0, but not task-10.
+   *
+   * @param prefixes identifier prefixes
+   */
+  public void subscribe(final Iterable<String> prefixes) throws NamingException {
+    final List<String> allPrefixes;
+    synchronized (subscribedPrefixes) {
+      boolean added = false;
+      for (final String prefix : prefixes) {
+        added |= subscribedPrefixes.add(prefix);
+      }
+      if (!added) {
+        return;
+      }
+      allPrefixes = new ArrayList<>(subscribedPrefixes);
+    }
+    sendSubscription(allPrefixes);
+  }
 
-      final List<Identifier> ids = Arrays.asList(id);
+  /**
+   * Sends the subscribed prefixes, which replace the ones the name server has for this client.
+   */
+  private void sendSubscription(final List<String> prefixes) throws NamingException {
+    LOG.log(Level.FINE, "Subscribing to {0} on NameServer {1}", new Object[]{prefixes, serverSocketAddr});
+    try {
       final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
           new LoggingLinkListener<NamingMessage>());
-      link.write(new NamingLookupRequest(ids));
+      link.write(new NamingSubscribeRequest(prefixes));
+    } catch (final IOException e) {
+      throw new NamingException(e);
+    }
+  }
 
-      final NamingLookupResponse resp;
-      for (;;) {
-        try {
-          resp = replyQueue.poll(timeout, TimeUnit.MILLISECONDS);
-          break;
-        } catch (final InterruptedException e) {
-          LOG.log(Level.INFO, "Lookup interrupted", e);
-          throw new NamingException(e);
+  /**
+   * Applies an update pushed by the name server.
+   *
+   * @param update the update
+   */
+  void onUpdate(final NamingUpdate update) {
+    LOG.log(Level.FINE, "Update from NameServer {0}: {1} registered, {2} removed",
+        new Object[]{serverSocketAddr, update.getNameAssignments().size(), update.getRemovedIdentifiers().size()});
+    for (final NameAssignment assignment : update.getNameAssignments()) {
+      pushedAddresses.put(assignment.getIdentifier(), assignment.getAddress());
+      notFoundUntil.remove(assignment.getIdentifier());
+      cache.invalidate(assignment.getIdentifier());
+    }
+    for (final Identifier id : update.getRemovedIdentifiers()) {
+      pushedAddresses.remove(id);
+      cache.invalidate(id);
+    }
+  }
+
+  /**
+   * Retrieves the addresses of identifiers remotely. The identifiers are queued together with
+   * the ones looked up concurrently by other threads and sent in as few requests as possible.
+   *
+   * @param ids identifiers
+   * @return the addresses of the identifiers known to the name server
+   */
+  private Map<Identifier, InetSocketAddress> remoteLookup(final List<Identifier> ids)
+      throws NamingException, InterruptedException {
+    final long now = System.currentTimeMillis();
+    final Map<Identifier, PendingLookup> lookups = new LinkedHashMap<>();
+    synchronized (queuedLookups) {
+      for (final Identifier id : ids) {
+        final Long until = notFoundUntil.get(id);
+        if (until != null && until > now) {
+          LOG.log(Level.FINE, "{0} was not found on NameServer {1} recently", new Object[]{id, serverSocketAddr});
+          continue;
+        }
+        PendingLookup lookup = sentLookups.get(id);
+        if (lookup == null) {
+          lookup = queuedLookups.get(id);
+        }
+        if (lookup == null) {
+          lookup = new PendingLookup();
+          queuedLookups.put(id, lookup);
+        }
+        lookups.put(id, lookup);
+      }
+    }
+
+    sendQueuedLookups();
+
+    final Map<Identifier, InetSocketAddress> addresses = new HashMap<>();
+    for (final Map.Entry<Identifier, PendingLookup> entry : lookups.entrySet()) {
+      final InetSocketAddress address = entry.getValue().await();
+      if (address != null) {
+        addresses.put(entry.getKey(), address);
+      }
+    }
+    return addresses;
+  }
+
+  /**
+   * Sends the queued lookups in batches until none are left,
+   * unless another thread is already doing so, which then also sends the ones queued by this thread.
+   * Only one request is outstanding at a time, and responses to earlier requests are told apart by their id.
+   */
+  private void sendQueuedLookups() {
+    while (true) {
+      final Map<Identifier, PendingLookup> batch;
+      synchronized (queuedLookups) {
+        if (sending || queuedLookups.isEmpty()) {
+          return;
+        }
+        sending = true;
+        batch = new LinkedHashMap<>(queuedLookups);
+        queuedLookups.clear();
+        sentLookups.putAll(batch);
+      }
+      try {
+        sendLookups(batch);
+      } finally {
+        synchronized (queuedLookups) {
+          sentLookups.keySet().removeAll(batch.keySet());
+          sending = false;
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("checkstyle:illegalcatch")
+  private void sendLookups(final Map<Identifier, PendingLookup> batch) {
+    final long requestId = lastRequestId.incrementAndGet();
+    LOG.log(Level.INFO, "Looking up {0} on NameServer {1}", new Object[]{batch.keySet(), serverSocketAddr});
+    try {
+      final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
+          new LoggingLinkListener<NamingMessage>());
+      link.write(new NamingLookupRequest(new ArrayList<>(batch.keySet()), requestId));
+
+      final NamingLookupResponse resp = pollResponse(requestId);
+      if (resp == null) {
+        throw new NamingException("No response from the name server for " + batch.keySet());
+      }
+
+      final Map<Identifier, InetSocketAddress> addresses = new HashMap<>();
+      for (final NameAssignment assignment : resp.getNameAssignments()) {
+        addresses.put(assignment.getIdentifier(), assignment.getAddress());
+      }
+      final long notFoundExpiry = System.currentTimeMillis() + negativeCacheTimeout;
+      for (final Map.Entry<Identifier, PendingLookup> entry : batch.entrySet()) {
+        final InetSocketAddress address = addresses.get(entry.getKey());
+        if (address == null) {
+          notFoundUntil.put(entry.getKey(), notFoundExpiry);
+        } else {
+          notFoundUntil.remove(entry.getKey());
         }
+        entry.getValue().complete(address, null);
       }
+    } catch (final InterruptedException e) {
+      LOG.log(Level.INFO, "Lookup interrupted", e);
+      failLookups(batch, new NamingException(e));
+      Thread.currentThread().interrupt();
+    } catch (final NamingException e) {
+      failLookups(batch, e);
+    } catch (final Exception e) {
+      failLookups(batch, new NamingException(e));
+    } finally {
+      // after an Error nobody else would wake up the threads waiting for this batch
+      failLookups(batch, new NamingException("Lookup of " + batch.keySet() + " did not complete"));
+    }
+  }
 
-      final List<NameAssignment> list = resp.getNameAssignments();
-      if (list.isEmpty()) {
-        throw new NamingException("Cannot find " + id + " from the name server");
-      } else {
-        return list.get(0).getAddress();
+  /**
+   * Waits for the response to a request, dropping the late responses of requests that timed out earlier.
+   *
+   * @param requestId the id of the request
+   * @return the response, or null if none arrived within the timeout
+   */
+  private NamingLookupResponse pollResponse(final long requestId) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeout;
+    while (true) {
+      final NamingLookupResponse resp =
+          replyQueue.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+      if (resp == null || resp.getRequestId() == requestId) {
+        return resp;
       }
+      LOG.log(Level.FINE, "Dropped the response to request {0} from NameServer {1}",
+          new Object[]{resp.getRequestId(), serverSocketAddr});
+    }
+  }
+
+  /**
+   * Fails the lookups of a batch that are not complete yet.
+   */
+  private static void failLookups(final Map<Identifier, PendingLookup> batch, final NamingException cause) {
+    for (final PendingLookup lookup : batch.values()) {
+      lookup.complete(null, cause);
     }
   }
 
@@ -220,9 +481,54 @@ public final class NameLookupClient implements Stage, NamingLookup {
    */
   @Override
   public void close() throws Exception {
+    synchronized (subscribedPrefixes) {
+      if (!subscribedPrefixes.isEmpty()) {
+        subscribedPrefixes.clear();
+        try {
+          sendSubscription(Collections.<String>emptyList());
+        } catch (final NamingException e) {
+          LOG.log(Level.WARNING, "Could not cancel the subscription on NameServer " + serverSocketAddr, e);
+        }
+      }
+    }
     // Should not close transport as we did not
     // create it
   }
+
+  /**
+   * A lookup of one identifier, shared by all threads looking it up at the same time.
+   */
+  private static final class PendingLookup {
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile InetSocketAddress address;
+    private volatile NamingException failure;
+
+    /**
+     * Completes the lookup unless it is already complete.
+     *
+     * @param addr the address, or null if the identifier is not registered
+     * @param cause the reason the lookup failed, or null
+     */
+    void complete(final InetSocketAddress addr, final NamingException cause) {
+      if (done.getCount() > 0) {
+        this.address = addr;
+        this.failure = cause;
+        done.countDown();
+      }
+    }
+
+    /**
+     * @return the address, or null if the identifier is not registered
+     */
+    InetSocketAddress await() throws NamingException, InterruptedException {
+      done.await();
+      if (failure != null) {
+        throw failure;
+      }
+      return address;
+    }
+  }
 }
 
 /**
@@ -231,16 +537,25 @@ public final class NameLookupClient implements Stage, NamingLookup {
 class NamingLookupClientHandler implements EventHandler<TransportEvent> {
 
   private final EventHandler<NamingLookupResponse> handler;
+  private final EventHandler<NamingUpdate> updateHandler;
   private final Codec<NamingMessage> codec;
 
-  NamingLookupClientHandler(final EventHandler<NamingLookupResponse> handler, final Codec<NamingMessage> codec) {
+  NamingLookupClientHandler(final EventHandler<NamingLookupResponse> handler,
+                            final EventHandler<NamingUpdate> updateHandler,
+                            final Codec<NamingMessage> codec) {
     this.handler = handler;
+    this.updateHandler = updateHandler;
     this.codec = codec;
   }
 
   @Override
   public void onNext(final TransportEvent value) {
-    handler.onNext((NamingLookupResponse) codec.decode(value.getData()));
+    final NamingMessage message = codec.decode(value.getData());
+    if (message instanceof NamingUpdate) {
+      updateHandler.onNext((NamingUpdate) message);
+    } else {
+      handler.onNext((NamingLookupResponse) message);
+    }
   }
 
 }
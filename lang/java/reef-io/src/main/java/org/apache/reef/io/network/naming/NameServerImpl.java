@@ -24,6 +24,7 @@ import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
@@ -32,14 +33,19 @@ import org.apache.reef.wake.impl.SyncStage;
 import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.TransportConnectionListener;
 import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
 import org.apache.reef.webserver.ReefEventStateManager;
 
 import javax.inject.Inject;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -52,6 +58,8 @@ public final class NameServerImpl implements NameServer {
 
   private final Transport transport;
   private final Map<Identifier, InetSocketAddress> idToAddrMap;
+  private final ConcurrentMap<SocketAddress, Subscription> subscriptions = new ConcurrentHashMap<>();
+  private final Codec<NamingMessage> codec;
   private final ReefEventStateManager reefEventStateManager;
   private final int port;
   private final LocalAddressProvider localAddressProvider;
@@ -72,13 +80,13 @@ public final class NameServerImpl implements NameServer {
 
     this.localAddressProvider = localAddressProvider;
     this.reefEventStateManager = null;
-    final Codec<NamingMessage> codec = NamingCodecFactory.createFullCodec(factory);
-    final EventHandler<NamingMessage> handler = createEventHandler(codec);
+    this.codec = NamingCodecFactory.createFullCodec(factory);
+    final EventHandler<NamingMessage> handler = createEventHandler();
 
     injector.bindVolatileParameter(RemoteConfiguration.HostAddress.class, localAddressProvider.getLocalAddress());
     injector.bindVolatileParameter(RemoteConfiguration.Port.class, port);
     injector.bindVolatileParameter(RemoteConfiguration.RemoteServerStage.class,
-        new SyncStage<>(new NamingServerHandler(handler, codec)));
+        new NamingServerStage(new SyncStage<>(new NamingServerHandler(handler, codec)), this));
 
     try {
       this.transport = injector.getInstance(NettyMessagingTransport.class);
@@ -87,12 +95,12 @@ public final class NameServerImpl implements NameServer {
     }
 
     this.port = transport.getListeningPort();
-    this.idToAddrMap = Collections.synchronizedMap(new HashMap<Identifier, InetSocketAddress>());
+    this.idToAddrMap = new ConcurrentHashMap<>();
 
     LOG.log(Level.FINE, "NameServer starting, listening at port {0}", this.port);
   }
 
-  private EventHandler<NamingMessage> createEventHandler(final Codec<NamingMessage> codec) {
+  private EventHandler<NamingMessage> createEventHandler() {
 
     final Map<Class<? extends NamingMessage>, EventHandler<? extends NamingMessage>>
         clazzToHandlerMap = new HashMap<>();
@@ -100,6 +108,7 @@ public final class NameServerImpl implements NameServer {
     clazzToHandlerMap.put(NamingLookupRequest.class, new NamingLookupRequestHandler(this, codec));
     clazzToHandlerMap.put(NamingRegisterRequest.class, new NamingRegisterRequestHandler(this, codec));
     clazzToHandlerMap.put(NamingUnregisterRequest.class, new NamingUnregisterRequestHandler(this));
+    clazzToHandlerMap.put(NamingSubscribeRequest.class, new NamingSubscribeRequestHandler(this));
     final EventHandler<NamingMessage> handler = new MultiEventHandler<>(clazzToHandlerMap);
 
     return handler;
@@ -130,6 +139,7 @@ public final class NameServerImpl implements NameServer {
   public void register(final Identifier id, final InetSocketAddress addr) {
     LOG.log(Level.FINE, "id: " + id + " addr: " + addr);
     idToAddrMap.put(id, addr);
+    notifySubscribers(id);
   }
 
   /**
@@ -141,6 +151,7 @@ public final class NameServerImpl implements NameServer {
   public void unregister(final Identifier id) {
     LOG.log(Level.FINE, "id: " + id);
     idToAddrMap.remove(id);
+    notifySubscribers(id);
   }
 
   /**
@@ -175,9 +186,117 @@ public final class NameServerImpl implements NameServer {
     return nas;
   }
 
+  /**
+   * Subscribes the client at the other end of the link to changes of the identifiers
+   * that start with one of the prefixes, and pushes the current assignments of those identifiers.
+   * A prefix matches whole segments of an identifier, which are separated by characters other
+   * than letters and digits: task-1 matches task-1 and task-1.0, but not task-10.
+   * The prefixes replace the ones the client subscribed to before; no prefixes cancel the subscription.
+   * The subscription is dropped when a push to the client fails or its connection closes.
+   *
+   * @param link     a link to the client
+   * @param prefixes identifier prefixes
+   */
+  void subscribe(final Link<byte[]> link, final List<String> prefixes) {
+    LOG.log(Level.FINE, "subscriber: {0} prefixes: {1}", new Object[]{link.getRemoteAddress(), prefixes});
+    if (prefixes.isEmpty()) {
+      subscriptions.remove(link.getRemoteAddress());
+      return;
+    }
+    final Subscription subscription = new Subscription(link, prefixes);
+    subscriptions.put(link.getRemoteAddress(), subscription);
+    final List<Identifier> matching = new ArrayList<>();
+    for (final Identifier id : idToAddrMap.keySet()) {
+      if (subscription.matches(id)) {
+        matching.add(id);
+      }
+    }
+    subscription.push(matching);
+  }
+
+  /**
+   * Drops the subscription of the client whose connection closed.
+   *
+   * @param remoteAddress the address of the client
+   */
+  void onConnectionClosed(final SocketAddress remoteAddress) {
+    if (subscriptions.remove(remoteAddress) != null) {
+      LOG.log(Level.FINE, "Dropped the subscription of the closed connection from {0}", remoteAddress);
+    }
+  }
+
+  /**
+   * @return whether name starts with the whole segments of prefix
+   */
+  static boolean matchesPrefix(final String name, final String prefix) {
+    if (!name.startsWith(prefix)) {
+      return false;
+    }
+    return prefix.isEmpty() || name.length() == prefix.length()
+        || !Character.isLetterOrDigit(prefix.charAt(prefix.length() - 1))
+        || !Character.isLetterOrDigit(name.charAt(prefix.length()));
+  }
+
+  private void notifySubscribers(final Identifier id) {
+    for (final Subscription subscription : subscriptions.values()) {
+      if (subscription.matches(id)) {
+        subscription.push(Collections.singletonList(id));
+      }
+    }
+  }
+
   private String getNameServerId() {
     return this.localAddressProvider.getLocalAddress() + ":" + getPort();
   }
+
+  /**
+   * Identifier prefixes a client subscribed to, and the link to push updates over.
+   */
+  private final class Subscription {
+
+    private final Link<byte[]> link;
+    private final List<String> prefixes;
+
+    Subscription(final Link<byte[]> link, final List<String> prefixes) {
+      this.link = link;
+      this.prefixes = prefixes;
+    }
+
+    boolean matches(final Identifier id) {
+      final String name = id.toString();
+      for (final String prefix : prefixes) {
+        if (matchesPrefix(name, prefix)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * Pushes the current assignments of the identifiers. Reading the registry and writing
+     * to the link under one lock keeps concurrent updates of an identifier in order.
+     * A failed push drops the subscription.
+     */
+    @SuppressWarnings("checkstyle:illegalcatch")
+    synchronized void push(final Collection<Identifier> ids) {
+      final List<NameAssignment> nas = new ArrayList<>(ids.size());
+      final List<Identifier> removed = new ArrayList<>();
+      for (final Identifier id : ids) {
+        final InetSocketAddress addr = idToAddrMap.get(id);
+        if (addr != null) {
+          nas.add(new NameAssignmentTuple(id, addr));
+        } else {
+          removed.add(id);
+        }
+      }
+      try {
+        link.write(codec.encode(new NamingUpdate(nas, removed)));
+      } catch (final RuntimeException e) {
+        LOG.log(Level.WARNING, "Dropping the subscription of " + link.getRemoteAddress() + " after a failed push", e);
+        subscriptions.remove(link.getRemoteAddress(), this);
+      }
+    }
+  }
 }
 
 /**
@@ -202,6 +321,35 @@ class NamingServerHandler implements EventHandler<TransportEvent> {
   }
 }
 
+/**
+ * Naming server stage that tells the name server when a client connection closes.
+ */
+class NamingServerStage implements EStage<TransportEvent>, TransportConnectionListener {
+
+  private final EStage<TransportEvent> stage;
+  private final NameServerImpl server;
+
+  NamingServerStage(final EStage<TransportEvent> stage, final NameServerImpl server) {
+    this.stage = stage;
+    this.server = server;
+  }
+
+  @Override
+  public void onNext(final TransportEvent value) {
+    stage.onNext(value);
+  }
+
+  @Override
+  public void onConnectionClosed(final SocketAddress remoteAddress) {
+    server.onConnectionClosed(remoteAddress);
+  }
+
+  @Override
+  public void close() throws Exception {
+    stage.close();
+  }
+}
+
 /**
  * Naming lookup request handler.
  */
@@ -221,7 +369,7 @@ class NamingLookupRequestHandler implements EventHandler<NamingLookupRequest> {
   @Override
   public void onNext(final NamingLookupRequest value) {
     final List<NameAssignment> nas = server.lookup(value.getIdentifiers());
-    final byte[] resp = codec.encode(new NamingLookupResponse(nas));
+    final byte[] resp = codec.encode(new NamingLookupResponse(nas, value.getRequestId()));
     value.getLink().write(resp);
   }
 }
@@ -266,3 +414,20 @@ class NamingUnregisterRequestHandler implements EventHandler<NamingUnregisterReq
     server.unregister(value.getIdentifier());
   }
 }
+
+/**
+ * Naming subscribe request handler.
+ */
+class NamingSubscribeRequestHandler implements EventHandler<NamingSubscribeRequest> {
+
+  private final NameServerImpl server;
+
+  NamingSubscribeRequestHandler(final NameServerImpl server) {
+    this.server = server;
+  }
+
+  @Override
+  public void onNext(final NamingSubscribeRequest value) {
+    server.subscribe(value.getLink(), value.getPrefixes());
+  }
+}
@@ -32,7 +32,7 @@ import java.util.Map;
 final class NamingCodecFactory {
 
   /**
-   * Creates a codec only for lookup.
+   * Creates a codec only for lookup and lookup subscriptions.
    *
    * @param factory an identifier factory
    * @return a codec
@@ -42,6 +42,8 @@ final class NamingCodecFactory {
         = new HashMap<>();
     clazzToCodecMap.put(NamingLookupRequest.class, new NamingLookupRequestCodec(factory));
     clazzToCodecMap.put(NamingLookupResponse.class, new NamingLookupResponseCodec(factory));
+    clazzToCodecMap.put(NamingSubscribeRequest.class, new NamingSubscribeRequestCodec());
+    clazzToCodecMap.put(NamingUpdate.class, new NamingUpdateCodec(factory));
     final Codec<NamingMessage> codec = new MultiCodec<>(clazzToCodecMap);
     return codec;
   }
@@ -78,6 +80,8 @@ final class NamingCodecFactory {
     clazzToCodecMap.put(NamingRegisterResponse.class,
         new NamingRegisterResponseCodec(new NamingRegisterRequestCodec(factory)));
     clazzToCodecMap.put(NamingUnregisterRequest.class, new NamingUnregisterRequestCodec(factory));
+    clazzToCodecMap.put(NamingSubscribeRequest.class, new NamingSubscribeRequestCodec());
+    clazzToCodecMap.put(NamingUpdate.class, new NamingUpdateCodec(factory));
     final Codec<NamingMessage> codec = new MultiCodec<>(clazzToCodecMap);
     return codec;
   }
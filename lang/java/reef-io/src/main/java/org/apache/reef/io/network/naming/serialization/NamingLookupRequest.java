@@ -25,6 +25,7 @@ import org.apache.reef.wake.Identifier;
  */
 public class NamingLookupRequest extends NamingMessage {
   private Iterable<Identifier> ids;
+  private final long requestId;
 
   /**
    * Constructs a naming lookup request.
@@ -32,7 +33,18 @@ public class NamingLookupRequest extends NamingMessage {
    * @param ids the iterable of identifiers
    */
   public NamingLookupRequest(final Iterable<Identifier> ids) {
+    this(ids, 0);
+  }
+
+  /**
+   * Constructs a naming lookup request.
+   *
+   * @param ids the iterable of identifiers
+   * @param requestId the id the response carries back, to tell it from the responses of other requests
+   */
+  public NamingLookupRequest(final Iterable<Identifier> ids, final long requestId) {
     this.ids = ids;
+    this.requestId = requestId;
   }
 
   /**
@@ -43,4 +55,13 @@ public class NamingLookupRequest extends NamingMessage {
   public Iterable<Identifier> getIdentifiers() {
     return ids;
   }
+
+  /**
+   * Gets the request id.
+   *
+   * @return the request id
+   */
+  public long getRequestId() {
+    return requestId;
+  }
 }
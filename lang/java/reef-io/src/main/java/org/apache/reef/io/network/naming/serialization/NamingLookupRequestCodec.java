@@ -56,7 +56,9 @@ public final class NamingLookupRequestCodec implements Codec<NamingLookupRequest
     for (final Identifier id : obj.getIdentifiers()) {
       ids.add(id.toString());
     }
-    return AvroUtils.toBytes(AvroNamingLookupRequest.newBuilder().setIds(ids).build(), AvroNamingLookupRequest.class);
+    return AvroUtils.toBytes(
+        AvroNamingLookupRequest.newBuilder().setIds(ids).setRequestId(obj.getRequestId()).build(),
+        AvroNamingLookupRequest.class);
   }
 
   /**
@@ -73,7 +75,7 @@ public final class NamingLookupRequestCodec implements Codec<NamingLookupRequest
     for (final CharSequence s : req.getIds()) {
       ids.add(factory.getNewInstance(s.toString()));
     }
-    return new NamingLookupRequest(ids);
+    return new NamingLookupRequest(ids, req.getRequestId());
   }
 
 }
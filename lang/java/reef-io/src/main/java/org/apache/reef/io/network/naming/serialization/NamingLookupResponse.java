@@ -27,6 +27,7 @@ import java.util.List;
  */
 public class NamingLookupResponse extends NamingMessage {
   private final List<NameAssignment> nas;
+  private final long requestId;
 
   /**
    * Constructs a naming lookup response.
@@ -34,7 +35,18 @@ public class NamingLookupResponse extends NamingMessage {
    * @param nas the list of name assignments
    */
   public NamingLookupResponse(final List<NameAssignment> nas) {
+    this(nas, 0);
+  }
+
+  /**
+   * Constructs a naming lookup response.
+   *
+   * @param nas the list of name assignments
+   * @param requestId the id of the request answered
+   */
+  public NamingLookupResponse(final List<NameAssignment> nas, final long requestId) {
     this.nas = nas;
+    this.requestId = requestId;
   }
 
   /**
@@ -45,4 +57,13 @@ public class NamingLookupResponse extends NamingMessage {
   public List<NameAssignment> getNameAssignments() {
     return nas;
   }
+
+  /**
+   * Gets the id of the request answered.
+   *
+   * @return the request id
+   */
+  public long getRequestId() {
+    return requestId;
+  }
 }
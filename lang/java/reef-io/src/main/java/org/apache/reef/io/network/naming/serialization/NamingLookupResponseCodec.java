@@ -64,7 +64,8 @@ public final class NamingLookupResponseCodec implements Codec<NamingLookupRespon
           .build());
     }
     return AvroUtils.toBytes(
-        AvroNamingLookupResponse.newBuilder().setTuples(assignments).build(), AvroNamingLookupResponse.class
+        AvroNamingLookupResponse.newBuilder().setTuples(assignments).setRequestId(obj.getRequestId()).build(),
+        AvroNamingLookupResponse.class
     );
   }
 
@@ -87,7 +88,7 @@ public final class NamingLookupResponseCodec implements Codec<NamingLookupRespon
           )
       );
     }
-    return new NamingLookupResponse(nas);
+    return new NamingLookupResponse(nas, avroResponse.getRequestId());
   }
 
 }
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+import java.util.List;
+
+/**
+ * Naming subscription request. The name server pushes a {@link NamingUpdate} to the client
+ * whenever an identifier starting with one of the prefixes is registered or unregistered.
+ * The prefixes replace the ones the client subscribed to before; no prefixes cancel the subscription.
+ */
+public class NamingSubscribeRequest extends NamingMessage {
+  private final List<String> prefixes;
+
+  /**
+   * Constructs a naming subscription request.
+   *
+   * @param prefixes the identifier prefixes
+   */
+  public NamingSubscribeRequest(final List<String> prefixes) {
+    this.prefixes = prefixes;
+  }
+
+  /**
+   * Gets identifier prefixes.
+   *
+   * @return a list of identifier prefixes
+   */
+  public List<String> getPrefixes() {
+    return prefixes;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+import org.apache.reef.io.naming.NameAssignment;
+import org.apache.reef.io.network.naming.NameAssignmentTuple;
+import org.apache.reef.io.network.naming.avro.AvroNamingAssignment;
+import org.apache.reef.io.network.naming.avro.AvroNamingUpdate;
+import org.apache.reef.wake.Identifier;
+import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.remote.Codec;
+
+import javax.inject.Inject;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Naming update codec.
+ */
+public final class NamingUpdateCodec implements Codec<NamingUpdate> {
+
+  private final IdentifierFactory factory;
+
+  /**
+   * Constructs a naming update codec.
+   *
+   * @param factory the identifier factory
+   */
+  @Inject
+  public NamingUpdateCodec(final IdentifierFactory factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Encodes the naming update to bytes.
+   *
+   * @param obj the naming update
+   * @return a byte array
+   */
+  @Override
+  public byte[] encode(final NamingUpdate obj) {
+    final List<AvroNamingAssignment> assignments = new ArrayList<>(obj.getNameAssignments().size());
+    for (final NameAssignment nameAssignment : obj.getNameAssignments()) {
+      assignments.add(AvroNamingAssignment.newBuilder()
+          .setId(nameAssignment.getIdentifier().toString())
+          .setHost(nameAssignment.getAddress().getHostName())
+          .setPort(nameAssignment.getAddress().getPort())
+          .build());
+    }
+    final List<CharSequence> removed = new ArrayList<>(obj.getRemovedIdentifiers().size());
+    for (final Identifier id : obj.getRemovedIdentifiers()) {
+      removed.add(id.toString());
+    }
+    return AvroUtils.toBytes(
+        AvroNamingUpdate.newBuilder().setTuples(assignments).setRemoved(removed).build(), AvroNamingUpdate.class
+    );
+  }
+
+  /**
+   * Decodes the bytes to a naming update.
+   *
+   * @param buf the byte array
+   * @return a naming update
+   * @throws org.apache.reef.io.network.naming.exception.NamingRuntimeException
+   */
+  @Override
+  public NamingUpdate decode(final byte[] buf) {
+    final AvroNamingUpdate avroUpdate = AvroUtils.fromBytes(buf, AvroNamingUpdate.class);
+    final List<NameAssignment> nas = new ArrayList<>(avroUpdate.getTuples().size());
+    for (final AvroNamingAssignment tuple : avroUpdate.getTuples()) {
+      nas.add(
+          new NameAssignmentTuple(
+              factory.getNewInstance(tuple.getId().toString()),
+              new InetSocketAddress(tuple.getHost().toString(), tuple.getPort())
+          )
+      );
+    }
+    final List<Identifier> removed = new ArrayList<>(avroUpdate.getRemoved().size());
+    for (final CharSequence id : avroUpdate.getRemoved()) {
+      removed.add(factory.getNewInstance(id.toString()));
+    }
+    return new NamingUpdate(nas, removed);
+  }
+
+}
@@ -30,10 +30,21 @@ public final class CodecFileAccumulable<T, C extends Codec<T>> implements Accumu
 
   private final File filename;
   private final C codec;
+  private final boolean compress;
 
   public CodecFileAccumulable(final LocalStorageService s, final C codec) {
+    this(s, codec, false);
+  }
+
+  /**
+   * @param s        storage service to create the file in
+   * @param codec    codec of the elements
+   * @param compress whether to deflate the blocks of the file
+   */
+  public CodecFileAccumulable(final LocalStorageService s, final C codec, final boolean compress) {
     this.filename = s.getScratchSpace().newFile();
     this.codec = codec;
+    this.compress = compress;
   }
 
   public String getName() {
@@ -43,7 +54,7 @@ public final class CodecFileAccumulable<T, C extends Codec<T>> implements Accumu
   @Override
   public Accumulator<T> accumulator() throws StorageException {
     try {
-      return new CodecFileAccumulator<>(this.codec, this.filename);
+      return new CodecFileAccumulator<>(this.codec, this.filename, this.compress);
     } catch (final IOException e) {
       throw new StorageException(e);
     }
@@ -23,24 +23,64 @@ import org.apache.reef.exception.evaluator.StorageException;
 import org.apache.reef.io.Accumulator;
 import org.apache.reef.io.serialization.Codec;
 
-import java.io.*;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
+/**
+ * Writes elements to a spool file in the format of {@link SpoolFileFormat}.
+ */
 final class CodecFileAccumulator<T> implements Accumulator<T> {
 
   private final Codec<T> codec;
-  private final ObjectOutputStream out;
+  private final FileChannel channel;
+  private final Deflater deflater;
+  private final CRC32 checksum = new CRC32();
+  private final ByteBuffer header = ByteBuffer.allocate(SpoolFileFormat.HEADER_SIZE);
+  private ByteBuffer block = ByteBuffer.allocate(SpoolFileFormat.BLOCK_SIZE);
+  private byte[] compressed = new byte[0];
 
   CodecFileAccumulator(final Codec<T> codec, final File file) throws IOException {
+    this(codec, file, false);
+  }
+
+  /**
+   * @param codec    codec of the elements
+   * @param file     file to write
+   * @param compress whether to deflate the blocks
+   */
+  CodecFileAccumulator(final Codec<T> codec, final File file, final boolean compress) throws IOException {
     this.codec = codec;
-    this.out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+    this.channel = new FileOutputStream(file).getChannel();
+    this.deflater = compress ? new Deflater(Deflater.BEST_SPEED) : null;
   }
 
   @Override
   public void add(final T datum) throws ServiceException {
-    final byte[] buf = codec.encode(datum);
+    addEncoded(codec.encode(datum));
+  }
+
+  /**
+   * Adds an element that is already encoded.
+   *
+   * @param buf the encoded element
+   */
+  void addEncoded(final byte[] buf) throws ServiceException {
     try {
-      this.out.writeInt(buf.length);
-      this.out.write(buf);
+      if (block.remaining() < 4 + buf.length) {
+        if (block.position() > 0) {
+          writeBlock();
+        }
+        if (block.capacity() < 4 + buf.length) {
+          block = ByteBuffer.allocate(4 + buf.length);
+        }
+      }
+      block.putInt(buf.length);
+      block.put(buf);
     } catch (final IOException e) {
       throw new StorageException(e);
     }
@@ -49,10 +89,67 @@ final class CodecFileAccumulator<T> implements Accumulator<T> {
   @Override
   public void close() throws ServiceException {
     try {
-      this.out.writeInt(-1);
-      this.out.close();
+      if (block.position() > 0) {
+        writeBlock();
+      }
+      header.clear();
+      header.putInt(SpoolFileFormat.END_OF_FILE).putInt(0).putInt(0).putInt(0);
+      header.flip();
+      writeFully(header);
+      this.channel.close();
     } catch (final IOException e) {
       throw new ServiceException(e);
+    } finally {
+      if (deflater != null) {
+        deflater.end();
+      }
+    }
+  }
+
+  private void writeBlock() throws IOException {
+    final int length = block.position();
+    byte[] stored = block.array();
+    int storedLength = length;
+    int flags = 0;
+    if (deflater != null) {
+      final int compressedLength = compress(block.array(), length);
+      // incompressible blocks are stored as they are
+      if (compressedLength < length) {
+        stored = compressed;
+        storedLength = compressedLength;
+        flags |= SpoolFileFormat.FLAG_COMPRESSED;
+      }
+    }
+    checksum.reset();
+    checksum.update(stored, 0, storedLength);
+    header.clear();
+    header.putInt(length).putInt(storedLength).putInt(flags).putInt((int) checksum.getValue());
+    header.flip();
+    writeFully(header);
+    writeFully(ByteBuffer.wrap(stored, 0, storedLength));
+    block.clear();
+  }
+
+  /**
+   * @return the number of compressed bytes, or length if they would not be fewer than length
+   */
+  private int compress(final byte[] data, final int length) {
+    if (compressed.length < length) {
+      compressed = new byte[length];
+    }
+    deflater.reset();
+    deflater.setInput(data, 0, length);
+    deflater.finish();
+    int compressedLength = 0;
+    while (!deflater.finished() && compressedLength < length) {
+      compressedLength += deflater.deflate(compressed, compressedLength, length - compressedLength);
+    }
+    return deflater.finished() ? compressedLength : length;
+  }
+
+  private void writeFully(final ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
     }
   }
 }
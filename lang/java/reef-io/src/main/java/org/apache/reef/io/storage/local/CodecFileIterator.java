@@ -22,40 +22,128 @@ import org.apache.reef.exception.evaluator.ServiceRuntimeException;
 import org.apache.reef.exception.evaluator.StorageException;
 import org.apache.reef.io.serialization.Codec;
 
-import java.io.*;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
-final class CodecFileIterator<T> implements Iterator<T> {
+/**
+ * Reads the elements of a spool file in the format of {@link SpoolFileFormat}.
+ * A whole block is read at a time into buffers that are reused for the following blocks.
+ * The file is closed when the last element has been read, or by {@link #close()}.
+ */
+final class CodecFileIterator<T> implements Iterator<T>, AutoCloseable {
 
   private final Codec<T> codec;
-  private final ObjectInputStream in;
-  private int sz = 0;
+  private final File file;
+  private final FileChannel channel;
+  private final CRC32 checksum = new CRC32();
+  private final ByteBuffer header = ByteBuffer.allocate(SpoolFileFormat.HEADER_SIZE);
+  private ByteBuffer block = ByteBuffer.allocate(SpoolFileFormat.BLOCK_SIZE);
+  private ByteBuffer compressed = ByteBuffer.allocate(0);
+  private Inflater inflater = null;
+  private boolean done = false;
 
   CodecFileIterator(final Codec<T> codec, final File file) throws IOException {
-    this.in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+    this.channel = new FileInputStream(file).getChannel();
     this.codec = codec;
-    this.readNextSize();
+    this.file = file;
+    this.readNextBlock();
+  }
+
+  private void readNextBlock() throws IOException {
+    try {
+      header.clear();
+      readFully(header);
+      header.flip();
+      final int length = header.getInt();
+      if (length == SpoolFileFormat.END_OF_FILE) {
+        this.close();
+        return;
+      }
+      final int storedLength = header.getInt();
+      final int flags = header.getInt();
+      final int expectedChecksum = header.getInt();
+      final boolean isCompressed = (flags & SpoolFileFormat.FLAG_COMPRESSED) != 0;
+
+      if (block.capacity() < length) {
+        block = ByteBuffer.allocate(length);
+      }
+      if (isCompressed && compressed.capacity() < storedLength) {
+        compressed = ByteBuffer.allocate(storedLength);
+      }
+      final ByteBuffer stored = isCompressed ? compressed : block;
+      stored.clear();
+      stored.limit(storedLength);
+      readFully(stored);
+
+      checksum.reset();
+      checksum.update(stored.array(), 0, storedLength);
+      if ((int) checksum.getValue() != expectedChecksum) {
+        throw new IOException("Checksum mismatch in a block of " + file);
+      }
+      if (isCompressed) {
+        inflate(length);
+      }
+      block.position(0);
+      block.limit(length);
+    } catch (final IOException ex) {
+      this.close(); // Don't read from that file again.
+      throw ex;
+    }
   }
 
-  private void readNextSize() throws IOException {
-    if (this.hasNext()) {
-      try {
-        this.sz = this.in.readInt();
-        if (this.sz == -1) {
-          this.in.close();
+  private void inflate(final int length) throws IOException {
+    if (inflater == null) {
+      inflater = new Inflater();
+    }
+    inflater.reset();
+    inflater.setInput(compressed.array(), 0, compressed.limit());
+    try {
+      int inflated = 0;
+      while (inflated < length && !inflater.finished()) {
+        final int n = inflater.inflate(block.array(), inflated, length - inflated);
+        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
         }
-      } catch (final IOException ex) {
-        this.sz = -1; // Don't read from that file again.
-        this.in.close();
-        throw ex;
+        inflated += n;
+      }
+      if (inflated != length) {
+        throw new IOException("Truncated compressed block in " + file);
       }
+    } catch (final DataFormatException e) {
+      throw new IOException("Corrupt compressed block in " + file, e);
+    }
+  }
+
+  private void readFully(final ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new EOFException("Unexpected end of " + file);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.done = true;
+    if (inflater != null) {
+      inflater.end();
+      inflater = null;
     }
+    this.channel.close();
   }
 
   @Override
   public boolean hasNext() {
-    return this.sz != -1;
+    return !this.done;
   }
 
   @Override
@@ -64,11 +152,11 @@ final class CodecFileIterator<T> implements Iterator<T> {
       throw new NoSuchElementException("Moving past the end of the file.");
     }
     try {
-      final byte[] buf = new byte[this.sz];
-      for (int rem = buf.length; rem > 0;) {
-        rem -= this.in.read(buf, buf.length - rem, rem);
+      final byte[] buf = new byte[this.block.getInt()];
+      this.block.get(buf);
+      if (!this.block.hasRemaining()) {
+        this.readNextBlock();
       }
-      this.readNextSize();
       return this.codec.decode(buf);
     } catch (final IOException e) {
       throw new ServiceRuntimeException(new StorageException(e));
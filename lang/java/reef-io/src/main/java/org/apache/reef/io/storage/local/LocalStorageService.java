@@ -19,6 +19,11 @@
 package org.apache.reef.io.storage.local;
 
 import org.apache.reef.io.storage.StorageService;
+import org.apache.reef.runtime.common.evaluator.parameters.ApplicationIdentifier;
+import org.apache.reef.runtime.common.evaluator.parameters.EvaluatorIdentifier;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
 
 
 public class LocalStorageService implements StorageService {
@@ -29,7 +34,9 @@ public class LocalStorageService implements StorageService {
 
   private final LocalScratchSpace scratchSpace;
 
-  public LocalStorageService(final String jobName, final String evaluatorName) {
+  @Inject
+  public LocalStorageService(@Parameter(ApplicationIdentifier.class) final String jobName,
+                             @Parameter(EvaluatorIdentifier.class) final String evaluatorName) {
     this.jobName = jobName;
     this.evaluatorName = evaluatorName;
     this.scratchSpace = new LocalScratchSpace(jobName, evaluatorName);
@@ -0,0 +1,494 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import org.apache.reef.exception.evaluator.ServiceRuntimeException;
+import org.apache.reef.exception.evaluator.StorageException;
+import org.apache.reef.io.ExternalMap;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.storage.util.GetAllIterable;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * ExternalMap that keeps its keys and encoded values off the Java heap.
+ * <p>
+ * Records are appended to segments, which are scratch files mapped into memory.
+ * An open-addressing hash index in direct memory maps keys to their records.
+ * Keys are hashed and compared where they are stored, so looking up a key does not
+ * allocate anything besides the decoded value. Replaced and removed records stay in
+ * their segments until more than half of the written bytes are dead; the live
+ * records are then copied to new segments and the old segment files are unmapped and deleted.
+ * The index is split into pages of direct memory, so that it can hold more slots than fit in one buffer.
+ * The heap footprint does not depend on the number or size of the entries.
+ */
+public final class MappedFileMap<T> implements ExternalMap<T> {
+
+  private static final Logger LOG = Logger.getLogger(MappedFileMap.class.getName());
+
+  /**
+   * Default size in bytes of a segment, which is also the maximum size of a record.
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /**
+   * Maximum number of index slots; at most half of them are used.
+   */
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  /**
+   * Default log2 of the number of slots in an index page, which makes pages of 64 MB.
+   */
+  private static final int DEFAULT_INDEX_PAGE_SHIFT = 22;
+
+  /**
+   * Index slot: int hash, int padding, long record position + 1.
+   */
+  private static final int SLOT_SIZE = 16;
+  private static final long EMPTY = 0;
+  private static final long REMOVED = -1;
+
+  private final LocalScratchSpace scratchSpace;
+  private final Codec<T> codec;
+  private final int segmentSize;
+  private final int indexPageShift;
+  private final int indexPageMask;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final List<File> segmentFiles = new ArrayList<>();
+  private final List<MappedByteBuffer> segments = new ArrayList<>();
+  private int writeOffset = 0;
+  private long writtenBytes = 0;
+  private long deadBytes = 0;
+
+  private ByteBuffer[] index;
+  private int capacity;
+  private int size = 0;
+  private int usedSlots = 0;
+
+  @Inject
+  public MappedFileMap(final LocalStorageService storageService,
+                       @Parameter(MappedFileMapCodec.class) final Codec<T> codec) {
+    this(storageService, codec, DEFAULT_SEGMENT_SIZE);
+  }
+
+  /**
+   * @param storageService storage service to create the segment files in
+   * @param codec          codec of the values
+   * @param segmentSize    size in bytes of a segment, which is also the maximum size of a record
+   */
+  public MappedFileMap(final LocalStorageService storageService, final Codec<T> codec, final int segmentSize) {
+    this(storageService, codec, segmentSize, DEFAULT_INDEX_PAGE_SHIFT);
+  }
+
+  /**
+   * @param storageService storage service to create the segment files in
+   * @param codec          codec of the values
+   * @param segmentSize    size in bytes of a segment, which is also the maximum size of a record
+   * @param indexPageShift log2 of the number of slots in an index page
+   */
+  MappedFileMap(final LocalStorageService storageService, final Codec<T> codec, final int segmentSize,
+                final int indexPageShift) {
+    this.scratchSpace = storageService.getScratchSpace();
+    this.codec = codec;
+    this.segmentSize = segmentSize;
+    this.indexPageShift = indexPageShift;
+    this.indexPageMask = (1 << indexPageShift) - 1;
+    this.capacity = INITIAL_CAPACITY;
+    this.index = newIndex(INITIAL_CAPACITY);
+  }
+
+  @Override
+  public boolean containsKey(final CharSequence key) {
+    lock.readLock().lock();
+    try {
+      return findSlot(key, hash(key)) >= 0;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public T get(final CharSequence key) {
+    final byte[] value;
+    lock.readLock().lock();
+    try {
+      final int slot = findSlot(key, hash(key));
+      value = slot >= 0 ? readValue(recordAt(slot)) : null;
+    } finally {
+      lock.readLock().unlock();
+    }
+    return value != null ? codec.decode(value) : null;
+  }
+
+  @Override
+  public T put(final CharSequence key, final T value) {
+    final byte[] record = newRecord(key, codec.encode(value));
+    final byte[] previous;
+    lock.writeLock().lock();
+    try {
+      previous = putRecord(key, record);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    return previous != null ? codec.decode(previous) : null;
+  }
+
+  @Override
+  public T remove(final CharSequence key) {
+    final byte[] previous;
+    lock.writeLock().lock();
+    try {
+      final int slot = findSlot(key, hash(key));
+      if (slot < 0) {
+        return null;
+      }
+      final long record = recordAt(slot);
+      previous = readValue(record);
+      deadBytes += recordLength(segments, record);
+      setPosition(index, slot, REMOVED);
+      --size;
+      compactIfNeeded();
+    } finally {
+      lock.writeLock().unlock();
+    }
+    return codec.decode(previous);
+  }
+
+  @Override
+  public void putAll(final Map<? extends CharSequence, ? extends T> m) {
+    for (final Map.Entry<? extends CharSequence, ? extends T> entry : m.entrySet()) {
+      final byte[] record = newRecord(entry.getKey(), codec.encode(entry.getValue()));
+      lock.writeLock().lock();
+      try {
+        putRecord(entry.getKey(), record);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  @Override
+  public Iterable<Map.Entry<CharSequence, T>> getAll(final Set<? extends CharSequence> keys) {
+    return new GetAllIterable<>(keys, this);
+  }
+
+  /**
+   * @return the number of entries
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Stores the record of a key. The caller holds the write lock.
+   *
+   * @return the encoded value the key had before, or null
+   */
+  private byte[] putRecord(final CharSequence key, final byte[] record) {
+    final int hash = hash(key);
+    final int slot = findSlot(key, hash);
+    final byte[] previous;
+    final int target;
+    if (slot >= 0) {
+      final long old = recordAt(slot);
+      previous = readValue(old);
+      deadBytes += recordLength(segments, old);
+      target = slot;
+    } else {
+      if (size >= MAX_CAPACITY / 2) {
+        throw new IllegalStateException("Cannot hold more than " + MAX_CAPACITY / 2 + " entries");
+      }
+      previous = null;
+      target = -slot - 1;
+      if (positionAt(index, target) == EMPTY) {
+        ++usedSlots;
+      }
+      ++size;
+    }
+    setSlot(index, target, hash, append(record) + 1);
+    if (usedSlots > capacity / 2) {
+      rehash(size > capacity / 4 && capacity < MAX_CAPACITY ? capacity * 2 : capacity);
+    }
+    compactIfNeeded();
+    return previous;
+  }
+
+  /**
+   * Finds the slot of a key.
+   *
+   * @return the slot of the key, or -(slot to insert the key at) - 1 if the key is not in the map
+   */
+  private int findSlot(final CharSequence key, final int hash) {
+    final int mask = capacity - 1;
+    int insertAt = -1;
+    for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+      final long position = positionAt(index, slot);
+      if (position == EMPTY) {
+        return -(insertAt >= 0 ? insertAt : slot) - 1;
+      } else if (position == REMOVED) {
+        if (insertAt < 0) {
+          insertAt = slot;
+        }
+      } else if (hashAt(index, slot) == hash && keyEquals(position - 1, key)) {
+        return slot;
+      }
+    }
+  }
+
+  private long recordAt(final int slot) {
+    return positionAt(index, slot) - 1;
+  }
+
+  /**
+   * Allocates an index of empty slots.
+   *
+   * @param slots number of slots, a power of two
+   */
+  private ByteBuffer[] newIndex(final int slots) {
+    final int pageSlots = Math.min(slots, 1 << indexPageShift);
+    final ByteBuffer[] pages = new ByteBuffer[slots / pageSlots];
+    for (int i = 0; i < pages.length; i++) {
+      pages[i] = ByteBuffer.allocateDirect(pageSlots * SLOT_SIZE);
+    }
+    return pages;
+  }
+
+  private int hashAt(final ByteBuffer[] from, final int slot) {
+    return from[slot >>> indexPageShift].getInt((slot & indexPageMask) * SLOT_SIZE);
+  }
+
+  private long positionAt(final ByteBuffer[] from, final int slot) {
+    return from[slot >>> indexPageShift].getLong((slot & indexPageMask) * SLOT_SIZE + 8);
+  }
+
+  private void setPosition(final ByteBuffer[] to, final int slot, final long position) {
+    to[slot >>> indexPageShift].putLong((slot & indexPageMask) * SLOT_SIZE + 8, position);
+  }
+
+  private void setSlot(final ByteBuffer[] to, final int slot, final int hash, final long position) {
+    to[slot >>> indexPageShift].putInt((slot & indexPageMask) * SLOT_SIZE, hash);
+    setPosition(to, slot, position);
+  }
+
+  private static int hash(final CharSequence key) {
+    int h = 0;
+    for (int i = 0; i < key.length(); i++) {
+      h = 31 * h + key.charAt(i);
+    }
+    h *= 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Record layout: int key length in chars, key chars, int value length, value bytes.
+   */
+  private static byte[] newRecord(final CharSequence key, final byte[] value) {
+    final ByteBuffer record = ByteBuffer.allocate(8 + 2 * key.length() + value.length);
+    record.putInt(key.length());
+    for (int i = 0; i < key.length(); i++) {
+      record.putChar(key.charAt(i));
+    }
+    record.putInt(value.length);
+    record.put(value);
+    return record.array();
+  }
+
+  private boolean keyEquals(final long record, final CharSequence key) {
+    final ByteBuffer segment = segments.get((int) (record / segmentSize));
+    final int offset = (int) (record % segmentSize);
+    if (segment.getInt(offset) != key.length()) {
+      return false;
+    }
+    for (int i = 0; i < key.length(); i++) {
+      if (segment.getChar(offset + 4 + 2 * i) != key.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private byte[] readValue(final long record) {
+    final ByteBuffer segment = segments.get((int) (record / segmentSize));
+    final int valueOffset = (int) (record % segmentSize) + 4 + 2 * segment.getInt((int) (record % segmentSize));
+    final byte[] value = new byte[segment.getInt(valueOffset)];
+    final ByteBuffer source = segment.duplicate();
+    source.position(valueOffset + 4);
+    source.get(value);
+    return value;
+  }
+
+  private int recordLength(final List<MappedByteBuffer> from, final long record) {
+    final ByteBuffer segment = from.get((int) (record / segmentSize));
+    final int offset = (int) (record % segmentSize);
+    final int keyLength = segment.getInt(offset);
+    return 8 + 2 * keyLength + segment.getInt(offset + 4 + 2 * keyLength);
+  }
+
+  private byte[] readRecord(final List<MappedByteBuffer> from, final long record) {
+    final byte[] bytes = new byte[recordLength(from, record)];
+    final ByteBuffer source = from.get((int) (record / segmentSize)).duplicate();
+    source.position((int) (record % segmentSize));
+    source.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Appends a record to the last segment, or to a new one if it does not fit.
+   *
+   * @return the position of the record
+   */
+  private long append(final byte[] record) {
+    if (record.length > segmentSize) {
+      throw new IllegalArgumentException(
+          "Record of " + record.length + " bytes does not fit in a segment of " + segmentSize + " bytes");
+    }
+    if (segments.isEmpty() || writeOffset + record.length > segmentSize) {
+      addSegment();
+    }
+    final ByteBuffer target = segments.get(segments.size() - 1).duplicate();
+    target.position(writeOffset);
+    target.put(record);
+    final long position = (long) (segments.size() - 1) * segmentSize + writeOffset;
+    writeOffset += record.length;
+    writtenBytes += record.length;
+    return position;
+  }
+
+  private void addSegment() {
+    final File file = scratchSpace.newFile();
+    try (final RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      segments.add(raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+    } catch (final IOException e) {
+      throw new ServiceRuntimeException(new StorageException(e));
+    }
+    segmentFiles.add(file);
+    writeOffset = 0;
+  }
+
+  private void rehash(final int newCapacity) {
+    final ByteBuffer[] oldIndex = index;
+    final int oldCapacity = capacity;
+    index = newIndex(newCapacity);
+    capacity = newCapacity;
+    usedSlots = 0;
+    final int mask = newCapacity - 1;
+    for (int i = 0; i < oldCapacity; i++) {
+      final long position = positionAt(oldIndex, i);
+      if (position != EMPTY && position != REMOVED) {
+        final int hash = hashAt(oldIndex, i);
+        int slot = hash & mask;
+        while (positionAt(index, slot) != EMPTY) {
+          slot = (slot + 1) & mask;
+        }
+        setSlot(index, slot, hash, position);
+        ++usedSlots;
+      }
+    }
+  }
+
+  /**
+   * Copies the live records to new segments once more than half of the written bytes
+   * belong to replaced or removed records, and unmaps and deletes the old segments.
+   */
+  private void compactIfNeeded() {
+    if (deadBytes * 2 <= writtenBytes || writtenBytes <= segmentSize) {
+      return;
+    }
+    final List<File> oldFiles = new ArrayList<>(segmentFiles);
+    final List<MappedByteBuffer> oldSegments = new ArrayList<>(segments);
+    segmentFiles.clear();
+    segments.clear();
+    writtenBytes = 0;
+    deadBytes = 0;
+    for (int i = 0; i < capacity; i++) {
+      final long position = positionAt(index, i);
+      if (position != EMPTY && position != REMOVED) {
+        setPosition(index, i, append(readRecord(oldSegments, position - 1)) + 1);
+      }
+    }
+    for (final MappedByteBuffer segment : oldSegments) {
+      unmap(segment);
+    }
+    for (final File file : oldFiles) {
+      if (!file.delete()) {
+        file.deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * Releases the mapping of a segment now rather than when the buffer is garbage collected,
+   * so that the memory and the file are freed right away. The buffer must not be used afterwards.
+   * If the JVM does not allow it, the mapping is left to the garbage collector.
+   */
+  @SuppressWarnings("checkstyle:illegalcatch")
+  private static void unmap(final MappedByteBuffer segment) {
+    try {
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), segment);
+      return;
+    } catch (final NoSuchMethodException e) {
+      LOG.log(Level.FINEST, "No Unsafe.invokeCleaner before Java 9", e);
+    } catch (final Exception e) {
+      LOG.log(Level.FINE, "Could not unmap a segment", e);
+      return;
+    }
+    try {
+      final Method cleanerMethod = segment.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      final Object cleaner = cleanerMethod.invoke(segment);
+      cleaner.getClass().getMethod("clean").invoke(cleaner);
+    } catch (final Exception e) {
+      LOG.log(Level.FINE, "Could not unmap a segment", e);
+    }
+  }
+
+  @NamedParameter
+  public static class MappedFileMapCodec implements Name<Codec<?>> {
+  }
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import org.apache.reef.exception.evaluator.ServiceException;
+import org.apache.reef.exception.evaluator.ServiceRuntimeException;
+import org.apache.reef.exception.evaluator.StorageException;
+import org.apache.reef.io.Accumulator;
+import org.apache.reef.io.Spool;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.storage.MergingIterator;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * A spool that returns its data sorted, and sorts more data than fits in memory.
+ * <p>
+ * Data is buffered in memory until the encoded size of the buffered elements
+ * reaches the memory budget. The buffer is then sorted and written to a scratch
+ * file as a sorted run. Iterating merges the runs, so the data is read from disk
+ * once. If there are more runs than can be merged at once, runs are merged into
+ * longer runs when the accumulator is closed.
+ * <p>
+ * Elements are encoded once, when added, and the encoded bytes are buffered with them
+ * and written as they are. An iterator over sorted runs holds the run files open until
+ * it is exhausted; it is {@link AutoCloseable}, so that callers that stop early can close them.
+ */
+public final class SortingFileSpool<T> implements Spool<T> {
+
+  /**
+   * Default number of runs merged at once.
+   */
+  public static final int DEFAULT_MAX_MERGE_WIDTH = 64;
+
+  private final LocalStorageService service;
+  private final Codec<T> codec;
+  private final Comparator<T> comparator;
+  private final long memoryBudget;
+  private final int maxMergeWidth;
+
+  private final Comparator<Encoded<T>> bufferOrder;
+  private final List<Encoded<T>> buffer = new ArrayList<>();
+  private long bufferedBytes = 0;
+  private final LinkedList<File> runs = new LinkedList<>();
+  private boolean ready = false;
+  private boolean canGetAccumulator = true;
+
+  /**
+   * @param service      storage service to create the files of the sorted runs in
+   * @param codec        codec of the elements
+   * @param comparator   order of the elements
+   * @param memoryBudget encoded size in bytes of the elements buffered before a sorted run is written
+   */
+  public SortingFileSpool(final LocalStorageService service, final Codec<T> codec,
+                          final Comparator<T> comparator, final long memoryBudget) {
+    this(service, codec, comparator, memoryBudget, DEFAULT_MAX_MERGE_WIDTH);
+  }
+
+  /**
+   * @param service       storage service to create the files of the sorted runs in
+   * @param codec         codec of the elements
+   * @param comparator    order of the elements
+   * @param memoryBudget  encoded size in bytes of the elements buffered before a sorted run is written
+   * @param maxMergeWidth maximum number of runs merged at once, which bounds the number of open files
+   */
+  public SortingFileSpool(final LocalStorageService service, final Codec<T> codec,
+                          final Comparator<T> comparator, final long memoryBudget, final int maxMergeWidth) {
+    if (maxMergeWidth < 2) {
+      throw new IllegalArgumentException("Cannot merge fewer than two runs at once: " + maxMergeWidth);
+    }
+    this.service = service;
+    this.codec = codec;
+    this.comparator = comparator;
+    this.bufferOrder = new Comparator<Encoded<T>>() {
+      @Override
+      public int compare(final Encoded<T> o1, final Encoded<T> o2) {
+        return comparator.compare(o1.datum, o2.datum);
+      }
+    };
+    this.memoryBudget = memoryBudget;
+    this.maxMergeWidth = maxMergeWidth;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (!ready) {
+      throw new IllegalStateException("Cannot call iterator() while accumulator is still open!");
+    }
+    if (runs.isEmpty()) {
+      final Iterator<Encoded<T>> it = buffer.iterator();
+      return new Iterator<T>() {
+        @Override
+        public boolean hasNext() {
+          return it.hasNext();
+        }
+
+        @Override
+        public T next() {
+          return it.next().datum;
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException("Cannot remove elements from a spool!");
+        }
+      };
+    }
+    try {
+      return merge(runs);
+    } catch (final IOException e) {
+      throw new ServiceRuntimeException(new StorageException(e));
+    }
+  }
+
+  @Override
+  public Accumulator<T> accumulator() {
+    if (!canGetAccumulator) {
+      throw new UnsupportedOperationException("Can only getAccumulator() once!");
+    }
+    canGetAccumulator = false;
+    return new Accumulator<T>() {
+      @Override
+      public void add(final T datum) throws ServiceException {
+        if (ready) {
+          throw new IllegalStateException("add called after close!");
+        }
+        final byte[] encoded = codec.encode(datum);
+        buffer.add(new Encoded<>(datum, encoded));
+        bufferedBytes += encoded.length;
+        if (bufferedBytes >= memoryBudget) {
+          spill();
+        }
+      }
+
+      @Override
+      public void close() throws ServiceException {
+        ready = true;
+        if (runs.isEmpty()) {
+          Collections.sort(buffer, bufferOrder);
+        } else {
+          if (!buffer.isEmpty()) {
+            spill();
+          }
+          while (runs.size() > maxMergeWidth) {
+            mergeRuns();
+          }
+        }
+      }
+    };
+  }
+
+  /**
+   * Writes the buffered elements to a new sorted run.
+   */
+  private void spill() throws ServiceException {
+    Collections.sort(buffer, bufferOrder);
+    final File run = service.getScratchSpace().newFile();
+    final CodecFileAccumulator<T> out;
+    try {
+      out = new CodecFileAccumulator<>(codec, run);
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+    for (final Encoded<T> element : buffer) {
+      out.addEncoded(element.encoded);
+    }
+    out.close();
+    runs.add(run);
+    buffer.clear();
+    bufferedBytes = 0;
+  }
+
+  /**
+   * Merges the oldest runs into one run, which is added after the others
+   * so that every run is merged again only after all the others have been.
+   */
+  private void mergeRuns() throws ServiceException {
+    final List<File> merged = new ArrayList<>(maxMergeWidth);
+    for (int i = 0; i < maxMergeWidth; i++) {
+      merged.add(runs.removeFirst());
+    }
+    try (final MergedRuns sorted = merge(merged)) {
+      runs.add(write(sorted));
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+    for (final File run : merged) {
+      if (!run.delete()) {
+        run.deleteOnExit();
+      }
+    }
+  }
+
+  private File write(final Iterator<T> sorted) throws ServiceException {
+    final File run = service.getScratchSpace().newFile();
+    final Accumulator<T> out;
+    try {
+      out = new CodecFileAccumulator<>(codec, run);
+    } catch (final IOException e) {
+      throw new StorageException(e);
+    }
+    while (sorted.hasNext()) {
+      out.add(sorted.next());
+    }
+    out.close();
+    return run;
+  }
+
+  /**
+   * Opens the runs for merging. If one cannot be opened, the ones already opened are closed.
+   */
+  private MergedRuns merge(final List<File> sortedRuns) throws IOException {
+    final List<CodecFileIterator<T>> its = new ArrayList<>(sortedRuns.size());
+    try {
+      for (final File run : sortedRuns) {
+        its.add(new CodecFileIterator<>(codec, run));
+      }
+    } catch (final IOException e) {
+      for (final CodecFileIterator<T> it : its) {
+        it.close();
+      }
+      throw e;
+    }
+    return new MergedRuns(its);
+  }
+
+  /**
+   * An element with its encoding.
+   */
+  private static final class Encoded<T> {
+    private final T datum;
+    private final byte[] encoded;
+
+    private Encoded(final T datum, final byte[] encoded) {
+      this.datum = datum;
+      this.encoded = encoded;
+    }
+  }
+
+  /**
+   * Iterates over the merged elements of sorted runs, and closes the run files when closed.
+   */
+  private final class MergedRuns implements Iterator<T>, AutoCloseable {
+    private final List<CodecFileIterator<T>> its;
+    private final MergingIterator<T> merged;
+
+    @SuppressWarnings("unchecked")
+    private MergedRuns(final List<CodecFileIterator<T>> its) {
+      this.its = its;
+      this.merged = new MergingIterator<>(comparator, its.toArray(new Iterator[its.size()]));
+    }
+
+    @Override
+    public boolean hasNext() {
+      return merged.hasNext();
+    }
+
+    @Override
+    public T next() {
+      return merged.next();
+    }
+
+    @Override
+    public void remove() {
+      merged.remove();
+    }
+
+    @Override
+    public void close() throws IOException {
+      IOException failure = null;
+      for (final CodecFileIterator<T> it : its) {
+        try {
+          it.close();
+        } catch (final IOException e) {
+          failure = e;
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+/**
+ * Format of the spool files written by {@link CodecFileAccumulator} and read by {@link CodecFileIterator}.
+ * <p>
+ * A file is a sequence of blocks, each a header followed by the stored bytes of the block.
+ * The header holds four ints: the length of the block's records, the number of stored bytes,
+ * flags, and the CRC32 of the stored bytes. The stored bytes are the records, deflated if
+ * {@link #FLAG_COMPRESSED} is set. A record is an int length followed by the encoded element.
+ * The file ends with a header whose length is {@link #END_OF_FILE}.
+ */
+final class SpoolFileFormat {
+
+  /**
+   * Size of the records in a block, unless a single record is larger.
+   */
+  static final int BLOCK_SIZE = 64 * 1024;
+
+  static final int HEADER_SIZE = 16;
+
+  static final int FLAG_COMPRESSED = 1;
+
+  static final int END_OF_FILE = -1;
+
+  /**
+   * Empty private constructor to prohibit instantiation of utility class.
+   */
+  private SpoolFileFormat() {
+  }
+}
@@ -23,9 +23,13 @@ import org.apache.reef.driver.task.FailedTask;
 import org.apache.reef.driver.task.RunningTask;
 import org.apache.reef.driver.task.TaskConfiguration;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.AllGatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.utils.BroadcastingEventHandler;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
@@ -43,6 +47,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -238,6 +243,58 @@ public final class CommunicationGroupDriverImplTest {
 
   }
 
+  /**
+   * Check that the symmetric operators get a topology rooted at the task that coordinates their agreement.
+   */
+  @Test
+  public void testCollectiveOperators() {
+    final String rootTaskId = "rootTaskId";
+    final String[] childTaskIds = new String[]{"childTaskId1", "childTaskId2", "childTaskId3"};
+    final AtomicInteger numMsgs = new AtomicInteger(0);
+    final AtomicInteger numParentAddMsgs = new AtomicInteger(0);
+
+    final EStage<GroupCommunicationMessage> senderStage =
+        new SyncStage<>(new EventHandler<GroupCommunicationMessage>() {
+          @Override
+          public void onNext(final GroupCommunicationMessage msg) {
+            numMsgs.getAndIncrement();
+            if (msg.getType() == ReefNetworkGroupCommProtos.GroupCommMessage.Type.ParentAdd) {
+              assertNotEquals("the root has no parent", rootTaskId, msg.getDestid());
+              numParentAddMsgs.getAndIncrement();
+            }
+          }
+        });
+
+    final CommunicationGroupDriverImpl communicationGroupDriver = new CommunicationGroupDriverImpl(
+        GroupName.class, new AvroConfigurationSerializer(), senderStage,
+        new BroadcastingEventHandler<RunningTask>(), new BroadcastingEventHandler<FailedTask>(),
+        new BroadcastingEventHandler<FailedEvaluator>(), new BroadcastingEventHandler<GroupCommunicationMessage>(),
+        "DriverId", 4, 2);
+
+    communicationGroupDriver
+        .addAllReduce(AllReduceOperatorName.class,
+            AllReduceOperatorSpec.newBuilder().setRootId(rootTaskId).build())
+        .addAllGather(AllGatherOperatorName.class,
+            AllGatherOperatorSpec.newBuilder().setRootId(rootTaskId).build())
+        .addReduceScatter(ReduceScatterOperatorName.class,
+            ReduceScatterOperatorSpec.newBuilder().setRootId(rootTaskId).build());
+
+    for (final String taskId : new String[]{rootTaskId, childTaskIds[0], childTaskIds[1], childTaskIds[2]}) {
+      communicationGroupDriver.addTask(TaskConfiguration.CONF
+          .set(TaskConfiguration.IDENTIFIER, taskId)
+          .set(TaskConfiguration.TASK, DummyTask.class)
+          .build());
+      communicationGroupDriver.runTask(taskId);
+    }
+
+    // 3 connections between 4 tasks
+    // 2 messages per connection, one of which adds the parent
+    // 3 operations (allreduce, allgather & reducescatter)
+    // this gives us a total of 3*2*3 = 18 messages
+    assertEquals("number of messages sent from driver", 18, numMsgs.get());
+    assertEquals("number of ParentAdd messages sent from driver", 9, numParentAddMsgs.get());
+  }
+
   private final class DummyTask implements Task {
     @Override
     public byte[] call(final byte[] memento) throws Exception {
@@ -256,5 +313,16 @@ public final class CommunicationGroupDriverImplTest {
   @NamedParameter()
   private final class ReduceOperatorName implements Name<String> {
   }
-}
 
+  @NamedParameter()
+  private final class AllReduceOperatorName implements Name<String> {
+  }
+
+  @NamedParameter()
+  private final class AllGatherOperatorName implements Name<String> {
+  }
+
+  @NamedParameter()
+  private final class ReduceScatterOperatorName implements Name<String> {
+  }
+}
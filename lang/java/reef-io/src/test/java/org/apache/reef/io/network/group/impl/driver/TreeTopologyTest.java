@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.driver;
+
+import org.apache.reef.driver.parameters.DriverIdentifier;
+import org.apache.reef.io.network.group.api.operators.GroupCommOperator;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.BarrierOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.parameters.CollectiveAlgorithmParam;
+import org.apache.reef.io.network.group.impl.config.parameters.CollectiveRoot;
+import org.apache.reef.io.network.group.impl.config.parameters.CommGroupNameClass;
+import org.apache.reef.io.network.group.impl.config.parameters.DataCodec;
+import org.apache.reef.io.network.group.impl.config.parameters.GroupCommSenderStage;
+import org.apache.reef.io.network.group.impl.config.parameters.OperatorNameClass;
+import org.apache.reef.io.network.group.impl.config.parameters.ReduceFunctionParam;
+import org.apache.reef.io.network.group.impl.config.parameters.RingThresholdBytes;
+import org.apache.reef.io.network.group.impl.config.parameters.TreeTopologyFanOut;
+import org.apache.reef.io.network.group.impl.operators.AllReducer;
+import org.apache.reef.io.network.group.impl.utils.CollectiveAlgorithms;
+import org.apache.reef.io.network.group.impl.utils.PrimitiveArrayReduceFunctions;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.SerializableCodec;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.types.ClassNode;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SyncStage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the placement of tasks by {@link TreeTopology}.
+ * The parent of every task is read from the ParentAdd messages the driver sends.
+ */
+public final class TreeTopologyTest {
+
+  private static final String ROOT_ID = "root";
+
+  private final Map<String, String> parents = new HashMap<>();
+  private TreeTopology topology;
+
+  @Before
+  public void setUp() throws InjectionException {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(GroupCommSenderStage.class,
+        new SyncStage<>(new EventHandler<GroupCommunicationMessage>() {
+          @Override
+          public void onNext(final GroupCommunicationMessage msg) {
+            if (msg.getType() == ReefNetworkGroupCommProtos.GroupCommMessage.Type.ParentAdd) {
+              parents.put(msg.getDestid(), msg.getSrcid());
+            }
+          }
+        }));
+    injector.bindVolatileParameter(CommGroupNameClass.class, GroupName.class);
+    injector.bindVolatileParameter(OperatorNameClass.class, OperatorName.class);
+    injector.bindVolatileParameter(DriverIdentifier.class, "driver");
+    injector.bindVolatileParameter(TreeTopologyFanOut.class, 2);
+    topology = injector.getInstance(TreeTopology.class);
+    topology.setRootTask(ROOT_ID);
+  }
+
+  /**
+   * Test that tasks without a location form a breadth-first tree in order of arrival.
+   */
+  @Test
+  public void testBreadthFirstWithoutLocations() {
+    addAndRun(ROOT_ID, "t1", "t2", "t3", "t4", "t5", "t6");
+    assertEquals(ROOT_ID, parents.get("t1"));
+    assertEquals(ROOT_ID, parents.get("t2"));
+    assertEquals("t1", parents.get("t3"));
+    assertEquals("t1", parents.get("t4"));
+    assertEquals("t2", parents.get("t5"));
+    assertEquals("t2", parents.get("t6"));
+  }
+
+  /**
+   * Test that tasks are grouped by node and rack, with a single edge into every rack and node.
+   */
+  @Test
+  public void testGroupedByRackAndNode() {
+    topology.setTaskLocation(ROOT_ID, "r1", "n1");
+    topology.setTaskLocation("a1", "r1", "n1");
+    topology.setTaskLocation("b1", "r1", "n2");
+    topology.setTaskLocation("b2", "r1", "n2");
+    topology.setTaskLocation("c1", "r2", "n3");
+    topology.setTaskLocation("c2", "r2", "n3");
+    topology.setTaskLocation("d1", "r2", "n4");
+    addAndRun(ROOT_ID, "a1", "b1", "c1", "b2", "c2", "d1");
+
+    assertEquals(ROOT_ID, parents.get("a1"));
+    assertEquals(ROOT_ID, parents.get("b1"));
+    assertEquals(ROOT_ID, parents.get("c1"));
+    assertEquals("b1", parents.get("b2"));
+    assertEquals("c1", parents.get("c2"));
+    assertEquals("c1", parents.get("d1"));
+  }
+
+  /**
+   * Test that a task removed and added again gets back its parent and children.
+   */
+  @Test
+  public void testReAddKeepsPlace() {
+    addAndRun(ROOT_ID, "t1", "t2", "t3", "t4");
+    topology.onFailedTask("t1");
+    topology.removeTask("t1");
+    parents.clear();
+
+    addAndRun("t1");
+    assertEquals(ROOT_ID, parents.get("t1"));
+    assertEquals("t1", parents.get("t3"));
+    assertEquals("t1", parents.get("t4"));
+  }
+
+  /**
+   * Test that new tasks are not attached to a removed task, including the only task of a rack.
+   */
+  @Test
+  public void testRemovedTaskLeavesItsGroup() {
+    topology.setTaskLocation(ROOT_ID, "r1", "n1");
+    topology.setTaskLocation("t1", "r1", "n1");
+    topology.setTaskLocation("t2", "r1", "n1");
+    topology.setTaskLocation("t3", "r1", "n1");
+    topology.setTaskLocation("c1", "r2", "n2");
+    topology.setTaskLocation("c2", "r2", "n2");
+    addAndRun(ROOT_ID, "t1", "t2", "c1");
+    topology.onFailedTask("t1");
+    topology.removeTask("t1");
+    topology.onFailedTask("c1");
+    topology.removeTask("c1");
+    parents.clear();
+
+    addAndRun("t3", "c2");
+    assertEquals(ROOT_ID, parents.get("t3"));
+    assertEquals(ROOT_ID, parents.get("c2"));
+  }
+
+  /**
+   * Test the fan-out picked from link latency and bandwidth.
+   */
+  @Test
+  public void testFanOutFromLinkCosts() {
+    assertEquals("unmeasured links keep the default", 5, LinkCostModel.fanOut(0, 0, 1 << 20, 5));
+    assertEquals("latency-bound links give a wide tree", 64, LinkCostModel.fanOut(1000, 1000, 1000, 2));
+    assertEquals("bandwidth-bound links give a narrow tree", 3, LinkCostModel.fanOut(10, 100, 1 << 20, 2));
+  }
+
+  /**
+   * Test that only the root of a barrier releases the others and that no codec is bound for it.
+   */
+  @Test
+  public void testBarrierConfiguration() throws InjectionException {
+    topology.setOperatorSpecification(BarrierOperatorSpec.newBuilder().setRootId(ROOT_ID).build());
+    addAndRun(ROOT_ID, "t1");
+
+    final Injector rootInjector = Tang.Factory.getTang().newInjector(topology.getTaskConfiguration(ROOT_ID));
+    assertTrue(rootInjector.getNamedInstance(CollectiveRoot.class));
+    assertFalse(rootInjector.isParameterSet(DataCodec.class));
+    final Injector taskInjector = Tang.Factory.getTang().newInjector(topology.getTaskConfiguration("t1"));
+    assertFalse(taskInjector.getNamedInstance(CollectiveRoot.class));
+  }
+
+  /**
+   * Test that a symmetric operator is bound with its algorithm, reduce function and coordinating root.
+   */
+  @Test
+  public void testAllReduceConfiguration() throws InjectionException {
+    topology.setOperatorSpecification(AllReduceOperatorSpec.newBuilder()
+        .setRootId(ROOT_ID)
+        .setDataCodecClass(SerializableCodec.class)
+        .setReduceFunctionClass(PrimitiveArrayReduceFunctions.IntSum.class)
+        .setAlgorithm(CollectiveAlgorithms.Algorithm.RING)
+        .setRingThreshold(1024)
+        .build());
+    addAndRun(ROOT_ID, "t1");
+
+    final Configuration rootConf = topology.getTaskConfiguration(ROOT_ID);
+    final Injector rootInjector = Tang.Factory.getTang().newInjector(rootConf);
+    assertTrue(rootInjector.getNamedInstance(CollectiveRoot.class));
+    assertEquals(CollectiveAlgorithms.Algorithm.RING.name(),
+        rootInjector.getNamedInstance(CollectiveAlgorithmParam.class));
+    assertEquals(1024, (int) rootInjector.getNamedInstance(RingThresholdBytes.class));
+    assertTrue(rootInjector.isParameterSet(ReduceFunctionParam.class));
+    assertEquals(AllReducer.class.getName(), getBoundOperator(rootConf));
+
+    final Configuration taskConf = topology.getTaskConfiguration("t1");
+    assertFalse(Tang.Factory.getTang().newInjector(taskConf).getNamedInstance(CollectiveRoot.class));
+    assertEquals(AllReducer.class.getName(), getBoundOperator(taskConf));
+  }
+
+  private static String getBoundOperator(final Configuration conf) {
+    final ClassNode<?> operatorNode =
+        (ClassNode<?>) conf.getClassHierarchy().getNode(GroupCommOperator.class.getName());
+    return conf.getBoundImplementation(operatorNode).getFullName();
+  }
+
+  private void addAndRun(final String... taskIds) {
+    for (final String taskId : taskIds) {
+      topology.addTask(taskId);
+    }
+    for (final String taskId : taskIds) {
+      topology.onRunningTask(taskId);
+    }
+  }
+
+  @NamedParameter()
+  private final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter()
+  private final class OperatorName implements Name<String> {
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.OperationFuture;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link AsyncOperations}.
+ */
+public final class AsyncOperationsTest {
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  /**
+   * Test that operations run one at a time in submission order and are tagged by iteration.
+   */
+  @Test
+  public void testOperationsRunInOrder() throws Exception {
+    final AsyncOperations asyncOperations = new AsyncOperations("testOperationsRunInOrder");
+    final CountDownLatch firstStarted = new CountDownLatch(1);
+    final CountDownLatch releaseFirst = new CountDownLatch(1);
+    final List<Integer> started = Collections.synchronizedList(new ArrayList<Integer>());
+
+    final List<OperationFuture<Integer>> futures = new ArrayList<>();
+    futures.add(asyncOperations.submit(new Callable<Integer>() {
+      @Override
+      public Integer call() throws InterruptedException {
+        started.add(0);
+        firstStarted.countDown();
+        releaseFirst.await();
+        return 0;
+      }
+    }));
+    for (int i = 1; i < 3; i++) {
+      final int value = i;
+      futures.add(asyncOperations.submit(new Callable<Integer>() {
+        @Override
+        public Integer call() {
+          started.add(value);
+          return value;
+        }
+      }));
+    }
+
+    assertTrue(firstStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    assertFalse(futures.get(1).isDone());
+    assertEquals(1, started.size());
+    releaseFirst.countDown();
+
+    for (int i = 0; i < futures.size(); i++) {
+      assertEquals(i, futures.get(i).getIteration());
+      assertEquals(Integer.valueOf(i), futures.get(i).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+    assertEquals(futures.size(), started.size());
+    for (int i = 0; i < started.size(); i++) {
+      assertEquals(Integer.valueOf(i), started.get(i));
+    }
+  }
+
+  /**
+   * Test that a failed operation reports its exception and does not stop the following ones.
+   */
+  @Test
+  public void testFailedOperation() throws Exception {
+    final AsyncOperations asyncOperations = new AsyncOperations("testFailedOperation");
+    final OperationFuture<Void> failed = asyncOperations.submit(new Callable<Void>() {
+      @Override
+      public Void call() throws NetworkException {
+        throw new NetworkException("expected");
+      }
+    });
+    final OperationFuture<String> next = asyncOperations.submit(new Callable<String>() {
+      @Override
+      public String call() {
+        return "next";
+      }
+    });
+
+    try {
+      failed.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      fail("The failed operation must throw");
+    } catch (final ExecutionException e) {
+      assertTrue(e.getCause() instanceof NetworkException);
+    }
+    assertEquals("next", next.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+  }
+}
@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.AllReduce.PartitionedReduceFunction;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.utils.CollectiveAlgorithms;
+import org.apache.reef.io.network.group.impl.utils.PeerChannel;
+import org.apache.reef.io.network.group.impl.utils.PrimitiveArrayCodecs;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.serialization.SerializableCodec;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for the symmetric operators {@link AllReducer}, {@link AllGatherer} and {@link ReduceScatterer}
+ * and for the membership agreement of {@link PeerExchange}, run over an in-memory flat topology.
+ */
+public final class CollectiveOperatorsTest {
+
+  private static final int RING_THRESHOLD = 64 * 1024;
+  private static final long PEER_TIMEOUT_MILLIS = 60000;
+
+  private final Codec<Integer> intCodec = new SerializableCodec<>();
+
+  /**
+   * Test that the members are ranked in the order given at the root, followed by the others
+   * sorted by id, and that every member learns the largest operand size.
+   */
+  @Test
+  public void testAgreeRanksByRootOrder() throws Exception {
+    final InMemoryGroup group = new InMemoryGroup(4);
+    final List<PeerExchange> exchanges = newExchanges(group, 4, PEER_TIMEOUT_MILLIS);
+    final StringIdentifierFactory idFactory = new StringIdentifierFactory();
+    final List<Identifier> order = Arrays.asList(idFactory.getNewInstance("task2"), idFactory.getNewInstance("task0"));
+
+    final List<PeerExchange.Membership> memberships = group.run(new InMemoryGroup.Member<PeerExchange.Membership>() {
+      @Override
+      public PeerExchange.Membership run(final int index) throws Exception {
+        // only the order given at the root counts
+        return exchanges.get(index).agree(100 * (index + 1), index == 0 ? order : null);
+      }
+    });
+
+    final List<String> expected = Arrays.asList("task2", "task0", "task1", "task3");
+    for (int i = 0; i < 4; i++) {
+      final PeerExchange.Membership membership = memberships.get(i);
+      assertEquals(expected, membership.getIds());
+      assertEquals(expected.indexOf(InMemoryGroup.id(i)), membership.getRank());
+      assertEquals(4, membership.getSize());
+      assertEquals(400, membership.getMaxEncodedSize());
+    }
+  }
+
+  /**
+   * Test that waiting for a message that the peer does not send fails instead of blocking,
+   * and that the message is still received once it is sent.
+   */
+  @Test
+  public void testReceiveTimesOut() throws Exception {
+    final InMemoryGroup group = new InMemoryGroup(2);
+    final List<PeerExchange> exchanges = newExchanges(group, 2, 100);
+    final List<PeerExchange.Membership> memberships = group.run(new InMemoryGroup.Member<PeerExchange.Membership>() {
+      @Override
+      public PeerExchange.Membership run(final int index) throws Exception {
+        return exchanges.get(index).agree(1, null);
+      }
+    });
+
+    final PeerChannel channel = exchanges.get(0).newChannel(memberships.get(0));
+    try {
+      channel.receive(1);
+      fail("The receive must time out");
+    } catch (final NetworkException e) {
+      // expected
+    }
+    exchanges.get(1).newChannel(memberships.get(1)).send(0, new byte[]{42});
+    assertArrayEquals(new byte[]{42}, channel.receive(1));
+  }
+
+  /**
+   * Test that AllReduce by recursive doubling gives every member the sum, over repeated operations.
+   */
+  @Test
+  public void testAllReduceRecursiveDoubling() throws Exception {
+    for (int size = 1; size <= 5; size++) {
+      final InMemoryGroup group = new InMemoryGroup(size);
+      final List<AllReducer<Integer>> reducers = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        final AllReducer<Integer> reducer = new AllReducer<>(GroupName.class, OperName.class, InMemoryGroup.id(i),
+            intCodec, new Sum(), 0, i == 0, CollectiveAlgorithms.Algorithm.RECURSIVE_DOUBLING, RING_THRESHOLD,
+            PEER_TIMEOUT_MILLIS, group.getSender(), group.getTopology(i), mock(CommGroupNetworkHandler.class),
+            mock(CommunicationGroupServiceClient.class));
+        reducers.add(reducer);
+        group.join(i, reducer);
+      }
+
+      final List<List<Integer>> results = group.run(new InMemoryGroup.Member<List<Integer>>() {
+        @Override
+        public List<Integer> run(final int index) throws Exception {
+          final List<Integer> sums = new ArrayList<>();
+          for (int iteration = 0; iteration < 3; iteration++) {
+            sums.add(reducers.get(index).apply(index + iteration));
+          }
+          return sums;
+        }
+      });
+
+      final int base = size * (size - 1) / 2;
+      for (final List<Integer> sums : results) {
+        assertEquals(Arrays.asList(base, base + size, base + 2 * size), sums);
+      }
+    }
+  }
+
+  /**
+   * Test that AllReduce uses the ring with a partitioned reduce function and gives every member the sum.
+   */
+  @Test
+  public void testAllReduceRing() throws Exception {
+    final int size = 4;
+    final InMemoryGroup group = new InMemoryGroup(size);
+    final List<AllReducer<int[]>> reducers = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      final AllReducer<int[]> reducer = new AllReducer<>(GroupName.class, OperName.class, InMemoryGroup.id(i),
+          new PrimitiveArrayCodecs.IntArrayCodec(), new PartitionedIntSum(), 0, i == 0,
+          CollectiveAlgorithms.Algorithm.RING, RING_THRESHOLD, PEER_TIMEOUT_MILLIS, group.getSender(),
+          group.getTopology(i), mock(CommGroupNetworkHandler.class), mock(CommunicationGroupServiceClient.class));
+      reducers.add(reducer);
+      group.join(i, reducer);
+    }
+
+    final List<int[]> results = group.run(new InMemoryGroup.Member<int[]>() {
+      @Override
+      public int[] run(final int index) throws Exception {
+        final int[] element = new int[10];
+        Arrays.fill(element, index + 1);
+        return reducers.get(index).apply(element);
+      }
+    });
+
+    final int[] expected = new int[10];
+    Arrays.fill(expected, 10);
+    for (final int[] result : results) {
+      assertArrayEquals(expected, result);
+    }
+  }
+
+  /**
+   * Test that AllGather gives every member the elements of all members in rank order, with both algorithms.
+   */
+  @Test
+  public void testAllGather() throws Exception {
+    for (final CollectiveAlgorithms.Algorithm algorithm : Arrays.asList(
+        CollectiveAlgorithms.Algorithm.RECURSIVE_DOUBLING, CollectiveAlgorithms.Algorithm.RING)) {
+      final int size = 5;
+      final InMemoryGroup group = new InMemoryGroup(size);
+      final List<AllGatherer<Integer>> gatherers = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        final AllGatherer<Integer> gatherer = new AllGatherer<>(GroupName.class, OperName.class, InMemoryGroup.id(i),
+            intCodec, 0, i == 0, algorithm, RING_THRESHOLD, PEER_TIMEOUT_MILLIS, group.getSender(),
+            group.getTopology(i), mock(CommGroupNetworkHandler.class), mock(CommunicationGroupServiceClient.class));
+        gatherers.add(gatherer);
+        group.join(i, gatherer);
+      }
+
+      final List<List<Integer>> results = group.run(new InMemoryGroup.Member<List<Integer>>() {
+        @Override
+        public List<Integer> run(final int index) throws Exception {
+          return gatherers.get(index).apply(10 * index);
+        }
+      });
+
+      for (final List<Integer> result : results) {
+        assertEquals(algorithm.toString(), Arrays.asList(0, 10, 20, 30, 40), result);
+      }
+    }
+  }
+
+  /**
+   * Test that ReduceScatter gives every member its portion of the element-wise sum, with both algorithms.
+   */
+  @Test
+  public void testReduceScatter() throws Exception {
+    for (final CollectiveAlgorithms.Algorithm algorithm : Arrays.asList(
+        CollectiveAlgorithms.Algorithm.RECURSIVE_DOUBLING, CollectiveAlgorithms.Algorithm.RING)) {
+      final int size = 3;
+      final InMemoryGroup group = new InMemoryGroup(size);
+      final List<ReduceScatterer<Integer>> scatterers = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        final ReduceScatterer<Integer> scatterer = new ReduceScatterer<>(GroupName.class, OperName.class,
+            InMemoryGroup.id(i), intCodec, new Sum(), 0, i == 0, algorithm, RING_THRESHOLD, PEER_TIMEOUT_MILLIS,
+            group.getSender(), group.getTopology(i), mock(CommGroupNetworkHandler.class),
+            mock(CommunicationGroupServiceClient.class));
+        scatterers.add(scatterer);
+        group.join(i, scatterer);
+      }
+
+      final List<List<Integer>> results = group.run(new InMemoryGroup.Member<List<Integer>>() {
+        @Override
+        public List<Integer> run(final int index) throws Exception {
+          return scatterers.get(index).apply(Arrays.asList(1, 2, 3, 4, 5, 6), Arrays.asList(1, 2, 3));
+        }
+      });
+
+      assertEquals(algorithm.toString(), Arrays.asList(3), results.get(0));
+      assertEquals(algorithm.toString(), Arrays.asList(6, 9), results.get(1));
+      assertEquals(algorithm.toString(), Arrays.asList(12, 15, 18), results.get(2));
+    }
+  }
+
+  private static List<PeerExchange> newExchanges(final InMemoryGroup group, final int size,
+                                                 final long timeoutMillis) {
+    final List<PeerExchange> exchanges = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      final PeerExchange exchange = new PeerExchange(GroupName.class, OperName.class, InMemoryGroup.id(i), 0, i == 0,
+          ReefNetworkGroupCommProtos.GroupCommMessage.Type.AllReduce, group.getSender(), group.getTopology(i),
+          timeoutMillis);
+      exchanges.add(exchange);
+      group.join(i, new EventHandler<GroupCommunicationMessage>() {
+        @Override
+        public void onNext(final GroupCommunicationMessage msg) {
+          exchange.onNext(msg);
+        }
+      });
+    }
+    return exchanges;
+  }
+
+  private static final class Sum implements ReduceFunction<Integer> {
+    @Override
+    public Integer apply(final Iterable<Integer> elements) {
+      int sum = 0;
+      for (final int element : elements) {
+        sum += element;
+      }
+      return sum;
+    }
+  }
+
+  private static final class PartitionedIntSum implements PartitionedReduceFunction<int[]> {
+    @Override
+    public int[] apply(final Iterable<int[]> elements) {
+      int[] sum = null;
+      for (final int[] element : elements) {
+        if (sum == null) {
+          sum = element.clone();
+        } else {
+          for (int i = 0; i < sum.length; i++) {
+            sum[i] += element[i];
+          }
+        }
+      }
+      return sum;
+    }
+
+    @Override
+    public List<int[]> split(final int[] element, final int parts) {
+      final List<int[]> split = new ArrayList<>(parts);
+      for (int i = 0; i < parts; i++) {
+        split.add(Arrays.copyOfRange(element, element.length * i / parts, element.length * (i + 1) / parts));
+      }
+      return split;
+    }
+
+    @Override
+    public int[] merge(final List<int[]> parts) {
+      int length = 0;
+      for (final int[] part : parts) {
+        length += part.length;
+      }
+      final int[] merged = new int[length];
+      int offset = 0;
+      for (final int[] part : parts) {
+        System.arraycopy(part, 0, merged, offset, part.length);
+        offset += part.length;
+      }
+      return merged;
+    }
+  }
+
+  @NamedParameter()
+  private final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter()
+  private final class OperName implements Name<String> {
+  }
+}
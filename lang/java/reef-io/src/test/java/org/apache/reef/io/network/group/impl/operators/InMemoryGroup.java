@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.io.network.group.api.operators.AllReduce.PartitionedReduceFunction;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.task.OperatorTopology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.wake.EventHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Members task0 to task(size-1) of a flat topology rooted at task0, for the tests of the operators.
+ * Messages through the topology go through in-memory queues and peer-to-peer messages are delivered right away.
+ */
+final class InMemoryGroup {
+
+  private static final long TIMEOUT_SECONDS = 10;
+
+  /**
+   * The part of a test run by one member.
+   */
+  interface Member<R> {
+    R run(int index) throws Exception;
+  }
+
+  private final int size;
+  private final BlockingQueue<byte[]> toRoot = new LinkedBlockingQueue<>();
+  private final List<BlockingQueue<byte[]>> toChildren = new ArrayList<>();
+  private final ConcurrentMap<String, EventHandler<GroupCommunicationMessage>> members =
+      new ConcurrentHashMap<>();
+
+  private final Sender sender = new Sender(null) {
+    @Override
+    public void send(final GroupCommunicationMessage msg) {
+      members.get(msg.getDestid()).onNext(msg);
+    }
+  };
+
+  InMemoryGroup(final int size) {
+    this.size = size;
+    for (int i = 0; i < size; i++) {
+      toChildren.add(new LinkedBlockingQueue<byte[]>());
+    }
+  }
+
+  static String id(final int index) {
+    return "task" + index;
+  }
+
+  Sender getSender() {
+    return sender;
+  }
+
+  OperatorTopology getTopology(final int index) {
+    return new InMemoryTopology(index);
+  }
+
+  void join(final int index, final EventHandler<GroupCommunicationMessage> handler) {
+    members.put(id(index), handler);
+  }
+
+  <R> List<R> run(final Member<R> member) throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(size);
+    try {
+      final List<Future<R>> futures = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        final int index = i;
+        futures.add(executor.submit(new Callable<R>() {
+          @Override
+          public R call() throws Exception {
+            return member.run(index);
+          }
+        }));
+      }
+      final List<R> results = new ArrayList<>(size);
+      for (final Future<R> future : futures) {
+        results.add(future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * The part of a flat topology used by the membership agreement and the barrier.
+   */
+  private final class InMemoryTopology implements OperatorTopology {
+
+    private final int index;
+
+    InMemoryTopology(final int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void handle(final GroupCommunicationMessage msg) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void sendToParent(final byte[] encode, final ReefNetworkGroupCommProtos.GroupCommMessage.Type reduce) {
+      toRoot.add(encode);
+    }
+
+    @Override
+    public byte[] recvFromParent(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+      try {
+        return toChildren.get(index).take();
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    @Override
+    public void sendToChildren(final byte[] data, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+      if (index == 0) {
+        for (int i = 1; i < size; i++) {
+          toChildren.get(i).add(data);
+        }
+      }
+    }
+
+    @Override
+    public void sendToChildren(final Map<String, byte[]> dataMap,
+                               final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T recvFromChildren(final ReduceFunction<T> redFunc, final Codec<T> dataCodec) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public byte[] recvFromChildren() {
+      if (index != 0) {
+        return new byte[0];
+      }
+      final ByteArrayOutputStream received = new ByteArrayOutputStream();
+      try {
+        for (int i = 1; i < size; i++) {
+          received.write(toRoot.take());
+        }
+      } catch (final InterruptedException | IOException e) {
+        throw new RuntimeException(e);
+      }
+      return received.toByteArray();
+    }
+
+    @Override
+    public void sendToChildrenInChunks(final byte[] data,
+                                       final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                       final int chunkSize) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public byte[] recvFromParentInChunks(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void sendToParentInChunks(final byte[] data,
+                                     final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                     final int chunkSize) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T recvFromChildrenInChunks(final ReduceFunction<T> redFunc, final Codec<T> dataCodec) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T reduceInParts(final T element, final PartitionedReduceFunction<T> redFunc,
+                               final Codec<T> dataCodec, final int chunkSize, final boolean sendToParent) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void initialize() {
+    }
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link TreeBarrier}, run over an in-memory flat topology.
+ */
+public final class TreeBarrierTest {
+
+  private static final int SIZE = 4;
+  private static final long WAIT_MILLIS = 200;
+  private static final long TIMEOUT_SECONDS = 10;
+
+  /**
+   * No participant passes the barrier before the last one arrives, and all pass once it has.
+   */
+  @Test
+  public void testAwaitReleasesAllOnceEveryoneArrived() throws Exception {
+    final InMemoryGroup group = new InMemoryGroup(SIZE);
+    final List<TreeBarrier> barriers = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      barriers.add(new TreeBarrier(GroupName.class, OperName.class, 0, i == 0, group.getTopology(i),
+          mock(CommGroupNetworkHandler.class), mock(CommunicationGroupServiceClient.class)));
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(SIZE);
+    try {
+      final List<Future<Void>> arrived = new ArrayList<>(SIZE);
+      for (int i = 0; i < SIZE - 1; i++) {
+        arrived.add(executor.submit(await(barriers.get(i))));
+      }
+      Thread.sleep(WAIT_MILLIS);
+      for (final Future<Void> future : arrived) {
+        assertFalse("Passed the barrier before everyone arrived", future.isDone());
+      }
+
+      arrived.add(executor.submit(await(barriers.get(SIZE - 1))));
+      for (final Future<Void> future : arrived) {
+        future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static Callable<Void> await(final TreeBarrier barrier) {
+    return new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        barrier.await();
+        return null;
+      }
+    };
+  }
+
+  @NamedParameter()
+  private final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter()
+  private final class OperName implements Name<String> {
+  }
+}
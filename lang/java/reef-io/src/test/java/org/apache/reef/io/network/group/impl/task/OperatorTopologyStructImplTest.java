@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.task;
+
+import org.apache.reef.io.network.group.api.operators.AllReduce.PartitionedReduceFunction;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.parameters.CommunicationGroupName;
+import org.apache.reef.io.network.group.impl.config.parameters.OperatorName;
+import org.apache.reef.io.network.group.impl.operators.Sender;
+import org.apache.reef.io.network.group.impl.utils.PrimitiveArrayCodecs;
+import org.apache.reef.io.network.group.impl.utils.PrimitiveArrayReduceFunctions;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the chunked, concurrent and streaming paths of {@link OperatorTopologyStructImpl}.
+ * Tasks root, mid, leaf1 and leaf2 form the tree root - mid - (leaf1, leaf2) and exchange
+ * messages through an in-memory sender.
+ */
+public final class OperatorTopologyStructImplTest {
+
+  private static final int CHUNK_SIZE = 1024;
+  private static final int LENGTH = 10000;
+  private static final int BIG_LENGTH = (1 << 20) + 1;
+  private static final long TIMEOUT_MILLIS = 10000;
+
+  private final Map<String, OperatorTopologyStructImpl> structs = new HashMap<>();
+  private final LoopbackSender sender = new LoopbackSender();
+
+  @Before
+  public void setUp() {
+    for (final String id : new String[]{"root", "mid", "leaf1", "leaf2"}) {
+      structs.put(id, new OperatorTopologyStructImpl(CommunicationGroupName.class, OperatorName.class, id, "driver",
+          sender, 0));
+    }
+    link("root", "mid");
+    link("mid", "leaf1");
+    link("mid", "leaf2");
+  }
+
+  /**
+   * Test that a chunked broadcast reaches every task intact with no message above the chunk size.
+   */
+  @Test
+  public void testBroadcastInChunks() {
+    final byte[] data = new byte[LENGTH];
+    new Random(7).nextBytes(data);
+    final ReefNetworkGroupCommProtos.GroupCommMessage.Type type =
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast;
+
+    structs.get("root").sendToChildrenInChunks(data, type, CHUNK_SIZE);
+    for (final String id : new String[]{"mid", "leaf1", "leaf2"}) {
+      assertArrayEquals(data, structs.get(id).recvFromParentInChunks(type));
+    }
+    assertTrue(sender.maxLength <= CHUNK_SIZE + 8);
+  }
+
+  /**
+   * Test that a part-by-part reduce sums correctly and skips a child that died.
+   */
+  @Test
+  public void testReduceInParts() {
+    final PartitionedSum sum = new PartitionedSum();
+    final IntArrayCodec codec = new IntArrayCodec();
+    structs.get("leaf1").reduceInParts(filled(1), sum, codec, CHUNK_SIZE, true);
+    structs.get("mid").addAsData(Utils.bldVersionedGCM(CommunicationGroupName.class, OperatorName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.ChildDead, "leaf2", 0, "mid", 0, Utils.EMPTY_BYTE_ARR));
+    structs.get("mid").reduceInParts(filled(2), sum, codec, CHUNK_SIZE, true);
+
+    final int[] reduced = structs.get("root").reduceInParts(null, sum, codec, CHUNK_SIZE, false);
+    assertArrayEquals(filled(3), reduced);
+    assertTrue(sender.maxLength <= CHUNK_SIZE + 8);
+  }
+
+  /**
+   * Test that values reduced whole but sent in chunks sum correctly.
+   */
+  @Test
+  public void testReduceInChunks() {
+    final PartitionedSum sum = new PartitionedSum();
+    final IntArrayCodec codec = new IntArrayCodec();
+    final ReefNetworkGroupCommProtos.GroupCommMessage.Type type =
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce;
+    structs.get("leaf1").sendToParentInChunks(codec.encode(filled(1)), type, CHUNK_SIZE);
+    structs.get("leaf2").sendToParentInChunks(codec.encode(filled(2)), type, CHUNK_SIZE);
+
+    final int[] fromLeaves = structs.get("mid").recvFromChildrenInChunks(sum, codec);
+    final List<int[]> vals = new ArrayList<>();
+    vals.add(fromLeaves);
+    vals.add(filled(4));
+    structs.get("mid").sendToParentInChunks(codec.encode(sum.apply(vals)), type, CHUNK_SIZE);
+
+    assertArrayEquals(filled(7), structs.get("root").recvFromChildrenInChunks(sum, codec));
+  }
+
+  /**
+   * Test that a streaming reduce function folds the values of the children.
+   */
+  @Test
+  public void testStreamingReduce() {
+    final PrimitiveArrayCodecs.DoubleArrayCodec codec = new PrimitiveArrayCodecs.DoubleArrayCodec();
+    final ReefNetworkGroupCommProtos.GroupCommMessage.Type type =
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce;
+    structs.get("leaf1").sendToParent(codec.encode(new double[]{1.0, 2.0}), type);
+    structs.get("leaf2").sendToParent(codec.encode(new double[]{0.5, -4.0}), type);
+
+    final double[] reduced = structs.get("mid").recvFromChildren(new PrimitiveArrayReduceFunctions.DoubleSum(), codec);
+    assertArrayEquals(new double[]{1.5, -2.0}, reduced, 0);
+  }
+
+  /**
+   * Test that a message large enough for the readiness/ACK handshake is offered to all
+   * children before any of them replies, and still arrives intact at each.
+   */
+  @Test
+  public void testSendToChildrenConcurrently() throws InterruptedException {
+    final byte[] data = new byte[BIG_LENGTH];
+    new Random(11).nextBytes(data);
+    final ReefNetworkGroupCommProtos.GroupCommMessage.Type type =
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast;
+
+    final Thread sendThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        structs.get("mid").sendToChildren(data, type);
+      }
+    });
+    sendThread.start();
+    assertTrue("Readiness was not sent to all children before the first reply",
+        sender.awaitReadinessSentTo(Arrays.asList("leaf1", "leaf2"), TIMEOUT_MILLIS));
+
+    final Map<String, byte[]> received = new ConcurrentHashMap<>();
+    final List<Thread> recvThreads = new ArrayList<>();
+    for (final String id : new String[]{"leaf1", "leaf2"}) {
+      final Thread recvThread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          received.put(id, structs.get(id).recvFromParent(type));
+        }
+      });
+      recvThread.start();
+      recvThreads.add(recvThread);
+    }
+    for (final Thread recvThread : recvThreads) {
+      recvThread.join(TIMEOUT_MILLIS);
+    }
+    sendThread.join(TIMEOUT_MILLIS);
+
+    assertFalse(sendThread.isAlive());
+    assertArrayEquals(data, received.get("leaf1"));
+    assertArrayEquals(data, received.get("leaf2"));
+  }
+
+  /**
+   * Test that a broadcast in chunks of the largest allowed size goes without the big message handshake.
+   */
+  @Test
+  public void testBroadcastInMaxChunks() {
+    final byte[] data = new byte[2 * OperatorTopologyStructImpl.MAX_CHUNK_SIZE + 1];
+    new Random(13).nextBytes(data);
+    final ReefNetworkGroupCommProtos.GroupCommMessage.Type type =
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast;
+
+    structs.get("root").sendToChildrenInChunks(data, type, OperatorTopologyStructImpl.MAX_CHUNK_SIZE);
+    for (final String id : new String[]{"mid", "leaf1", "leaf2"}) {
+      assertArrayEquals(data, structs.get(id).recvFromParentInChunks(type));
+    }
+    assertEquals(OperatorTopologyStructImpl.MAX_CHUNK_SIZE + 8, sender.maxLength);
+  }
+
+  /**
+   * Test that parts reduced above the chunk size threshold go through the big message handshake.
+   */
+  @Test
+  public void testReduceInBigParts() throws InterruptedException {
+    final PartitionedSum sum = new PartitionedSum();
+    final IntArrayCodec codec = new IntArrayCodec();
+    final int[] element = new int[BIG_LENGTH / 2];
+    final int chunkSize = 4 * element.length;
+
+    final List<Thread> sendThreads = new ArrayList<>();
+    for (final String id : new String[]{"leaf1", "leaf2", "mid"}) {
+      final Thread sendThread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          final int[] value = element.clone();
+          Arrays.fill(value, id.length());
+          structs.get(id).reduceInParts(value, sum, codec, chunkSize, true);
+        }
+      });
+      sendThread.start();
+      sendThreads.add(sendThread);
+    }
+    final int[] reduced = structs.get("root").reduceInParts(null, sum, codec, chunkSize, false);
+    for (final Thread sendThread : sendThreads) {
+      sendThread.join(TIMEOUT_MILLIS);
+      assertFalse(sendThread.isAlive());
+    }
+
+    final int[] expected = element.clone();
+    Arrays.fill(expected, 2 * "leaf1".length() + "mid".length());
+    assertArrayEquals(expected, reduced);
+    assertTrue(sender.maxLength > 1 << 20);
+  }
+
+  /**
+   * Test that the builders only accept chunk sizes that need no big message handshake.
+   */
+  @Test
+  public void testChunkSizeLimits() {
+    assertEquals(OperatorTopologyStructImpl.MAX_CHUNK_SIZE, BroadcastOperatorSpec.newBuilder()
+        .setChunkSize(OperatorTopologyStructImpl.MAX_CHUNK_SIZE).build().getChunkSize());
+    for (final int chunkSize : new int[]{-1, 0, OperatorTopologyStructImpl.MAX_CHUNK_SIZE + 1}) {
+      try {
+        BroadcastOperatorSpec.newBuilder().setChunkSize(chunkSize);
+        fail("Broadcast accepted chunk size " + chunkSize);
+      } catch (final IllegalArgumentException expected) {
+        // expected
+      }
+      try {
+        ReduceOperatorSpec.newBuilder().setChunkSize(chunkSize);
+        fail("Reduce accepted chunk size " + chunkSize);
+      } catch (final IllegalArgumentException expected) {
+        // expected
+      }
+    }
+  }
+
+  private void link(final String parentId, final String childId) {
+    structs.get(parentId).update(Utils.bldVersionedGCM(CommunicationGroupName.class, OperatorName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.ChildAdd, childId, 0, parentId, 0, Utils.EMPTY_BYTE_ARR));
+    structs.get(childId).update(Utils.bldVersionedGCM(CommunicationGroupName.class, OperatorName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.ParentAdd, parentId, 0, childId, 0, Utils.EMPTY_BYTE_ARR));
+  }
+
+  private static int[] filled(final int value) {
+    final int[] retVal = new int[LENGTH];
+    Arrays.fill(retVal, value);
+    return retVal;
+  }
+
+  /**
+   * Delivers messages directly to the destination topology.
+   */
+  private final class LoopbackSender extends Sender {
+    private final Set<String> readinessSentTo = new HashSet<>();
+    private int maxLength;
+
+    LoopbackSender() {
+      super(null);
+    }
+
+    @Override
+    public void send(final GroupCommunicationMessage msg) {
+      send(msg, msg.getDestid());
+    }
+
+    @Override
+    public synchronized void send(final GroupCommunicationMessage msg, final String dest) {
+      for (final byte[] body : msg.getData()) {
+        maxLength = Math.max(maxLength, body.length);
+        if (body.length == 0 && "mid".equals(msg.getSrcid())) {
+          readinessSentTo.add(dest);
+        }
+      }
+      structs.get(dest).addAsData(msg);
+      notifyAll();
+    }
+
+    synchronized boolean awaitReadinessSentTo(final Collection<String> dests, final long timeoutMillis)
+        throws InterruptedException {
+      final long deadline = System.currentTimeMillis() + timeoutMillis;
+      while (!readinessSentTo.containsAll(dests)) {
+        final long remaining = deadline - System.currentTimeMillis();
+        if (remaining <= 0) {
+          return false;
+        }
+        wait(remaining);
+      }
+      return true;
+    }
+  }
+
+  private static final class PartitionedSum implements PartitionedReduceFunction<int[]> {
+    @Override
+    public int[] apply(final Iterable<int[]> elements) {
+      int[] retVal = null;
+      for (final int[] element : elements) {
+        if (retVal == null) {
+          retVal = element.clone();
+        } else {
+          for (int i = 0; i < retVal.length; i++) {
+            retVal[i] += element[i];
+          }
+        }
+      }
+      return retVal;
+    }
+
+    @Override
+    public List<int[]> split(final int[] element, final int parts) {
+      final List<int[]> retList = new ArrayList<>(parts);
+      for (int part = 0; part < parts; part++) {
+        retList.add(Arrays.copyOfRange(element, element.length * part / parts, element.length * (part + 1) / parts));
+      }
+      return retList;
+    }
+
+    @Override
+    public int[] merge(final List<int[]> parts) {
+      int length = 0;
+      for (final int[] part : parts) {
+        length += part.length;
+      }
+      final int[] retVal = new int[length];
+      int offset = 0;
+      for (final int[] part : parts) {
+        System.arraycopy(part, 0, retVal, offset, part.length);
+        offset += part.length;
+      }
+      return retVal;
+    }
+  }
+
+  private static final class IntArrayCodec implements Codec<int[]> {
+    @Override
+    public byte[] encode(final int[] obj) {
+      final ByteBuffer buffer = ByteBuffer.allocate(4 * obj.length);
+      buffer.asIntBuffer().put(obj);
+      return buffer.array();
+    }
+
+    @Override
+    public int[] decode(final byte[] buf) {
+      final int[] retVal = new int[buf.length / 4];
+      ByteBuffer.wrap(buf).asIntBuffer().get(retVal);
+      return retVal;
+    }
+  }
+}
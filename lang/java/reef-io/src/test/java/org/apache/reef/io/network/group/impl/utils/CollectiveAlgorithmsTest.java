@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.serialization.SerializableCodec;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the peer-to-peer algorithms of the symmetric operators, run over in-memory channels.
+ */
+public final class CollectiveAlgorithmsTest {
+
+  private static final int MAX_SIZE = 9;
+
+  private final Codec<Integer> intCodec = new SerializableCodec<>();
+  private final Codec<String> stringCodec = new SerializableCodec<>();
+
+  /**
+   * Test that recursive doubling sums correctly for power-of-two and other sizes.
+   */
+  @Test
+  public void testRecursiveDoublingSum() throws Exception {
+    for (int size = 1; size <= MAX_SIZE; size++) {
+      final int groupSize = size;
+      final List<Integer> results = run(groupSize, new Member<Integer>() {
+        @Override
+        public Integer run(final int rank, final PeerChannel channel) throws Exception {
+          return CollectiveAlgorithms.recursiveDoubling(rank, groupSize, rank + 1, new Sum(), intCodec, channel);
+        }
+      });
+      for (final int result : results) {
+        assertEquals(groupSize * (groupSize + 1) / 2, result);
+      }
+    }
+  }
+
+  /**
+   * Test that recursive doubling combines operands in rank order.
+   */
+  @Test
+  public void testRecursiveDoublingOrder() throws Exception {
+    for (int size = 1; size <= MAX_SIZE; size++) {
+      final int groupSize = size;
+      final List<String> results = run(groupSize, new Member<String>() {
+        @Override
+        public String run(final int rank, final PeerChannel channel) throws Exception {
+          return CollectiveAlgorithms.recursiveDoubling(rank, groupSize, Character.toString((char) ('a' + rank)),
+              new Concat(), stringCodec, channel);
+        }
+      });
+      final String expected = "abcdefghi".substring(0, groupSize);
+      for (final String result : results) {
+        assertEquals(expected, result);
+      }
+    }
+  }
+
+  /**
+   * Test that the ring reduce-scatter leaves every member with its own reduced block.
+   */
+  @Test
+  public void testRingReduceScatter() throws Exception {
+    for (int size = 1; size <= MAX_SIZE; size++) {
+      final int groupSize = size;
+      final List<Integer> results = run(groupSize, new Member<Integer>() {
+        @Override
+        public Integer run(final int rank, final PeerChannel channel) throws Exception {
+          final List<Integer> blocks = new ArrayList<>(groupSize);
+          for (int block = 0; block < groupSize; block++) {
+            blocks.add(rank * 100 + block);
+          }
+          return CollectiveAlgorithms.ringReduceScatter(rank, groupSize, blocks, new Sum(), intCodec, channel);
+        }
+      });
+      for (int rank = 0; rank < groupSize; rank++) {
+        assertEquals(100 * groupSize * (groupSize - 1) / 2 + groupSize * rank, (int) results.get(rank));
+      }
+    }
+  }
+
+  /**
+   * Test that both all-gather algorithms return the values of all members in rank order.
+   */
+  @Test
+  public void testAllGather() throws Exception {
+    for (int size = 1; size <= MAX_SIZE; size++) {
+      final int groupSize = size;
+      for (final boolean ring : new boolean[]{true, false}) {
+        final List<List<Integer>> results = run(groupSize, new Member<List<Integer>>() {
+          @Override
+          public List<Integer> run(final int rank, final PeerChannel channel) throws Exception {
+            return ring ? CollectiveAlgorithms.ringAllGather(rank, groupSize, rank * 7, intCodec, channel)
+                : CollectiveAlgorithms.recursiveDoublingAllGather(rank, groupSize, rank * 7, intCodec, channel);
+          }
+        });
+        for (final List<Integer> result : results) {
+          assertEquals(groupSize, result.size());
+          for (int rank = 0; rank < groupSize; rank++) {
+            assertEquals(rank * 7, (int) result.get(rank));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Test the element-wise reduction of lists split by counts, as used by ReduceScatter.
+   */
+  @Test
+  public void testElementwiseBlocks() {
+    final List<Integer> elements = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      elements.add(i);
+    }
+    final List<List<Integer>> blocks =
+        CollectiveAlgorithms.splitByCounts(elements, ScatterHelper.getUniformCounts(10, 3));
+    assertEquals(3, blocks.size());
+    assertEquals(4, blocks.get(0).size());
+    assertEquals(3, blocks.get(2).size());
+
+    final Codec<List<Integer>> listCodec = CollectiveAlgorithms.listCodec(intCodec);
+    assertEquals(elements, listCodec.decode(listCodec.encode(elements)));
+
+    final List<List<Integer>> operands = new ArrayList<>();
+    operands.add(blocks.get(0));
+    operands.add(blocks.get(0));
+    final List<Integer> doubled = CollectiveAlgorithms.elementwise(new Sum()).apply(operands);
+    for (int i = 0; i < 4; i++) {
+      assertEquals(2 * i, (int) doubled.get(i));
+    }
+  }
+
+  /**
+   * Test that the algorithm only resolves to the ring for groups and operands large enough for it.
+   */
+  @Test
+  public void testResolve() {
+    final CollectiveAlgorithms.Algorithm auto = CollectiveAlgorithms.Algorithm.AUTO;
+    assertEquals(CollectiveAlgorithms.Algorithm.RING, CollectiveAlgorithms.resolve(auto, 4, 1024, 1024, true));
+    assertEquals(CollectiveAlgorithms.Algorithm.RECURSIVE_DOUBLING,
+        CollectiveAlgorithms.resolve(auto, 4, 1023, 1024, true));
+    assertEquals(CollectiveAlgorithms.Algorithm.RECURSIVE_DOUBLING,
+        CollectiveAlgorithms.resolve(CollectiveAlgorithms.Algorithm.RING, 4, 1 << 20, 1024, false));
+    assertEquals(CollectiveAlgorithms.Algorithm.RECURSIVE_DOUBLING,
+        CollectiveAlgorithms.resolve(CollectiveAlgorithms.Algorithm.RING, 2, 1 << 20, 1024, true));
+  }
+
+  private interface Member<R> {
+    R run(int rank, PeerChannel channel) throws Exception;
+  }
+
+  /**
+   * Run one member per thread over in-memory channels and return their results in rank order.
+   */
+  private static <R> List<R> run(final int size, final Member<R> member) throws Exception {
+    final List<List<BlockingQueue<byte[]>>> queues = new ArrayList<>(size);
+    for (int from = 0; from < size; from++) {
+      final List<BlockingQueue<byte[]>> row = new ArrayList<>(size);
+      for (int to = 0; to < size; to++) {
+        row.add(new LinkedBlockingQueue<byte[]>());
+      }
+      queues.add(row);
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(size);
+    try {
+      final List<Future<R>> futures = new ArrayList<>(size);
+      for (int rank = 0; rank < size; rank++) {
+        final int self = rank;
+        final PeerChannel channel = new PeerChannel() {
+          @Override
+          public void send(final int peer, final byte[] data) {
+            queues.get(self).get(peer).add(data);
+          }
+
+          @Override
+          public byte[] receive(final int peer) throws InterruptedException {
+            return queues.get(peer).get(self).take();
+          }
+        };
+        futures.add(executor.submit(new Callable<R>() {
+          @Override
+          public R call() throws Exception {
+            return member.run(self, channel);
+          }
+        }));
+      }
+      final List<R> results = new ArrayList<>(size);
+      for (final Future<R> future : futures) {
+        results.add(future.get(10, TimeUnit.SECONDS));
+      }
+      for (final List<BlockingQueue<byte[]>> row : queues) {
+        for (final BlockingQueue<byte[]> queue : row) {
+          assertTrue("Unconsumed message", queue.isEmpty());
+        }
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static final class Sum implements ReduceFunction<Integer> {
+    @Override
+    public Integer apply(final Iterable<Integer> elements) {
+      int sum = 0;
+      for (final int element : elements) {
+        sum += element;
+      }
+      return sum;
+    }
+  }
+
+  private static final class Concat implements ReduceFunction<String> {
+    @Override
+    public String apply(final Iterable<String> elements) {
+      final StringBuilder sb = new StringBuilder();
+      for (final String element : elements) {
+        sb.append(element);
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.io.serialization.Codec;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the sparse, quantized and compressing codecs of {@code double[]}.
+ */
+public final class DoubleArrayCodecsTest {
+
+  private static final int LENGTH = 10000;
+
+  /**
+   * Test that the sparse codec is lossless and picks the smaller layout.
+   */
+  @Test
+  public void testSparseCodec() {
+    final SparseDoubleArrayCodec codec = new SparseDoubleArrayCodec();
+    final double[] sparse = sparseValues(100, 1);
+    final byte[] sparseBytes = codec.encode(sparse);
+    assertArrayEquals(sparse, codec.decode(sparseBytes), 0);
+    assertTrue("sparse vector must use the sparse layout", sparseBytes.length < 100 * 10 + 8);
+
+    final double[] dense = denseValues(2);
+    final byte[] denseBytes = codec.encode(dense);
+    assertArrayEquals(dense, codec.decode(denseBytes), 0);
+    assertTrue("dense vector must use the dense layout", denseBytes.length <= LENGTH * 8 + 8);
+
+    assertArrayEquals(new double[0], codec.decode(codec.encode(new double[0])), 0);
+  }
+
+  /**
+   * Test that half-precision conversion is exact on halves and rounds to nearest otherwise.
+   */
+  @Test
+  public void testHalfConversion() {
+    for (int half = 0; half < 0x10000; half++) {
+      final float value = QuantizedDoubleArrayCodec.fromHalf(half);
+      if (!Float.isNaN(value)) {
+        assertEquals(half, QuantizedDoubleArrayCodec.toHalf(value));
+      }
+    }
+    assertEquals(1.0f, QuantizedDoubleArrayCodec.fromHalf(QuantizedDoubleArrayCodec.toHalf(1.0002f)), 0);
+    assertEquals(65504f, QuantizedDoubleArrayCodec.fromHalf(QuantizedDoubleArrayCodec.toHalf(1e6f)), 0);
+    assertTrue(Float.isNaN(QuantizedDoubleArrayCodec.fromHalf(QuantizedDoubleArrayCodec.toHalf(Float.NaN))));
+  }
+
+  /**
+   * Test that the quantized codecs stay close to the input and shrink it.
+   */
+  @Test
+  public void testQuantizedCodecs() {
+    final double[] dense = denseValues(3);
+    final byte[] fp16Bytes = new QuantizedDoubleArrayCodec.Fp16().encode(dense);
+    assertArrayEquals(dense, new QuantizedDoubleArrayCodec.Fp16().decode(fp16Bytes), 1e-3);
+    assertTrue(fp16Bytes.length <= LENGTH * 2 + 16);
+
+    final byte[] int8Bytes = new QuantizedDoubleArrayCodec.Int8().encode(dense);
+    assertArrayEquals(dense, new QuantizedDoubleArrayCodec.Int8().decode(int8Bytes), 1.0 / 127);
+    assertTrue(int8Bytes.length <= LENGTH + 16);
+
+    final byte[] sparseBytes = new QuantizedDoubleArrayCodec.Int8().encode(sparseValues(100, 4));
+    assertTrue("sparse vector must use the sparse layout", sparseBytes.length < 100 * 3 + 16);
+  }
+
+  /**
+   * Test that error feedback keeps the running sum of decoded messages close to the sum of the inputs,
+   * with a residual per stream, while encoding without a residual keeps no state.
+   */
+  @Test
+  public void testErrorFeedback() {
+    final QuantizedDoubleArrayCodec codec = new QuantizedDoubleArrayCodec.Int8();
+    final double[][] values = {{1.0, 0.004, -0.003, 0.5}, {-0.002, 2.0, 0.001, 0.0}};
+    final double[][] residuals = new double[values.length][values[0].length];
+    final double[][] sums = new double[values.length][values[0].length];
+    final int iterations = 1000;
+    for (int i = 0; i < iterations; i++) {
+      // interleave two streams, as for two destinations of a Scatter
+      for (int stream = 0; stream < values.length; stream++) {
+        final double[] decoded = codec.decode(codec.encode(values[stream], residuals[stream]));
+        for (int j = 0; j < decoded.length; j++) {
+          sums[stream][j] += decoded[j];
+        }
+      }
+    }
+    for (int stream = 0; stream < values.length; stream++) {
+      for (int j = 0; j < values[stream].length; j++) {
+        assertEquals(values[stream][j] * iterations, sums[stream][j], 0.01);
+      }
+    }
+
+    assertArrayEquals(codec.encode(values[0]), codec.encode(values[0]));
+  }
+
+  /**
+   * Test that a residual of another length is rejected rather than reset.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testErrorFeedbackLengthMismatch() {
+    new QuantizedDoubleArrayCodec.Fp16().encode(new double[4], new double[3]);
+  }
+
+  /**
+   * Test that the compressing codecs round trip and compress only when it pays.
+   */
+  @Test
+  public void testCompressingCodec() {
+    final Codec<double[]> codec = new CompressingCodec.Sparse();
+    final double[] repetitive = new double[LENGTH];
+    for (int i = 0; i < LENGTH; i++) {
+      repetitive[i] = i % 4;
+    }
+    final byte[] compressed = codec.encode(repetitive);
+    assertArrayEquals(repetitive, codec.decode(compressed), 0);
+    assertTrue(compressed.length < LENGTH);
+
+    final double[] random = denseValues(5);
+    final byte[] raw = codec.encode(random);
+    assertArrayEquals(random, codec.decode(raw), 0);
+    assertEquals(new SparseDoubleArrayCodec().encode(random).length + 1, raw.length);
+
+    final Codec<double[]> int8Codec = new CompressingCodec.Int8();
+    assertArrayEquals(repetitive, int8Codec.decode(int8Codec.encode(repetitive)), 3.0 / 127);
+  }
+
+  private static double[] denseValues(final long seed) {
+    final Random random = new Random(seed);
+    final double[] retVal = new double[LENGTH];
+    for (int i = 0; i < LENGTH; i++) {
+      retVal[i] = random.nextDouble() * 2 - 1;
+    }
+    return retVal;
+  }
+
+  private static double[] sparseValues(final int nonZeros, final long seed) {
+    final Random random = new Random(seed);
+    final double[] retVal = new double[LENGTH];
+    for (int i = 0; i < nonZeros; i++) {
+      retVal[random.nextInt(LENGTH)] = random.nextDouble() + 1;
+    }
+    return retVal;
+  }
+}
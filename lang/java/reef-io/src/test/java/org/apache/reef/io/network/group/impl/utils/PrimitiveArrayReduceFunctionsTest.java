@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.utils;
+
+import org.apache.reef.io.network.group.api.operators.Reduce.StreamingReduceFunction;
+import org.apache.reef.io.serialization.Codec;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the built-in streaming reduce functions and their codecs.
+ */
+public final class PrimitiveArrayReduceFunctionsTest {
+
+  private static final double[] D1 = {1.5, -2.0, 3.25, Double.MAX_VALUE};
+  private static final double[] D2 = {0.5, 4.0, -7.0, -1.0};
+  private static final float[] F1 = {1.5f, -2.0f, 3.25f};
+  private static final float[] F2 = {0.5f, 4.0f, -7.0f};
+  private static final int[] I1 = {1, -2, Integer.MIN_VALUE, 40};
+  private static final int[] I2 = {5, 7, 0, -40};
+
+  /**
+   * Test that folding encoded values gives the same result as apply for doubles.
+   */
+  @Test
+  public void testDoubleFunctions() {
+    final Codec<double[]> codec = new PrimitiveArrayCodecs.DoubleArrayCodec();
+    assertArrayEquals(D1, codec.decode(codec.encode(D1)), 0);
+    assertArrayEquals(new double[]{2.0, 2.0, -3.75, Double.MAX_VALUE - 1.0},
+        foldAll(new PrimitiveArrayReduceFunctions.DoubleSum(), codec, D1, D2), 0);
+    assertArrayEquals(new double[]{0.5, -2.0, -7.0, -1.0},
+        foldAll(new PrimitiveArrayReduceFunctions.DoubleMin(), codec, D1, D2), 0);
+    assertArrayEquals(new double[]{1.5, 4.0, 3.25, Double.MAX_VALUE},
+        foldAll(new PrimitiveArrayReduceFunctions.DoubleMax(), codec, D1, D2), 0);
+  }
+
+  /**
+   * Test that folding encoded values gives the same result as apply for floats.
+   */
+  @Test
+  public void testFloatFunctions() {
+    final Codec<float[]> codec = new PrimitiveArrayCodecs.FloatArrayCodec();
+    assertArrayEquals(F1, codec.decode(codec.encode(F1)), 0);
+    assertArrayEquals(new float[]{2.0f, 2.0f, -3.75f},
+        foldAll(new PrimitiveArrayReduceFunctions.FloatSum(), codec, F1, F2), 0);
+    assertArrayEquals(new float[]{0.5f, -2.0f, -7.0f},
+        foldAll(new PrimitiveArrayReduceFunctions.FloatMin(), codec, F1, F2), 0);
+    assertArrayEquals(new float[]{1.5f, 4.0f, 3.25f},
+        foldAll(new PrimitiveArrayReduceFunctions.FloatMax(), codec, F1, F2), 0);
+  }
+
+  /**
+   * Test that folding encoded values gives the same result as apply for ints.
+   */
+  @Test
+  public void testIntFunctions() {
+    final Codec<int[]> codec = new PrimitiveArrayCodecs.IntArrayCodec();
+    assertArrayEquals(I1, codec.decode(codec.encode(I1)));
+    assertArrayEquals(new int[]{6, 5, Integer.MIN_VALUE, 0},
+        foldAll(new PrimitiveArrayReduceFunctions.IntSum(), codec, I1, I2));
+    assertArrayEquals(new int[]{1, -2, Integer.MIN_VALUE, -40},
+        foldAll(new PrimitiveArrayReduceFunctions.IntMin(), codec, I1, I2));
+    assertArrayEquals(new int[]{5, 7, 0, 40},
+        foldAll(new PrimitiveArrayReduceFunctions.IntMax(), codec, I1, I2));
+  }
+
+  /**
+   * Test that the accumulator is reused across reductions and the inputs are left unchanged.
+   */
+  @Test
+  public void testAccumulatorReused() {
+    final PrimitiveArrayReduceFunctions.DoubleSum sum = new PrimitiveArrayReduceFunctions.DoubleSum();
+    final double[] d1 = D1.clone();
+    final double[] first = sum.fold(sum.fold(null, d1), D2);
+    final double[] second = sum.foldEncoded(null, new PrimitiveArrayCodecs.DoubleArrayCodec().encode(D2));
+    assertSame(first, second);
+    assertArrayEquals(D1, d1, 0);
+    assertArrayEquals(D2, second, 0);
+  }
+
+  /**
+   * Test that arrays of different lengths are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testLengthMismatch() {
+    final PrimitiveArrayReduceFunctions.IntSum sum = new PrimitiveArrayReduceFunctions.IntSum();
+    sum.foldEncoded(sum.fold(null, I1), new PrimitiveArrayCodecs.IntArrayCodec().encode(new int[]{1}));
+  }
+
+  /**
+   * Fold e1 decoded and e2 encoded, check the result against apply and return it.
+   */
+  private static <T> T foldAll(final StreamingReduceFunction<T> function, final Codec<T> codec,
+                               final T e1, final T e2) {
+    final T applied = function.apply(Arrays.asList(e1, e2));
+    final T folded = function.foldEncoded(function.fold(null, e1), codec.encode(e2));
+    assertArrayEquals(codec.encode(applied), codec.encode(folded));
+    return folded;
+  }
+}
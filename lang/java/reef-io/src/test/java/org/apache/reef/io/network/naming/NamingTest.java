@@ -19,29 +19,43 @@
 package org.apache.reef.io.network.naming;
 
 import org.apache.reef.io.naming.NameAssignment;
+import org.apache.reef.io.network.naming.exception.NamingException;
 import org.apache.reef.io.network.naming.parameters.*;
+import org.apache.reef.io.network.naming.serialization.NamingLookupResponse;
+import org.apache.reef.io.network.naming.serialization.NamingMessage;
+import org.apache.reef.io.network.naming.serialization.NamingUpdate;
 import org.apache.reef.io.network.util.StringIdentifierFactory;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.util.Optional;
+import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.impl.SyncStage;
+import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.TransportFactory;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.net.InetSocketAddress;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import static org.mockito.Mockito.*;
+
 /**
  * Naming server and client test.
  */
@@ -50,12 +64,14 @@ public class NamingTest {
   private static final Logger LOG = Logger.getLogger(NamingTest.class.getName());
   private static final int RETRY_COUNT;
   private static final int RETRY_TIMEOUT;
+  private static final long NEGATIVE_CACHE_TIMEOUT;
 
   static {
     try {
       final Injector injector = Tang.Factory.getTang().newInjector();
       RETRY_COUNT = injector.getNamedInstance(NameResolverRetryCount.class);
       RETRY_TIMEOUT = injector.getNamedInstance(NameResolverRetryTimeout.class);
+      NEGATIVE_CACHE_TIMEOUT = injector.getNamedInstance(NameResolverNegativeCacheTimeout.class);
     } catch (final InjectionException ex) {
       final String msg = "Exception while trying to find default values for retryCount & Timeout";
       LOG.log(Level.SEVERE, msg, ex);
@@ -102,7 +118,7 @@ public class NamingTest {
 
       // run a client
       try (final NameLookupClient client =
-               getNewNameLookupClient(localAddress, port, TTL, RETRY_COUNT, RETRY_TIMEOUT,
+               getNewNameLookupClient(localAddress, port, TTL, RETRY_COUNT, RETRY_TIMEOUT, NEGATIVE_CACHE_TIMEOUT,
                    Optional.of(this.localAddressProvider), Optional.of(this.factory))) {
 
         final Identifier id1 = this.factory.getNewInstance("task1");
@@ -128,6 +144,7 @@ public class NamingTest {
                                                          final long timeout,
                                                          final int retryCount,
                                                          final int retryTimeout,
+                                                         final long negativeCacheTimeout,
                                                          final Optional<LocalAddressProvider> localAddressProvider,
                                                          final Optional<IdentifierFactory> factory)
       throws InjectionException {
@@ -139,6 +156,7 @@ public class NamingTest {
         .bindNamedParameter(NameResolverCacheTimeout.class, Long.toString(timeout))
         .bindNamedParameter(NameResolverRetryCount.class, Integer.toString(retryCount))
         .bindNamedParameter(NameResolverRetryTimeout.class, Integer.toString(retryTimeout))
+        .bindNamedParameter(NameResolverNegativeCacheTimeout.class, Long.toString(negativeCacheTimeout))
         .build();
 
     final Injector injector = Tang.Factory.getTang().newInjector(injectorConf);
@@ -187,7 +205,7 @@ public class NamingTest {
 
         // run a client
         try (final NameLookupClient client =
-            getNewNameLookupClient(localAddress, port, TTL, RETRY_COUNT, RETRY_TIMEOUT,
+            getNewNameLookupClient(localAddress, port, TTL, RETRY_COUNT, RETRY_TIMEOUT, NEGATIVE_CACHE_TIMEOUT,
                 Optional.of(this.localAddressProvider), Optional.of(this.factory))) {
           final Identifier id1 = this.factory.getNewInstance("task1");
           final Identifier id2 = this.factory.getNewInstance("task2");
@@ -251,6 +269,218 @@ public class NamingTest {
     }
   }
 
+  /**
+   * Test that concurrent lookups of many identifiers are all answered, that an identifier
+   * the server does not know is remembered for the negative cache timeout, and that prefetch
+   * skips unknown identifiers.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testBatchedAndNegativeLookup() throws Exception {
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final long negativeCacheTimeout = 500;
+    final int numTasks = 50;
+
+    final Map<Identifier, InetSocketAddress> idToAddrMap = new HashMap<>();
+    for (int i = 0; i < numTasks; i++) {
+      idToAddrMap.put(this.factory.getNewInstance("task" + i), new InetSocketAddress(localAddress, 7000 + i));
+    }
+    final Identifier unknownId = this.factory.getNewInstance("unknown");
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      for (final Identifier id : idToAddrMap.keySet()) {
+        server.register(id, idToAddrMap.get(id));
+      }
+
+      try (final NameLookupClient client =
+               getNewNameLookupClient(localAddress, server.getPort(), TTL, RETRY_COUNT, RETRY_TIMEOUT,
+                   negativeCacheTimeout, Optional.of(this.localAddressProvider), Optional.of(this.factory))) {
+
+        final ExecutorService e = Executors.newFixedThreadPool(numTasks);
+        final Map<Identifier, Future<InetSocketAddress>> futures = new HashMap<>();
+        for (final Identifier id : idToAddrMap.keySet()) {
+          futures.put(id, e.submit(new Callable<InetSocketAddress>() {
+            @Override
+            public InetSocketAddress call() throws Exception {
+              return client.lookup(id);
+            }
+          }));
+        }
+        final Map<Identifier, InetSocketAddress> respMap = new HashMap<>();
+        for (final Map.Entry<Identifier, Future<InetSocketAddress>> entry : futures.entrySet()) {
+          respMap.put(entry.getKey(), entry.getValue().get());
+        }
+        e.shutdown();
+        Assert.assertTrue(isEqual(idToAddrMap, respMap));
+
+        client.prefetch(Arrays.asList(unknownId, this.factory.getNewInstance("task0")));
+        server.register(unknownId, new InetSocketAddress(localAddress, 8000));
+        try {
+          client.remoteLookup(unknownId);
+          Assert.fail("An identifier that was just not found must not be looked up again");
+        } catch (final NamingException ex) {
+          LOG.log(Level.FINEST, "Expected exception", ex);
+        }
+
+        Thread.sleep(negativeCacheTimeout + 100);
+        Assert.assertEquals(new InetSocketAddress(localAddress, 8000), client.remoteLookup(unknownId));
+      }
+    }
+  }
+
+  /**
+   * Addresses pushed to a subscribed NameLookupClient replace the cached ones at once.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testSubscribedLookup() throws Exception {
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Identifier id = this.factory.getNewInstance("task0");
+    final Identifier otherId = this.factory.getNewInstance("other0");
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      server.register(id, new InetSocketAddress(localAddress, 7001));
+      server.register(otherId, new InetSocketAddress(localAddress, 7101));
+
+      try (final NameLookupClient client =
+               getNewNameLookupClient(localAddress, server.getPort(), TTL, RETRY_COUNT, RETRY_TIMEOUT,
+                   NEGATIVE_CACHE_TIMEOUT, Optional.of(this.localAddressProvider), Optional.of(this.factory))) {
+
+        Assert.assertEquals(new InetSocketAddress(localAddress, 7001), client.lookup(id));
+        Assert.assertEquals(new InetSocketAddress(localAddress, 7101), client.lookup(otherId));
+        client.subscribe(Arrays.asList("task0"));
+
+        // the cached addresses would be returned until the TTL expires without the pushed updates
+        server.register(id, new InetSocketAddress(localAddress, 7002));
+        server.register(otherId, new InetSocketAddress(localAddress, 7102));
+        waitForAddress(client, id, new InetSocketAddress(localAddress, 7002));
+        Assert.assertEquals(new InetSocketAddress(localAddress, 7101), client.lookup(otherId));
+
+        server.unregister(id);
+        final long deadline = System.currentTimeMillis() + TTL;
+        while (true) {
+          try {
+            client.lookup(id);
+          } catch (final NamingException | ExecutionException ex) {
+            LOG.log(Level.FINEST, "Expected exception", ex);
+            break;
+          }
+          Assert.assertTrue("An unregistered identifier must not be resolved", System.currentTimeMillis() < deadline);
+          Thread.sleep(10);
+        }
+      }
+    }
+  }
+
+  /**
+   * A subscription prefix matches whole segments of an identifier.
+   */
+  @Test
+  public void testSubscriptionPrefixSegments() {
+    Assert.assertTrue(NameServerImpl.matchesPrefix("task-1", "task-1"));
+    Assert.assertTrue(NameServerImpl.matchesPrefix("task-1.0", "task-1"));
+    Assert.assertTrue(NameServerImpl.matchesPrefix("task-10", "task-"));
+    Assert.assertTrue(NameServerImpl.matchesPrefix("task-10", ""));
+    Assert.assertFalse(NameServerImpl.matchesPrefix("task-10", "task-1"));
+    Assert.assertFalse(NameServerImpl.matchesPrefix("task", "task-1"));
+  }
+
+  /**
+   * The name server stops pushing to a subscriber after a push to it failed or its connection closed.
+   *
+   * @throws Exception
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSubscriptionDropped() throws Exception {
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Identifier id = this.factory.getNewInstance("task1");
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      final NameServerImpl serverImpl = (NameServerImpl) server;
+
+      final Link<byte[]> failing = mock(Link.class);
+      when(failing.getRemoteAddress()).thenReturn(new InetSocketAddress(localAddress, 7101));
+      doThrow(new IllegalStateException("Link closed")).when(failing).write(any(byte[].class));
+      final Link<byte[]> closing = mock(Link.class);
+      final InetSocketAddress closingAddress = new InetSocketAddress(localAddress, 7102);
+      when(closing.getRemoteAddress()).thenReturn(closingAddress);
+
+      // both subscriptions get the current assignments at once; the failing one is dropped
+      serverImpl.subscribe(failing, Arrays.asList("task1"));
+      serverImpl.subscribe(closing, Arrays.asList("task1"));
+      verify(failing, times(1)).write(any(byte[].class));
+      verify(closing, times(1)).write(any(byte[].class));
+
+      server.register(this.factory.getNewInstance("task10"), new InetSocketAddress(localAddress, 7010));
+      server.register(id, new InetSocketAddress(localAddress, 7001));
+      verify(failing, times(1)).write(any(byte[].class));
+      verify(closing, times(2)).write(any(byte[].class));
+
+      serverImpl.onConnectionClosed(closingAddress);
+      server.register(id, new InetSocketAddress(localAddress, 7002));
+      verify(closing, times(2)).write(any(byte[].class));
+    }
+  }
+
+  private static void waitForAddress(final NameLookupClient client, final Identifier id,
+                                     final InetSocketAddress expected) throws Exception {
+    final long deadline = System.currentTimeMillis() + TTL;
+    while (!expected.equals(client.lookup(id))) {
+      Assert.assertTrue("Pushed address of " + id + " was not seen", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Test that a late response to an earlier lookup request is not taken for the response to a later one.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testLateResponseIsDropped() throws Exception {
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Identifier id = this.factory.getNewInstance("task0");
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      server.register(id, new InetSocketAddress(localAddress, 7001));
+
+      final BlockingQueue<NamingLookupResponse> replyQueue = new LinkedBlockingQueue<>();
+      final Codec<NamingMessage> codec = NamingCodecFactory.createFullCodec(this.factory);
+      final EventHandler<NamingUpdate> updateHandler = new EventHandler<NamingUpdate>() {
+        @Override
+        public void onNext(final NamingUpdate update) {
+        }
+      };
+      try (final Transport transport = injector.getInstance(TransportFactory.class).newInstance(localAddress, 0,
+               new SyncStage<>(new NamingLookupClientHandler(
+                   new NamingLookupResponseHandler(replyQueue), updateHandler, codec)),
+               null, RETRY_COUNT, RETRY_TIMEOUT);
+           final NameLookupClient client = new NameLookupClient(localAddress, server.getPort(), TTL, this.factory,
+               RETRY_COUNT, RETRY_TIMEOUT, NEGATIVE_CACHE_TIMEOUT, replyQueue, transport)) {
+
+        final List<NameAssignment> stale =
+            Arrays.<NameAssignment>asList(new NameAssignmentTuple(id, new InetSocketAddress(localAddress, 7999)));
+        replyQueue.add(new NamingLookupResponse(stale, -1));
+        Assert.assertEquals(new InetSocketAddress(localAddress, 7001), client.remoteLookup(id));
+      }
+    }
+  }
+
   /**
    * NameServer and NameRegistryClient test.
    *
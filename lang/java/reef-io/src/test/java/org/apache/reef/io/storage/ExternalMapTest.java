@@ -20,10 +20,19 @@ package org.apache.reef.io.storage;
 
 import org.apache.reef.io.ExternalMap;
 import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.storage.local.LocalStorageService;
+import org.apache.reef.io.storage.local.MappedFileMap;
 import org.apache.reef.io.storage.ram.CodecRamMap;
 import org.apache.reef.io.storage.ram.RamMap;
 import org.apache.reef.io.storage.ram.RamStorageService;
 import org.apache.reef.io.storage.util.IntegerCodec;
+import org.apache.reef.runtime.common.evaluator.parameters.ApplicationIdentifier;
+import org.apache.reef.runtime.common.evaluator.parameters.EvaluatorIdentifier;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -39,6 +48,56 @@ public class ExternalMapTest {
     genericTest(m);
   }
 
+  @Test
+  public void testMappedFileMap() throws InjectionException, BindException {
+    final JavaConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder();
+    cb.bindNamedParameter(ApplicationIdentifier.class, "externalMapTest");
+    cb.bindNamedParameter(EvaluatorIdentifier.class, "mapped");
+    final Injector injector = Tang.Factory.getTang().newInjector(cb.build());
+    injector.bindVolatileParameter(MappedFileMap.MappedFileMapCodec.class, new IntegerCodec());
+    final LocalStorageService service = injector.getInstance(LocalStorageService.class);
+    try {
+      @SuppressWarnings("unchecked")
+      final ExternalMap<Integer> m = injector.getInstance(MappedFileMap.class);
+      genericTest(m);
+    } finally {
+      service.getScratchSpace().delete();
+    }
+  }
+
+  @Test
+  public void testMappedFileMapCompaction() {
+    final LocalStorageService service = new LocalStorageService("externalMapTest", "mapped");
+    try {
+      // small segments, so that overwriting the entries makes the map compact its segments
+      final MappedFileMap<Integer> m = new MappedFileMap<>(service, new IntegerCodec(), 1024);
+      for (int round = 0; round < 10; round++) {
+        for (int i = 0; i < 2000; i++) {
+          final Integer previous = m.put("key" + i, round * 10000 + i);
+          if (round > 0) {
+            Assert.assertEquals((round - 1) * 10000 + i, (int) previous);
+          }
+        }
+      }
+      for (int i = 0; i < 2000; i += 2) {
+        Assert.assertEquals(90000 + i, (int) m.remove("key" + i));
+      }
+      Assert.assertEquals(1000, m.size());
+      for (int i = 0; i < 2000; i++) {
+        if (i % 2 == 0) {
+          Assert.assertFalse(m.containsKey("key" + i));
+        } else {
+          Assert.assertEquals(90000 + i, (int) m.get("key" + i));
+        }
+      }
+      // keys are compared by content, not by type
+      Assert.assertEquals(90001, (int) m.get(new StringBuilder("key1")));
+      Assert.assertTrue(service.getScratchSpace().usedSpace() < 64 * 1024);
+    } finally {
+      service.getScratchSpace().delete();
+    }
+  }
+
   @Test
   public void testRamMap() {
     final RamStorageService ramStore = new RamStorageService();
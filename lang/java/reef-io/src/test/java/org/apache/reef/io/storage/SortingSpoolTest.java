@@ -21,14 +21,28 @@ package org.apache.reef.io.storage;
 import org.apache.reef.exception.evaluator.ServiceException;
 import org.apache.reef.io.Accumulator;
 import org.apache.reef.io.Spool;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.storage.local.LocalStorageService;
+import org.apache.reef.io.storage.local.SortingFileSpool;
 import org.apache.reef.io.storage.ram.SortingRamSpool;
+import org.apache.reef.io.storage.util.IntegerCodec;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SortingSpoolTest {
 
+  private static final Comparator<Integer> INTEGER_ORDER = new Comparator<Integer>() {
+
+    @Override
+    public int compare(final Integer o1, final Integer o2) {
+      return Integer.compare(o1, o2);
+    }
+
+  };
+
   @Test
   public void testRamSpool() throws ServiceException {
     genericTest(new SortingRamSpool<Integer>(), new Comparator<Integer>() {
@@ -72,6 +86,116 @@ public class SortingSpoolTest {
     genericIteratorBeforeClose(s);
   }
 
+  @Test
+  public void testFileSpool() throws ServiceException {
+    final Comparator<Integer> backwards = new Comparator<Integer>() {
+
+      @Override
+      public int compare(final Integer o1, final Integer o2) {
+        return -1 * o1.compareTo(o2);
+      }
+
+    };
+    final LocalStorageService service = new LocalStorageService("sortingSpoolTest", "file");
+    // everything fits in memory
+    genericTest(new SortingFileSpool<>(service, new IntegerCodec(), backwards, 1 << 20), backwards);
+    // sorted runs of 10 elements, merged at once
+    genericTest(new SortingFileSpool<>(service, new IntegerCodec(), backwards, 40), backwards);
+    // sorted runs of 3 elements, merged 4 at a time
+    genericTest(new SortingFileSpool<>(service, new IntegerCodec(), backwards, 12, 4), backwards);
+    service.getScratchSpace().delete();
+  }
+
+  @Test
+  public void testFileSpoolEncodesOnce() throws ServiceException {
+    final AtomicInteger encoded = new AtomicInteger();
+    final Codec<Integer> countingCodec = new Codec<Integer>() {
+      private final IntegerCodec codec = new IntegerCodec();
+
+      @Override
+      public byte[] encode(final Integer obj) {
+        encoded.incrementAndGet();
+        return codec.encode(obj);
+      }
+
+      @Override
+      public Integer decode(final byte[] buf) {
+        return codec.decode(buf);
+      }
+    };
+    final LocalStorageService service = new LocalStorageService("sortingSpoolTest", "file");
+    try {
+      // sorted runs of 10 elements, merged while iterating
+      genericTest(new SortingFileSpool<>(service, countingCodec, INTEGER_ORDER, 40), INTEGER_ORDER);
+      Assert.assertEquals(100, encoded.get());
+    } finally {
+      service.getScratchSpace().delete();
+    }
+  }
+
+  @Test
+  public void testFileSpoolIteratorClose() throws Exception {
+    final LocalStorageService service = new LocalStorageService("sortingSpoolTest", "file");
+    try {
+      final Spool<Integer> s = new SortingFileSpool<>(service, new IntegerCodec(), INTEGER_ORDER, 8);
+      final Accumulator<Integer> a = s.accumulator();
+      for (int i = 9; i >= 0; i--) {
+        a.add(i);
+      }
+      a.close();
+
+      final Iterator<Integer> abandoned = s.iterator();
+      Assert.assertEquals(0, (int) abandoned.next());
+      Assert.assertTrue("Iterator over sorted runs must be closeable", abandoned instanceof AutoCloseable);
+      ((AutoCloseable) abandoned).close();
+
+      int expected = 0;
+      for (final int i : s) {
+        Assert.assertEquals(expected++, i);
+      }
+      Assert.assertEquals(10, expected);
+    } finally {
+      service.getScratchSpace().delete();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFileSpoolAddAfterClose() throws ServiceException {
+    final LocalStorageService service = new LocalStorageService("sortingSpoolTest", "file");
+    try {
+      genericAddAfterCloseTest(new SortingFileSpool<>(service, new IntegerCodec(), INTEGER_ORDER, 4));
+    } finally {
+      service.getScratchSpace().delete();
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testFileSpoolCantRemove() throws ServiceException {
+    final LocalStorageService service = new LocalStorageService("sortingSpoolTest", "file");
+    try {
+      final Spool<Integer> s = new SortingFileSpool<>(service, new IntegerCodec(), INTEGER_ORDER, 4);
+      final Accumulator<Integer> a = s.accumulator();
+      a.add(10);
+      a.add(5);
+      a.close();
+      final Iterator<Integer> it = s.iterator();
+      Assert.assertEquals(5, (int) it.next());
+      it.remove();
+    } finally {
+      service.getScratchSpace().delete();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFileSpoolIteratorBeforeClose() throws ServiceException {
+    final LocalStorageService service = new LocalStorageService("sortingSpoolTest", "file");
+    try {
+      genericIteratorBeforeClose(new SortingFileSpool<>(service, new IntegerCodec(), INTEGER_ORDER, 4));
+    } finally {
+      service.getScratchSpace().delete();
+    }
+  }
+
   void genericTest(final Spool<Integer> s, final Comparator<Integer> comparator)
       throws ServiceException {
     final List<Integer> l = new ArrayList<>();
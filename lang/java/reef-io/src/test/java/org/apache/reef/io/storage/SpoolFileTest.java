@@ -19,6 +19,7 @@
 package org.apache.reef.io.storage;
 
 import org.apache.reef.exception.evaluator.ServiceException;
+import org.apache.reef.exception.evaluator.ServiceRuntimeException;
 import org.apache.reef.io.Accumulable;
 import org.apache.reef.io.Accumulator;
 import org.apache.reef.io.Spool;
@@ -46,6 +47,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.util.Iterator;
 
 public class SpoolFileTest {
@@ -171,6 +173,53 @@ public class SpoolFileTest {
     service.getScratchSpace().delete();
   }
 
+  @Test
+  public void testCodecFileBlocks() throws ServiceException {
+    final LocalStorageService service = new LocalStorageService("spoolTest", "file");
+    final Codec<Integer> c = new IntegerCodec();
+    for (final boolean compress : new boolean[]{false, true}) {
+      final CodecFileAccumulable<Integer, Codec<Integer>> f = new CodecFileAccumulable<>(service, c, compress);
+      // enough elements to fill several blocks
+      try (Accumulator<Integer> acc = f.accumulator()) {
+        for (int i = 0; i < 100000; i++) {
+          acc.add(i);
+        }
+      }
+      int i = 0;
+      for (final int j : new CodecFileIterable<>(new File(f.getName()), c)) {
+        Assert.assertEquals(i, j);
+        i++;
+      }
+      Assert.assertEquals(100000, i);
+    }
+    service.getScratchSpace().delete();
+  }
+
+  @Test(expected = ServiceRuntimeException.class)
+  public void testCodecFileChecksum() throws ServiceException, IOException {
+    final LocalStorageService service = new LocalStorageService("spoolTest", "file");
+    final Codec<Integer> c = new IntegerCodec();
+    try {
+      final CodecFileAccumulable<Integer, Codec<Integer>> f = new CodecFileAccumulable<>(service, c);
+      try (Accumulator<Integer> acc = f.accumulator()) {
+        for (int i = 0; i < 1000; i++) {
+          acc.add(i);
+        }
+      }
+      try (RandomAccessFile raf = new RandomAccessFile(f.getName(), "rw")) {
+        raf.seek(100);
+        final int original = raf.read();
+        raf.seek(100);
+        raf.write(original ^ 0xFF);
+      }
+      for (final int j : new CodecFileIterable<>(new File(f.getName()), c)) {
+        Assert.assertTrue(j >= 0);
+      }
+    } finally {
+      service.getScratchSpace().delete();
+    }
+  }
+
   protected void test(final Spool<Integer> f) throws ServiceException {
     test(f, f);
   }
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.storage.local;
+
+import org.apache.reef.io.storage.util.IntegerCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the internals of {@link MappedFileMap}; the ExternalMap contract is tested in ExternalMapTest.
+ */
+public final class MappedFileMapTest {
+
+  /**
+   * An index of many small pages, grown and compacted, still finds every entry.
+   */
+  @Test
+  public void testPagedIndex() {
+    final LocalStorageService service = new LocalStorageService("mappedFileMapTest", "paged");
+    try {
+      // 16 slots per index page and small segments, so that the index spans many pages
+      // and overwriting the entries makes the map compact its segments
+      final MappedFileMap<Integer> m = new MappedFileMap<>(service, new IntegerCodec(), 1024, 4);
+      for (int round = 0; round < 3; round++) {
+        for (int i = 0; i < 5000; i++) {
+          m.put("key" + i, round * 10000 + i);
+        }
+      }
+      for (int i = 0; i < 5000; i += 2) {
+        Assert.assertEquals(20000 + i, (int) m.remove("key" + i));
+      }
+      Assert.assertEquals(2500, m.size());
+      for (int i = 0; i < 5000; i++) {
+        if (i % 2 == 0) {
+          Assert.assertFalse(m.containsKey("key" + i));
+        } else {
+          Assert.assertEquals(20000 + i, (int) m.get("key" + i));
+        }
+      }
+    } finally {
+      service.getScratchSpace().delete();
+    }
+  }
+}
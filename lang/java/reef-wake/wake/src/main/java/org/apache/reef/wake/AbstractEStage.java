@@ -19,11 +19,15 @@
 package org.apache.reef.wake;
 
 import org.apache.reef.wake.metrics.Meter;
+import org.apache.reef.wake.metrics.StageMetrics;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * An {@link EStage} that implements metering.
+ * <p>
+ * Its {@link StageMetrics} are registered with the metrics registry
+ * of {@link org.apache.reef.wake.impl.StageManager} when the stage registers with it.
  *
  * @param <T> type
  */
@@ -31,6 +35,7 @@ public abstract class AbstractEStage<T> implements EStage<T> {
 
   protected final AtomicBoolean closed;
   protected final String name;
+  private final StageMetrics metrics;
   private final Meter inMeter;
 
   /**
@@ -46,8 +51,18 @@ public abstract class AbstractEStage<T> implements EStage<T> {
   public AbstractEStage(final String stageName) {
     this.closed = new AtomicBoolean(false);
     this.name = stageName;
-    this.inMeter = new Meter(stageName + "_in");
-    this.outMeter = new Meter(stageName + "_out");
+    this.metrics = new StageMetrics(stageName);
+    this.inMeter = metrics.getInMeter();
+    this.outMeter = metrics.getOutMeter();
+  }
+
+  /**
+   * Gets the metrics of this stage.
+   *
+   * @return the stage metrics
+   */
+  public StageMetrics getMetrics() {
+    return metrics;
   }
 
   /**
@@ -88,4 +103,21 @@ public abstract class AbstractEStage<T> implements EStage<T> {
     outMeter.mark(1);
   }
 
+  /**
+   * Records the time an event waited before its handling started.
+   *
+   * @param nanos the wait time in nanoseconds
+   */
+  protected void recordQueueWait(final long nanos) {
+    metrics.getQueueWaitHistogram().update(nanos);
+  }
+
+  /**
+   * Records the time the handler took for an event.
+   *
+   * @param nanos the handler time in nanoseconds
+   */
+  protected void recordServiceTime(final long nanos) {
+    metrics.getServiceTimeHistogram().update(nanos);
+  }
 }
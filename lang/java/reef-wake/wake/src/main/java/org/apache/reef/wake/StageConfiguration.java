@@ -20,6 +20,7 @@ package org.apache.reef.wake;
 
 import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.wake.impl.LoggingEventHandler;
 import org.apache.reef.wake.rx.Observer;
 
 import java.util.concurrent.ExecutorService;
@@ -64,6 +65,38 @@ public final class StageConfiguration {
   public static final class Capacity implements Name<Integer> {
   }
 
+  /**
+   * What a stage with a bounded queue does with an event that does not fit.
+   */
+  @NamedParameter(doc = "What a stage with a bounded queue does with an event that does not fit: " +
+      "BLOCK, DROP_OLDEST, DROP_NEWEST or HANDLER.")
+  public static final class OverflowPolicy implements Name<String> {
+  }
+
+  /**
+   * The handler of the events that do not fit in the bounded queue of the stage.
+   */
+  @NamedParameter(doc = "The handler of the events that do not fit in the bounded queue of the stage. " +
+      "By default, they are logged.", default_class = LoggingEventHandler.class)
+  public static final class OverflowHandler implements Name<EventHandler<?>> {
+  }
+
+  /**
+   * How the threads of a ring buffer stage wait for events or for free slots.
+   */
+  @NamedParameter(doc = "How the threads of a ring buffer stage wait for events or for free slots: " +
+      "BUSY_SPIN, YIELD or PARK.", default_value = "PARK")
+  public static final class WaitStrategy implements Name<String> {
+  }
+
+  /**
+   * Whether the stage runs its event handler on virtual threads.
+   */
+  @NamedParameter(doc = "Whether the stage runs its event handler on virtual threads. " +
+      "Stages fall back to platform threads if the JVM does not support virtual threads.", default_value = "false")
+  public static final class VirtualThreads implements Name<Boolean> {
+  }
+
   /**
    * The executor service for the stage.
    */
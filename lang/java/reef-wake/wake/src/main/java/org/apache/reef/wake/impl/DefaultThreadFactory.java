@@ -18,17 +18,28 @@
  */
 package org.apache.reef.wake.impl;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * A default thread factory implementation that names created threads.
+ * <p>
+ * The factory can create virtual threads instead of platform threads on JVMs that support them.
+ * Elsewhere it falls back to platform threads.
  */
 public final class DefaultThreadFactory implements ThreadFactory {
+  private static final Logger LOG = Logger.getLogger(DefaultThreadFactory.class.getName());
   private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+  private static final ThreadFactory VIRTUAL_THREAD_FACTORY = newVirtualThreadFactory();
   private final ThreadGroup group;
   private final AtomicInteger threadNumber = new AtomicInteger(1);
   private final String prefix;
+  private final boolean virtual;
   private Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
 
   /**
@@ -37,10 +48,17 @@ public final class DefaultThreadFactory implements ThreadFactory {
    * @param prefix the name prefix of the created thread
    */
   public DefaultThreadFactory(final String prefix) {
-    final SecurityManager s = System.getSecurityManager();
-    this.group = (s != null) ? s.getThreadGroup() : Thread.currentThread().getThreadGroup();
-    this.prefix = prefix + "-pool-" + POOL_NUMBER.getAndIncrement() + "-thread-";
-    this.uncaughtExceptionHandler = null;
+    this(prefix, null, false);
+  }
+
+  /**
+   * Constructs a default thread factory.
+   *
+   * @param prefix         the name prefix of the created thread
+   * @param virtualThreads whether to create virtual threads if the JVM supports them
+   */
+  public DefaultThreadFactory(final String prefix, final boolean virtualThreads) {
+    this(prefix, null, virtualThreads);
   }
 
   /**
@@ -50,10 +68,56 @@ public final class DefaultThreadFactory implements ThreadFactory {
    * @param uncaughtExceptionHandler the uncaught exception handler of the created thread
    */
   public DefaultThreadFactory(final String prefix, final Thread.UncaughtExceptionHandler uncaughtExceptionHandler) {
+    this(prefix, uncaughtExceptionHandler, false);
+  }
+
+  /**
+   * Constructs a default thread factory.
+   *
+   * @param prefix                   the name prefix of the created thread
+   * @param uncaughtExceptionHandler the uncaught exception handler of the created thread
+   * @param virtualThreads           whether to create virtual threads if the JVM supports them
+   */
+  public DefaultThreadFactory(final String prefix, final Thread.UncaughtExceptionHandler uncaughtExceptionHandler,
+                              final boolean virtualThreads) {
     final SecurityManager s = System.getSecurityManager();
     this.group = (s != null) ? s.getThreadGroup() : Thread.currentThread().getThreadGroup();
     this.prefix = prefix + "-pool-" + POOL_NUMBER.getAndIncrement() + "-thread-";
     this.uncaughtExceptionHandler = uncaughtExceptionHandler;
+    if (virtualThreads && VIRTUAL_THREAD_FACTORY == null) {
+      LOG.log(Level.FINE, "Virtual threads are not supported; {0} creates platform threads", prefix);
+    }
+    this.virtual = virtualThreads && VIRTUAL_THREAD_FACTORY != null;
+  }
+
+  /**
+   * Checks whether the JVM supports virtual threads.
+   *
+   * @return true if virtual threads can be created
+   */
+  public static boolean isVirtualThreadSupported() {
+    return VIRTUAL_THREAD_FACTORY != null;
+  }
+
+  /**
+   * Checks whether the factory creates virtual threads.
+   *
+   * @return true if the created threads are virtual threads
+   */
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  /**
+   * Creates an executor that runs tasks on a fixed pool of threads of this factory.
+   * Virtual threads are pooled as well, so that the number of threads still bounds
+   * how many tasks run at once, as callers with a single thread rely on.
+   *
+   * @param numThreads the number of threads of the pool
+   * @return an executor
+   */
+  public ExecutorService newThreadPool(final int numThreads) {
+    return Executors.newFixedThreadPool(numThreads, this);
   }
 
   /**
@@ -72,6 +136,15 @@ public final class DefaultThreadFactory implements ThreadFactory {
    */
   @Override
   public Thread newThread(final Runnable r) {
+    if (virtual) {
+      // virtual threads are always daemon threads of normal priority
+      final Thread t = VIRTUAL_THREAD_FACTORY.newThread(r);
+      t.setName(prefix + threadNumber.getAndIncrement());
+      if (uncaughtExceptionHandler != null) {
+        t.setUncaughtExceptionHandler(uncaughtExceptionHandler);
+      }
+      return t;
+    }
     final Thread t = new Thread(group, r, prefix + threadNumber.getAndIncrement(), 0);
     if (t.isDaemon()) {
       t.setDaemon(false);
@@ -85,4 +158,21 @@ public final class DefaultThreadFactory implements ThreadFactory {
     return t;
   }
 
+  /**
+   * Looks up the virtual thread factory of the JVM, i.e. {@code Thread.ofVirtual().factory()}.
+   * It is looked up by reflection as the code is compiled for JVMs without virtual threads.
+   *
+   * @return the virtual thread factory, or null if the JVM does not support virtual threads
+   */
+  @SuppressWarnings("checkstyle:illegalcatch")
+  private static ThreadFactory newVirtualThreadFactory() {
+    try {
+      final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      final Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+      return (ThreadFactory) factory.invoke(builder);
+    } catch (final Exception e) {
+      LOG.log(Level.FINEST, "Virtual threads are not supported", e);
+      return null;
+    }
+  }
 }
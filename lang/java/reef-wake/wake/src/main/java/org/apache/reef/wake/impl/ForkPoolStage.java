@@ -71,6 +71,7 @@ public class ForkPoolStage<T> extends AbstractEStage<T> {
   @Override
   public void onNext(final T value) {
     beforeOnNext();
+    final long enqueueTime = System.nanoTime();
     pool.submit(new ForkJoinTask<T>() {
       @Override
       public T getRawResult() {
@@ -87,8 +88,14 @@ public class ForkPoolStage<T> extends AbstractEStage<T> {
 
       @Override
       protected boolean exec() {
-        handler.onNext(value);
-        afterOnNext();
+        final long startTime = System.nanoTime();
+        recordQueueWait(startTime - enqueueTime);
+        try {
+          handler.onNext(value);
+        } finally {
+          recordServiceTime(System.nanoTime() - startTime);
+          afterOnNext();
+        }
         return true;
       }
     });
@@ -97,6 +104,9 @@ public class ForkPoolStage<T> extends AbstractEStage<T> {
 
   @Override
   public void close() throws Exception {
+    if (closed.compareAndSet(false, true)) {
+      StageManager.instance().unregister(this);
+    }
     LOG.warning("close(): " + pool.getClass().getName() + " " + pool + " must really be close()'d");
   }
 
@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.AbstractEStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
+import org.apache.reef.wake.StageConfiguration.*;
+import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.exception.WakeRuntimeException;
+
+import javax.inject.Inject;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stage that executes an event handler with a fixed set of threads fed by a preallocated ring buffer.
+ * <p>
+ * Producers claim a slot by incrementing a sequence counter, store the event in it and publish the slot
+ * by writing its sequence number; a producer that would overtake the slowest consumer waits.
+ * Consumers claim the next sequence number from a shared work sequence, so each event is handled
+ * by exactly one thread. Slots are reused, so onNext does not allocate.
+ * Idle producers and consumers wait according to the {@link WaitStrategy}.
+ *
+ * @param <T> type
+ */
+public final class RingBufferStage<T> extends AbstractEStage<T> {
+  private static final Logger LOG = Logger.getLogger(RingBufferStage.class.getName());
+
+  /**
+   * How the threads of the stage wait for events or for free slots.
+   */
+  public enum WaitStrategy {
+    /**
+     * Spin on the sequence counters. Lowest latency, but burns a core per waiting thread.
+     */
+    BUSY_SPIN,
+    /**
+     * Yield the processor between checks.
+     */
+    YIELD,
+    /**
+     * Park the thread for a short while between checks.
+     */
+    PARK;
+
+    private static final long PARK_NANOS = 1000;
+
+    void idle() {
+      switch (this) {
+      case YIELD:
+        Thread.yield();
+        break;
+      case PARK:
+        LockSupport.parkNanos(PARK_NANOS);
+        break;
+      default:
+        break;
+      }
+    }
+  }
+
+  /**
+   * Put into a claimed slot instead of an event that was rejected because the stage closed.
+   */
+  private static final Object REJECTED = new Object();
+
+  private final EventHandler<T> handler;
+  private final EventHandler<Throwable> errorHandler;
+  private final WaitStrategy waitStrategy;
+  private final long shutdownTimeout = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+
+  private final int bufferSize;
+  private final int mask;
+  private final AtomicReferenceArray<Object> entries;
+  private final long[] enqueueTimes;
+  private final AtomicLongArray published;
+
+  /**
+   * The next sequence number to be claimed by a producer.
+   */
+  private final AtomicLong cursor = new AtomicLong(0);
+
+  /**
+   * The last sequence number claimed by a consumer.
+   */
+  private final AtomicLong workSequence = new AtomicLong(-1);
+
+  /**
+   * Per consumer, the sequence number below which it is done with the slots.
+   */
+  private final AtomicLongArray consumerSequences;
+
+  private final Thread[] consumers;
+
+  /**
+   * Constructs a ring buffer stage.
+   *
+   * @param name         the stage name
+   * @param handler      the event handler to execute
+   * @param numThreads   the number of threads to use
+   * @param bufferSize   the number of slots of the ring buffer; a power of two
+   * @param waitStrategy the name of the {@link WaitStrategy}
+   * @param errorHandler the error handler
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public RingBufferStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(NumberOfThreads.class) final int numThreads,
+                         @Parameter(Capacity.class) final int bufferSize,
+                         @Parameter(StageConfiguration.WaitStrategy.class) final String waitStrategy,
+                         @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    this(name, handler, numThreads, bufferSize, WaitStrategy.valueOf(waitStrategy), errorHandler);
+  }
+
+  /**
+   * Constructs a ring buffer stage.
+   *
+   * @param name         the stage name
+   * @param handler      the event handler to execute
+   * @param numThreads   the number of threads to use
+   * @param bufferSize   the number of slots of the ring buffer; a power of two
+   * @param waitStrategy the wait strategy
+   * @param errorHandler the error handler; null to log errors
+   * @throws WakeRuntimeException
+   */
+  public RingBufferStage(final String name,
+                         final EventHandler<T> handler,
+                         final int numThreads,
+                         final int bufferSize,
+                         final WaitStrategy waitStrategy,
+                         final EventHandler<Throwable> errorHandler) {
+    super(name);
+    if (numThreads <= 0) {
+      throw new WakeRuntimeException(name + " numThreads " + numThreads + " is less than or equal to 0");
+    }
+    if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+      throw new WakeRuntimeException(name + " bufferSize " + bufferSize + " is not a power of two");
+    }
+    this.handler = handler;
+    this.errorHandler = errorHandler;
+    this.waitStrategy = waitStrategy;
+    this.bufferSize = bufferSize;
+    this.mask = bufferSize - 1;
+    this.entries = new AtomicReferenceArray<>(bufferSize);
+    this.enqueueTimes = new long[bufferSize];
+    this.published = new AtomicLongArray(bufferSize);
+    for (int i = 0; i < bufferSize; ++i) {
+      this.published.set(i, -1);
+    }
+    this.consumerSequences = new AtomicLongArray(numThreads);
+    for (int i = 0; i < numThreads; ++i) {
+      this.consumerSequences.set(i, -1);
+    }
+
+    final DefaultThreadFactory threadFactory = new DefaultThreadFactory(name);
+    this.consumers = new Thread[numThreads];
+    for (int i = 0; i < numThreads; ++i) {
+      this.consumers[i] = threadFactory.newThread(new Consumer(i));
+      this.consumers[i].start();
+    }
+    StageManager.instance().register(this);
+  }
+
+  /**
+   * Puts the event into the next slot of the ring buffer, waiting for the slot to be free if needed.
+   *
+   * @param value the event
+   * @throws WakeRuntimeException if the stage is closed
+   */
+  @Override
+  public void onNext(final T value) {
+    if (closed.get()) {
+      throw new WakeRuntimeException(name + " is closed");
+    }
+    final long seq = cursor.getAndIncrement();
+    // checked again after the claim: a consumer only stops once the stage is closed and it has
+    // passed the cursor, so an event claimed before the stage closed is always handled
+    final boolean rejected = closed.get();
+    if (!rejected) {
+      beforeOnNext();
+    }
+    final long wrapPoint = seq - bufferSize;
+    while (wrapPoint > getMinimumConsumerSequence()) {
+      waitStrategy.idle();
+    }
+    final int index = (int) (seq & mask);
+    // a rejected event still fills its slot, so that the consumer waiting for it moves on
+    entries.lazySet(index, rejected ? REJECTED : value);
+    // published by the volatile write below
+    enqueueTimes[index] = System.nanoTime();
+    published.set(index, seq);
+    if (rejected) {
+      throw new WakeRuntimeException(name + " is closed");
+    }
+  }
+
+  private long getMinimumConsumerSequence() {
+    long min = Long.MAX_VALUE;
+    for (int i = 0; i < consumerSequences.length(); ++i) {
+      min = Math.min(min, consumerSequences.get(i));
+    }
+    return min;
+  }
+
+  /**
+   * Gets the number of events put into the stage and not handled yet.
+   *
+   * @return the queue length
+   */
+  public int getQueueLength() {
+    return (int) (getInMeter().getCount() - getOutMeter().getCount());
+  }
+
+  /**
+   * Closes the stage after the threads have handled the events already put into it.
+   *
+   * @throws Exception
+   */
+  @Override
+  public void close() throws Exception {
+    if (closed.compareAndSet(false, true)) {
+      StageManager.instance().unregister(this);
+      final long deadline = System.currentTimeMillis() + shutdownTimeout;
+      for (final Thread consumer : consumers) {
+        consumer.join(Math.max(1, deadline - System.currentTimeMillis()));
+      }
+      for (final Thread consumer : consumers) {
+        if (consumer.isAlive()) {
+          LOG.log(Level.WARNING, "{0} did not terminate in {1}ms.", new Object[]{consumer.getName(), shutdownTimeout});
+          consumer.interrupt();
+        }
+      }
+    }
+  }
+
+  /**
+   * Claims sequence numbers from the work sequence and handles the events in their slots.
+   */
+  private final class Consumer implements Runnable {
+
+    private final int id;
+
+    Consumer(final int id) {
+      this.id = id;
+    }
+
+    @Override
+    public void run() {
+      boolean processed = true;
+      long next = -1;
+      while (!Thread.currentThread().isInterrupted()) {
+        if (processed) {
+          processed = false;
+          do {
+            next = workSequence.get() + 1;
+            consumerSequences.set(id, next - 1);
+          } while (!workSequence.compareAndSet(next - 1, next));
+        }
+
+        final int index = (int) (next & mask);
+        if (published.get(index) == next) {
+          final Object value = entries.get(index);
+          final long enqueueTime = enqueueTimes[index];
+          entries.lazySet(index, null);
+          if (value != REJECTED) {
+            handle(value, enqueueTime);
+          }
+          processed = true;
+        } else if (closed.get() && next >= cursor.get()) {
+          // nothing left to handle; free the slots for good
+          consumerSequences.set(id, Long.MAX_VALUE);
+          LOG.log(Level.FINEST, "{0} consumer {1} done", new Object[]{name, id});
+          return;
+        } else {
+          waitStrategy.idle();
+        }
+      }
+    }
+
+    @SuppressWarnings({"checkstyle:illegalcatch", "unchecked"})
+    private void handle(final Object value, final long enqueueTime) {
+      final long startTime = System.nanoTime();
+      recordQueueWait(startTime - enqueueTime);
+      try {
+        handler.onNext((T) value);
+      } catch (final Throwable t) {
+        if (errorHandler != null) {
+          errorHandler.onNext(t);
+        } else {
+          LOG.log(Level.SEVERE, name + " Exception from event handler", t);
+        }
+      } finally {
+        recordServiceTime(System.nanoTime() - startTime);
+        afterOnNext();
+      }
+    }
+  }
+}
@@ -97,6 +97,7 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
   @Override
   public void close() throws Exception {
     if (closed.compareAndSet(false, true)) {
+      StageManager.instance().unregister(this);
       interrupted.set(true);
       thread.interrupt();
     }
@@ -126,7 +127,9 @@ public final class SingleThreadStage<T> extends AbstractEStage<T> {
       while (true) {
         try {
           final U value = queue.take();
+          final long startTime = System.nanoTime();
           handler.onNext(value);
+          SingleThreadStage.this.recordServiceTime(System.nanoTime() - startTime);
           SingleThreadStage.this.afterOnNext();
         } catch (final InterruptedException e) {
           if (interrupted.get()) {
@@ -18,7 +18,9 @@
  */
 package org.apache.reef.wake.impl;
 
+import org.apache.reef.wake.AbstractEStage;
 import org.apache.reef.wake.Stage;
+import org.apache.reef.wake.metrics.MetricsRegistry;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -29,6 +31,7 @@ import java.util.logging.Logger;
 
 /**
  * A manager that manages all the stage.
+ * It also registers the metrics of the stages that have them with its {@link MetricsRegistry}.
  */
 public final class StageManager implements Stage {
 
@@ -38,6 +41,7 @@ public final class StageManager implements Stage {
 
   private final List<Stage> stages = Collections.synchronizedList(new ArrayList<Stage>());
   private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final MetricsRegistry metricsRegistry = new MetricsRegistry();
 
   private StageManager() {
     LOG.log(Level.FINE, "StageManager adds a shutdown hook");
@@ -64,12 +68,42 @@ public final class StageManager implements Stage {
   public void register(final Stage stage) {
     LOG.log(Level.FINEST, "StageManager adds stage {0}", stage);
     this.stages.add(stage);
+    if (stage instanceof AbstractEStage) {
+      this.metricsRegistry.register(((AbstractEStage<?>) stage).getMetrics());
+    }
+  }
+
+  /**
+   * Removes a closed stage and unregisters its metrics.
+   *
+   * @param stage the stage
+   */
+  public void unregister(final Stage stage) {
+    LOG.log(Level.FINEST, "StageManager removes stage {0}", stage);
+    this.stages.remove(stage);
+    if (stage instanceof AbstractEStage) {
+      this.metricsRegistry.unregister(((AbstractEStage<?>) stage).getMetrics());
+    }
+  }
+
+  /**
+   * Gets the registry of the metrics of the registered stages.
+   *
+   * @return the metrics registry
+   */
+  public MetricsRegistry getMetricsRegistry() {
+    return this.metricsRegistry;
   }
 
   @Override
   public void close() throws Exception {
     if (this.closed.compareAndSet(false, true)) {
-      for (final Stage stage : this.stages) {
+      // closing a stage unregisters it, so the stages are closed from a copy of the list
+      final List<Stage> stagesToClose;
+      synchronized (this.stages) {
+        stagesToClose = new ArrayList<>(this.stages);
+      }
+      for (final Stage stage : stagesToClose) {
         LOG.log(Level.FINEST, "Closing {0}", stage);
         stage.close();
       }
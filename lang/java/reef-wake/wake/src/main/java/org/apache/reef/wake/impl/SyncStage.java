@@ -89,6 +89,7 @@ public final class SyncStage<T> extends AbstractEStage<T> {
   @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final T value) {
     beforeOnNext();
+    final long startTime = System.nanoTime();
     try {
       handler.onNext(value);
     } catch (final Throwable t) {
@@ -98,8 +99,10 @@ public final class SyncStage<T> extends AbstractEStage<T> {
         LOG.log(Level.SEVERE, name + " Exception from event handler", t);
         throw t;
       }
+    } finally {
+      recordServiceTime(System.nanoTime() - startTime);
+      afterOnNext();
     }
-    afterOnNext();
   }
 
   /**
@@ -109,6 +112,9 @@ public final class SyncStage<T> extends AbstractEStage<T> {
    */
   @Override
   public void close() throws Exception {
+    if (closed.compareAndSet(false, true)) {
+      StageManager.instance().unregister(this);
+    }
   }
 
 }
@@ -21,14 +21,18 @@ package org.apache.reef.wake.impl;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.AbstractEStage;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
 import org.apache.reef.wake.StageConfiguration.*;
 import org.apache.reef.wake.WakeParameters;
 import org.apache.reef.wake.exception.WakeRuntimeException;
+import org.apache.reef.wake.metrics.Meter;
 
 import javax.inject.Inject;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -36,17 +40,46 @@ import java.util.logging.Logger;
 
 /**
  * Stage that executes an event handler with a thread pool.
+ * <p>
+ * By default the queue of pending events is unbounded. A stage constructed with a capacity queues at most
+ * that many events, and its {@link OverflowPolicy} decides what happens to an event that does not fit.
  *
  * @param <T> type
  */
 public final class ThreadPoolStage<T> extends AbstractEStage<T> {
   private static final Logger LOG = Logger.getLogger(ThreadPoolStage.class.getName());
 
+  /**
+   * What a stage with a bounded queue does with an event that does not fit.
+   */
+  public enum OverflowPolicy {
+    /**
+     * The caller blocks until there is room in the queue.
+     */
+    BLOCK,
+    /**
+     * The oldest queued event is dropped to make room.
+     */
+    DROP_OLDEST,
+    /**
+     * The new event is dropped.
+     */
+    DROP_NEWEST,
+    /**
+     * The new event is passed to the overflow handler instead.
+     */
+    HANDLER
+  }
+
   private final EventHandler<T> handler;
   private final ExecutorService executor;
   private final int numThreads;
   private final long shutdownTimeout = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
   private final EventHandler<Throwable> errorHandler;
+  private final boolean bounded;
+  private final OverflowPolicy overflowPolicy;
+  private final EventHandler<T> overflowHandler;
+  private final Meter rejectMeter;
 
   /**
    * Constructs a thread-pool stage.
@@ -75,15 +108,36 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
                          @Parameter(StageHandler.class) final EventHandler<T> handler,
                          @Parameter(NumberOfThreads.class) final int numThreads,
                          @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
-    super(name);
-    this.handler = handler;
-    this.errorHandler = errorHandler;
-    if (numThreads <= 0) {
-      throw new WakeRuntimeException(name + " numThreads " + numThreads + " is less than or equal to 0");
-    }
-    this.numThreads = numThreads;
-    this.executor = Executors.newFixedThreadPool(numThreads, new DefaultThreadFactory(name));
-    StageManager.instance().register(this);
+    this(newBuilder(name, handler, numThreads).setErrorHandler(errorHandler));
+  }
+
+  /**
+   * Constructs a thread-pool stage with a bounded queue.
+   *
+   * @param name            the stage name
+   * @param handler         the event handler to execute
+   * @param numThreads      the number of threads to use
+   * @param capacity        the maximum number of queued events
+   * @param overflowPolicy  the name of the {@link OverflowPolicy} for events that do not fit
+   * @param overflowHandler the handler of the events that do not fit with the HANDLER policy
+   * @param errorHandler    the error handler
+   * @param virtualThreads  whether to use virtual threads if the JVM supports them
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public ThreadPoolStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(NumberOfThreads.class) final int numThreads,
+                         @Parameter(Capacity.class) final int capacity,
+                         @Parameter(StageConfiguration.OverflowPolicy.class) final String overflowPolicy,
+                         @Parameter(OverflowHandler.class) final EventHandler<T> overflowHandler,
+                         @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler,
+                         @Parameter(VirtualThreads.class) final boolean virtualThreads) {
+    this(newBuilder(name, handler, numThreads)
+        .setCapacity(capacity, OverflowPolicy.valueOf(overflowPolicy))
+        .setOverflowHandler(overflowHandler)
+        .setErrorHandler(errorHandler)
+        .setVirtualThreads(virtualThreads));
   }
 
   /**
@@ -101,6 +155,135 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
     this(name, handler, numThreads, null);
   }
 
+  /**
+   * Constructs a thread-pool stage with the settings of the builder.
+   *
+   * @param builder the builder
+   * @throws WakeRuntimeException
+   */
+  private ThreadPoolStage(final Builder<T> builder) {
+    super(builder.name);
+    this.handler = builder.handler;
+    this.errorHandler = builder.errorHandler;
+    if (builder.numThreads <= 0) {
+      throw new WakeRuntimeException(name + " numThreads " + builder.numThreads + " is less than or equal to 0");
+    }
+    this.numThreads = builder.numThreads;
+    this.bounded = builder.overflowPolicy != null;
+    if (bounded) {
+      if (builder.capacity <= 0) {
+        throw new WakeRuntimeException(name + " capacity " + builder.capacity + " is less than or equal to 0");
+      }
+      if (builder.overflowPolicy == OverflowPolicy.HANDLER && builder.overflowHandler == null) {
+        throw new WakeRuntimeException(name + " overflow policy " + builder.overflowPolicy +
+            " needs an overflow handler");
+      }
+      this.executor = new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<Runnable>(builder.capacity), new DefaultThreadFactory(name, builder.virtualThreads),
+          new OverflowRejectionHandler());
+    } else {
+      this.executor = new DefaultThreadFactory(name, builder.virtualThreads).newThreadPool(numThreads);
+    }
+    this.overflowPolicy = builder.overflowPolicy;
+    this.overflowHandler = builder.overflowHandler;
+    this.rejectMeter = new Meter(name + "_rejected");
+    StageManager.instance().register(this);
+  }
+
+  /**
+   * Creates a builder of a thread-pool stage.
+   * Without further settings, the stage has an unbounded queue, no error handler and platform threads.
+   *
+   * @param name       the stage name
+   * @param handler    the event handler to execute
+   * @param numThreads the number of threads to use
+   * @param <T>        type
+   * @return a builder
+   */
+  public static <T> Builder<T> newBuilder(final String name, final EventHandler<T> handler, final int numThreads) {
+    return new Builder<>(name, handler, numThreads);
+  }
+
+  /**
+   * Builder of a thread-pool stage.
+   *
+   * @param <T> type
+   */
+  public static final class Builder<T> {
+
+    private final String name;
+    private final EventHandler<T> handler;
+    private final int numThreads;
+    private int capacity;
+    private OverflowPolicy overflowPolicy;
+    private EventHandler<T> overflowHandler;
+    private EventHandler<Throwable> errorHandler;
+    private boolean virtualThreads;
+
+    private Builder(final String name, final EventHandler<T> handler, final int numThreads) {
+      this.name = name;
+      this.handler = handler;
+      this.numThreads = numThreads;
+    }
+
+    /**
+     * Bounds the queue of pending events.
+     *
+     * @param maxQueued the maximum number of queued events
+     * @param policy    the policy for events that do not fit
+     * @return this builder
+     */
+    public Builder<T> setCapacity(final int maxQueued, final OverflowPolicy policy) {
+      this.capacity = maxQueued;
+      this.overflowPolicy = policy;
+      return this;
+    }
+
+    /**
+     * Sets the handler of the events that do not fit with the HANDLER policy.
+     *
+     * @param handlerOfOverflow the overflow handler
+     * @return this builder
+     */
+    public Builder<T> setOverflowHandler(final EventHandler<T> handlerOfOverflow) {
+      this.overflowHandler = handlerOfOverflow;
+      return this;
+    }
+
+    /**
+     * Sets the handler of the exceptions thrown by the event handler.
+     *
+     * @param handlerOfErrors the error handler
+     * @return this builder
+     */
+    public Builder<T> setErrorHandler(final EventHandler<Throwable> handlerOfErrors) {
+      this.errorHandler = handlerOfErrors;
+      return this;
+    }
+
+    /**
+     * Sets whether to use virtual threads if the JVM supports them.
+     * The stage keeps its number of threads, which then are virtual threads.
+     *
+     * @param useVirtualThreads whether to use virtual threads
+     * @return this builder
+     */
+    public Builder<T> setVirtualThreads(final boolean useVirtualThreads) {
+      this.virtualThreads = useVirtualThreads;
+      return this;
+    }
+
+    /**
+     * Builds the stage.
+     *
+     * @return a thread-pool stage
+     * @throws WakeRuntimeException
+     */
+    public ThreadPoolStage<T> build() {
+      return new ThreadPoolStage<>(this);
+    }
+  }
+
   /**
    * Constructs a thread-pool stage.
    *
@@ -162,6 +345,10 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
     this.errorHandler = errorHandler;
     this.numThreads = 0;
     this.executor = executor;
+    this.bounded = false;
+    this.overflowPolicy = null;
+    this.overflowHandler = null;
+    this.rejectMeter = new Meter(name + "_rejected");
     StageManager.instance().register(this);
   }
 
@@ -175,25 +362,8 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
   public void onNext(final T value) {
     beforeOnNext();
     try {
-      executor.submit(new Runnable() {
-
-        @Override
-        public void run() {
-          try {
-            handler.onNext(value);
-          } catch (final Throwable t) {
-            if (errorHandler != null) {
-              errorHandler.onNext(t);
-            } else {
-              LOG.log(Level.SEVERE, name + " Exception from event handler", t);
-              throw t;
-            }
-          } finally {
-            afterOnNext();
-          }
-        }
-
-      });
+      // executed directly so that the overflow policy can get at the event of a rejected task
+      executor.execute(new EventRunnable(value));
     } catch (final Exception e) {
       LOG.log(Level.SEVERE, "Encountered error when submitting to executor in ThreadPoolStage.");
       afterOnNext();
@@ -202,17 +372,103 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
 
   }
 
+  /**
+   * Runs the handler on an event. An exception of the handler goes to the error handler, or is logged;
+   * it is not rethrown, so that it neither ends the thread nor depends on how the executor runs tasks.
+   */
+  private final class EventRunnable implements Runnable {
+
+    private final T value;
+    private final long enqueueTime;
+
+    EventRunnable(final T value) {
+      this.value = value;
+      this.enqueueTime = System.nanoTime();
+    }
+
+    @Override
+    @SuppressWarnings("checkstyle:illegalcatch")
+    public void run() {
+      final long startTime = System.nanoTime();
+      recordQueueWait(startTime - enqueueTime);
+      try {
+        handler.onNext(value);
+      } catch (final Throwable t) {
+        if (errorHandler != null) {
+          errorHandler.onNext(t);
+        } else {
+          LOG.log(Level.SEVERE, name + " Exception from event handler", t);
+        }
+      } finally {
+        recordServiceTime(System.nanoTime() - startTime);
+        afterOnNext();
+      }
+    }
+  }
+
+  /**
+   * Applies the overflow policy to a task that does not fit in the bounded queue.
+   */
+  private final class OverflowRejectionHandler implements RejectedExecutionHandler {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void rejectedExecution(final Runnable r, final ThreadPoolExecutor pool) {
+      if (pool.isShutdown()) {
+        throw new RejectedExecutionException(name + " is closed");
+      }
+      final EventRunnable task = (EventRunnable) r;
+      switch (overflowPolicy) {
+      case BLOCK:
+        try {
+          pool.getQueue().put(task);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RejectedExecutionException(name + " interrupted while waiting for room in the queue", e);
+        }
+        // the pool may have shut down while waiting, and its threads may be gone already
+        if (pool.isShutdown() && pool.getQueue().remove(task)) {
+          throw new RejectedExecutionException(name + " is closed");
+        }
+        break;
+      case DROP_OLDEST:
+        final EventRunnable oldest = (EventRunnable) pool.getQueue().poll();
+        if (oldest != null) {
+          reject(oldest);
+        }
+        pool.execute(task);
+        break;
+      case HANDLER:
+        reject(task);
+        overflowHandler.onNext(task.value);
+        break;
+      default:
+        reject(task);
+        break;
+      }
+    }
+
+    private void reject(final EventRunnable task) {
+      LOG.log(Level.FINE, "{0} rejected an event", name);
+      rejectMeter.mark(1);
+      afterOnNext();
+    }
+  }
+
   /**
    * Closes resources.
    */
   @Override
   public void close() throws Exception {
-    if (closed.compareAndSet(false, true) && numThreads > 0) {
-      executor.shutdown();
-      if (!executor.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
-        LOG.log(Level.WARNING, "Executor did not terminate in " + shutdownTimeout + "ms.");
-        final List<Runnable> droppedRunnables = executor.shutdownNow();
-        LOG.log(Level.WARNING, "Executor dropped " + droppedRunnables.size() + " tasks.");
+    if (closed.compareAndSet(false, true)) {
+      StageManager.instance().unregister(this);
+      if (numThreads > 0) {
+        executor.shutdown();
+        if (!executor.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
+          LOG.log(Level.WARNING, "Executor did not terminate in " + shutdownTimeout + "ms.");
+          final List<Runnable> droppedRunnables = executor.shutdownNow();
+          LOG.log(Level.WARNING, "Executor dropped " + droppedRunnables.size() + " tasks.");
+        }
       }
     }
   }
@@ -226,6 +482,15 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
     return ((ThreadPoolExecutor) executor).getQueue().size();
   }
 
+  /**
+   * Gets the meter of the events dropped or handed to the overflow handler because the queue was full.
+   *
+   * @return the meter of rejected events
+   */
+  public Meter getRejectMeter() {
+    return rejectMeter;
+  }
+
   /**
    * Gets the active count of this stage.
    * @return the active count
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+/**
+ * An immutable summary of a {@link LogHistogram} at a point in time.
+ */
+public final class HistogramSnapshot {
+
+  private final long count;
+  private final double mean;
+  private final long p50;
+  private final long p99;
+  private final long p999;
+  private final long max;
+
+  /**
+   * Constructs a histogram snapshot.
+   *
+   * @param count the number of recorded values
+   * @param mean  the mean of the recorded values
+   * @param p50   the median
+   * @param p99   the 99th percentile
+   * @param p999  the 99.9th percentile
+   * @param max   the largest recorded value
+   */
+  public HistogramSnapshot(final long count, final double mean,
+                           final long p50, final long p99, final long p999, final long max) {
+    this.count = count;
+    this.mean = mean;
+    this.p50 = p50;
+    this.p99 = p99;
+    this.p999 = p999;
+    this.max = max;
+  }
+
+  /**
+   * @return the number of recorded values
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return the mean of the recorded values
+   */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * @return the median
+   */
+  public long getP50() {
+    return p50;
+  }
+
+  /**
+   * @return the 99th percentile
+   */
+  public long getP99() {
+    return p99;
+  }
+
+  /**
+   * @return the 99.9th percentile
+   */
+  public long getP999() {
+    return p999;
+  }
+
+  /**
+   * @return the largest recorded value
+   */
+  public long getMax() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return "count=" + count + " mean=" + String.format("%.1f", mean) +
+        " p50=" + p50 + " p99=" + p99 + " p999=" + p999 + " max=" + max;
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An {@link Histogram} of numbers ({@code >=0}) with log-linear bins in the style of HdrHistogram.
+ * <p>
+ * Values below {@link #SUB_BINS} have a bin each; every following power of two is split into
+ * {@link #SUB_BINS} / 2 bins of equal width, so a bin is at most about 3% wide relative to its values
+ * and the whole range of long is covered by a fixed number of bins.
+ * Recording is lock-free and does not allocate.
+ */
+public final class LogHistogram implements Histogram {
+
+  /**
+   * The number of bins of the first power of two range, and twice the number of bins of the others.
+   */
+  public static final int SUB_BINS = 64;
+
+  private static final int SUB_BIN_BITS = Integer.numberOfTrailingZeros(SUB_BINS);
+  private static final int HALF_SUB_BINS = SUB_BINS / 2;
+  private static final int NUM_BINS = (Long.SIZE - 1 - SUB_BIN_BITS) * HALF_SUB_BINS + SUB_BINS;
+
+  private final AtomicLong count = new AtomicLong(0);
+  private final AtomicLong sum = new AtomicLong(0);
+  private final AtomicLong max = new AtomicLong(0);
+  private final AtomicLongArray values = new AtomicLongArray(NUM_BINS);
+
+  /**
+   * Updates the value; negative values are recorded as 0.
+   *
+   * @param value the new value
+   */
+  @Override
+  public void update(final long value) {
+    final long v = Math.max(0, value);
+    values.incrementAndGet(getBin(v));
+    count.incrementAndGet();
+    sum.addAndGet(v);
+    long current = max.get();
+    while (v > current && !max.compareAndSet(current, v)) {
+      current = max.get();
+    }
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return the number of recorded values
+   */
+  @Override
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * Returns the number of values recorded in the bin.
+   *
+   * @param index the histogram bin index
+   * @return the value of the index
+   * @throws IndexOutOfBoundsException
+   */
+  @Override
+  public long getValue(final int index) {
+    return values.get(index);
+  }
+
+  /**
+   * Returns the number of bins.
+   *
+   * @return the number of bins
+   */
+  @Override
+  public int getNumBins() {
+    return NUM_BINS;
+  }
+
+  /**
+   * Returns the largest recorded value.
+   *
+   * @return the largest recorded value, or 0 if none has been recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the mean of the recorded values.
+   *
+   * @return the mean, or 0 if no value has been recorded
+   */
+  public double getMean() {
+    final long n = count.get();
+    return n == 0 ? 0.0 : (double) sum.get() / n;
+  }
+
+  /**
+   * Returns an upper bound of the value at the given quantile.
+   * The bound is the largest value of the bin the quantile falls into, capped by the largest recorded value.
+   *
+   * @param quantile the quantile in [0, 1], e.g. 0.99
+   * @return the value at the quantile, or 0 if no value has been recorded
+   */
+  public long getValueAtQuantile(final double quantile) {
+    final long[] bins = copyBins();
+    return getValueAtQuantile(bins, sum(bins), quantile);
+  }
+
+  /**
+   * Takes a snapshot of the histogram.
+   * Values recorded concurrently may or may not be included.
+   *
+   * @return the snapshot
+   */
+  public HistogramSnapshot snapshot() {
+    final long[] bins = copyBins();
+    final long total = sum(bins);
+    return new HistogramSnapshot(total, getMean(),
+        getValueAtQuantile(bins, total, 0.5),
+        getValueAtQuantile(bins, total, 0.99),
+        getValueAtQuantile(bins, total, 0.999),
+        getMax());
+  }
+
+  private long[] copyBins() {
+    final long[] bins = new long[NUM_BINS];
+    for (int i = 0; i < NUM_BINS; ++i) {
+      bins[i] = values.get(i);
+    }
+    return bins;
+  }
+
+  private static long sum(final long[] bins) {
+    long total = 0;
+    for (final long bin : bins) {
+      total += bin;
+    }
+    return total;
+  }
+
+  private long getValueAtQuantile(final long[] bins, final long total, final double quantile) {
+    if (total == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(Math.min(1.0, Math.max(0.0, quantile)) * total));
+    long seen = 0;
+    for (int i = 0; i < bins.length; ++i) {
+      seen += bins[i];
+      if (seen >= rank) {
+        return Math.min(getBinUpperBound(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Returns the bin of the value.
+   *
+   * @param value the value ({@code >=0})
+   * @return the bin index
+   */
+  static int getBin(final long value) {
+    if (value < SUB_BINS) {
+      return (int) value;
+    }
+    final int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BIN_BITS;
+    return shift * HALF_SUB_BINS + (int) (value >>> shift);
+  }
+
+  /**
+   * Returns the largest value of the bin.
+   *
+   * @param index the bin index
+   * @return the largest value that falls into the bin
+   */
+  public static long getBinUpperBound(final int index) {
+    if (index < SUB_BINS) {
+      return index;
+    }
+    final int shift = index / HALF_SUB_BINS - 1;
+    final long subBin = index - shift * HALF_SUB_BINS;
+    // the last bin ends at Long.MAX_VALUE, where the shift overflows to Long.MIN_VALUE
+    return ((subBin + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A registry of the metrics of stages.
+ * Stages are registered by {@link org.apache.reef.wake.impl.StageManager};
+ * drivers and evaluators take snapshots to export the metrics periodically.
+ */
+public final class MetricsRegistry {
+
+  private final List<StageMetrics> stageMetrics = new CopyOnWriteArrayList<>();
+
+  /**
+   * Registers the metrics of a stage.
+   *
+   * @param metrics the stage metrics
+   */
+  public void register(final StageMetrics metrics) {
+    stageMetrics.add(metrics);
+  }
+
+  /**
+   * Unregisters the metrics of a stage.
+   *
+   * @param metrics the stage metrics
+   */
+  public void unregister(final StageMetrics metrics) {
+    stageMetrics.remove(metrics);
+  }
+
+  /**
+   * Gets the metrics of the registered stages in the order of registration.
+   *
+   * @return the stage metrics
+   */
+  public List<StageMetrics> getStageMetrics() {
+    return new ArrayList<>(stageMetrics);
+  }
+
+  /**
+   * Takes a snapshot of the metrics of the registered stages in the order of registration.
+   *
+   * @return the stage metrics snapshots
+   */
+  public List<StageMetricsSnapshot> snapshot() {
+    final List<StageMetricsSnapshot> snapshots = new ArrayList<>(stageMetrics.size());
+    for (final StageMetrics metrics : stageMetrics) {
+      snapshots.add(metrics.snapshot());
+    }
+    return snapshots;
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+/**
+ * The metrics of a stage: input and output meters, the queue depth,
+ * and histograms of the time events wait in the queue and of the time the handler takes, in nanoseconds.
+ */
+public final class StageMetrics {
+
+  private final String name;
+  private final Meter inMeter;
+  private final Meter outMeter;
+  private final LogHistogram queueWaitHistogram = new LogHistogram();
+  private final LogHistogram serviceTimeHistogram = new LogHistogram();
+
+  /**
+   * Constructs the metrics of a stage.
+   *
+   * @param name the stage name
+   */
+  public StageMetrics(final String name) {
+    this.name = name;
+    this.inMeter = new Meter(name + "_in");
+    this.outMeter = new Meter(name + "_out");
+  }
+
+  /**
+   * @return the stage name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the meter of the events put into the stage
+   */
+  public Meter getInMeter() {
+    return inMeter;
+  }
+
+  /**
+   * @return the meter of the events handled or dropped by the stage
+   */
+  public Meter getOutMeter() {
+    return outMeter;
+  }
+
+  /**
+   * @return the histogram of the time events wait before the handler is called, in nanoseconds
+   */
+  public LogHistogram getQueueWaitHistogram() {
+    return queueWaitHistogram;
+  }
+
+  /**
+   * @return the histogram of the time the handler takes, in nanoseconds
+   */
+  public LogHistogram getServiceTimeHistogram() {
+    return serviceTimeHistogram;
+  }
+
+  /**
+   * Gets the number of events put into the stage and not handled yet.
+   *
+   * @return the queue depth
+   */
+  public long getQueueDepth() {
+    return Math.max(0, inMeter.getCount() - outMeter.getCount());
+  }
+
+  /**
+   * Takes a snapshot of the metrics.
+   *
+   * @return the snapshot
+   */
+  public StageMetricsSnapshot snapshot() {
+    return new StageMetricsSnapshot(name, inMeter.getCount(), outMeter.getCount(), getQueueDepth(),
+        outMeter.get1mEWMAThp(), queueWaitHistogram.snapshot(), serviceTimeHistogram.snapshot());
+  }
+}
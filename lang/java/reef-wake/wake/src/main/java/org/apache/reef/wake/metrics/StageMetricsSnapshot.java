@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+/**
+ * An immutable copy of the {@link StageMetrics} of a stage at a point in time.
+ */
+public final class StageMetricsSnapshot {
+
+  private final String name;
+  private final long inCount;
+  private final long outCount;
+  private final long queueDepth;
+  private final double throughput;
+  private final HistogramSnapshot queueWait;
+  private final HistogramSnapshot serviceTime;
+
+  /**
+   * Constructs a stage metrics snapshot.
+   *
+   * @param name        the stage name
+   * @param inCount     the number of events put into the stage
+   * @param outCount    the number of events handled or dropped by the stage
+   * @param queueDepth  the number of events not handled yet
+   * @param throughput  the 1-minute EWMA output throughput in events per second
+   * @param queueWait   the queue wait times in nanoseconds
+   * @param serviceTime the handler times in nanoseconds
+   */
+  public StageMetricsSnapshot(final String name, final long inCount, final long outCount, final long queueDepth,
+                              final double throughput, final HistogramSnapshot queueWait,
+                              final HistogramSnapshot serviceTime) {
+    this.name = name;
+    this.inCount = inCount;
+    this.outCount = outCount;
+    this.queueDepth = queueDepth;
+    this.throughput = throughput;
+    this.queueWait = queueWait;
+    this.serviceTime = serviceTime;
+  }
+
+  /**
+   * @return the stage name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the number of events put into the stage
+   */
+  public long getInCount() {
+    return inCount;
+  }
+
+  /**
+   * @return the number of events handled or dropped by the stage
+   */
+  public long getOutCount() {
+    return outCount;
+  }
+
+  /**
+   * @return the number of events not handled yet
+   */
+  public long getQueueDepth() {
+    return queueDepth;
+  }
+
+  /**
+   * @return the 1-minute EWMA output throughput in events per second
+   */
+  public double getThroughput() {
+    return throughput;
+  }
+
+  /**
+   * @return the queue wait times in nanoseconds
+   */
+  public HistogramSnapshot getQueueWait() {
+    return queueWait;
+  }
+
+  /**
+   * @return the handler times in nanoseconds
+   */
+  public HistogramSnapshot getServiceTime() {
+    return serviceTime;
+  }
+
+  @Override
+  public String toString() {
+    return name + " in=" + inCount + " out=" + outCount + " depth=" + queueDepth +
+        " thp=" + String.format("%.1f", throughput) +
+        " wait[" + queueWait + "] service[" + serviceTime + "]";
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Interface for deserialization routines that read objects directly from a buffer.
+ * Implementations read the readable bytes of the buffer (typically a slice of a received frame)
+ * without copying them into an intermediate byte array.
+ *
+ * @param <T> The type of the objects deserialized
+ */
+public interface BufferDecoder<T> {
+
+  /**
+   * Decodes an object from the readable bytes of the buffer.
+   * The buffer is only valid for the duration of the call; implementations must not
+   * retain or release it.
+   *
+   * @param buffer the buffer to be decoded
+   * @return the decoded object
+   */
+  T decode(ByteBuf buffer);
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Interface for serialization routines that write objects directly into a buffer.
+ * Unlike {@link Encoder}, the implementation does not materialize an intermediate byte array:
+ * the transport hands out a pooled (usually direct) buffer and the encoded bytes are written into it in place.
+ * <p>
+ * An {@link Encoder} passed to {@code Transport.open} that also implements this interface
+ * is written through this method instead of {@link Encoder#encode(Object)}.
+ *
+ * @param <T> The type of the objects serialized
+ */
+public interface BufferEncoder<T> {
+
+  /**
+   * Encodes the given object into the buffer, starting at its writer index.
+   * The buffer grows on demand; implementations must not release it.
+   *
+   * @param obj    an object to be encoded
+   * @param buffer the buffer to write the object into
+   */
+  void encode(T obj, ByteBuf buffer);
+}
@@ -41,6 +41,8 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
   private final boolean orderingGuarantee;
   private final int numberOfTries;
   private final int retryTimeout;
+  private final String remoteEventFormat;
+  private final boolean virtualThreads;
   private final LocalAddressProvider localAddressProvider;
   private final TransportFactory transportFactory;
   private final TcpPortProvider tcpPortProvider;
@@ -52,6 +54,8 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       @Parameter(RemoteConfiguration.OrderingGuarantee.class) final boolean orderingGuarantee,
       @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
       @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
+      @Parameter(RemoteConfiguration.RemoteEventFormat.class) final String remoteEventFormat,
+      @Parameter(RemoteConfiguration.VirtualThreads.class) final boolean virtualThreads,
       final LocalAddressProvider localAddressProvider,
       final TransportFactory tpFactory,
       final TcpPortProvider tcpPortProvider) {
@@ -61,6 +65,8 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
     this.orderingGuarantee = orderingGuarantee;
     this.numberOfTries = numberOfTries;
     this.retryTimeout = retryTimeout;
+    this.remoteEventFormat = remoteEventFormat;
+    this.virtualThreads = virtualThreads;
     this.localAddressProvider = localAddressProvider;
     this.transportFactory = tpFactory;
     this.tcpPortProvider = tcpPortProvider;
@@ -76,6 +82,8 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       newInjector.bindVolatileParameter(RemoteConfiguration.OrderingGuarantee.class, this.orderingGuarantee);
       newInjector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, this.numberOfTries);
       newInjector.bindVolatileParameter(RemoteConfiguration.RetryTimeout.class, this.retryTimeout);
+      newInjector.bindVolatileParameter(RemoteConfiguration.RemoteEventFormat.class, this.remoteEventFormat);
+      newInjector.bindVolatileParameter(RemoteConfiguration.VirtualThreads.class, this.virtualThreads);
       newInjector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
       newInjector.bindVolatileInstance(TransportFactory.class, this.transportFactory);
       newInjector.bindVolatileInstance(TcpPortProvider.class, this.tcpPortProvider);
@@ -107,6 +115,8 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       newInjector.bindVolatileParameter(RemoteConfiguration.OrderingGuarantee.class, orderingGuarantee);
       newInjector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, numberOfTries);
       newInjector.bindVolatileParameter(RemoteConfiguration.RetryTimeout.class, retryTimeout);
+      newInjector.bindVolatileParameter(RemoteConfiguration.RemoteEventFormat.class, this.remoteEventFormat);
+      newInjector.bindVolatileParameter(RemoteConfiguration.VirtualThreads.class, this.virtualThreads);
       newInjector.bindVolatileInstance(LocalAddressProvider.class, localAddressProvider);
       newInjector.bindVolatileInstance(TransportFactory.class, this.transportFactory);
       newInjector.bindVolatileInstance(TcpPortProvider.class, tcpPortProvider);
@@ -136,6 +146,8 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       newInjector.bindVolatileParameter(RemoteConfiguration.OrderingGuarantee.class, orderingGuarantee);
       newInjector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, numberOfTries);
       newInjector.bindVolatileParameter(RemoteConfiguration.RetryTimeout.class, retryTimeout);
+      newInjector.bindVolatileParameter(RemoteConfiguration.RemoteEventFormat.class, this.remoteEventFormat);
+      newInjector.bindVolatileParameter(RemoteConfiguration.VirtualThreads.class, this.virtualThreads);
       newInjector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
       newInjector.bindVolatileInstance(TransportFactory.class, this.transportFactory);
       newInjector.bindVolatileInstance(TcpPortProvider.class, this.tcpPortProvider);
@@ -157,6 +169,8 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       newInjector.bindVolatileParameter(RemoteConfiguration.OrderingGuarantee.class, this.orderingGuarantee);
       newInjector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, this.numberOfTries);
       newInjector.bindVolatileParameter(RemoteConfiguration.RetryTimeout.class, this.retryTimeout);
+      newInjector.bindVolatileParameter(RemoteConfiguration.RemoteEventFormat.class, this.remoteEventFormat);
+      newInjector.bindVolatileParameter(RemoteConfiguration.VirtualThreads.class, this.virtualThreads);
       newInjector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
       newInjector.bindVolatileInstance(TransportFactory.class, this.transportFactory);
       newInjector.bindVolatileInstance(TcpPortProvider.class, this.tcpPortProvider);
@@ -181,6 +195,8 @@ final class DefaultRemoteManagerFactory implements RemoteManagerFactory {
       newInjector.bindVolatileParameter(RemoteConfiguration.OrderingGuarantee.class, this.orderingGuarantee);
       newInjector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, this.numberOfTries);
       newInjector.bindVolatileParameter(RemoteConfiguration.RetryTimeout.class, this.retryTimeout);
+      newInjector.bindVolatileParameter(RemoteConfiguration.RemoteEventFormat.class, this.remoteEventFormat);
+      newInjector.bindVolatileParameter(RemoteConfiguration.VirtualThreads.class, this.virtualThreads);
       newInjector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
       newInjector.bindVolatileInstance(TransportFactory.class, this.transportFactory);
       newInjector.bindVolatileInstance(TcpPortProvider.class, this.tcpPortProvider);
@@ -112,4 +112,158 @@ public final class RemoteConfiguration {
   public static final class RemoteServerStage implements Name<EStage<TransportEvent>> {
     // Intentionally empty
   }
+
+  /**
+   * Whether or not to coalesce writes on a channel into batched flushes.
+   */
+  @NamedParameter(doc = "Whether or not to coalesce writes on a channel into batched flushes.",
+      default_value = "false")
+  public static final class WriteBatching implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of unflushed bytes on a channel that triggers a flush when write batching is on.
+   */
+  @NamedParameter(doc = "The number of unflushed bytes on a channel that triggers a flush when write batching is on.",
+      default_value = "65536")
+  public static final class WriteBatchMaxBytes implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The maximum time in microseconds a write waits for a flush when write batching is on.
+   * When it is 0, pending writes are flushed as soon as the channel's event loop is idle.
+   */
+  @NamedParameter(doc = "The maximum time in microseconds a write waits for a flush when write batching is on. " +
+      "When it is 0, pending writes are flushed as soon as the channel's event loop is idle.", default_value = "0")
+  public static final class WriteBatchDelay implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether or not to use the native epoll transport when it is available.
+   */
+  @NamedParameter(doc = "Whether or not to use the native epoll transport when it is available. " +
+      "NIO is used otherwise.", default_value = "true")
+  public static final class NativeTransport implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of threads accepting connections on the server side of the transport.
+   */
+  @NamedParameter(doc = "The number of threads accepting connections on the server side of the transport. " +
+      "0 uses the Netty default of twice the number of cores.", default_value = "3")
+  public static final class ServerBossThreads implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of threads serving accepted connections on the server side of the transport.
+   */
+  @NamedParameter(doc = "The number of threads serving accepted connections on the server side of the transport. " +
+      "0 uses the Netty default of twice the number of cores.", default_value = "20")
+  public static final class ServerWorkerThreads implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of threads serving connections on the client side of the transport.
+   */
+  @NamedParameter(doc = "The number of threads serving connections on the client side of the transport. " +
+      "0 uses the Netty default of twice the number of cores.", default_value = "10")
+  public static final class ClientWorkerThreads implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether or not to disable Nagle's algorithm on the connections.
+   */
+  @NamedParameter(doc = "Whether or not to disable Nagle's algorithm on the connections.", default_value = "false")
+  public static final class TcpNoDelay implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The size of the socket send buffer in bytes.
+   */
+  @NamedParameter(doc = "The size of the socket send buffer in bytes. 0 keeps the OS default.", default_value = "0")
+  public static final class SendBufferSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The size of the socket receive buffer in bytes.
+   */
+  @NamedParameter(doc = "The size of the socket receive buffer in bytes. 0 keeps the OS default.",
+      default_value = "0")
+  public static final class ReceiveBufferSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of bytes queued in a channel above which it stops being writable.
+   */
+  @NamedParameter(doc = "The number of bytes queued in a channel above which it stops being writable.",
+      default_value = "65536")
+  public static final class WriteBufferHighWaterMark implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of bytes queued in a channel below which it becomes writable again.
+   */
+  @NamedParameter(doc = "The number of bytes queued in a channel below which it becomes writable again.",
+      default_value = "32768")
+  public static final class WriteBufferLowWaterMark implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of connections opened to each remote address.
+   */
+  @NamedParameter(doc = "The number of connections opened to each remote address. " +
+      "Messages to the address are spread over them.", default_value = "1")
+  public static final class LinkPoolSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * How a message without a stream picks a connection of the pool to a remote address.
+   */
+  @NamedParameter(doc = "How a message without a stream picks a connection of the pool to a remote address: " +
+      "ORDERED keeps the messages in order on one connection, ROUND_ROBIN and LEAST_PENDING spread them " +
+      "over the pool without ordering them.", default_value = "ORDERED")
+  public static final class LinkPoolSelection implements Name<String> {
+    // Intentionally empty
+  }
+
+  /**
+   * The size in bytes up to which messages without a stream use a separate priority connection.
+   */
+  @NamedParameter(doc = "The size in bytes up to which messages without a stream to a remote address use " +
+      "a separate priority connection, where they may overtake larger messages. " +
+      "0 disables the priority connection.", default_value = "0")
+  public static final class PriorityLaneMaxBytes implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The wire format of the remote events sent by a remote manager.
+   */
+  @NamedParameter(doc = "The wire format of the remote events sent by a remote manager: PROTOBUF or FRAMED. " +
+      "Remote managers accept both formats.", default_value = "PROTOBUF")
+  public static final class RemoteEventFormat implements Name<String> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether the stages of a remote manager run on virtual threads.
+   */
+  @NamedParameter(doc = "Whether the sender and receiver stages of a remote manager run on virtual threads. " +
+      "They fall back to platform threads if the JVM does not support virtual threads.", default_value = "false")
+  public static final class VirtualThreads implements Name<Boolean> {
+    // Intentionally empty
+  }
 }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.reef.wake.remote.BufferDecoder;
+import org.apache.reef.wake.remote.Decoder;
+
+/**
+ * Adapts a byte array {@link Decoder} to the {@link BufferDecoder} interface.
+ * The readable bytes are copied out of the buffer unless they already span a whole backing array.
+ *
+ * @param <T> type
+ */
+public final class BufferDecoderAdapter<T> implements BufferDecoder<T> {
+
+  private final Decoder<T> decoder;
+
+  /**
+   * Constructs a buffer decoder adapter.
+   *
+   * @param decoder the byte array decoder to be wrapped
+   */
+  public BufferDecoderAdapter(final Decoder<T> decoder) {
+    this.decoder = decoder;
+  }
+
+  /**
+   * Returns a buffer decoder for the decoder: the decoder itself if it already implements
+   * {@link BufferDecoder}, or an adapter otherwise.
+   *
+   * @param decoder the byte array decoder
+   * @param <T>     type
+   * @return a buffer decoder
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> BufferDecoder<T> of(final Decoder<T> decoder) {
+    return decoder instanceof BufferDecoder ? (BufferDecoder<T>) decoder : new BufferDecoderAdapter<>(decoder);
+  }
+
+  /**
+   * Decodes the readable bytes of the buffer with the wrapped decoder.
+   *
+   * @param buffer the buffer to be decoded
+   * @return the decoded object
+   */
+  @Override
+  public T decode(final ByteBuf buffer) {
+    return decoder.decode(toByteArray(buffer));
+  }
+
+  /**
+   * Returns the readable bytes of the buffer as a byte array, avoiding the copy
+   * when the buffer is backed by an array of exactly that size.
+   *
+   * @param buffer the buffer
+   * @return the readable bytes
+   */
+  static byte[] toByteArray(final ByteBuf buffer) {
+    final int length = buffer.readableBytes();
+    if (buffer.hasArray() && buffer.arrayOffset() + buffer.readerIndex() == 0 && buffer.array().length == length) {
+      return buffer.array();
+    }
+    final byte[] data = new byte[length];
+    buffer.getBytes(buffer.readerIndex(), data);
+    return data;
+  }
+}
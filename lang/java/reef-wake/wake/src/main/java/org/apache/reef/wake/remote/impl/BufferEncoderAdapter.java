@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import io.netty.buffer.ByteBuf;
+import org.apache.reef.wake.remote.BufferEncoder;
+import org.apache.reef.wake.remote.Encoder;
+
+/**
+ * Adapts a byte array {@link Encoder} to the {@link BufferEncoder} interface.
+ * The encoded bytes are copied into the buffer, so it is only as fast as the wrapped encoder.
+ *
+ * @param <T> type
+ */
+public final class BufferEncoderAdapter<T> implements BufferEncoder<T> {
+
+  private final Encoder<T> encoder;
+
+  /**
+   * Constructs a buffer encoder adapter.
+   *
+   * @param encoder the byte array encoder to be wrapped
+   */
+  public BufferEncoderAdapter(final Encoder<T> encoder) {
+    this.encoder = encoder;
+  }
+
+  /**
+   * Returns a buffer encoder for the encoder: the encoder itself if it already implements
+   * {@link BufferEncoder}, or an adapter otherwise.
+   *
+   * @param encoder the byte array encoder
+   * @param <T>     type
+   * @return a buffer encoder
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> BufferEncoder<T> of(final Encoder<T> encoder) {
+    return encoder instanceof BufferEncoder ? (BufferEncoder<T>) encoder : new BufferEncoderAdapter<>(encoder);
+  }
+
+  /**
+   * Encodes the object with the wrapped encoder and writes the bytes into the buffer.
+   *
+   * @param obj    an object to be encoded
+   * @param buffer the buffer to write the object into
+   */
+  @Override
+  public void encode(final T obj, final ByteBuf buffer) {
+    buffer.writeBytes(encoder.encode(obj));
+  }
+}
@@ -75,6 +75,8 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
             @Parameter(RemoteConfiguration.OrderingGuarantee.class) final boolean orderingGuarantee,
             @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
             @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
+            @Parameter(RemoteConfiguration.RemoteEventFormat.class) final String remoteEventFormat,
+            @Parameter(RemoteConfiguration.VirtualThreads.class) final boolean virtualThreads,
             final LocalAddressProvider localAddressProvider,
             final TransportFactory tpFactory,
             final TcpPortProvider tcpPortProvider) {
@@ -83,8 +85,8 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
     this.handlerContainer = new HandlerContainer<>(name, codec);
 
     this.reRecvStage = orderingGuarantee ?
-                new OrderedRemoteReceiverStage(this.handlerContainer, errorHandler) :
-                new RemoteReceiverStage(this.handlerContainer, errorHandler, 10);
+                new OrderedRemoteReceiverStage(this.handlerContainer, errorHandler, virtualThreads) :
+                new RemoteReceiverStage(this.handlerContainer, errorHandler, 10, virtualThreads);
 
     this.transport = tpFactory.newInstance(
                 hostAddress, listeningPort, this.reRecvStage, this.reRecvStage, numberOfTries, retryTimeout,
@@ -95,7 +97,8 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
     this.myIdentifier = new SocketRemoteIdentifier(
                 (InetSocketAddress) this.transport.getLocalAddress());
 
-    this.reSendStage = new RemoteSenderStage(codec, this.transport, 10);
+    this.reSendStage = new RemoteSenderStage(
+                codec, this.transport, 10, RemoteEventFormat.valueOf(remoteEventFormat), virtualThreads);
 
     StageManager.instance().register(this);
     LOG.log(Level.FINEST, "RemoteManager {0} instantiated id {1} counter {2} listening on {3}:{4}. " +
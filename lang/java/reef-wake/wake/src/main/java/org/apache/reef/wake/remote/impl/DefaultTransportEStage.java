@@ -24,8 +24,9 @@ import javax.inject.Inject;
 
 /**
  * A default event-based message transporting stage for both client and server.
+ * It drops the events it receives.
  */
-public class DefaultTransportEStage implements EStage<TransportEvent> {
+public class DefaultTransportEStage implements EStage<TransportEvent>, TransportBufferConsumer {
 
   @Inject
   public DefaultTransportEStage() {
@@ -33,6 +34,7 @@ public class DefaultTransportEStage implements EStage<TransportEvent> {
 
   @Override
   public void onNext(final TransportEvent value) {
+    value.release();
   }
 
   @Override
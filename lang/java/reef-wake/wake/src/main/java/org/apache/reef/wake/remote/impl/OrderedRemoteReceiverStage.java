@@ -18,33 +18,53 @@
  */
 package org.apache.reef.wake.remote.impl;
 
-import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.AbstractEStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.exception.WakeRuntimeException;
 import org.apache.reef.wake.impl.DefaultThreadFactory;
-import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.metrics.Meter;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 
 import java.net.SocketAddress;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Receive incoming events and dispatch to correct handlers in order.
+ * <p>
+ * Events are put into a sequencing ring buffer of their source and stream by the thread that receives them.
+ * A stream with the next expected event is drained by one worker of a bounded work-stealing pool at a time,
+ * so events of a stream are delivered in sequence order without locks and without a thread per event.
  */
-public class OrderedRemoteReceiverStage implements EStage<TransportEvent> {
+public class OrderedRemoteReceiverStage extends AbstractEStage<TransportEvent>
+    implements TransportBufferConsumer, TransportConnectionListener {
 
   private static final Logger LOG = Logger.getLogger(OrderedRemoteReceiverStage.class.getName());
+  private static final int DEFAULT_NUM_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
   private final long shutdownTimeout = WakeParameters.REMOTE_EXECUTOR_SHUTDOWN_TIMEOUT;
 
-  private final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap;
-  private final ExecutorService pushExecutor;
-  private final ExecutorService pullExecutor;
+  private final ConcurrentMap<StreamKey, OrderedEventStream> streamMap;
+  private final RemoteEventCodec<byte[]> codec;
+  private final EventHandler<RemoteEvent<byte[]>> handler;
+  private final EventHandler<Throwable> errorHandler;
+  private final ExecutorService pool;
 
-  private final ThreadPoolStage<TransportEvent> pushStage;
-  private final ThreadPoolStage<OrderedEventStream> pullStage;
+  private final Meter outOfOrderMeter;
+  private final AtomicLong maxGap = new AtomicLong(0);
 
   /**
    * Constructs an ordered remote receiver stage.
@@ -54,51 +74,215 @@ public class OrderedRemoteReceiverStage implements EStage<TransportEvent> {
    */
   public OrderedRemoteReceiverStage(
       final EventHandler<RemoteEvent<byte[]>> handler, final EventHandler<Throwable> errorHandler) {
-    this.streamMap = new ConcurrentHashMap<SocketAddress, OrderedEventStream>();
+    this(handler, errorHandler, DEFAULT_NUM_THREADS);
+  }
 
-    this.pushExecutor = Executors.newCachedThreadPool(
-        new DefaultThreadFactory(OrderedRemoteReceiverStage.class.getName() + "_Push"));
-    this.pullExecutor = Executors.newCachedThreadPool(
-        new DefaultThreadFactory(OrderedRemoteReceiverStage.class.getName() + "_Pull"));
+  /**
+   * Constructs an ordered remote receiver stage.
+   *
+   * @param handler      the handler of remote events
+   * @param errorHandler the exception handler
+   * @param numThreads   the number of threads delivering events
+   */
+  public OrderedRemoteReceiverStage(final EventHandler<RemoteEvent<byte[]>> handler,
+                                    final EventHandler<Throwable> errorHandler, final int numThreads) {
+    this(handler, errorHandler, numThreads, false);
+  }
+
+  /**
+   * Constructs an ordered remote receiver stage.
+   *
+   * @param handler        the handler of remote events
+   * @param errorHandler   the exception handler
+   * @param virtualThreads whether to deliver events on virtual threads if the JVM supports them
+   */
+  public OrderedRemoteReceiverStage(final EventHandler<RemoteEvent<byte[]>> handler,
+                                    final EventHandler<Throwable> errorHandler, final boolean virtualThreads) {
+    this(handler, errorHandler, DEFAULT_NUM_THREADS, virtualThreads);
+  }
+
+  /**
+   * Constructs an ordered remote receiver stage.
+   * With virtual threads, events are delivered by a fixed pool of virtual threads instead of the work-stealing pool.
+   *
+   * @param handler        the handler of remote events
+   * @param errorHandler   the exception handler
+   * @param numThreads     the number of threads delivering events
+   * @param virtualThreads whether to deliver events on virtual threads if the JVM supports them
+   */
+  public OrderedRemoteReceiverStage(final EventHandler<RemoteEvent<byte[]>> handler,
+                                    final EventHandler<Throwable> errorHandler, final int numThreads,
+                                    final boolean virtualThreads) {
+    super(OrderedRemoteReceiverStage.class.getName());
+    if (numThreads <= 0) {
+      throw new WakeRuntimeException(this.name + " numThreads " + numThreads + " is less than or equal to 0");
+    }
+    this.streamMap = new ConcurrentHashMap<>();
+    this.codec = new RemoteEventCodec<>(new ByteCodec());
+    this.handler = handler;
+    this.errorHandler = errorHandler;
+    this.outOfOrderMeter = new Meter(this.name + "_outOfOrder");
 
-    this.pullStage = new ThreadPoolStage<OrderedEventStream>(
-        new OrderedPullEventHandler(handler), this.pullExecutor, errorHandler);
-    this.pushStage = new ThreadPoolStage<TransportEvent>(
-        new OrderedPushEventHandler(streamMap, pullStage), this.pushExecutor, errorHandler); // for decoupling
+    final String threadPrefix = this.name + "_Deliver";
+    if (virtualThreads && DefaultThreadFactory.isVirtualThreadSupported()) {
+      this.pool = new DefaultThreadFactory(threadPrefix, true).newThreadPool(numThreads);
+    } else {
+      this.pool = new ForkJoinPool(numThreads, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+        @Override
+        public ForkJoinWorkerThread newThread(final ForkJoinPool forkJoinPool) {
+          final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+          thread.setName(threadPrefix + "-" + thread.getPoolIndex());
+          return thread;
+        }
+      }, null, true);
+    }
   }
 
+  /**
+   * Decodes the event and adds it to the stream it belongs to.
+   * The event is decoded from the received buffer, which is released afterwards.
+   *
+   * @param value the transport event
+   */
   @Override
+  @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final TransportEvent value) {
     LOG.log(Level.FINEST, "{0}", value);
-    pushStage.onNext(value);
+    beforeOnNext();
+
+    final RemoteEvent<byte[]> re;
+    try {
+      re = codec.decode(value.getBuffer());
+    } catch (final Throwable t) {
+      afterOnNext();
+      onError(t);
+      return;
+    } finally {
+      value.release();
+    }
+    re.setLocalAddress(value.getLocalAddress());
+    re.setRemoteAddress(value.getRemoteAddress());
+
+    if (LOG.isLoggable(Level.FINER)) {
+      LOG.log(Level.FINER, "{0} {1}", new Object[]{value, re});
+    }
+
+    final StreamKey key = new StreamKey(re.remoteAddress(), re.getStreamId());
+    OrderedEventStream stream = streamMap.get(key);
+    if (stream == null) {
+      stream = new OrderedEventStream(this);
+      if (streamMap.putIfAbsent(key, stream) != null) {
+        stream = streamMap.get(key);
+      }
+    }
+    stream.add(re);
   }
 
-  @Override
-  public void close() throws Exception {
-    LOG.log(Level.FINE, "close");
+  /**
+   * Gets the number of events received but not delivered yet, including the ones waiting for a missing event.
+   *
+   * @return the queue depth
+   */
+  public long getQueueDepth() {
+    return getInMeter().getCount() - getOutMeter().getCount();
+  }
 
-    if (pushExecutor != null) {
-      pushExecutor.shutdown();
-      try {
-        // wait for threads to finish for timeout
-        if (!pushExecutor.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
-          LOG.log(Level.WARNING, "Executor did not terminate in " + shutdownTimeout + "ms.");
-          final List<Runnable> droppedRunnables = pushExecutor.shutdownNow();
-          LOG.log(Level.WARNING, "Executor dropped " + droppedRunnables.size() + " tasks.");
-        }
-      } catch (final InterruptedException e) {
-        LOG.log(Level.WARNING, "Close interrupted");
-        throw new RemoteRuntimeException(e);
+  /**
+   * Gets the meter of events that arrived ahead of the next expected event of their stream.
+   *
+   * @return the out-of-order meter
+   */
+  public Meter getOutOfOrderMeter() {
+    return outOfOrderMeter;
+  }
+
+  /**
+   * Gets the largest distance seen between the sequence number of an arriving event
+   * and the next expected one of its stream.
+   *
+   * @return the largest out-of-order gap
+   */
+  public long getMaxGap() {
+    return maxGap.get();
+  }
+
+  /**
+   * Forgets the streams of a closed connection. Events of them still waiting for a missing one are dropped,
+   * as the missing event cannot arrive anymore.
+   *
+   * @param remoteAddress the remote address of the connection
+   */
+  @Override
+  public void onConnectionClosed(final SocketAddress remoteAddress) {
+    final Iterator<StreamKey> keys = streamMap.keySet().iterator();
+    while (keys.hasNext()) {
+      if (remoteAddress.equals(keys.next().source)) {
+        keys.remove();
       }
     }
+    LOG.log(Level.FINER, "Removed the streams of the closed connection from {0}", remoteAddress);
+  }
 
-    if (pullExecutor != null) {
-      pullExecutor.shutdown();
+  /**
+   * Schedules a drain of the stream, unless the stage is closed.
+   */
+  void execute(final OrderedEventStream stream) {
+    if (closed.get()) {
+      LOG.log(Level.FINE, "{0} is closed; not delivering the events of a stream", name);
+      return;
+    }
+    try {
+      pool.execute(stream);
+    } catch (final RejectedExecutionException e) {
+      LOG.log(Level.FINE, "{0} is closed; not delivering the events of a stream", name);
+    }
+  }
+
+  @SuppressWarnings("checkstyle:illegalcatch")
+  void deliver(final RemoteEvent<byte[]> event) {
+    final long startTime = System.nanoTime();
+    try {
+      handler.onNext(event);
+    } catch (final Throwable t) {
+      onError(t);
+    } finally {
+      recordServiceTime(System.nanoTime() - startTime);
+      afterOnNext();
+    }
+  }
+
+  void discard(final RemoteEvent<byte[]> event) {
+    LOG.log(Level.WARNING, "Discarding the duplicate event {0}", event);
+    afterOnNext();
+  }
+
+  void outOfOrder(final long gap) {
+    outOfOrderMeter.mark(1);
+    long max = maxGap.get();
+    while (gap > max && !maxGap.compareAndSet(max, gap)) {
+      max = maxGap.get();
+    }
+  }
+
+  private void onError(final Throwable t) {
+    if (errorHandler != null) {
+      errorHandler.onNext(t);
+    } else {
+      LOG.log(Level.SEVERE, name + " Exception from event handler", t);
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    LOG.log(Level.FINE, "close");
+
+    if (closed.compareAndSet(false, true)) {
+      pool.shutdown();
       try {
         // wait for threads to finish for timeout
-        if (!pullExecutor.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
+        if (!pool.awaitTermination(shutdownTimeout, TimeUnit.MILLISECONDS)) {
           LOG.log(Level.WARNING, "Executor did not terminate in " + shutdownTimeout + "ms.");
-          final List<Runnable> droppedRunnables = pullExecutor.shutdownNow();
+          final List<Runnable> droppedRunnables = pool.shutdownNow();
           LOG.log(Level.WARNING, "Executor dropped " + droppedRunnables.size() + " tasks.");
         }
       } catch (final InterruptedException e) {
@@ -107,103 +291,147 @@ public class OrderedRemoteReceiverStage implements EStage<TransportEvent> {
       }
     }
   }
-}
-
-class OrderedPushEventHandler implements EventHandler<TransportEvent> {
-
-  private static final Logger LOG = Logger.getLogger(OrderedPushEventHandler.class.getName());
-
-  private final RemoteEventCodec<byte[]> codec;
-  private final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap; // per remote address
-  private final ThreadPoolStage<OrderedEventStream> pullStage;
 
-  OrderedPushEventHandler(final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap,
-                          final ThreadPoolStage<OrderedEventStream> pullStage) {
-    this.codec = new RemoteEventCodec<>(new ByteCodec());
-    this.streamMap = streamMap;
-    this.pullStage = pullStage;
-  }
+  /**
+   * Identifies a stream of events by the address it is received from and the stream identifier sent with its events.
+   */
+  private static final class StreamKey {
 
-  @Override
-  public void onNext(final TransportEvent value) {
-    final RemoteEvent<byte[]> re = codec.decode(value.getData());
-    re.setLocalAddress(value.getLocalAddress());
-    re.setRemoteAddress(value.getRemoteAddress());
+    private final SocketAddress source;
+    private final int streamId;
 
-    if (LOG.isLoggable(Level.FINER)) {
-      LOG.log(Level.FINER, "{0} {1}", new Object[]{value, re});
+    StreamKey(final SocketAddress source, final int streamId) {
+      this.source = source;
+      this.streamId = streamId;
     }
 
-    LOG.log(Level.FINER, "Value length is {0}", value.getData().length);
-
-    final SocketAddress addr = re.remoteAddress();
-    OrderedEventStream stream = streamMap.get(re.remoteAddress());
-    if (stream == null) {
-      stream = new OrderedEventStream();
-      if (streamMap.putIfAbsent(addr, stream) != null) {
-        stream = streamMap.get(addr);
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof StreamKey)) {
+        return false;
       }
+      final StreamKey that = (StreamKey) o;
+      return streamId == that.streamId && (source == null ? that.source == null : source.equals(that.source));
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (source == null ? 0 : source.hashCode()) + streamId;
     }
-    stream.add(re);
-    pullStage.onNext(stream);
   }
 }
 
-class OrderedPullEventHandler implements EventHandler<OrderedEventStream> {
+/**
+ * Events of a stream of a source ordered by their sequence numbers.
+ * <p>
+ * An event within {@link #CAPACITY} of the next expected sequence number goes to the slot of its
+ * sequence number in a ring buffer; one further ahead waits in an overflow queue.
+ * Any thread may add events, but only one drain runs at a time: the one that wins the scheduled flag.
+ */
+final class OrderedEventStream implements Runnable {
 
-  private static final Logger LOG = Logger.getLogger(OrderedPullEventHandler.class.getName());
+  private static final Logger LOG = Logger.getLogger(OrderedEventStream.class.getName());
 
-  private final EventHandler<RemoteEvent<byte[]>> handler;
+  /**
+   * The size of the ring buffer.
+   */
+  static final int CAPACITY = 1024;
+  private static final int MASK = CAPACITY - 1;
 
-  OrderedPullEventHandler(final EventHandler<RemoteEvent<byte[]>> handler) {
-    this.handler = handler;
+  /**
+   * The number of events a drain delivers before it yields the worker to other streams.
+   */
+  private static final int BATCH_SIZE = 256;
+
+  private final OrderedRemoteReceiverStage stage;
+  private final AtomicReferenceArray<RemoteEvent<byte[]>> ring = new AtomicReferenceArray<>(CAPACITY);
+  private final PriorityBlockingQueue<RemoteEvent<byte[]>> overflow =
+      new PriorityBlockingQueue<>(11, new RemoteEventComparator<byte[]>());
+  private final AtomicBoolean scheduled = new AtomicBoolean(false);
+  private volatile long nextSeq = 0; // the number of the next event to consume; written by the drain only
+
+  OrderedEventStream(final OrderedRemoteReceiverStage stage) {
+    this.stage = stage;
   }
 
-  @Override
-  public void onNext(final OrderedEventStream stream) {
-    if (LOG.isLoggable(Level.FINER)) {
-      LOG.log(Level.FINER, "{0}", stream);
+  void add(final RemoteEvent<byte[]> event) {
+    final long seq = event.getSeq();
+    final long gap = seq - nextSeq;
+    if (gap < 0) {
+      stage.discard(event);
+      return;
     }
-
-    synchronized (stream) {
-      RemoteEvent<byte[]> event;
-      while ((event = stream.consume()) != null) {
-        handler.onNext(event);
-      }
+    if (gap > 0) {
+      LOG.log(Level.FINER, "Event sequence {0} is ahead of the expected {1}", new Object[]{seq, seq - gap});
+      stage.outOfOrder(gap);
     }
-  }
-}
 
-class OrderedEventStream {
-  private static final Logger LOG = Logger.getLogger(OrderedEventStream.class.getName());
-  private final BlockingQueue<RemoteEvent<byte[]>> queue; // a queue of remote events
-  private long nextSeq; // the number of the next event to consume
+    if (gap < CAPACITY) {
+      ring.set((int) (seq & MASK), event);
+    } else {
+      overflow.add(event);
+    }
 
-  OrderedEventStream() {
-    queue = new PriorityBlockingQueue<>(11, new RemoteEventComparator<byte[]>());
-    nextSeq = 0;
+    if (scheduled.compareAndSet(false, true)) {
+      stage.execute(this);
+    }
   }
 
-  synchronized void add(final RemoteEvent<byte[]> event) {
-    queue.add(event);
+  /**
+   * Delivers the events that are next in sequence.
+   */
+  @Override
+  public void run() {
+    int delivered = 0;
+    while (true) {
+      while (delivered < BATCH_SIZE) {
+        final RemoteEvent<byte[]> event = poll();
+        if (event == null) {
+          break;
+        }
+        stage.deliver(event);
+        ++delivered;
+      }
+      if (delivered >= BATCH_SIZE) {
+        // stay scheduled, but let the other streams run first
+        stage.execute(this);
+        return;
+      }
+      scheduled.set(false);
+      // an event added after the last poll but before the flag was cleared did not schedule a drain
+      if (!hasNext() || !scheduled.compareAndSet(false, true)) {
+        return;
+      }
+    }
   }
 
-  synchronized RemoteEvent<byte[]> consume() {
-    RemoteEvent<byte[]> event = queue.peek();
+  private RemoteEvent<byte[]> poll() {
+    final long seq = nextSeq;
+    final int index = (int) (seq & MASK);
+    RemoteEvent<byte[]> event = ring.get(index);
     if (event != null) {
-
-      if (event.getSeq() == nextSeq) {
-        event = queue.poll();
-        ++nextSeq;
-        return event;
-      } else {
-        LOG.log(Level.FINER, "Event sequence is {0} does not match expected {1}",
-            new Object[]{event.getSeq(), nextSeq});
-      }
+      // clear the slot before moving on; the producer relies on it being free once nextSeq passes it
+      ring.set(index, null);
     } else {
-      LOG.log(Level.FINER, "Event is null");
+      final RemoteEvent<byte[]> head = overflow.peek();
+      if (head == null || head.getSeq() != seq) {
+        return null;
+      }
+      event = overflow.poll();
     }
+    nextSeq = seq + 1;
+    return event;
+  }
 
-    return null;
+  private boolean hasNext() {
+    final long seq = nextSeq;
+    if (ring.get((int) (seq & MASK)) != null) {
+      return true;
+    }
+    final RemoteEvent<byte[]> head = overflow.peek();
+    return head != null && head.getSeq() == seq;
   }
 }
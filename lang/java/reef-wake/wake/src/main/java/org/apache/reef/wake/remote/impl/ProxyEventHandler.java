@@ -38,6 +38,7 @@ public class ProxyEventHandler<T> implements EventHandler<T> {
   private final String remoteSinkName;
   private final EventHandler<RemoteEvent<T>> handler;
   private final RemoteSeqNumGenerator seqGen;
+  private final int streamId;
 
   /**
    * Constructs a proxy event handler.
@@ -49,6 +50,23 @@ public class ProxyEventHandler<T> implements EventHandler<T> {
    */
   public ProxyEventHandler(final RemoteIdentifier myId, final RemoteIdentifier remoteId, final String remoteSinkName,
                            final EventHandler<RemoteEvent<T>> handler, final RemoteSeqNumGenerator seqGen) {
+    this(myId, remoteId, remoteSinkName, handler, seqGen, 0);
+  }
+
+  /**
+   * Constructs a proxy event handler whose events belong to a stream of the destination.
+   * If the transport pools connections, each stream may arrive on its own connection,
+   * and streams that share a connection are told apart by the stream identifier sent with each event.
+   *
+   * @param myId           my identifier
+   * @param remoteId       the remote identifier
+   * @param remoteSinkName the remote sink name
+   * @param streamId       the stream identifier
+   * @throws RemoteRuntimeException
+   */
+  public ProxyEventHandler(final RemoteIdentifier myId, final RemoteIdentifier remoteId, final String remoteSinkName,
+                           final EventHandler<RemoteEvent<T>> handler, final RemoteSeqNumGenerator seqGen,
+                           final int streamId) {
     LOG.log(Level.FINE, "ProxyEventHandler myId: {0} remoteId: {1} remoteSink: {2} handler: {3}",
         new Object[]{myId, remoteId, remoteSinkName, handler});
     if (!(myId instanceof SocketRemoteIdentifier && remoteId instanceof SocketRemoteIdentifier)) {
@@ -60,6 +78,7 @@ public class ProxyEventHandler<T> implements EventHandler<T> {
     this.remoteSinkName = remoteSinkName;
     this.handler = handler;
     this.seqGen = seqGen;
+    this.streamId = streamId;
   }
 
   /**
@@ -72,8 +91,8 @@ public class ProxyEventHandler<T> implements EventHandler<T> {
     if (LOG.isLoggable(Level.FINE)) {
       LOG.log(Level.FINE, "remoteid: {0}\n{1}", new Object[]{remoteId.getSocketAddress(), event.toString()});
     }
-    handler.onNext(new RemoteEvent<T>(myId.getSocketAddress(), remoteId.getSocketAddress(),
-        seqGen.getNextSeq(remoteId.getSocketAddress()), event));
+    handler.onNext(new RemoteEvent<T>(myId.getSocketAddress(), remoteId.getSocketAddress(), streamId,
+        seqGen.getNextSeq(remoteId.getSocketAddress(), streamId), event));
   }
 
   /**
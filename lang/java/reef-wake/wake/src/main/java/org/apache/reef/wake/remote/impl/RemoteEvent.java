@@ -29,6 +29,7 @@ public class RemoteEvent<T> {
 
   private final T event;
   private final long seq;
+  private final int streamId;
   //private static final AtomicLong curSeq = new AtomicLong(0);
   private SocketAddress localAddr;
   private SocketAddress remoteAddr;
@@ -42,8 +43,25 @@ public class RemoteEvent<T> {
    * @param event      the event
    */
   public RemoteEvent(final SocketAddress localAddr, final SocketAddress remoteAddr, final long seq, final T event) {
+    this(localAddr, remoteAddr, 0, seq, event);
+  }
+
+  /**
+   * Constructs a remote event that belongs to a stream of the destination.
+   * Events of a stream are sent over the same connection and numbered by their own sequence.
+   * The stream identifier travels with the event, so the receiver orders each stream of a connection on its own.
+   *
+   * @param localAddr  the local socket address
+   * @param remoteAddr the remote socket address
+   * @param streamId   the stream identifier
+   * @param seq        the sequence number within the stream
+   * @param event      the event
+   */
+  public RemoteEvent(final SocketAddress localAddr, final SocketAddress remoteAddr, final int streamId,
+                     final long seq, final T event) {
     this.localAddr = localAddr;
     this.remoteAddr = remoteAddr;
+    this.streamId = streamId;
     this.event = event;
     this.seq = seq;
   }
@@ -84,6 +102,16 @@ public class RemoteEvent<T> {
     return seq;
   }
 
+  /**
+   * Gets the stream identifier.
+   * It is sent to the remote side, which orders the events of a connection per stream.
+   *
+   * @return the stream identifier
+   */
+  public int getStreamId() {
+    return streamId;
+  }
+
   /**
    * Sets the local socket address.
    *
@@ -114,6 +142,8 @@ public class RemoteEvent<T> {
     builder.append(localAddr);
     builder.append(" remoteAddr=");
     builder.append(remoteAddr);
+    builder.append(" stream=");
+    builder.append(streamId);
     builder.append(" seq=");
     builder.append(seq);
     builder.append(" event=");
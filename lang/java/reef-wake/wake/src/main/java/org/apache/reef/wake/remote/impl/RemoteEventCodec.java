@@ -18,6 +18,8 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import io.netty.buffer.ByteBuf;
+import org.apache.reef.wake.remote.BufferDecoder;
 import org.apache.reef.wake.remote.Codec;
 
 /**
@@ -25,7 +27,7 @@ import org.apache.reef.wake.remote.Codec;
  *
  * @param <T> type
  */
-public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>> {
+public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>>, BufferDecoder<RemoteEvent<T>> {
 
   private final RemoteEventEncoder<T> encoder;
   private final RemoteEventDecoder<T> decoder;
@@ -36,7 +38,18 @@ public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>> {
    * @param codec the codec for the event
    */
   public RemoteEventCodec(final Codec<T> codec) {
-    encoder = new RemoteEventEncoder<>(codec);
+    this(codec, RemoteEventFormat.PROTOBUF);
+  }
+
+  /**
+   * Constructs a remote event codec that encodes in the given wire format.
+   * Decoding accepts every format.
+   *
+   * @param codec  the codec for the event
+   * @param format the wire format of encoded remote events
+   */
+  public RemoteEventCodec(final Codec<T> codec, final RemoteEventFormat format) {
+    encoder = new RemoteEventEncoder<>(codec, format);
     decoder = new RemoteEventDecoder<>(codec);
   }
 
@@ -62,4 +75,15 @@ public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>> {
     return decoder.decode(data);
   }
 
+  /**
+   * Decodes a remote event object from the readable bytes of the buffer.
+   *
+   * @param buffer the buffer
+   * @return a remote event object
+   */
+  @Override
+  public RemoteEvent<T> decode(final ByteBuf buffer) {
+    return decoder.decode(buffer);
+  }
+
 }
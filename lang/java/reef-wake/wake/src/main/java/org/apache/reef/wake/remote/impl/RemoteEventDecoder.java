@@ -19,6 +19,9 @@
 package org.apache.reef.wake.remote.impl;
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.reef.wake.remote.BufferDecoder;
 import org.apache.reef.wake.remote.Decoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
@@ -28,7 +31,7 @@ import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
  *
  * @param <T> type
  */
-public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>> {
+public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>>, BufferDecoder<RemoteEvent<T>> {
 
   private final Decoder<T> decoder;
 
@@ -43,6 +46,7 @@ public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>> {
 
   /**
    * Decodes a remote event from the byte array data.
+   * Both the framed and the protocol buffer formats are accepted.
    *
    * @param data the byte array data
    * @return a remote event object
@@ -50,13 +54,47 @@ public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>> {
    */
   @Override
   public RemoteEvent<T> decode(final byte[] data) {
+    return decode(Unpooled.wrappedBuffer(data));
+  }
+
+  /**
+   * Decodes a remote event from the readable bytes of the buffer.
+   * Both the framed and the protocol buffer formats are accepted.
+   *
+   * @param buffer the buffer
+   * @return a remote event object
+   * @throws RemoteRuntimeException
+   */
+  @Override
+  public RemoteEvent<T> decode(final ByteBuf buffer) {
+    if (RemoteEventFormat.isFramed(buffer)) {
+      return decodeFramed(buffer);
+    }
     final WakeMessagePBuf pbuf;
     try {
-      pbuf = WakeMessagePBuf.parseFrom(data);
-      return new RemoteEvent<T>(null, null, pbuf.getSeq(), decoder.decode(pbuf.getData().toByteArray()));
+      pbuf = WakeMessagePBuf.parseFrom(BufferDecoderAdapter.toByteArray(buffer));
+      return new RemoteEvent<T>(null, null, pbuf.getStream(), pbuf.getSeq(),
+          decoder.decode(pbuf.getData().toByteArray()));
     } catch (final InvalidProtocolBufferException e) {
       throw new RemoteRuntimeException(e);
     }
   }
 
+  /**
+   * Decodes a framed remote event. The payload is decoded in place if the event decoder
+   * is a {@link BufferDecoder}, and copied out once otherwise.
+   */
+  private RemoteEvent<T> decodeFramed(final ByteBuf buffer) {
+    final int start = buffer.readerIndex();
+    final int streamId = buffer.getInt(start + 1);
+    final long seq = buffer.getLong(start + 1 + Integer.SIZE / Byte.SIZE);
+    final int length = buffer.getInt(start + RemoteEventFormat.FRAMED_HEADER_SIZE - Integer.SIZE / Byte.SIZE);
+    if (length < 0 || length != buffer.readableBytes() - RemoteEventFormat.FRAMED_HEADER_SIZE) {
+      throw new RemoteRuntimeException("Invalid payload length " + length + " of a framed remote event of " +
+          buffer.readableBytes() + " bytes");
+    }
+    final T event = BufferDecoderAdapter.of(decoder).decode(
+        buffer.slice(start + RemoteEventFormat.FRAMED_HEADER_SIZE, length));
+    return new RemoteEvent<T>(null, null, streamId, seq, event);
+  }
 }
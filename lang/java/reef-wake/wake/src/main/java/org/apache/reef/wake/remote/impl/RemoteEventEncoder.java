@@ -19,26 +19,44 @@
 package org.apache.reef.wake.remote.impl;
 
 import com.google.protobuf.ByteString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import org.apache.reef.wake.remote.BufferEncoder;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
 /**
  * Remote event encoder using the WakeMessage protocol buffer.
  *
  * @param <T> type
  */
-public class RemoteEventEncoder<T> implements Encoder<RemoteEvent<T>> {
+public class RemoteEventEncoder<T> implements Encoder<RemoteEvent<T>>, BufferEncoder<RemoteEvent<T>> {
 
   private final Encoder<T> encoder;
+  private final RemoteEventFormat format;
 
   /**
-   * Constructs a remote event encoder.
+   * Constructs a remote event encoder of the protocol buffer format.
    *
    * @param encoder the encoder of the event
    */
   public RemoteEventEncoder(final Encoder<T> encoder) {
+    this(encoder, RemoteEventFormat.PROTOBUF);
+  }
+
+  /**
+   * Constructs a remote event encoder.
+   *
+   * @param encoder the encoder of the event
+   * @param format  the wire format of the remote event
+   */
+  public RemoteEventEncoder(final Encoder<T> encoder, final RemoteEventFormat format) {
     this.encoder = encoder;
+    this.format = format;
   }
 
   /**
@@ -54,11 +72,66 @@ public class RemoteEventEncoder<T> implements Encoder<RemoteEvent<T>> {
       throw new RemoteRuntimeException("Event is null");
     }
 
+    if (format == RemoteEventFormat.FRAMED) {
+      final byte[] payload = encoder.encode(obj.getEvent());
+      final byte[] data = new byte[RemoteEventFormat.FRAMED_HEADER_SIZE + payload.length];
+      ByteBuffer.wrap(data)
+          .put(RemoteEventFormat.FRAMED_MAGIC)
+          .putInt(obj.getStreamId())
+          .putLong(obj.getSeq())
+          .putInt(payload.length)
+          .put(payload);
+      return data;
+    }
+
     final WakeMessagePBuf.Builder builder = WakeMessagePBuf.newBuilder();
     builder.setSeq(obj.getSeq());
+    if (obj.getStreamId() != 0) {
+      builder.setStream(obj.getStreamId());
+    }
     builder.setData(ByteString.copyFrom(encoder.encode(obj.getEvent())));
 
     return builder.build().toByteArray();
   }
 
+  /**
+   * Encodes the remote event into the buffer.
+   * In the framed format, the event is encoded in place after the header
+   * if the event encoder is a {@link BufferEncoder}.
+   *
+   * @param obj    the remote event
+   * @param buffer the buffer to write to
+   * @throws RemoteRuntimeException
+   */
+  @Override
+  public void encode(final RemoteEvent<T> obj, final ByteBuf buffer) {
+    if (obj.getEvent() == null) {
+      throw new RemoteRuntimeException("Event is null");
+    }
+
+    if (format != RemoteEventFormat.FRAMED) {
+      final WakeMessagePBuf.Builder builder = WakeMessagePBuf.newBuilder();
+      builder.setSeq(obj.getSeq());
+      if (obj.getStreamId() != 0) {
+        builder.setStream(obj.getStreamId());
+      }
+      builder.setData(ByteString.copyFrom(encoder.encode(obj.getEvent())));
+      try {
+        builder.build().writeTo(new ByteBufOutputStream(buffer));
+      } catch (final IOException e) {
+        throw new RemoteRuntimeException(e);
+      }
+      return;
+    }
+
+    final int start = buffer.writerIndex();
+    buffer.writeByte(RemoteEventFormat.FRAMED_MAGIC)
+        .writeInt(obj.getStreamId())
+        .writeLong(obj.getSeq())
+        .writeInt(0);
+    BufferEncoderAdapter.of(encoder).encode(obj.getEvent(), buffer);
+    buffer.setInt(start + RemoteEventFormat.FRAMED_HEADER_SIZE - Integer.SIZE / Byte.SIZE,
+        buffer.writerIndex() - start - RemoteEventFormat.FRAMED_HEADER_SIZE);
+  }
+
 }
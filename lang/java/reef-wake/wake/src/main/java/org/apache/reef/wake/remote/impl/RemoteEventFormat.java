@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Wire formats of a remote event.
+ * <p>
+ * A framed remote event starts with a magic byte, followed by the stream identifier (4 bytes),
+ * the sequence number (8 bytes) and the length of the payload (4 bytes) in network byte order,
+ * and then the payload.
+ * The magic byte carries the invalid protobuf wire type 7, so a decoder can tell the formats apart
+ * and accepts both regardless of the format its sender chose.
+ */
+public enum RemoteEventFormat {
+
+  /**
+   * The event is wrapped in a WakeMessagePBuf protocol buffer.
+   */
+  PROTOBUF,
+
+  /**
+   * The event is written after a fixed-size binary header.
+   */
+  FRAMED;
+
+  /**
+   * The first byte of a framed remote event.
+   */
+  static final byte FRAMED_MAGIC = (byte) 0xF7;
+
+  /**
+   * The size of the header of a framed remote event: magic, stream identifier, sequence number and payload length.
+   */
+  static final int FRAMED_HEADER_SIZE = 1 + Integer.SIZE / Byte.SIZE + Long.SIZE / Byte.SIZE + Integer.SIZE / Byte.SIZE;
+
+  /**
+   * Checks whether the encoded remote event in the readable bytes of the buffer is in the framed format.
+   *
+   * @param buffer the encoded remote event
+   * @return true if it is framed
+   */
+  static boolean isFramed(final ByteBuf buffer) {
+    return buffer.readableBytes() >= FRAMED_HEADER_SIZE && buffer.getByte(buffer.readerIndex()) == FRAMED_MAGIC;
+  }
+}
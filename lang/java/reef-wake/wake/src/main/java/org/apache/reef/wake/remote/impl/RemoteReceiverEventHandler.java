@@ -45,12 +45,18 @@ class RemoteReceiverEventHandler implements EventHandler<TransportEvent> {
 
   /**
    * Handles the event received from a remote node.
+   * The event is decoded from the received buffer, which is released afterwards.
    *
    * @param e the event
    */
   @Override
   public void onNext(final TransportEvent e) {
-    final RemoteEvent<byte[]> re = codec.decode(e.getData());
+    final RemoteEvent<byte[]> re;
+    try {
+      re = codec.decode(e.getBuffer());
+    } finally {
+      e.release();
+    }
     re.setLocalAddress(e.getLocalAddress());
     re.setRemoteAddress(e.getRemoteAddress());
 
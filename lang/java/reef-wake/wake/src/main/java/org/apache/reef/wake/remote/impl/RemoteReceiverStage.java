@@ -27,15 +27,15 @@ import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Receive incoming events and dispatch to correct handlers.
+ * The received buffer of an event is released once a thread of the stage has decoded it.
  */
-public class RemoteReceiverStage implements EStage<TransportEvent> {
+public class RemoteReceiverStage implements EStage<TransportEvent>, TransportBufferConsumer {
 
   private static final Logger LOG = Logger.getLogger(RemoteReceiverStage.class.getName());
 
@@ -54,11 +54,25 @@ public class RemoteReceiverStage implements EStage<TransportEvent> {
    */
   public RemoteReceiverStage(final EventHandler<RemoteEvent<byte[]>> handler,
                              final EventHandler<Throwable> errorHandler, final int numThreads) {
+    this(handler, errorHandler, numThreads, false);
+  }
+
+  /**
+   * Constructs a remote receiver stage.
+   *
+   * @param handler        the handler of remote events
+   * @param errorHandler   the exception handler
+   * @param numThreads     the number of threads
+   * @param virtualThreads whether to use virtual threads if the JVM supports them
+   */
+  public RemoteReceiverStage(final EventHandler<RemoteEvent<byte[]>> handler,
+                             final EventHandler<Throwable> errorHandler, final int numThreads,
+                             final boolean virtualThreads) {
 
     this.handler = new RemoteReceiverEventHandler(handler);
 
-    this.executor = Executors.newFixedThreadPool(
-        numThreads, new DefaultThreadFactory(RemoteReceiverStage.class.getName()));
+    this.executor = new DefaultThreadFactory(RemoteReceiverStage.class.getName(), virtualThreads)
+        .newThreadPool(numThreads);
 
     this.stage = new ThreadPoolStage<>(this.handler, this.executor, errorHandler);
   }
@@ -21,7 +21,9 @@ package org.apache.reef.wake.remote.impl;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
+import org.apache.reef.wake.remote.transport.BufferLink;
 import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.MultiplexedLink;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
 
@@ -52,9 +54,11 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
    * @param encoder   the encoder
    * @param transport the transport to send events
    * @param executor  the executor service used for creating channels
+   * @param format    the wire format of the remote events
    */
-  RemoteSenderEventHandler(final Encoder<T> encoder, final Transport transport, final ExecutorService executor) {
-    this.encoder = new RemoteEventEncoder<>(encoder);
+  RemoteSenderEventHandler(final Encoder<T> encoder, final Transport transport, final ExecutorService executor,
+                           final RemoteEventFormat format) {
+    this.encoder = new RemoteEventEncoder<>(encoder, format);
     this.transport = transport;
     this.executor = executor;
     this.linkRef = new AtomicReference<>();
@@ -72,7 +76,7 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
       RemoteEvent<T> event;
       while ((event = queue.poll(0, TimeUnit.MICROSECONDS)) != null) {
         LOG.log(Level.FINEST, "{0}", event);
-        linkRef.get().write(encoder.encode(event));
+        write(event);
       }
     } catch (final InterruptedException e) {
       e.printStackTrace();
@@ -80,6 +84,21 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
     }
   }
 
+  /**
+   * Writes the event to the connection of its stream if the link is multiplexed.
+   * A link that supports it encodes the event directly into the buffer written to its connection.
+   */
+  private void write(final RemoteEvent<T> event) {
+    final Link<byte[]> link = linkRef.get();
+    if (link instanceof BufferLink) {
+      ((BufferLink) link).write(event, encoder, event.getStreamId());
+    } else if (link instanceof MultiplexedLink) {
+      ((MultiplexedLink<byte[]>) link).write(encoder.encode(event), event.getStreamId());
+    } else {
+      link.write(encoder.encode(event));
+    }
+  }
+
   /**
    * Handles the event to send to a remote node.
    *
@@ -111,7 +130,7 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
           LOG.log(Level.FINEST, "Send an event from " + linkRef.get().getLocalAddress() + " to " +
               linkRef.get().getRemoteAddress() + " value " + value);
         }
-        linkRef.get().write(encoder.encode(value));
+        write(value);
       }
     } catch (final RemoteRuntimeException ex2) {
       ex2.printStackTrace();
@@ -28,7 +28,6 @@ import org.apache.reef.wake.remote.transport.Transport;
 
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -45,6 +44,7 @@ public class RemoteSenderStage implements Stage {
   private final ExecutorService executor;
   private final Encoder encoder;
   private final Transport transport;
+  private final RemoteEventFormat format;
 
   /**
    * Constructs a remote sender stage.
@@ -54,10 +54,39 @@ public class RemoteSenderStage implements Stage {
    * @param numThreads the number of threads
    */
   public RemoteSenderStage(final Encoder encoder, final Transport transport, final int numThreads) {
+    this(encoder, transport, numThreads, RemoteEventFormat.PROTOBUF);
+  }
+
+  /**
+   * Constructs a remote sender stage.
+   *
+   * @param encoder    the encoder of the event
+   * @param transport  the transport to send events
+   * @param numThreads the number of threads
+   * @param format     the wire format of the remote events
+   */
+  public RemoteSenderStage(final Encoder encoder, final Transport transport, final int numThreads,
+                           final RemoteEventFormat format) {
+    this(encoder, transport, numThreads, format, false);
+  }
+
+  /**
+   * Constructs a remote sender stage.
+   * With virtual threads, a sender blocked on connecting to a remote address does not hold a platform thread.
+   *
+   * @param encoder        the encoder of the event
+   * @param transport      the transport to send events
+   * @param numThreads     the number of threads
+   * @param format         the wire format of the remote events
+   * @param virtualThreads whether to use virtual threads if the JVM supports them
+   */
+  public RemoteSenderStage(final Encoder encoder, final Transport transport, final int numThreads,
+                           final RemoteEventFormat format, final boolean virtualThreads) {
     this.encoder = encoder;
     this.transport = transport;
-    this.executor = Executors.newFixedThreadPool(
-        numThreads, new DefaultThreadFactory(RemoteSenderStage.class.getName()));
+    this.format = format;
+    this.executor = new DefaultThreadFactory(RemoteSenderStage.class.getName(), virtualThreads)
+        .newThreadPool(numThreads);
   }
 
   /**
@@ -66,7 +95,7 @@ public class RemoteSenderStage implements Stage {
    * @return a remote sender event handler
    */
   public <T> EventHandler<RemoteEvent<T>> getHandler() {
-    return new RemoteSenderEventHandler<T>(encoder, transport, executor);
+    return new RemoteSenderEventHandler<T>(encoder, transport, executor, format);
   }
 
   /**
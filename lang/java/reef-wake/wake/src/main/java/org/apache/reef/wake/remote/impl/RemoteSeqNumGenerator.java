@@ -25,22 +25,40 @@ import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
- * Generates the sequence number for remote messages per destination.
+ * Generates the sequence number for remote messages per destination and stream.
  */
 public class RemoteSeqNumGenerator {
 
-  private final ConcurrentMap<SocketAddress, AtomicLong> seqMap;
+  private final ConcurrentMap<SocketAddress, ConcurrentMap<Integer, AtomicLong>> seqMap;
 
   public RemoteSeqNumGenerator() {
     seqMap = new ConcurrentHashMap<>();
   }
 
   public long getNextSeq(final SocketAddress addr) {
-    AtomicLong seq = seqMap.get(addr);
+    return getNextSeq(addr, 0);
+  }
+
+  /**
+   * Returns the next sequence number of a stream to the destination.
+   *
+   * @param addr     the destination address
+   * @param streamId the stream identifier
+   * @return the sequence number
+   */
+  public long getNextSeq(final SocketAddress addr, final int streamId) {
+    ConcurrentMap<Integer, AtomicLong> streams = seqMap.get(addr);
+    if (streams == null) {
+      streams = new ConcurrentHashMap<>();
+      if (seqMap.putIfAbsent(addr, streams) != null) {
+        streams = seqMap.get(addr);
+      }
+    }
+    AtomicLong seq = streams.get(streamId);
     if (seq == null) {
       seq = new AtomicLong(0);
-      if (seqMap.putIfAbsent(addr, seq) != null) {
-        seq = seqMap.get(addr);
+      if (streams.putIfAbsent(streamId, seq) != null) {
+        seq = streams.get(streamId);
       }
     }
     return seq.getAndIncrement();
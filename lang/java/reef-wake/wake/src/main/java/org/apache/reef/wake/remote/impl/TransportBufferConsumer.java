@@ -0,0 +1,31 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+/**
+ * Marks a stage that takes over the received buffers of the transport events it is given.
+ * <p>
+ * A transport passes such a stage events that hold a reference to the buffer the message arrived in,
+ * so that it can be decoded without copying. The stage must release every event it accepts,
+ * with {@link TransportEvent#release()} or {@link TransportEvent#getData()}, once it no longer needs the buffer.
+ * If its onNext throws, the transport releases the event. Any other stage gets events holding a copy
+ * of the message, which need not be released.
+ */
+public interface TransportBufferConsumer {
+}
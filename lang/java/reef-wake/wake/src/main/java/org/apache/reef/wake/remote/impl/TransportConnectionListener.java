@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import java.net.SocketAddress;
+
+/**
+ * Implemented by a stage of transport events that keeps state per connection,
+ * so that the transport can tell it when a connection is gone.
+ */
+public interface TransportConnectionListener {
+
+  /**
+   * Called by the transport after a connection has closed. No more events arrive from it.
+   *
+   * @param remoteAddress the remote address of the connection, as in the transport events it delivered
+   */
+  void onConnectionClosed(SocketAddress remoteAddress);
+}
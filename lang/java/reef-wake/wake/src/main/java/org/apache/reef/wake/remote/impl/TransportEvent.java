@@ -18,6 +18,8 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.reef.wake.remote.transport.Link;
 
 import java.net.SocketAddress;
@@ -25,9 +27,15 @@ import java.net.SocketAddress;
 
 /**
  * Event sent from a remote node.
+ * <p>
+ * An event received by a transport holds a copy of the message, unless the stage it is given to is a
+ * {@link TransportBufferConsumer}. Such a stage gets events holding a reference to the received buffer,
+ * so that it can decode them without copying. The reference is given up by {@link #getData()},
+ * which copies the data out of the buffer, or by {@link #release()} once the buffer has been decoded.
  */
 public class TransportEvent {
-  private final byte[] data;
+  private byte[] data;
+  private ByteBuf buffer;
   private final SocketAddress localAddr;
   private final SocketAddress remoteAddr;
   private final Link<byte[]> link;
@@ -46,6 +54,21 @@ public class TransportEvent {
     link = null;
   }
 
+  /**
+   * Constructs an object event of a received buffer.
+   * The event takes over the reference to the buffer.
+   *
+   * @param buffer     the received buffer
+   * @param localAddr  the local socket address
+   * @param remoteAddr the remote socket address
+   */
+  public TransportEvent(final ByteBuf buffer, final SocketAddress localAddr, final SocketAddress remoteAddr) {
+    this.buffer = buffer;
+    this.localAddr = localAddr;
+    this.remoteAddr = remoteAddr;
+    link = null;
+  }
+
   /**
    * Constructs the transport even object using link to.
    * initialize local and remote address if link not null
@@ -54,7 +77,24 @@ public class TransportEvent {
    * @param link
    */
   public TransportEvent(final byte[] data, final Link<byte[]> link) {
+    this(link);
     this.data = data;
+  }
+
+  /**
+   * Constructs the transport event of a received buffer using link to
+   * initialize local and remote address if link not null.
+   * The event takes over the reference to the buffer.
+   *
+   * @param buffer the received buffer
+   * @param link   the link the buffer was received from
+   */
+  public TransportEvent(final ByteBuf buffer, final Link<byte[]> link) {
+    this(link);
+    this.buffer = buffer;
+  }
+
+  private TransportEvent(final Link<byte[]> link) {
     this.link = link;
     if (this.link != null) {
       localAddr = link.getLocalAddress();
@@ -67,13 +107,50 @@ public class TransportEvent {
 
   /**
    * Gets the data.
+   * The data of a received buffer is copied out on the first call, and the buffer is released.
    *
    * @return data
+   * @throws IllegalStateException if the buffer has been released before the data was copied
    */
-  public byte[] getData() {
+  public synchronized byte[] getData() {
+    if (data == null) {
+      if (buffer == null) {
+        throw new IllegalStateException("The buffer of the transport event has been released");
+      }
+      data = BufferDecoderAdapter.toByteArray(buffer);
+      release();
+    }
     return data;
   }
 
+  /**
+   * Gets the data as a buffer, without copying.
+   * The buffer is valid until {@link #release()} is called.
+   *
+   * @return the buffer of the data
+   * @throws IllegalStateException if the buffer has been released before the data was copied
+   */
+  public synchronized ByteBuf getBuffer() {
+    if (buffer != null) {
+      return buffer;
+    }
+    if (data == null) {
+      throw new IllegalStateException("The buffer of the transport event has been released");
+    }
+    return Unpooled.wrappedBuffer(data);
+  }
+
+  /**
+   * Releases the received buffer, if the event still holds it.
+   * It is safe to call this more than once.
+   */
+  public synchronized void release() {
+    if (buffer != null) {
+      buffer.release();
+      buffer = null;
+    }
+  }
+
   /**
    * Returns the link associated with the event.
    * which can be used to write back to the client
@@ -84,7 +161,6 @@ public class TransportEvent {
   public Link<byte[]> getLink() {
     return link;
   }
-
   /**
    * Gets the local socket address.
    *
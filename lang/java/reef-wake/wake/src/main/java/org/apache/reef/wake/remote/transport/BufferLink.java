@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport;
+
+import org.apache.reef.wake.remote.BufferEncoder;
+
+/**
+ * Link that encodes a message directly into the buffer written to its connection,
+ * with an encoder given per write instead of the encoder of the link.
+ * <p>
+ * The link listener is not notified of these writes; failures are logged.
+ */
+public interface BufferLink {
+
+  /**
+   * Asynchronously encodes the value into a buffer of the link and writes it.
+   * On a multiplexed link, the value is written to the connection of the stream.
+   *
+   * @param value    the data value.
+   * @param encoder  the encoder of the value.
+   * @param streamId the stream identifier.
+   * @param <V>      type of the value.
+   */
+  <V> void write(V value, BufferEncoder<? super V> encoder, int streamId);
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport;
+
+/**
+ * Link that spreads messages over several connections to the same remote endpoint.
+ * <p>
+ * Messages written with {@link #write(Object)} are delivered in order unless the link is configured
+ * to spread them over its connections. Messages written to the same stream with
+ * {@link #write(Object, int)} always use the same connection and are delivered in order.
+ *
+ * @param <T> type of the message.
+ */
+public interface MultiplexedLink<T> extends Link<T> {
+
+  /**
+   * Asynchronously writes the value to the connection of the stream.
+   *
+   * @param value    the data value.
+   * @param streamId the stream identifier.
+   */
+  void write(T value, int streamId);
+
+  /**
+   * Gets the number of connections messages are spread over.
+   * Streams whose identifiers are equal modulo this number share a connection.
+   *
+   * @return the number of connections.
+   */
+  int getNumConnections();
+}
@@ -18,10 +18,14 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.remote.impl.TransportBufferConsumer;
+import org.apache.reef.wake.remote.impl.TransportConnectionListener;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 
 import java.net.SocketAddress;
@@ -56,16 +60,28 @@ abstract class AbstractNettyEventListener implements NettyEventListener {
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
     final Channel channel = ctx.channel();
-    final byte[] message = (byte[]) msg;
+    final ByteBuf message = msg instanceof ByteBuf ? (ByteBuf) msg : Unpooled.wrappedBuffer((byte[]) msg);
 
     if (LOG.isLoggable(Level.FINEST)) {
       LOG.log(Level.FINEST, "MessageEvent: local: {0} remote: {1} :: {2}", new Object[]{
           channel.localAddress(), channel.remoteAddress(), message});
     }
 
-    if (message.length > 0) {
-      // send to the dispatch stage
-      this.stage.onNext(this.getTransportEvent(message, channel));
+    if (message.isReadable()) {
+      // the channel handler releases the message after this call: a stage that takes over received buffers
+      // gets its own reference, so that it can decode the message without copying it; any other gets a copy
+      final TransportEvent event = this.getTransportEvent(
+          this.stage instanceof TransportBufferConsumer ? message.retain() : copy(message), channel);
+      boolean dispatched = false;
+      try {
+        // send to the dispatch stage
+        this.stage.onNext(event);
+        dispatched = true;
+      } finally {
+        if (!dispatched) {
+          event.release();
+        }
+      }
     }
   }
 
@@ -83,9 +99,18 @@ abstract class AbstractNettyEventListener implements NettyEventListener {
   @Override
   public void channelInactive(final ChannelHandlerContext ctx) {
     this.closeChannel(ctx.channel());
+    if (this.stage instanceof TransportConnectionListener && ctx.channel().remoteAddress() != null) {
+      ((TransportConnectionListener) this.stage).onConnectionClosed(ctx.channel().remoteAddress());
+    }
+  }
+
+  private static ByteBuf copy(final ByteBuf message) {
+    final byte[] data = new byte[message.readableBytes()];
+    message.getBytes(message.readerIndex(), data);
+    return Unpooled.wrappedBuffer(data);
   }
 
-  protected abstract TransportEvent getTransportEvent(final byte[] message, final Channel channel);
+  protected abstract TransportEvent getTransportEvent(final ByteBuf message, final Channel channel);
 
   protected abstract void exceptionCleanup(final ChannelHandlerContext ctx, Throwable cause);
 
@@ -53,6 +53,11 @@ public class ChunkedReadWriteHandler extends ChunkedWriteHandler {
 
   private static final Logger LOG = Logger.getLogger(ChunkedReadWriteHandler.class.getName());
 
+  /**
+   * The maximum size of a chunk written to the channel, leaving room for the frame header.
+   */
+  private static final int CHUNK_SIZE = NettyChannelInitializer.MAXFRAMELENGTH - 1024;
+
   private boolean start = true;
   private int expectedSize = 0;
 
@@ -60,45 +65,42 @@ public class ChunkedReadWriteHandler extends ChunkedWriteHandler {
   private byte[] retArr;
 
   /**
+   * Reassembles chunked messages.
+   * A message that arrives in a single frame is passed upstream as the frame buffer itself, without copying;
+   * a message that spans several frames is accumulated into a byte array of the expected size.
+   *
    * @see org.jboss.netty.handler.stream.ChunkedWriteHandler#handleUpstream(
    *      org.jboss.netty.channel.ChannelHandlerContext, org.jboss.netty.channel.ChannelEvent)
    */
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
 
-    if (msg instanceof byte[]) {
+    if (msg instanceof ByteBuf) {
 
-      final byte[] data = (byte[]) msg;
+      final ByteBuf data = (ByteBuf) msg;
 
       if (start) {
-        //LOG.log(Level.FINEST, "{0} Starting dechunking of a chunked write", curThrName);
         expectedSize = getSize(data);
-        // LOG.log(Level.FINEST, "Expected Size = {0}. Wrapping byte[{1}] into a ChannelBuffer",
-        // new Object[]{expectedSize,expectedSize});
+        if (data.readableBytes() == expectedSize) {
+          // the whole message is in this frame: hand the frame over as is
+          super.channelRead(ctx, data);
+          return;
+        }
         retArr = new byte[expectedSize];
         readBuffer = Unpooled.wrappedBuffer(retArr);
         readBuffer.clear();
-        //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, curThrName + "read buffer: cur sz = " +
-        // readBuffer.writerIndex() + " + " + (data.length - INT_SIZE) + " bytes will added by current chunk");
-        readBuffer.writeBytes(data, INT_SIZE, data.length - INT_SIZE);
-        //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, curThrName + "read buffer: new sz = " +
-        // readBuffer.writerIndex());
         start = false;
-      } else {
-        readBuffer.writeBytes(data);
       }
 
+      readBuffer.writeBytes(data);
+      data.release();
+
       if (readBuffer.writerIndex() == expectedSize) {
-        //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, "{0} Dechunking complete." +
-        // "Creating upstream msg event with the dechunked byte[{1}]", new Object[]{curThrName, expectedSize});
-        //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, "Resetting state to begin another dechunking",
-        // curThrName);
         final byte[] temp = retArr;
         start = true;
         expectedSize = 0;
         readBuffer.release();
         retArr = null;
-        //LOG.log(Level.FINEST, "{0} Sending dechunked message upstream", curThrName);
         super.channelRead(ctx, temp);
       }
     } else {
@@ -110,7 +112,8 @@ public class ChunkedReadWriteHandler extends ChunkedWriteHandler {
    * Thread-safe since there is no shared instance state.
    * Just prepend size to the message and stream it through
    * a chunked stream and let the base method handle the actual
-   * chunking.
+   * chunking. A message that fits in a single chunk is written
+   * directly, together with its size, without copying.
    * <p>
    * We do not need to tag the writes since the base class ChunkedWriteHandler
    * serializes access to the channel and first write will complete before
@@ -122,17 +125,15 @@ public class ChunkedReadWriteHandler extends ChunkedWriteHandler {
     if (msg instanceof ByteBuf) {
 
       final ByteBuf bf = (ByteBuf) msg;
+      final ByteBuf size = ctx.alloc().buffer(INT_SIZE).writeInt(Integer.reverseBytes(bf.readableBytes()));
+      final ByteBuf writeBuffer = Unpooled.wrappedBuffer(size, bf);
 
-      if (bf.hasArray()) {
-        final byte[] data = bf.array();
-        final byte[] size = sizeAsByteArr(data.length);
-        final ByteBuf writeBuffer = Unpooled.wrappedBuffer(size, data);
+      if (writeBuffer.readableBytes() <= CHUNK_SIZE) {
+        super.write(ctx, writeBuffer, promise);
+      } else {
         final ByteBufCloseableStream stream = new ByteBufCloseableStream(writeBuffer);
-        final ChunkedStream chunkedStream = new ChunkedStream(
-            stream, NettyChannelInitializer.MAXFRAMELENGTH - 1024);
+        final ChunkedStream chunkedStream = new ChunkedStream(stream, CHUNK_SIZE);
         super.write(ctx, chunkedStream, promise);
-      } else {
-        super.write(ctx, msg, promise);
       }
 
     } else {
@@ -141,40 +142,15 @@ public class ChunkedReadWriteHandler extends ChunkedWriteHandler {
   }
 
   /**
-   * Converts the int size into a byte[].
-   *
-   * @return the bit representation of size
+   * Get expected size encoded as the first 4 bytes (little endian) of data, and skip them.
    */
-  private byte[] sizeAsByteArr(final int size) {
-    final byte[] ret = new byte[INT_SIZE];
-    final ByteBuf intBuffer = Unpooled.wrappedBuffer(ret).order(Unpooled.LITTLE_ENDIAN);
-    intBuffer.clear();
-    intBuffer.writeInt(size);
-    intBuffer.release();
-    return ret;
-  }
-
-  /**
-   * Get expected size encoded as the first 4 bytes of data.
-   */
-  private int getSize(final byte[] data) {
-    return getSize(data, 0);
-  }
+  private int getSize(final ByteBuf data) {
 
-  /**
-   * Get expected size encoded as offset + 4 bytes of data.
-   */
-  private int getSize(final byte[] data, final int offset) {
-
-    if (data.length - offset < INT_SIZE) {
+    if (data.readableBytes() < INT_SIZE) {
       return 0;
     }
 
-    final ByteBuf intBuffer = Unpooled.wrappedBuffer(data, offset, INT_SIZE).order(Unpooled.LITTLE_ENDIAN);
-    final int ret = intBuffer.readInt();
-    intBuffer.release();
-
-    return ret;
+    return Integer.reverseBytes(data.readInt());
   }
 
   /**
@@ -20,7 +20,8 @@ package org.apache.reef.wake.remote.transport.netty;
 
 import org.apache.reef.wake.remote.transport.Link;
 
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A reference for a link.
@@ -28,7 +29,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 final class LinkReference {
 
-  private final AtomicInteger connectInProgress = new AtomicInteger(0);
+  private final AtomicReference<CountDownLatch> connectInProgress = new AtomicReference<>();
   private Link<?> link;
 
   LinkReference() {
@@ -46,7 +47,35 @@ final class LinkReference {
     this.link = link;
   }
 
-  AtomicInteger getConnectInProgress() {
-    return this.connectInProgress;
+  /**
+   * Starts connecting the link unless another thread is connecting it.
+   *
+   * @param done the latch the caller counts down with {@link #endConnect} once its connect is over
+   * @return true if the caller is to connect the link
+   */
+  boolean startConnect(final CountDownLatch done) {
+    return this.connectInProgress.compareAndSet(null, done);
+  }
+
+  /**
+   * Ends the connect started with the latch and wakes up the threads waiting for it.
+   *
+   * @param done the latch given to {@link #startConnect}
+   */
+  void endConnect(final CountDownLatch done) {
+    this.connectInProgress.compareAndSet(done, null);
+    done.countDown();
+  }
+
+  /**
+   * Waits until the connect in progress, if any, is over.
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  void awaitConnect() throws InterruptedException {
+    final CountDownLatch done = this.connectInProgress.get();
+    if (done != null) {
+      done.await();
+    }
   }
 }
@@ -39,10 +39,22 @@ import javax.inject.Inject;
 public final class MessagingTransportFactory implements TransportFactory {
 
   private final String localAddress;
+  private final NettyTransportOptions options;
 
   @Inject
-  private MessagingTransportFactory(final LocalAddressProvider localAddressProvider) {
+  private MessagingTransportFactory(final LocalAddressProvider localAddressProvider,
+                                    final NettyTransportOptions options) {
     this.localAddress = localAddressProvider.getLocalAddress();
+    this.options = options;
+  }
+
+  /**
+   * Binds the transport options this factory was configured with.
+   *
+   * @param injector the injector used to instantiate a transport
+   */
+  private void bindTransportOptions(final Injector injector) {
+    injector.bindVolatileInstance(NettyTransportOptions.class, this.options);
   }
 
   /**
@@ -64,6 +76,7 @@ public final class MessagingTransportFactory implements TransportFactory {
     injector.bindVolatileParameter(RemoteConfiguration.Port.class, port);
     injector.bindVolatileParameter(RemoteConfiguration.RemoteClientStage.class, new SyncStage<>(clientHandler));
     injector.bindVolatileParameter(RemoteConfiguration.RemoteServerStage.class, new SyncStage<>(serverHandler));
+    bindTransportOptions(injector);
 
     final Transport transport;
     try {
@@ -129,6 +142,7 @@ public final class MessagingTransportFactory implements TransportFactory {
     injector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, numberOfTries);
     injector.bindVolatileParameter(RemoteConfiguration.RetryTimeout.class, retryTimeout);
     injector.bindVolatileInstance(TcpPortProvider.class, tcpPortProvider);
+    bindTransportOptions(injector);
     try {
       return injector.getInstance(NettyMessagingTransport.class);
     } catch (final InjectionException e) {
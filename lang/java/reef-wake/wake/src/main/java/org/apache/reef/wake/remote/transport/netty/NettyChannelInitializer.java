@@ -21,32 +21,46 @@ package org.apache.reef.wake.remote.transport.netty;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
-import io.netty.handler.codec.bytes.ByteArrayDecoder;
 import io.netty.handler.codec.bytes.ByteArrayEncoder;
 
 /**
  * Netty channel initializer for Transport.
+ * <p>
+ * Inbound frames are passed to the chunker as buffers and only copied once into the message byte array;
+ * outbound messages are written without copying into intermediate buffers.
  */
 class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
   /**
    * the buffer size of the frame decoder.
    */
   public static final int MAXFRAMELENGTH = 10 * 1024 * 1024;
+  private static final NettyFrameLengthPrepender FRAME_ENCODER = new NettyFrameLengthPrepender();
   private final NettyChannelHandlerFactory handlerFactory;
+  private final NettyTransportOptions options;
 
-  NettyChannelInitializer(final NettyChannelHandlerFactory handlerFactory) {
+  /**
+   * Constructs a channel initializer.
+   *
+   * @param handlerFactory the factory of the channel handler
+   * @param options        the transport options
+   */
+  NettyChannelInitializer(final NettyChannelHandlerFactory handlerFactory, final NettyTransportOptions options) {
     this.handlerFactory = handlerFactory;
+    this.options = options;
   }
 
   @Override
   protected void initChannel(final SocketChannel ch) throws Exception {
     ch.pipeline()
         .addLast("frameDecoder", new LengthFieldBasedFrameDecoder(MAXFRAMELENGTH, 0, 4, 0, 4))
-        .addLast("bytesDecoder", new ByteArrayDecoder())
-        .addLast("frameEncoder", new LengthFieldPrepender(4))
+        .addLast("frameEncoder", FRAME_ENCODER)
         .addLast("bytesEncoder", new ByteArrayEncoder())
         .addLast("chunker", new ChunkedReadWriteHandler())
         .addLast("handler", handlerFactory.createChannelInboundHandler());
+    if (options.isWriteBatching()) {
+      // the batcher must sit above the chunker, which only writes out its queue on flush
+      ch.pipeline().addBefore("handler", "batcher",
+          new NettyWriteBatchHandler(options.getWriteBatchMaxBytes(), options.getWriteBatchDelay()));
+    }
   }
 }
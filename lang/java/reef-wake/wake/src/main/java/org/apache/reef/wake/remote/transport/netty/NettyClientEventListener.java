@@ -18,6 +18,7 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.reef.wake.EStage;
@@ -48,7 +49,7 @@ final class NettyClientEventListener extends AbstractNettyEventListener {
   }
 
   @Override
-  protected TransportEvent getTransportEvent(final byte[] message, final Channel channel) {
+  protected TransportEvent getTransportEvent(final ByteBuf message, final Channel channel) {
     return new TransportEvent(message, channel.localAddress(), channel.remoteAddress());
   }
 
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+
+/**
+ * Prepends the length of a frame as a 4 byte big endian integer.
+ * It writes the same bytes as {@code LengthFieldPrepender(4)}, but emits the length header
+ * and the frame as separate buffers instead of copying the frame into a new buffer.
+ */
+@ChannelHandler.Sharable
+final class NettyFrameLengthPrepender extends MessageToMessageEncoder<ByteBuf> {
+
+  private static final int LENGTH_FIELD_SIZE = Integer.SIZE / Byte.SIZE;
+
+  @Override
+  protected void encode(final ChannelHandlerContext ctx, final ByteBuf msg, final List<Object> out) {
+    out.add(ctx.alloc().buffer(LENGTH_FIELD_SIZE).writeInt(msg.readableBytes()));
+    out.add(msg.retain());
+  }
+}
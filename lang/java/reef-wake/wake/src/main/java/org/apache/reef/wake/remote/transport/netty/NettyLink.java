@@ -18,11 +18,14 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
+import org.apache.reef.wake.remote.BufferEncoder;
 import org.apache.reef.wake.remote.Encoder;
+import org.apache.reef.wake.remote.transport.BufferLink;
 import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.LinkListener;
 
@@ -35,13 +38,29 @@ import java.util.logging.Logger;
  *
  * If you set a {@code LinkListener<T>}, it keeps message until writeAndFlush operation completes
  * and notifies whether the sent message transferred successfully through the listener.
+ *
+ * If the encoder also implements {@link BufferEncoder}, messages are encoded directly into
+ * a buffer obtained from the channel allocator instead of an intermediate byte array.
  */
-public class NettyLink<T> implements Link<T> {
+public class NettyLink<T> implements Link<T>, BufferLink {
 
   public static final int INT_SIZE = Integer.SIZE / Byte.SIZE;
   private static final Logger LOG = Logger.getLogger(NettyLink.class.getName());
+
+  /**
+   * Logs the failure of a write that has no link listener to notify.
+   */
+  static final ChannelFutureListener LOG_FAILURE = new ChannelFutureListener() {
+    @Override
+    public void operationComplete(final ChannelFuture future) {
+      if (!future.isSuccess()) {
+        LOG.log(Level.WARNING, "Write to " + future.channel().remoteAddress() + " failed", future.cause());
+      }
+    }
+  };
   private final Channel channel;
   private final Encoder<? super T> encoder;
+  private final BufferEncoder<? super T> bufferEncoder;
   private final LinkListener<? super T> listener;
 
   /**
@@ -65,6 +84,7 @@ public class NettyLink<T> implements Link<T> {
                    final Encoder<? super T> encoder, final LinkListener<? super T> listener) {
     this.channel = channel;
     this.encoder = encoder;
+    this.bufferEncoder = encoder instanceof BufferEncoder ? (BufferEncoder<? super T>) encoder : null;
     this.listener = listener;
   }
 
@@ -76,14 +96,82 @@ public class NettyLink<T> implements Link<T> {
    */
   @Override
   public void write(final T message) {
-    LOG.log(Level.FINEST, "write {0} {1}", new Object[]{channel, message});
-    final byte[] allData = encoder.encode(message);
-    // byte[] -> ByteBuf
-    if (listener !=  null) {
-      channel.writeAndFlush(Unpooled.wrappedBuffer(allData))
-          .addListener(new NettyChannelFutureListener<>(message, listener));
-    } else {
-      channel.writeAndFlush(Unpooled.wrappedBuffer(allData));
+    write(message, encode(message));
+  }
+
+  /**
+   * Encodes the value with the given encoder into a buffer of this link and writes it.
+   * A single connection keeps every stream in order, so the stream identifier is not used.
+   *
+   * @param value        the value
+   * @param valueEncoder the encoder of the value
+   * @param streamId     the stream identifier
+   */
+  @Override
+  public <V> void write(final V value, final BufferEncoder<? super V> valueEncoder, final int streamId) {
+    writeBuffer(encode(value, valueEncoder)).addListener(LOG_FAILURE);
+  }
+
+  /**
+   * Writes the already encoded message to the channel of this link.
+   *
+   * @param message the message
+   * @param buffer  the encoded message
+   * @return the future of the write
+   */
+  ChannelFuture write(final T message, final ByteBuf buffer) {
+    final ChannelFuture future = writeBuffer(buffer);
+    if (listener != null) {
+      future.addListener(new NettyChannelFutureListener<>(message, listener));
+    }
+    return future;
+  }
+
+  /**
+   * Writes the encoded message to the channel of this link without notifying the link listener.
+   *
+   * @param buffer the encoded message
+   * @return the future of the write
+   */
+  ChannelFuture writeBuffer(final ByteBuf buffer) {
+    LOG.log(Level.FINEST, "write {0} {1}", new Object[]{channel, buffer});
+    return channel.writeAndFlush(buffer);
+  }
+
+  /**
+   * Encodes the message into a buffer to be written to the channel.
+   * A buffer encoder writes into a direct buffer from the channel allocator;
+   * a byte array encoder's result is wrapped without copying.
+   *
+   * @param message the message
+   * @return the encoded message
+   */
+  ByteBuf encode(final T message) {
+    if (bufferEncoder == null) {
+      // byte[] -> ByteBuf
+      return Unpooled.wrappedBuffer(encoder.encode(message));
+    }
+    return encode(message, bufferEncoder);
+  }
+
+  /**
+   * Encodes the value with the given encoder into a direct buffer from the channel allocator.
+   *
+   * @param value        the value
+   * @param valueEncoder the encoder of the value
+   * @return the encoded value
+   */
+  <V> ByteBuf encode(final V value, final BufferEncoder<? super V> valueEncoder) {
+    final ByteBuf buffer = channel.alloc().directBuffer();
+    boolean encoded = false;
+    try {
+      valueEncoder.encode(value, buffer);
+      encoded = true;
+      return buffer;
+    } finally {
+      if (!encoded) {
+        buffer.release();
+      }
     }
   }
 
@@ -107,6 +195,15 @@ public class NettyLink<T> implements Link<T> {
     return channel.remoteAddress();
   }
 
+  /**
+   * Gets the channel of the link.
+   *
+   * @return the channel
+   */
+  Channel getChannel() {
+    return channel;
+  }
+
   @Override
   public String toString() {
     return "localAddr: " + getLocalAddress() + " remoteAddr: " + getRemoteAddress();
@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import org.apache.reef.wake.remote.BufferEncoder;
+import org.apache.reef.wake.remote.transport.BufferLink;
+import org.apache.reef.wake.remote.transport.MultiplexedLink;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Link implementation with Netty that spreads messages over a pool of channels to the same remote address.
+ * <p>
+ * Stream writes are pinned to one channel so that the receiver sees each stream in order.
+ * Other writes share the channel of stream 0 and stay in order, unless the pool is configured to spread them
+ * round-robin or by the least number of bytes not yet written to the socket.
+ * Small messages may bypass bulk traffic on a separate priority channel, giving up their order to larger ones.
+ * When one of the channels closes, the whole pool is closed and the next open creates a new one.
+ *
+ * @param <T> type of the message
+ */
+final class NettyLinkPool<T> implements MultiplexedLink<T>, BufferLink {
+
+  private static final Logger LOG = Logger.getLogger(NettyLinkPool.class.getName());
+
+  /**
+   * How a message written without a stream picks a channel of the pool.
+   */
+  enum Selection {
+    /**
+     * The channel of stream 0, so that the messages arrive in the order they are written.
+     */
+    ORDERED,
+    /**
+     * The channels in turn; the messages may arrive in any order.
+     */
+    ROUND_ROBIN,
+    /**
+     * The channel with the fewest bytes not yet written to the socket; the messages may arrive in any order.
+     */
+    LEAST_PENDING
+  }
+
+  private final NettyLink<T>[] links;
+  private final NettyLink<T> priorityLink;
+  private final int priorityLaneMaxBytes;
+  private final Selection selection;
+  private final AtomicInteger next = new AtomicInteger(0);
+  private final AtomicLongArray pendingBytes;
+
+  /**
+   * Constructs a link pool.
+   *
+   * @param links                the links carrying streams and bulk traffic
+   * @param priorityLink         the link of the priority channel; null if there is none
+   * @param priorityLaneMaxBytes the size in bytes up to which messages without a stream use the priority channel
+   * @param selection            how a message without a stream picks a channel
+   */
+  @SuppressWarnings("unchecked")
+  NettyLinkPool(final List<NettyLink<T>> links, final NettyLink<T> priorityLink,
+                final int priorityLaneMaxBytes, final Selection selection) {
+    if (links.isEmpty()) {
+      throw new IllegalArgumentException("A link pool needs at least one link");
+    }
+    this.links = links.toArray(new NettyLink[links.size()]);
+    this.priorityLink = priorityLink;
+    this.priorityLaneMaxBytes = priorityLink != null ? priorityLaneMaxBytes : 0;
+    this.selection = selection;
+    this.pendingBytes = new AtomicLongArray(this.links.length);
+
+    final ChannelFutureListener closeAll = new ChannelFutureListener() {
+      @Override
+      public void operationComplete(final ChannelFuture future) {
+        LOG.log(Level.FINE, "Channel {0} closed. Closing link pool {1}",
+            new Object[]{future.channel(), NettyLinkPool.this});
+        close();
+      }
+    };
+    for (final NettyLink<T> link : this.links) {
+      link.getChannel().closeFuture().addListener(closeAll);
+    }
+    if (priorityLink != null) {
+      priorityLink.getChannel().closeFuture().addListener(closeAll);
+    }
+  }
+
+  /**
+   * Writes the message to the priority channel if it is small enough, or to the channel picked by the selection.
+   *
+   * @param message the message
+   */
+  @Override
+  public void write(final T message) {
+    final ByteBuf buffer = links[0].encode(message);
+    if (priorityLink != null && buffer.readableBytes() <= priorityLaneMaxBytes) {
+      priorityLink.write(message, buffer);
+    } else {
+      write(select(), message, buffer);
+    }
+  }
+
+  /**
+   * Writes the message to the channel of the stream.
+   *
+   * @param message  the message
+   * @param streamId the stream identifier
+   */
+  @Override
+  public void write(final T message, final int streamId) {
+    write(streamIndex(streamId), message, links[0].encode(message));
+  }
+
+  /**
+   * Encodes the value with the given encoder into a buffer and writes it to the channel of the stream.
+   *
+   * @param value    the value
+   * @param encoder  the encoder of the value
+   * @param streamId the stream identifier
+   */
+  @Override
+  public <V> void write(final V value, final BufferEncoder<? super V> encoder, final int streamId) {
+    final int index = streamIndex(streamId);
+    final ByteBuf buffer = links[0].encode(value, encoder);
+    final int size = buffer.readableBytes();
+    track(index, size, links[index].writeBuffer(buffer).addListener(NettyLink.LOG_FAILURE));
+  }
+
+  private void write(final int index, final T message, final ByteBuf buffer) {
+    final int size = buffer.readableBytes();
+    track(index, size, links[index].write(message, buffer));
+  }
+
+  /**
+   * Counts the bytes of a write as pending on its channel until the write completes.
+   */
+  private void track(final int index, final int size, final ChannelFuture future) {
+    if (selection != Selection.LEAST_PENDING) {
+      return;
+    }
+    pendingBytes.addAndGet(index, size);
+    future.addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(final ChannelFuture written) {
+        pendingBytes.addAndGet(index, -size);
+      }
+    });
+  }
+
+  private int streamIndex(final int streamId) {
+    final int index = streamId % links.length;
+    return index < 0 ? index + links.length : index;
+  }
+
+  private int select() {
+    if (selection == Selection.ORDERED) {
+      return streamIndex(0);
+    }
+    if (selection == Selection.LEAST_PENDING) {
+      int best = 0;
+      long bestPending = pendingBytes.get(0);
+      for (int i = 1; i < links.length && bestPending > 0; ++i) {
+        final long pending = pendingBytes.get(i);
+        if (pending < bestPending) {
+          best = i;
+          bestPending = pending;
+        }
+      }
+      return best;
+    }
+    return (next.getAndIncrement() & Integer.MAX_VALUE) % links.length;
+  }
+
+  @Override
+  public int getNumConnections() {
+    return links.length;
+  }
+
+  /**
+   * Gets a local address of the first channel of the pool.
+   *
+   * @return a local socket address
+   */
+  @Override
+  public SocketAddress getLocalAddress() {
+    return links[0].getLocalAddress();
+  }
+
+  /**
+   * Gets the remote address shared by the channels of the pool.
+   *
+   * @return a remote socket address
+   */
+  @Override
+  public SocketAddress getRemoteAddress() {
+    return links[0].getRemoteAddress();
+  }
+
+  /**
+   * Closes all channels of the pool.
+   */
+  void close() {
+    for (final NettyLink<T> link : links) {
+      link.getChannel().close();
+    }
+    if (priorityLink != null) {
+      priorityLink.getChannel().close();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "NettyLinkPool{size=" + links.length + ", priority=" + (priorityLink != null) +
+        ", selection=" + selection + ", remoteAddr=" + getRemoteAddress() + "}";
+  }
+}
@@ -22,18 +22,13 @@ import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
-import org.apache.reef.wake.impl.DefaultThreadFactory;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
@@ -51,10 +46,12 @@ import java.net.BindException;
 import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.CountDownLatch;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -66,10 +63,6 @@ public class NettyMessagingTransport implements Transport {
   private static final String CLASS_NAME = NettyMessagingTransport.class.getName();
   private static final Logger LOG = Logger.getLogger(CLASS_NAME);
 
-  private static final int SERVER_BOSS_NUM_THREADS = 3;
-  private static final int SERVER_WORKER_NUM_THREADS = 20;
-  private static final int CLIENT_WORKER_NUM_THREADS = 10;
-
   private final ConcurrentMap<SocketAddress, LinkReference> addrToLinkRefMap = new ConcurrentHashMap<>();
 
   private final EventLoopGroup clientWorkerGroup;
@@ -91,6 +84,8 @@ public class NettyMessagingTransport implements Transport {
 
   private final int numberOfTries;
   private final int retryTimeout;
+  private final boolean nativeTransport;
+  private final NettyTransportOptions options;
   /**
    * Indicates a hostname that isn't set or known.
    */
@@ -106,6 +101,8 @@ public class NettyMessagingTransport implements Transport {
    * @param numberOfTries the number of tries of connection
    * @param retryTimeout  the timeout of reconnection
    * @param tcpPortProvider  gives an iterator that produces random tcp ports in a range
+   * @param localAddressProvider the provider of the local address used when the host address is unknown
+   * @param options          the thread, socket and channel options of the transport
    */
   @Inject
   NettyMessagingTransport(
@@ -116,7 +113,8 @@ public class NettyMessagingTransport implements Transport {
       @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
       @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
       final TcpPortProvider tcpPortProvider,
-      final LocalAddressProvider localAddressProvider) {
+      final LocalAddressProvider localAddressProvider,
+      final NettyTransportOptions options) {
 
     int p = port;
     if (p < 0) {
@@ -127,32 +125,28 @@ public class NettyMessagingTransport implements Transport {
 
     this.numberOfTries = numberOfTries;
     this.retryTimeout = retryTimeout;
+    this.nativeTransport = options.isNativeTransport();
+    this.options = options;
     this.clientEventListener = new NettyClientEventListener(this.addrToLinkRefMap, clientStage);
     this.serverEventListener = new NettyServerEventListener(this.addrToLinkRefMap, serverStage);
 
-    this.serverBossGroup = new NioEventLoopGroup(SERVER_BOSS_NUM_THREADS,
-        new DefaultThreadFactory(CLASS_NAME + "ServerBoss"));
-    this.serverWorkerGroup = new NioEventLoopGroup(SERVER_WORKER_NUM_THREADS,
-        new DefaultThreadFactory(CLASS_NAME + "ServerWorker"));
-    this.clientWorkerGroup = new NioEventLoopGroup(CLIENT_WORKER_NUM_THREADS,
-        new DefaultThreadFactory(CLASS_NAME + "ClientWorker"));
+    this.serverBossGroup = options.newServerBossGroup(CLASS_NAME);
+    this.serverWorkerGroup = options.newServerWorkerGroup(CLASS_NAME);
+    this.clientWorkerGroup = options.newClientWorkerGroup(CLASS_NAME);
 
     this.clientBootstrap = new Bootstrap();
     this.clientBootstrap.group(this.clientWorkerGroup)
-        .channel(NioSocketChannel.class)
+        .channel(options.getSocketChannelClass())
         .handler(new NettyChannelInitializer(new NettyDefaultChannelHandlerFactory("client",
-            this.clientChannelGroup, this.clientEventListener)))
-        .option(ChannelOption.SO_REUSEADDR, true)
-        .option(ChannelOption.SO_KEEPALIVE, true);
+            this.clientChannelGroup, this.clientEventListener), options));
+    options.applyTo(this.clientBootstrap);
 
     this.serverBootstrap = new ServerBootstrap();
     this.serverBootstrap.group(this.serverBossGroup, this.serverWorkerGroup)
-        .channel(NioServerSocketChannel.class)
+        .channel(options.getServerSocketChannelClass())
         .childHandler(new NettyChannelInitializer(new NettyDefaultChannelHandlerFactory("server",
-            this.serverChannelGroup, this.serverEventListener)))
-        .option(ChannelOption.SO_BACKLOG, 128)
-        .option(ChannelOption.SO_REUSEADDR, true)
-        .childOption(ChannelOption.SO_KEEPALIVE, true);
+            this.serverChannelGroup, this.serverEventListener), options));
+    options.applyTo(this.serverBootstrap);
 
     LOG.log(Level.FINE, "Binding to {0}", p);
 
@@ -171,7 +165,7 @@ public class NettyMessagingTransport implements Transport {
           try {
             acceptorFound = this.serverBootstrap.bind(new InetSocketAddress(host, p)).sync().channel();
           } catch (final Exception ex) {
-            if (ex instanceof BindException) {
+            if (isAddressInUse(ex)) {
               LOG.log(Level.FINEST, "The port {0} is already bound. Try again", p);
             } else {
               throw ex;
@@ -264,49 +258,48 @@ public class NettyMessagingTransport implements Transport {
       // no linkRef
       final LinkReference newLinkRef = new LinkReference();
       final LinkReference prior = this.addrToLinkRefMap.putIfAbsent(remoteAddr, newLinkRef);
-      final AtomicInteger flag = prior != null ?
-          prior.getConnectInProgress() : newLinkRef.getConnectInProgress();
-
-      synchronized (flag) {
-        if (!flag.compareAndSet(0, 1)) {
-          while (flag.get() == 1) {
-            try {
-              flag.wait();
-            } catch (final InterruptedException ex) {
-              LOG.log(Level.WARNING, "Wait interrupted", ex);
-            }
-          }
+      linkRef = prior != null ? prior : newLinkRef;
+
+      // one thread connects while the others wait for it on a latch instead of a monitor
+      final CountDownLatch connectDone = new CountDownLatch(1);
+      boolean interrupted = false;
+      while (!linkRef.startConnect(connectDone)) {
+        try {
+          linkRef.awaitConnect();
+        } catch (final InterruptedException ex) {
+          LOG.log(Level.WARNING, "Wait interrupted", ex);
+          interrupted = true;
         }
+        link = (Link<T>) linkRef.getLink();
+        if (link != null) {
+          break;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
       }
 
-      linkRef = this.addrToLinkRefMap.get(remoteAddr);
+      // the link may have been set by another thread; the latch is not in use then
       link = (Link<T>) linkRef.getLink();
-
       if (link != null) {
+        linkRef.endConnect(connectDone);
         return link;
       }
 
-      ChannelFuture connectFuture = null;
       try {
-        connectFuture = this.clientBootstrap.connect(remoteAddr);
-        connectFuture.syncUninterruptibly();
-
-        link = new NettyLink<>(connectFuture.channel(), encoder, listener);
-        linkRef.setLink(link);
-
-        synchronized (flag) {
-          flag.compareAndSet(1, 2);
-          flag.notifyAll();
+        try {
+          link = this.options.isLinkPooling() ?
+              connectPool(remoteAddr, encoder, listener) :
+              new NettyLink<>(connect(remoteAddr).channel(), encoder, listener);
+          linkRef.setLink(link);
+        } finally {
+          linkRef.endConnect(connectDone);
         }
         break;
       } catch (final Exception e) {
-        if (e.getClass().getSimpleName().compareTo("ConnectException") == 0) {
+        if (isConnectionRefused(e)) {
           LOG.log(Level.WARNING, "Connection refused. Retry {0} of {1}",
               new Object[]{i + 1, this.numberOfTries});
-          synchronized (flag) {
-            flag.compareAndSet(1, 0);
-            flag.notifyAll();
-          }
 
           if (i < this.numberOfTries) {
             try {
@@ -324,6 +317,68 @@ public class NettyMessagingTransport implements Transport {
     return link;
   }
 
+  private ChannelFuture connect(final SocketAddress remoteAddr) {
+    return this.clientBootstrap.connect(remoteAddr).syncUninterruptibly();
+  }
+
+  /**
+   * Opens the channels of a link pool to the remote address.
+   * The connections are made concurrently; if one of them fails, the others are closed.
+   */
+  private <T> Link<T> connectPool(final SocketAddress remoteAddr, final Encoder<? super T> encoder,
+                                  final LinkListener<? super T> listener) {
+    final int poolSize = this.options.getLinkPoolSize();
+    final boolean priorityLane = this.options.getPriorityLaneMaxBytes() > 0;
+    final List<ChannelFuture> connectFutures = new ArrayList<>(poolSize + 1);
+    for (int i = 0; i < poolSize + (priorityLane ? 1 : 0); ++i) {
+      connectFutures.add(this.clientBootstrap.connect(remoteAddr));
+    }
+
+    boolean connected = false;
+    try {
+      final List<NettyLink<T>> links = new ArrayList<>(poolSize);
+      for (final ChannelFuture connectFuture : connectFutures) {
+        links.add(new NettyLink<>(connectFuture.syncUninterruptibly().channel(), encoder, listener));
+      }
+      final NettyLink<T> priorityLink = priorityLane ? links.remove(poolSize) : null;
+      final NettyLinkPool<T> pool = new NettyLinkPool<>(
+          links, priorityLink, this.options.getPriorityLaneMaxBytes(), this.options.getLinkPoolSelection());
+      connected = true;
+      LOG.log(Level.FINE, "Opened {0}", pool);
+      return pool;
+    } finally {
+      if (!connected) {
+        for (final ChannelFuture connectFuture : connectFutures) {
+          connectFuture.channel().close();
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether a connection attempt failed because the remote end was not listening (yet).
+   * NIO reports it as a ConnectException, while the native epoll transport throws a plain IOException.
+   *
+   * @param e the exception thrown by the connection attempt
+   * @return true if the connection may be retried
+   */
+  private boolean isConnectionRefused(final Exception e) {
+    return e.getClass().getSimpleName().compareTo("ConnectException") == 0 ||
+        nativeTransport && e.getClass() == IOException.class;
+  }
+
+  /**
+   * Checks whether binding failed because the port is already in use.
+   * NIO reports it as a BindException, while the native epoll transport throws a plain IOException.
+   *
+   * @param e the exception thrown by the bind attempt
+   * @return true if another port may be tried
+   */
+  private boolean isAddressInUse(final Exception e) {
+    return e instanceof BindException ||
+        nativeTransport && e.getClass() == IOException.class;
+  }
+
   /**
    * Returns a link for the remote address if already cached; otherwise, returns null.
    *
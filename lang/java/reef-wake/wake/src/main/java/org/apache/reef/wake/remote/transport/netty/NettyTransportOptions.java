@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+
+import javax.inject.Inject;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread, socket and channel options of the Netty messaging transport.
+ * <p>
+ * It chooses the native epoll transport when it is enabled and available, and NIO otherwise.
+ */
+public final class NettyTransportOptions {
+
+  private static final Logger LOG = Logger.getLogger(NettyTransportOptions.class.getName());
+
+  /**
+   * Netty's default high water mark of a channel.
+   */
+  private static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 64 * 1024;
+
+  private final boolean nativeTransport;
+  private final int serverBossThreads;
+  private final int serverWorkerThreads;
+  private final int clientWorkerThreads;
+  private final boolean tcpNoDelay;
+  private final int sendBufferSize;
+  private final int receiveBufferSize;
+  private final int writeBufferHighWaterMark;
+  private final int writeBufferLowWaterMark;
+  private final boolean writeBatching;
+  private final int writeBatchMaxBytes;
+  private final int writeBatchDelay;
+  private final int linkPoolSize;
+  private final NettyLinkPool.Selection linkPoolSelection;
+  private final int priorityLaneMaxBytes;
+
+  @Inject
+  private NettyTransportOptions(
+      @Parameter(RemoteConfiguration.NativeTransport.class) final boolean nativeTransport,
+      @Parameter(RemoteConfiguration.ServerBossThreads.class) final int serverBossThreads,
+      @Parameter(RemoteConfiguration.ServerWorkerThreads.class) final int serverWorkerThreads,
+      @Parameter(RemoteConfiguration.ClientWorkerThreads.class) final int clientWorkerThreads,
+      @Parameter(RemoteConfiguration.TcpNoDelay.class) final boolean tcpNoDelay,
+      @Parameter(RemoteConfiguration.SendBufferSize.class) final int sendBufferSize,
+      @Parameter(RemoteConfiguration.ReceiveBufferSize.class) final int receiveBufferSize,
+      @Parameter(RemoteConfiguration.WriteBufferHighWaterMark.class) final int writeBufferHighWaterMark,
+      @Parameter(RemoteConfiguration.WriteBufferLowWaterMark.class) final int writeBufferLowWaterMark,
+      @Parameter(RemoteConfiguration.WriteBatching.class) final boolean writeBatching,
+      @Parameter(RemoteConfiguration.WriteBatchMaxBytes.class) final int writeBatchMaxBytes,
+      @Parameter(RemoteConfiguration.WriteBatchDelay.class) final int writeBatchDelay,
+      @Parameter(RemoteConfiguration.LinkPoolSize.class) final int linkPoolSize,
+      @Parameter(RemoteConfiguration.LinkPoolSelection.class) final String linkPoolSelection,
+      @Parameter(RemoteConfiguration.PriorityLaneMaxBytes.class) final int priorityLaneMaxBytes) {
+
+    if (writeBufferLowWaterMark > writeBufferHighWaterMark) {
+      throw new IllegalArgumentException("Write buffer low water mark " + writeBufferLowWaterMark +
+          " is greater than the high water mark " + writeBufferHighWaterMark);
+    }
+    if (linkPoolSize < 1) {
+      throw new IllegalArgumentException("Link pool size must be positive: " + linkPoolSize);
+    }
+
+    this.nativeTransport = nativeTransport && isEpollAvailable();
+    this.serverBossThreads = serverBossThreads;
+    this.serverWorkerThreads = serverWorkerThreads;
+    this.clientWorkerThreads = clientWorkerThreads;
+    this.tcpNoDelay = tcpNoDelay;
+    this.sendBufferSize = sendBufferSize;
+    this.receiveBufferSize = receiveBufferSize;
+    this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+    this.writeBatching = writeBatching;
+    this.writeBatchMaxBytes = writeBatchMaxBytes;
+    this.writeBatchDelay = writeBatchDelay;
+    this.linkPoolSize = linkPoolSize;
+    this.linkPoolSelection = NettyLinkPool.Selection.valueOf(linkPoolSelection);
+    this.priorityLaneMaxBytes = priorityLaneMaxBytes;
+
+    LOG.log(Level.FINE, "Netty transport: {0}", this);
+  }
+
+  private static boolean isEpollAvailable() {
+    try {
+      return Epoll.isAvailable();
+    } catch (final LinkageError e) {
+      LOG.log(Level.FINE, "Native epoll transport is not available", e);
+      return false;
+    }
+  }
+
+  /**
+   * @return true if the native epoll transport is used
+   */
+  public boolean isNativeTransport() {
+    return nativeTransport;
+  }
+
+  /**
+   * @return true if the flushes of a channel are coalesced
+   */
+  boolean isWriteBatching() {
+    return writeBatching;
+  }
+
+  /**
+   * @return the number of unflushed bytes on a channel that triggers a flush
+   */
+  int getWriteBatchMaxBytes() {
+    return writeBatchMaxBytes;
+  }
+
+  /**
+   * @return the maximum time in microseconds a write waits for a flush
+   */
+  int getWriteBatchDelay() {
+    return writeBatchDelay;
+  }
+
+  /**
+   * @return true if more than one connection is opened to a remote address
+   */
+  boolean isLinkPooling() {
+    return linkPoolSize > 1 || priorityLaneMaxBytes > 0;
+  }
+
+  /**
+   * @return the number of connections carrying streams to a remote address
+   */
+  int getLinkPoolSize() {
+    return linkPoolSize;
+  }
+
+  /**
+   * @return how a message without a stream picks a connection of the pool
+   */
+  NettyLinkPool.Selection getLinkPoolSelection() {
+    return linkPoolSelection;
+  }
+
+  /**
+   * @return the size in bytes up to which messages without a stream use the priority connection; 0 if there is none
+   */
+  int getPriorityLaneMaxBytes() {
+    return priorityLaneMaxBytes;
+  }
+
+  /**
+   * Creates the event loop group accepting connections on the server side.
+   *
+   * @param name the name prefix of the threads
+   * @return an event loop group
+   */
+  EventLoopGroup newServerBossGroup(final String name) {
+    return newEventLoopGroup(serverBossThreads, name + "ServerBoss");
+  }
+
+  /**
+   * Creates the event loop group serving accepted connections on the server side.
+   *
+   * @param name the name prefix of the threads
+   * @return an event loop group
+   */
+  EventLoopGroup newServerWorkerGroup(final String name) {
+    return newEventLoopGroup(serverWorkerThreads, name + "ServerWorker");
+  }
+
+  /**
+   * Creates the event loop group serving connections on the client side.
+   *
+   * @param name the name prefix of the threads
+   * @return an event loop group
+   */
+  EventLoopGroup newClientWorkerGroup(final String name) {
+    return newEventLoopGroup(clientWorkerThreads, name + "ClientWorker");
+  }
+
+  private EventLoopGroup newEventLoopGroup(final int numThreads, final String name) {
+    return nativeTransport ?
+        new EpollEventLoopGroup(numThreads, new DefaultThreadFactory(name)) :
+        new NioEventLoopGroup(numThreads, new DefaultThreadFactory(name));
+  }
+
+  /**
+   * @return the class of client channels of the chosen transport
+   */
+  Class<? extends SocketChannel> getSocketChannelClass() {
+    return nativeTransport ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /**
+   * @return the class of server channels of the chosen transport
+   */
+  Class<? extends ServerChannel> getServerSocketChannelClass() {
+    return nativeTransport ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  /**
+   * Sets the connection options on a client bootstrap.
+   *
+   * @param bootstrap the client bootstrap
+   */
+  void applyTo(final Bootstrap bootstrap) {
+    bootstrap.option(ChannelOption.SO_REUSEADDR, true)
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        .option(ChannelOption.TCP_NODELAY, tcpNoDelay);
+    for (final ChannelOption<Integer> waterMark : getWaterMarkOrder()) {
+      bootstrap.option(waterMark, getWaterMark(waterMark));
+    }
+    if (sendBufferSize > 0) {
+      bootstrap.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+    }
+    if (receiveBufferSize > 0) {
+      bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+    }
+  }
+
+  /**
+   * Sets the listening and accepted connection options on a server bootstrap.
+   *
+   * @param bootstrap the server bootstrap
+   */
+  void applyTo(final ServerBootstrap bootstrap) {
+    bootstrap.option(ChannelOption.SO_BACKLOG, 128)
+        .option(ChannelOption.SO_REUSEADDR, true)
+        .childOption(ChannelOption.SO_KEEPALIVE, true)
+        .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+    for (final ChannelOption<Integer> waterMark : getWaterMarkOrder()) {
+      bootstrap.childOption(waterMark, getWaterMark(waterMark));
+    }
+    if (sendBufferSize > 0) {
+      bootstrap.childOption(ChannelOption.SO_SNDBUF, sendBufferSize);
+    }
+    if (receiveBufferSize > 0) {
+      // set on the listening socket so that accepted sockets inherit it before the TCP handshake
+      bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+    }
+  }
+
+  /**
+   * Netty rejects a high water mark below the current low one and vice versa, and options are applied
+   * in the order they are set. Raising the low water mark above the default high one needs the high one first;
+   * otherwise the low one goes first.
+   */
+  private ChannelOption<Integer>[] getWaterMarkOrder() {
+    @SuppressWarnings("unchecked")
+    final ChannelOption<Integer>[] order = writeBufferLowWaterMark > DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK ?
+        new ChannelOption[]{ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, ChannelOption.WRITE_BUFFER_LOW_WATER_MARK} :
+        new ChannelOption[]{ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK};
+    return order;
+  }
+
+  private int getWaterMark(final ChannelOption<Integer> waterMark) {
+    return waterMark == ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK ?
+        writeBufferHighWaterMark : writeBufferLowWaterMark;
+  }
+
+  @Override
+  public String toString() {
+    return "NettyTransportOptions{native=" + nativeTransport +
+        ", threads=" + serverBossThreads + "/" + serverWorkerThreads + "/" + clientWorkerThreads +
+        ", tcpNoDelay=" + tcpNoDelay +
+        ", sndBuf=" + sendBufferSize + ", rcvBuf=" + receiveBufferSize +
+        ", writeBufferWaterMarks=" + writeBufferLowWaterMark + "/" + writeBufferHighWaterMark +
+        ", writeBatching=" + writeBatching + "(" + writeBatchMaxBytes + "B, " + writeBatchDelay + "us)" +
+        ", linkPool=" + linkPoolSize + "/" + linkPoolSelection + "/" + priorityLaneMaxBytes + "B}";
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the flushes of a channel.
+ * <p>
+ * Writes are passed down the pipeline as they come, but a flush is only forwarded
+ * when the unflushed bytes reach a size threshold. Otherwise a single deferred flush is scheduled
+ * on the channel's event loop, either after a delay or, when the delay is 0, as soon as the event loop
+ * has run the tasks (e.g., writes from other threads) already queued, i.e., when it goes idle.
+ * Since every write keeps its own promise, per-message {@code LinkListener} callbacks are unaffected.
+ * <p>
+ * All methods run on the channel's event loop, so the state is not synchronized.
+ */
+final class NettyWriteBatchHandler extends ChannelOutboundHandlerAdapter {
+
+  private final int maxPendingBytes;
+  private final long flushDelayMicros;
+
+  private ChannelHandlerContext context;
+  private long pendingBytes = 0;
+  private boolean flushScheduled = false;
+
+  private final Runnable flushTask = new Runnable() {
+    @Override
+    public void run() {
+      flushScheduled = false;
+      if (pendingBytes > 0) {
+        flushPending(context);
+      }
+    }
+  };
+
+  /**
+   * Constructs a write batch handler.
+   *
+   * @param maxPendingBytes  the number of unflushed bytes that triggers a flush
+   * @param flushDelayMicros the maximum time in microseconds a write waits for a flush;
+   *                         0 to flush when the event loop goes idle
+   */
+  NettyWriteBatchHandler(final int maxPendingBytes, final long flushDelayMicros) {
+    this.maxPendingBytes = maxPendingBytes;
+    this.flushDelayMicros = flushDelayMicros;
+  }
+
+  @Override
+  public void handlerAdded(final ChannelHandlerContext ctx) {
+    this.context = ctx;
+  }
+
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
+    if (msg instanceof ByteBuf) {
+      pendingBytes += ((ByteBuf) msg).readableBytes();
+    }
+    ctx.write(msg, promise);
+  }
+
+  @Override
+  public void flush(final ChannelHandlerContext ctx) {
+    if (pendingBytes >= maxPendingBytes) {
+      flushPending(ctx);
+    } else if (!flushScheduled) {
+      flushScheduled = true;
+      if (flushDelayMicros > 0) {
+        ctx.executor().schedule(flushTask, flushDelayMicros, TimeUnit.MICROSECONDS);
+      } else {
+        ctx.executor().execute(flushTask);
+      }
+    }
+  }
+
+  @Override
+  public void close(final ChannelHandlerContext ctx, final ChannelPromise promise) {
+    flushPending(ctx);
+    ctx.close(promise);
+  }
+
+  private void flushPending(final ChannelHandlerContext ctx) {
+    pendingBytes = 0;
+    ctx.flush();
+  }
+}
@@ -19,13 +19,24 @@
 package org.apache.reef.wake.test;
 
 
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.StageManager;
+import org.apache.reef.wake.impl.SyncStage;
+import org.apache.reef.wake.impl.ThreadPoolStage;
 import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.HistogramSnapshot;
+import org.apache.reef.wake.metrics.LogHistogram;
+import org.apache.reef.wake.metrics.StageMetricsSnapshot;
 import org.apache.reef.wake.metrics.UniformHistogram;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Metrics tests.
@@ -52,4 +63,109 @@ public class MetricsTest {
       histogram.getValue(i);
     }
   }
+
+  @Test
+  public void testLogHistogram() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final LogHistogram histogram = new LogHistogram();
+    for (long value = 1; value <= 100000; ++value) {
+      histogram.update(value);
+    }
+    histogram.update(Long.MAX_VALUE);
+
+    final HistogramSnapshot snapshot = histogram.snapshot();
+    Assert.assertEquals(100001, snapshot.getCount());
+    Assert.assertEquals(Long.MAX_VALUE, snapshot.getMax());
+    assertWithinBin(50000, snapshot.getP50());
+    assertWithinBin(99000, snapshot.getP99());
+    assertWithinBin(99900, snapshot.getP999());
+
+    // every value falls into a bin whose bounds contain it
+    final Random rand = new Random(1);
+    for (int i = 0; i < 10000; ++i) {
+      final long value = rand.nextLong() >>> rand.nextInt(64);
+      int bin = 0;
+      while (LogHistogram.getBinUpperBound(bin) < value) {
+        ++bin;
+      }
+      Assert.assertTrue(bin < histogram.getNumBins());
+      Assert.assertTrue(bin == 0 || LogHistogram.getBinUpperBound(bin - 1) < value);
+    }
+  }
+
+  private static void assertWithinBin(final long expected, final long actual) {
+    Assert.assertTrue(expected + " vs " + actual, actual >= expected && actual <= expected + expected / 16);
+  }
+
+  @Test
+  public void testStageMetricsRegistry() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch done = new CountDownLatch(100);
+    final ThreadPoolStage<Integer> stage = new ThreadPoolStage<>(name.getMethodName(), new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        try {
+          Thread.sleep(1);
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        done.countDown();
+      }
+    }, 2);
+    for (int i = 0; i < 100; ++i) {
+      stage.onNext(i);
+    }
+    Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    while (stage.getActiveCount() > 0) {
+      Thread.sleep(10);
+    }
+
+    final StageMetricsSnapshot snapshot = findSnapshot(name.getMethodName());
+    Assert.assertNotNull(snapshot);
+    System.out.println(snapshot);
+    Assert.assertEquals(100, snapshot.getInCount());
+    Assert.assertEquals(100, snapshot.getOutCount());
+    Assert.assertEquals(0, snapshot.getQueueDepth());
+    Assert.assertEquals(100, snapshot.getServiceTime().getCount());
+    Assert.assertEquals(100, snapshot.getQueueWait().getCount());
+    Assert.assertTrue(snapshot.getServiceTime().getP50() >= TimeUnit.MILLISECONDS.toNanos(1));
+    // later events wait for earlier ones on the two threads
+    Assert.assertTrue(snapshot.getQueueWait().getMax() >= TimeUnit.MILLISECONDS.toNanos(10));
+
+    // a closed stage is unregistered
+    stage.close();
+    Assert.assertNull(findSnapshot(name.getMethodName()));
+  }
+
+  @Test
+  public void testServiceTimeOfFailedEvents() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final SyncStage<Integer> stage = new SyncStage<>(name.getMethodName(), new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        throw new IllegalStateException("event " + value);
+      }
+    }, new LoggingEventHandler<Throwable>());
+    for (int i = 0; i < 10; ++i) {
+      stage.onNext(i);
+    }
+
+    final StageMetricsSnapshot snapshot = findSnapshot(name.getMethodName());
+    Assert.assertNotNull(snapshot);
+    Assert.assertEquals(10, snapshot.getServiceTime().getCount());
+    Assert.assertEquals(10, snapshot.getOutCount());
+    stage.close();
+  }
+
+  private static StageMetricsSnapshot findSnapshot(final String stageName) {
+    for (final StageMetricsSnapshot s : StageManager.instance().getMetricsRegistry().snapshot()) {
+      if (s.getName().equals(stageName)) {
+        return s;
+      }
+    }
+    return null;
+  }
 }
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test;
+
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
+import org.apache.reef.wake.exception.WakeRuntimeException;
+import org.apache.reef.wake.impl.RingBufferStage;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Ring buffer stage tests.
+ */
+public class RingBufferStageTest {
+
+  private static final String LOG_PREFIX = "TEST ";
+  @Rule
+  public TestName name = new TestName();
+
+  @Test
+  public void testRingBufferStage() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    for (final RingBufferStage.WaitStrategy waitStrategy : RingBufferStage.WaitStrategy.values()) {
+      final int numProducers = 2;
+      final int numEvents = 5000;
+      final CountingEventHandler handler = new CountingEventHandler(numProducers * numEvents);
+      final EStage<Integer> stage = new RingBufferStage<>(
+          name.getMethodName() + "_" + waitStrategy, handler, 2, 256, waitStrategy, null);
+      runProducers(stage, numProducers, numEvents);
+
+      Assert.assertTrue(waitStrategy + " timed out", handler.await());
+      stage.close();
+      handler.assertAllOnce();
+    }
+  }
+
+  @Test
+  public void testRingBufferStageInjection() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numEvents = 1000;
+    final CountingEventHandler handler = new CountingEventHandler(numEvents);
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(StageConfiguration.StageName.class, name.getMethodName())
+        .bindNamedParameter(StageConfiguration.NumberOfThreads.class, "2")
+        .bindNamedParameter(StageConfiguration.Capacity.class, "16")
+        .bindNamedParameter(StageConfiguration.WaitStrategy.class, "YIELD")
+        .build());
+    injector.bindVolatileParameter(StageConfiguration.StageHandler.class, handler);
+    injector.bindVolatileParameter(StageConfiguration.ErrorHandler.class, new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+        Assert.fail(value.toString());
+      }
+    });
+    @SuppressWarnings("unchecked")
+    final RingBufferStage<Integer> stage = injector.getInstance(RingBufferStage.class);
+    runProducers(stage, 1, numEvents);
+
+    Assert.assertTrue("timed out", handler.await());
+    stage.close();
+    handler.assertAllOnce();
+  }
+
+  @Test
+  public void testRingBufferStageErrorHandler() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch errors = new CountDownLatch(10);
+    final EStage<Integer> stage = new RingBufferStage<>(name.getMethodName(), new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        throw new IllegalArgumentException(String.valueOf(value));
+      }
+    }, 1, 4, RingBufferStage.WaitStrategy.YIELD, new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+        errors.countDown();
+      }
+    });
+    for (int i = 0; i < 10; ++i) {
+      stage.onNext(i);
+    }
+    Assert.assertTrue(errors.await(10, TimeUnit.SECONDS));
+    stage.close();
+  }
+
+  @Test
+  public void testRingBufferStageCloseWhileProducing() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    for (int round = 0; round < 20; ++round) {
+      final AtomicInteger handled = new AtomicInteger(0);
+      final AtomicInteger accepted = new AtomicInteger(0);
+      final RingBufferStage<Integer> stage = new RingBufferStage<>(name.getMethodName(), new EventHandler<Integer>() {
+        @Override
+        public void onNext(final Integer value) {
+          handled.incrementAndGet();
+        }
+      }, 2, 16, RingBufferStage.WaitStrategy.YIELD, null);
+
+      final Thread[] producers = new Thread[4];
+      for (int p = 0; p < producers.length; ++p) {
+        producers[p] = new Thread(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              for (int i = 0; i < 100000; ++i) {
+                stage.onNext(i);
+                accepted.incrementAndGet();
+              }
+            } catch (final WakeRuntimeException e) {
+              // the stage closed
+            }
+          }
+        });
+        producers[p].start();
+      }
+      Thread.sleep(1);
+      stage.close();
+      for (final Thread producer : producers) {
+        producer.join();
+      }
+
+      // every event accepted before the stage closed is handled
+      Assert.assertEquals(accepted.get(), handled.get());
+    }
+  }
+
+  private static void runProducers(final EStage<Integer> stage, final int numProducers, final int numEvents)
+      throws InterruptedException {
+    final Thread[] producers = new Thread[numProducers];
+    for (int p = 0; p < numProducers; ++p) {
+      final int base = p * numEvents;
+      producers[p] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < numEvents; ++i) {
+            stage.onNext(base + i);
+          }
+        }
+      });
+      producers[p].start();
+    }
+    for (final Thread producer : producers) {
+      producer.join();
+    }
+  }
+
+  private static final class CountingEventHandler implements EventHandler<Integer> {
+    private final AtomicIntegerArray counts;
+    private final CountDownLatch latch;
+
+    CountingEventHandler(final int numEvents) {
+      this.counts = new AtomicIntegerArray(numEvents);
+      this.latch = new CountDownLatch(numEvents);
+    }
+
+    @Override
+    public void onNext(final Integer value) {
+      counts.incrementAndGet(value);
+      latch.countDown();
+    }
+
+    boolean await() throws InterruptedException {
+      return latch.await(30, TimeUnit.SECONDS);
+    }
+
+    void assertAllOnce() {
+      for (int i = 0; i < counts.length(); ++i) {
+        Assert.assertEquals("event " + i, 1, counts.get(i));
+      }
+    }
+  }
+}
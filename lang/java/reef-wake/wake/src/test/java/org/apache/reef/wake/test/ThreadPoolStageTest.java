@@ -18,8 +18,13 @@
  */
 package org.apache.reef.wake.test;
 
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+import org.apache.reef.wake.impl.LoggingEventHandler;
 import org.apache.reef.wake.impl.MultiEventHandler;
 import org.apache.reef.wake.impl.SingleThreadStage;
 import org.apache.reef.wake.impl.ThreadPoolStage;
@@ -29,6 +34,10 @@ import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -178,6 +187,211 @@ public class ThreadPoolStageTest {
     System.out.println("2: mean output throughput: " + stage2.getOutMeter().getMeanThp() + " events/sec");
   }
 
+  @Test
+  public void testBoundedThreadPoolStageDrop() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    for (final ThreadPoolStage.OverflowPolicy policy : Arrays.asList(
+        ThreadPoolStage.OverflowPolicy.DROP_NEWEST, ThreadPoolStage.OverflowPolicy.DROP_OLDEST)) {
+      final CountDownLatch release = new CountDownLatch(1);
+      final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+      final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder("bounded",
+          new GatedEventHandler(release, processed), 1).setCapacity(2, policy).build();
+
+      // the first event occupies the thread, two more fill the queue and the rest overflow
+      for (int i = 0; i < 10; ++i) {
+        stage.onNext(i);
+      }
+      release.countDown();
+      while (stage.getActiveCount() > 0) {
+        Thread.sleep(10);
+      }
+      stage.close();
+
+      Assert.assertEquals(7, stage.getRejectMeter().getCount());
+      Assert.assertEquals(3, processed.size());
+      Assert.assertEquals(policy == ThreadPoolStage.OverflowPolicy.DROP_NEWEST ?
+          Arrays.asList(0, 1, 2) : Arrays.asList(0, 8, 9), processed);
+    }
+  }
+
+  @Test
+  public void testBoundedThreadPoolStageBlock() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+    final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder("bounded",
+        new GatedEventHandler(release, processed), 1)
+        .setCapacity(2, ThreadPoolStage.OverflowPolicy.BLOCK)
+        .build();
+
+    final Thread producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < 10; ++i) {
+          stage.onNext(i);
+        }
+      }
+    });
+    producer.start();
+    producer.join(500);
+    Assert.assertTrue("producer should be blocked on the full queue", producer.isAlive());
+
+    release.countDown();
+    producer.join();
+    while (stage.getActiveCount() > 0) {
+      Thread.sleep(10);
+    }
+    stage.close();
+
+    Assert.assertEquals(0, stage.getRejectMeter().getCount());
+    Assert.assertEquals(10, processed.size());
+  }
+
+  @Test
+  public void testBoundedThreadPoolStageOverflowHandler() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+    final List<Integer> overflowed = Collections.synchronizedList(new ArrayList<Integer>());
+
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(StageConfiguration.StageName.class, "bounded")
+        .bindNamedParameter(StageConfiguration.NumberOfThreads.class, "1")
+        .bindNamedParameter(StageConfiguration.Capacity.class, "1")
+        .bindNamedParameter(StageConfiguration.OverflowPolicy.class, "HANDLER")
+        .build());
+    injector.bindVolatileParameter(StageConfiguration.StageHandler.class, new GatedEventHandler(release, processed));
+    injector.bindVolatileParameter(StageConfiguration.OverflowHandler.class, new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        overflowed.add(value);
+      }
+    });
+    injector.bindVolatileParameter(StageConfiguration.ErrorHandler.class, new LoggingEventHandler<Throwable>());
+    final ThreadPoolStage<Integer> stage = injector.getInstance(ThreadPoolStage.class);
+
+    for (int i = 0; i < 5; ++i) {
+      stage.onNext(i);
+    }
+    release.countDown();
+    while (stage.getActiveCount() > 0) {
+      Thread.sleep(10);
+    }
+    stage.close();
+
+    Assert.assertEquals(Arrays.asList(0, 1), processed);
+    Assert.assertEquals(Arrays.asList(2, 3, 4), overflowed);
+    Assert.assertEquals(3, stage.getRejectMeter().getCount());
+  }
+
+  @Test
+  public void testThreadPoolStageHandlerException() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    for (final boolean bounded : new boolean[]{false, true}) {
+      final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+      final CountDownLatch done = new CountDownLatch(10);
+      final EventHandler<Integer> handler = new EventHandler<Integer>() {
+        @Override
+        public void onNext(final Integer value) {
+          threads.add(Thread.currentThread());
+          done.countDown();
+          throw new IllegalStateException("event " + value);
+        }
+      };
+      final ThreadPoolStage.Builder<Integer> builder = ThreadPoolStage.newBuilder("throwing", handler, 1);
+      if (bounded) {
+        builder.setCapacity(16, ThreadPoolStage.OverflowPolicy.BLOCK);
+      }
+      final ThreadPoolStage<Integer> stage = builder.build();
+      for (int i = 0; i < 10; ++i) {
+        stage.onNext(i);
+      }
+      Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+      stage.close();
+
+      // the exceptions are logged, not rethrown, so they do not end the thread of either kind of stage
+      Assert.assertEquals("bounded " + bounded, 1, threads.size());
+    }
+  }
+
+  @Test
+  public void testThreadPoolStageVirtualThreads() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+    final CountDownLatch done = new CountDownLatch(100);
+    final EventHandler<Integer> handler = new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        threads.add(Thread.currentThread());
+        done.countDown();
+      }
+    };
+    final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder("virtual", handler, 4)
+        .setVirtualThreads(true)
+        .build();
+
+    for (int i = 0; i < 100; ++i) {
+      stage.onNext(i);
+    }
+    Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    stage.close();
+
+    // virtual threads are daemon threads; platform threads of the fallback are not
+    final boolean virtual = DefaultThreadFactory.isVirtualThreadSupported();
+    Assert.assertEquals(virtual, new DefaultThreadFactory("virtual", true).isVirtual());
+    // virtual threads are pooled up to the number of threads, too
+    final ThreadPoolExecutor pool = (ThreadPoolExecutor) new DefaultThreadFactory("virtual", true).newThreadPool(4);
+    Assert.assertEquals(4, pool.getMaximumPoolSize());
+    pool.shutdown();
+    for (final Thread thread : threads) {
+      Assert.assertTrue(thread.getName(), thread.getName().startsWith("virtual-pool-"));
+      Assert.assertEquals(virtual, thread.isDaemon());
+    }
+  }
+
+  @Test
+  public void testThreadPoolStageVirtualThreadsSerial() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final AtomicInteger running = new AtomicInteger(0);
+    final AtomicInteger maxRunning = new AtomicInteger(0);
+    final CountDownLatch done = new CountDownLatch(20);
+    final EventHandler<Integer> handler = new EventHandler<Integer>() {
+      @Override
+      public void onNext(final Integer value) {
+        final int now = running.incrementAndGet();
+        int max = maxRunning.get();
+        while (now > max && !maxRunning.compareAndSet(max, now)) {
+          max = maxRunning.get();
+        }
+        try {
+          Thread.sleep(5);
+        } catch (final InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        running.decrementAndGet();
+        done.countDown();
+      }
+    };
+    final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder("virtual-serial", handler, 1)
+        .setVirtualThreads(true)
+        .build();
+
+    for (int i = 0; i < 20; ++i) {
+      stage.onNext(i);
+    }
+    Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+    stage.close();
+
+    // a single thread runs one event at a time, virtual or not
+    Assert.assertEquals(1, maxRunning.get());
+  }
+
   class TestEvent {
   }
 
@@ -223,4 +437,24 @@ public class ThreadPoolStageTest {
     }
   }
 
+  class GatedEventHandler implements EventHandler<Integer> {
+
+    private final CountDownLatch gate;
+    private final List<Integer> processed;
+
+    GatedEventHandler(final CountDownLatch gate, final List<Integer> processed) {
+      this.gate = gate;
+      this.processed = processed;
+    }
+
+    @Override
+    public void onNext(final Integer value) {
+      try {
+        gate.await();
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      processed.add(value);
+    }
+  }
 }
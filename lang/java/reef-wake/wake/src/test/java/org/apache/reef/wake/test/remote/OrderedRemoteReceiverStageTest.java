@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test.remote;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
+import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.remote.impl.ByteCodec;
+import org.apache.reef.wake.remote.impl.OrderedRemoteReceiverStage;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
+import org.apache.reef.wake.remote.impl.RemoteEventCodec;
+import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Tests for OrderedRemoteReceiverStage.
+ */
+public class OrderedRemoteReceiverStageTest {
+
+  @Rule
+  public final TestName name = new TestName();
+
+  private static final String LOG_PREFIX = "TEST ";
+
+  @Test
+  public void testOutOfOrderDelivery() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final int numSources = 8;
+    final int numEvents = 3000; // beyond the ring buffer, so that some events wait in the overflow queue
+    final CountDownLatch latch = new CountDownLatch(numSources * numEvents);
+    final ConcurrentMap<SocketAddress, AtomicInteger> nextExpected = new ConcurrentHashMap<>();
+    final AtomicInteger outOfOrder = new AtomicInteger(0);
+
+    final OrderedRemoteReceiverStage stage = new OrderedRemoteReceiverStage(
+        new EventHandler<RemoteEvent<byte[]>>() {
+          @Override
+          public void onNext(final RemoteEvent<byte[]> value) {
+            final int seq = ByteBuffer.wrap(value.getEvent()).getInt();
+            if (nextExpected.get(value.remoteAddress()).getAndIncrement() != seq) {
+              outOfOrder.incrementAndGet();
+            }
+            latch.countDown();
+          }
+        }, new LoggingEventHandler<Throwable>(), 4);
+
+    final RemoteEventCodec<byte[]> codec = new RemoteEventCodec<>(new ByteCodec());
+    final SocketAddress localAddr = new InetSocketAddress("127.0.0.1", 8000);
+    final ExecutorService senders = Executors.newFixedThreadPool(numSources);
+    for (int i = 0; i < numSources; ++i) {
+      final SocketAddress remoteAddr = new InetSocketAddress("127.0.0.1", 9000 + i);
+      nextExpected.put(remoteAddr, new AtomicInteger(0));
+
+      final List<Integer> seqs = new ArrayList<>(numEvents);
+      for (int seq = 0; seq < numEvents; ++seq) {
+        seqs.add(seq);
+      }
+      Collections.shuffle(seqs, new Random(i));
+
+      senders.submit(new Runnable() {
+        @Override
+        public void run() {
+          for (final int seq : seqs) {
+            final byte[] data = ByteBuffer.allocate(4).putInt(seq).array();
+            stage.onNext(new TransportEvent(
+                codec.encode(new RemoteEvent<>(localAddr, remoteAddr, seq, data)), localAddr, remoteAddr));
+          }
+        }
+      });
+    }
+
+    Assert.assertTrue("events were not delivered", latch.await(30, TimeUnit.SECONDS));
+    senders.shutdown();
+    stage.close();
+
+    Assert.assertEquals(0, outOfOrder.get());
+    Assert.assertEquals(0, stage.getQueueDepth());
+    Assert.assertTrue(stage.getOutOfOrderMeter().getCount() > 0);
+    Assert.assertTrue(stage.getMaxGap() > 0);
+  }
+
+  @Test
+  public void testConnectionClosedAndStageClosed() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final List<Integer> delivered = Collections.synchronizedList(new ArrayList<Integer>());
+    final OrderedRemoteReceiverStage stage = new OrderedRemoteReceiverStage(
+        new EventHandler<RemoteEvent<byte[]>>() {
+          @Override
+          public void onNext(final RemoteEvent<byte[]> value) {
+            delivered.add(ByteBuffer.wrap(value.getEvent()).getInt());
+          }
+        }, new LoggingEventHandler<Throwable>(), 1);
+
+    final RemoteEventCodec<byte[]> codec = new RemoteEventCodec<>(new ByteCodec());
+    final SocketAddress localAddr = new InetSocketAddress("127.0.0.1", 8000);
+    final SocketAddress remoteAddr = new InetSocketAddress("127.0.0.1", 9000);
+    final List<TransportEvent> events = new ArrayList<>();
+    for (int i = 0; i < 3; ++i) {
+      final byte[] data = ByteBuffer.allocate(4).putInt(i).array();
+      events.add(new TransportEvent(
+          codec.encode(new RemoteEvent<>(localAddr, remoteAddr, 0, data)), localAddr, remoteAddr));
+    }
+
+    // a sequence number seen before is a duplicate, until the connection it came from is closed
+    for (int i = 0; i < events.size(); ++i) {
+      if (i == 2) {
+        stage.onConnectionClosed(remoteAddr);
+      }
+      stage.onNext(events.get(i));
+      final long deadline = System.currentTimeMillis() + 10000;
+      while (stage.getQueueDepth() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+    }
+    Assert.assertEquals(Arrays.asList(0, 2), delivered);
+
+    // events arriving after the stage closed are dropped rather than failing the receiving thread
+    stage.close();
+    final byte[] data = ByteBuffer.allocate(4).putInt(3).array();
+    stage.onNext(new TransportEvent(
+        codec.encode(new RemoteEvent<>(localAddr, remoteAddr, 1, data)), localAddr, remoteAddr));
+    Assert.assertEquals(Arrays.asList(0, 2), delivered);
+  }
+}
@@ -217,6 +217,56 @@ public class RemoteManagerTest {
     timer.close();
   }
 
+  @Test
+  public void testRemoteManagerFramedFormatTest() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 2000, 2000);
+
+    final Map<Class<?>, Codec<?>> clazzToCodecMap = new HashMap<>();
+    clazzToCodecMap.put(StartEvent.class, new ObjectSerializableCodec<StartEvent>());
+    clazzToCodecMap.put(TestEvent1.class, new ObjectSerializableCodec<TestEvent1>());
+    clazzToCodecMap.put(TestEvent2.class, new ObjectSerializableCodec<TestEvent2>());
+    final Codec<?> codec = new MultiCodec<Object>(clazzToCodecMap);
+
+    final String hostAddress = localAddressProvider.getLocalAddress();
+
+    final RemoteManagerFactory framedFactory = Tang.Factory.getTang().newInjector(
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindNamedParameter(RemoteConfiguration.RemoteEventFormat.class, "FRAMED")
+            .build())
+        .getInstance(RemoteManagerFactory.class);
+    final RemoteManager rm = framedFactory.getInstance(
+        "name", hostAddress, 0, codec, new LoggingEventHandler<Throwable>(), true, 3, 10000,
+        localAddressProvider, Tang.Factory.getTang().newInjector().getInstance(TcpPortProvider.class));
+
+    final RemoteIdentifier remoteId = rm.getMyIdentifier();
+
+    final EventHandler<StartEvent> proxyConnection = rm.getHandler(remoteId, StartEvent.class);
+    final EventHandler<TestEvent1> proxyHandler1 = rm.getHandler(remoteId, TestEvent1.class);
+    final EventHandler<TestEvent2> proxyHandler2 = rm.getHandler(remoteId, TestEvent2.class);
+
+    final AtomicInteger counter = new AtomicInteger(0);
+    final int finalSize = 2;
+    rm.registerHandler(StartEvent.class, new MessageTypeEventHandler<StartEvent>(rm, monitor, counter, finalSize));
+
+    proxyConnection.onNext(new StartEvent());
+
+    monitor.mwait();
+
+    proxyHandler1.onNext(new TestEvent1("hello1", 0.0));
+    proxyHandler2.onNext(new TestEvent2("hello2", 1.0));
+
+    monitor.mwait();
+
+    Assert.assertEquals(finalSize, counter.get());
+
+    rm.close();
+    timer.close();
+  }
+
   @Test
   public void testRemoteManagerPBufTest() throws Exception {
     System.out.println(LOG_PREFIX + name.getMethodName());
@@ -18,6 +18,8 @@
  */
 package org.apache.reef.wake.test.remote;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
@@ -86,6 +88,67 @@ public class RemoteTest {
     Assert.assertEquals(e1.getEvent().getMessage(), e2.getEvent().getMessage());
   }
 
+  @Test
+  public void testRemoteEventCodecFramed() throws UnknownHostException {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final ObjectSerializableCodec<TestEvent> codec = new ObjectSerializableCodec<>();
+
+    final RemoteEventCodec<TestEvent> framedCodec = new RemoteEventCodec<>(codec, RemoteEventFormat.FRAMED);
+    final RemoteEventCodec<TestEvent> pbufCodec = new RemoteEventCodec<>(codec, RemoteEventFormat.PROTOBUF);
+    final SocketAddress localAddr = new InetSocketAddress(this.localAddressProvider.getLocalAddress(), 8000);
+    final SocketAddress remoteAddr = new InetSocketAddress(this.localAddressProvider.getLocalAddress(), 9000);
+
+    final RemoteEvent<TestEvent> e1 = new RemoteEvent<>(
+        localAddr, remoteAddr, 3, 7, new TestEvent("hello", 0.0));
+
+    // either decoder accepts either format
+    final byte[] framed = framedCodec.encode(e1);
+    final byte[] pbuf = pbufCodec.encode(e1);
+    for (final byte[] data : Arrays.asList(framed, pbuf)) {
+      for (final RemoteEventCodec<TestEvent> reCodec : Arrays.asList(framedCodec, pbufCodec)) {
+        final RemoteEvent<TestEvent> e2 = reCodec.decode(data);
+        Assert.assertEquals(e1.getStreamId(), e2.getStreamId());
+        Assert.assertEquals(e1.getSeq(), e2.getSeq());
+        Assert.assertEquals(e1.getEvent().getMessage(), e2.getEvent().getMessage());
+      }
+    }
+
+    // encoding into a buffer gives the same bytes
+    final ByteBuf buffer = Unpooled.buffer();
+    new RemoteEventEncoder<>(codec, RemoteEventFormat.FRAMED).encode(e1, buffer);
+    final byte[] encoded = new byte[buffer.readableBytes()];
+    buffer.readBytes(encoded);
+    Assert.assertArrayEquals(framed, encoded);
+  }
+
+  @Test
+  public void testTransportEventBuffer() throws UnknownHostException {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final ObjectSerializableCodec<TestEvent> codec = new ObjectSerializableCodec<>();
+    final RemoteEventCodec<TestEvent> reCodec = new RemoteEventCodec<>(codec, RemoteEventFormat.FRAMED);
+    final RemoteEvent<TestEvent> e1 = new RemoteEvent<>(null, null, 11, new TestEvent("hello", 0.0));
+    final byte[] framed = reCodec.encode(e1);
+
+    // a received event is decoded from the direct buffer it arrived in, which is then released
+    final ByteBuf direct = Unpooled.directBuffer(framed.length).writeBytes(framed);
+    final TransportEvent received = new TransportEvent(direct, null, null);
+    final RemoteEvent<TestEvent> e2 = reCodec.decode(received.getBuffer());
+    received.release();
+    Assert.assertEquals(e1.getSeq(), e2.getSeq());
+    Assert.assertEquals(e1.getEvent().getMessage(), e2.getEvent().getMessage());
+    Assert.assertEquals(0, direct.refCnt());
+    received.release();
+
+    // the data can still be read as a byte array, which releases the buffer
+    final ByteBuf copied = Unpooled.directBuffer(framed.length).writeBytes(framed);
+    final TransportEvent read = new TransportEvent(copied, null, null);
+    Assert.assertArrayEquals(framed, read.getData());
+    Assert.assertEquals(0, copied.refCnt());
+    Assert.assertArrayEquals(framed, read.getData());
+  }
+
   @Test
   public void testRandomPort() throws Exception {
     System.out.println(LOG_PREFIX + name.getMethodName());
@@ -188,6 +251,69 @@ public class RemoteTest {
     timer.close();
   }
 
+  @Test
+  public void testOrderedStreamsSharingConnection() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    for (final RemoteEventFormat format : RemoteEventFormat.values()) {
+      final Monitor monitor = new Monitor();
+      final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 5000, 5000);
+
+      final int numStreams = 2;
+      final int numPerStream = 100;
+      final ObjectSerializableCodec<String> codec = new ObjectSerializableCodec<>();
+      final List<String> received = Collections.synchronizedList(new ArrayList<String>());
+      final EventHandler<RemoteEvent<byte[]>> handler = new EventHandler<RemoteEvent<byte[]>>() {
+        @Override
+        public void onNext(final RemoteEvent<byte[]> value) {
+          received.add(codec.decode(value.getEvent()));
+          if (received.size() == numStreams * numPerStream) {
+            monitor.mnotify();
+          }
+        }
+      };
+
+      final OrderedRemoteReceiverStage reRecvStage =
+          new OrderedRemoteReceiverStage(handler, new LoggingEventHandler<Throwable>());
+      final String hostAddress = this.localAddressProvider.getLocalAddress();
+      final Transport transport = tpFactory.newInstance(hostAddress, 0, reRecvStage, reRecvStage, 1, 10000);
+      final RemoteSenderStage reSendStage = new RemoteSenderStage(codec, transport, 10, format, false);
+
+      final RemoteIdentifierFactory factory = new DefaultRemoteIdentifierFactoryImplementation();
+      final RemoteIdentifier myId = factory.getNewInstance("socket://" + hostAddress + ":" + 8000);
+      final RemoteIdentifier remoteId =
+          factory.getNewInstance("socket://" + hostAddress + ":" + transport.getListeningPort());
+
+      // both streams number their events from 0 and travel over the single connection to the receiver
+      final RemoteSeqNumGenerator seqGen = new RemoteSeqNumGenerator();
+      final List<ProxyEventHandler<String>> proxies = new ArrayList<>();
+      for (int stream = 0; stream < numStreams; ++stream) {
+        proxies.add(new ProxyEventHandler<>(myId, remoteId, "recv", reSendStage.<String>getHandler(), seqGen, stream));
+      }
+      for (int i = 0; i < numPerStream; ++i) {
+        for (int stream = 0; stream < numStreams; ++stream) {
+          proxies.get(stream).onNext(stream + ":" + i);
+        }
+      }
+
+      monitor.mwait();
+      reSendStage.close();
+      reRecvStage.close();
+      transport.close();
+      timer.close();
+
+      Assert.assertEquals(format + ": events of a stream were dropped", numStreams * numPerStream, received.size());
+      final int[] next = new int[numStreams];
+      for (final String message : received) {
+        final int separator = message.indexOf(':');
+        final int stream = Integer.parseInt(message.substring(0, separator));
+        Assert.assertEquals(format + ": stream " + stream + " out of order",
+            next[stream]++, Integer.parseInt(message.substring(separator + 1)));
+      }
+    }
+  }
+
   class RemoteEventHandler implements EventHandler<RemoteEvent<byte[]>> {
 
     private final Decoder<Object> decoder;
@@ -24,11 +24,19 @@ import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.impl.LoggingUtils;
 import org.apache.reef.wake.impl.TimerStage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.apache.reef.wake.remote.BufferCodec;
 import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
+import org.apache.reef.wake.remote.impl.ByteCodec;
 import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
 import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.BufferLink;
 import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkListener;
+import org.apache.reef.wake.remote.transport.MultiplexedLink;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
 import org.apache.reef.wake.remote.transport.TransportFactory;
@@ -40,6 +48,12 @@ import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
@@ -125,12 +139,315 @@ public class TransportTest {
     Assert.assertEquals(expected, stage.getCount());
   }
 
+  @Test
+  public void testTransportBufferEncoder() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 2000, 2000);
+
+    final int expected = 3;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    final char[] large = new char[15 * 1024 * 1024];
+    Arrays.fill(large, 'a');
+    final String largeString = new String(large);
+
+    final ReceiverStage<String> stage = new ReceiverStage<>(new StringBufferCodec(), monitor, expected);
+    final Transport transport = tpFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    // sending side: messages are encoded directly into pooled buffers
+    final Link<String> link = transport.open(
+        new InetSocketAddress(hostAddress, port),
+        new StringBufferCodec(),
+        new LoggingLinkListener<String>());
+    link.write("hello1");
+    link.write(largeString);
+    link.write("hello2");
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, stage.getCount());
+    Assert.assertEquals(Arrays.asList("hello1", largeString, "hello2"), stage.getReceived());
+  }
+
+  @Test
+  public void testTransportBufferLink() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 2000, 2000);
+
+    final int expected = 3;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    final ReceiverStage<String> stage = new ReceiverStage<>(new StringBufferCodec(), monitor, expected);
+    final Transport transport = tpFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    // a byte array link also takes messages encoded in place with an encoder given per write
+    final Link<byte[]> link = transport.open(
+        new InetSocketAddress(hostAddress, port),
+        new ByteCodec(),
+        new LoggingLinkListener<byte[]>());
+    Assert.assertTrue(link instanceof BufferLink);
+    final BufferLink bufferLink = (BufferLink) link;
+    bufferLink.write("hello1", new StringBufferCodec(), 0);
+    link.write("hello2".getBytes(StandardCharsets.UTF_8));
+    bufferLink.write("hello3", new StringBufferCodec(), 0);
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, stage.getCount());
+    Assert.assertEquals(Arrays.asList("hello1", "hello2", "hello3"), stage.getReceived());
+  }
+
+  @Test
+  public void testTransportWriteBatching() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 5000, 5000);
+
+    final int expected = 1000;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    final TransportFactory batchingFactory = Tang.Factory.getTang().newInjector(
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindNamedParameter(RemoteConfiguration.WriteBatching.class, "true")
+            .bindNamedParameter(RemoteConfiguration.WriteBatchMaxBytes.class, "4096")
+            .build())
+        .getInstance(TransportFactory.class);
+
+    final ReceiverStage<String> stage =
+        new ReceiverStage<>(new ObjectSerializableCodec<String>(), monitor, expected);
+    final Transport transport = batchingFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    final AtomicInteger delivered = new AtomicInteger(0);
+    final Link<String> link = transport.open(
+        new InetSocketAddress(hostAddress, port),
+        new ObjectSerializableCodec<String>(),
+        new LinkListener<String>() {
+          @Override
+          public void onSuccess(final String message) {
+            delivered.incrementAndGet();
+          }
+
+          @Override
+          public void onException(final Throwable cause, final SocketAddress remoteAddress, final String message) {
+          }
+        });
+    for (int i = 0; i < expected; ++i) {
+      link.write("hello" + i);
+    }
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, stage.getCount());
+    Assert.assertEquals(expected, delivered.get());
+  }
+
+  @Test
+  public void testTransportOptions() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 2000, 2000);
+
+    final int expected = 2;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    // NIO with a single thread per event loop group and small write buffer water marks
+    final TransportFactory smallFactory = Tang.Factory.getTang().newInjector(
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindNamedParameter(RemoteConfiguration.NativeTransport.class, "false")
+            .bindNamedParameter(RemoteConfiguration.ServerBossThreads.class, "1")
+            .bindNamedParameter(RemoteConfiguration.ServerWorkerThreads.class, "1")
+            .bindNamedParameter(RemoteConfiguration.ClientWorkerThreads.class, "1")
+            .bindNamedParameter(RemoteConfiguration.TcpNoDelay.class, "true")
+            .bindNamedParameter(RemoteConfiguration.SendBufferSize.class, "65536")
+            .bindNamedParameter(RemoteConfiguration.WriteBufferHighWaterMark.class, "16384")
+            .bindNamedParameter(RemoteConfiguration.WriteBufferLowWaterMark.class, "8192")
+            .build())
+        .getInstance(TransportFactory.class);
+
+    final ReceiverStage<String> stage =
+        new ReceiverStage<>(new ObjectSerializableCodec<String>(), monitor, expected);
+    final Transport transport = smallFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    final Link<String> link = transport.open(
+        new InetSocketAddress(hostAddress, port),
+        new ObjectSerializableCodec<String>(),
+        new LoggingLinkListener<String>());
+    link.write("hello1");
+    link.write("hello2");
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, stage.getCount());
+  }
+
+  /**
+   * UTF-8 string codec that also writes strings directly into buffers.
+   */
+  static final class StringBufferCodec implements Codec<String>, BufferCodec<String> {
+
+    @Override
+    public byte[] encode(final String obj) {
+      return obj.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String decode(final byte[] buf) {
+      return new String(buf, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void encode(final String obj, final ByteBuf buffer) {
+      for (int i = 0; i < obj.length(); ++i) {
+        buffer.writeByte(obj.charAt(i));
+      }
+    }
+
+    @Override
+    public String decode(final ByteBuf buffer) {
+      return buffer.toString(StandardCharsets.UTF_8);
+    }
+  }
+
+  @Test
+  public void testTransportLinkPool() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 2000, 2000);
+
+    final int numStreams = 8;
+    final int numPerStream = 100;
+    final int numUnordered = 100;
+    final int expected = numStreams * numPerStream + numUnordered;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    // four connections plus a priority connection for messages up to 64 bytes
+    final TransportFactory poolFactory = Tang.Factory.getTang().newInjector(
+        Tang.Factory.getTang().newConfigurationBuilder()
+            .bindNamedParameter(RemoteConfiguration.LinkPoolSize.class, "4")
+            .bindNamedParameter(RemoteConfiguration.LinkPoolSelection.class, "LEAST_PENDING")
+            .bindNamedParameter(RemoteConfiguration.PriorityLaneMaxBytes.class, "64")
+            .build())
+        .getInstance(TransportFactory.class);
+
+    final ReceiverStage<String> stage =
+        new ReceiverStage<>(new ObjectSerializableCodec<String>(), monitor, expected);
+    final Transport transport = poolFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    final Link<String> link = transport.open(
+        new InetSocketAddress(hostAddress, port),
+        new ObjectSerializableCodec<String>(),
+        new LoggingLinkListener<String>());
+    Assert.assertTrue(link instanceof MultiplexedLink);
+    final MultiplexedLink<String> pool = (MultiplexedLink<String>) link;
+    Assert.assertEquals(4, pool.getNumConnections());
+
+    final StringBuilder bulk = new StringBuilder();
+    for (int i = 0; i < 100; ++i) {
+      bulk.append('x');
+    }
+    for (int i = 0; i < numPerStream; ++i) {
+      for (int stream = 0; stream < numStreams; ++stream) {
+        pool.write(stream + ":" + i, stream);
+      }
+      pool.write(i % 2 == 0 ? "p" + i : bulk.toString() + i);
+    }
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, stage.getCount());
+    final int[] next = new int[numStreams];
+    for (final String message : stage.getReceived()) {
+      final int separator = message.indexOf(':');
+      if (separator > 0) {
+        final int stream = Integer.parseInt(message.substring(0, separator));
+        Assert.assertEquals("stream " + stream + " out of order",
+            next[stream]++, Integer.parseInt(message.substring(separator + 1)));
+      }
+    }
+  }
+
+  @Test
+  public void testTransportEventCopy() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 2000, 2000);
+
+    final int expected = 10;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    // a stage that keeps the events without releasing them
+    final List<TransportEvent> events = Collections.synchronizedList(new ArrayList<TransportEvent>());
+    final EStage<TransportEvent> stage = new EStage<TransportEvent>() {
+      @Override
+      public void onNext(final TransportEvent value) {
+        events.add(value);
+        if (events.size() == expected) {
+          monitor.mnotify();
+        }
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    final Transport transport = tpFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final Link<String> link = transport.open(
+        new InetSocketAddress(hostAddress, transport.getListeningPort()),
+        new StringBufferCodec(),
+        new LoggingLinkListener<String>());
+    for (int i = 0; i < expected; ++i) {
+      link.write("hello" + i);
+    }
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, events.size());
+    for (int i = 0; i < expected; ++i) {
+      // the events hold copies, so no pooled buffer of the transport is kept from being recycled
+      final TransportEvent event = events.get(i);
+      Assert.assertFalse(event.getBuffer().alloc() instanceof PooledByteBufAllocator);
+      Assert.assertEquals("hello" + i, new String(event.getData(), StandardCharsets.UTF_8));
+    }
+  }
+
   class ReceiverStage<T> implements EStage<TransportEvent> {
 
     private final Codec<T> codec;
     private final Monitor monitor;
     private final int expected;
     private AtomicInteger count = new AtomicInteger(0);
+    private final List<T> received = Collections.synchronizedList(new ArrayList<T>());
 
     ReceiverStage(final Codec<T> codec, final Monitor monitor, final int expected) {
       this.codec = codec;
@@ -142,9 +459,13 @@ public class TransportTest {
       return count.get();
     }
 
+    List<T> getReceived() {
+      return received;
+    }
+
     @Override
     public void onNext(final TransportEvent value) {
-      codec.decode(value.getData());
+      received.add(codec.decode(value.getData()));
       //System.out.println(value + " " + obj);      
 
       if (count.incrementAndGet() == expected) {